@@ -15,6 +15,7 @@ plugins {
     alias(libs.plugins.spring.dependency.management)
     alias(libs.plugins.spotbugs)
     alias(libs.plugins.pitest)
+    alias(libs.plugins.jmh)
 }
 
 tasks.withType<JavaCompile>().configureEach {
@@ -50,6 +51,7 @@ dependencies {
     implementation(libs.rhino)
     implementation(libs.caffeine)
     implementation(libs.jsoup)
+    implementation(libs.prometheus.metrics.tracer.common)
     runtimeOnly(libs.h2)
     implementation(libs.springdoc.openapi)
 
@@ -308,6 +310,20 @@ tasks.named<com.github.spotbugs.snom.SpotBugsTask>("spotbugsTest") {
     enabled = false
 }
 
+tasks.named<com.github.spotbugs.snom.SpotBugsTask>("spotbugsJmh") {
+    enabled = false
+}
+
+// Benchmarks em src/jmh/java. Execução: ./gradlew :backend:jmh -PjmhIncludes=NomeDoBenchmark
+jmh {
+    jmhVersion.set(libs.versions.jmh.get())
+    warmupIterations.set(3)
+    iterations.set(5)
+    fork.set(1)
+    jvmArgs.addAll(argumentosJvmSemAvisoUnsafe)
+    project.findProperty("jmhIncludes")?.toString()?.let { includes.add(it) }
+}
+
 tasks.register("qualityCheck") {
     group = "quality"
     description = "Runs all backend quality checks (tests, coverage, spotbugs)"
@@ -0,0 +1,64 @@
+package sgc.alerta;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+import org.thymeleaf.context.*;
+import org.thymeleaf.spring6.*;
+import sgc.comum.config.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compara o custo de gerar os e-mails de início de um processo com 500 unidades participantes:
+ * renderização seguida de {@link InlinerCss#inlinar} por mensagem contra renderização com o
+ * {@link DialetoCssInline}, que entrega o HTML já inlinado.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@OperationsPerInvocation(InliningEmailBenchmark.DESTINATARIOS)
+public class InliningEmailBenchmark {
+    static final int DESTINATARIOS = 500;
+    private static final String TEMPLATE = "email-inicio-processo-consolidado";
+
+    private SpringTemplateEngine motorSemInline;
+    private SpringTemplateEngine motorComInline;
+    private List<Context> contextos;
+
+    @Setup
+    public void preparar() {
+        ConfigThymeleaf config = new ConfigThymeleaf();
+        motorComInline = config.springTemplateEngine();
+        motorSemInline = new SpringTemplateEngine();
+        motorSemInline.addTemplateResolver(config.templateResolver());
+
+        contextos = new ArrayList<>(DESTINATARIOS);
+        for (int i = 0; i < DESTINATARIOS; i++) {
+            Context contexto = new Context();
+            contexto.setVariable("titulo", "SGC: Início de processo de mapeamento de competências");
+            contexto.setVariable("siglaUnidade", "UNID" + i);
+            contexto.setVariable("nomeProcesso", "Mapeamento 2026");
+            contexto.setVariable("dataLimite", "30/04/2026");
+            contexto.setVariable("tipoProcesso", "MAPEAMENTO");
+            contexto.setVariable("isParticipante", true);
+            contexto.setVariable("siglasSubordinadas", i % 10 == 0 ? List.of("SUB" + i, "SUB" + (i + 1)) : List.of());
+            contexto.setVariable("hasSubordinadas", i % 10 == 0);
+            contextos.add(contexto);
+        }
+    }
+
+    @Benchmark
+    public void renderizarEInlinarPorMensagem(Blackhole blackhole) {
+        for (Context contexto : contextos) {
+            blackhole.consume(InlinerCss.inlinar(motorSemInline.process(TEMPLATE, contexto)));
+        }
+    }
+
+    @Benchmark
+    public void renderizarComInlineNoTemplate(Blackhole blackhole) {
+        for (Context contexto : contextos) {
+            blackhole.consume(motorComInline.process(TEMPLATE, contexto));
+        }
+    }
+}
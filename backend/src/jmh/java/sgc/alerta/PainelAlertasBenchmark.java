@@ -0,0 +1,210 @@
+package sgc.alerta;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+
+import java.sql.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compara, sobre 100 mil alertas num H2 em memória, a carga dos alertas do painel da gestão feita antes
+ * (página por OFFSET com DISTINCT, COUNT e segunda ida ao banco para as leituras do usuário) com a
+ * consulta de leitura do painel (projeção com a leitura em LEFT JOIN e cursor em (data_hora, codigo)).
+ *
+ * <p>O SQL reproduz o que o Hibernate gera para as consultas do {@code AlertaRepo}, com os índices do
+ * {@code schema.sql}.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+public class PainelAlertasBenchmark {
+    static final int ALERTAS = 100_000;
+    private static final int UNIDADES = 200;
+    private static final int PAGINA = 200;
+    private static final long UNIDADE_ATIVA = 7;
+    private static final String USUARIO = "000000000007";
+
+    private static final String ONDE_GESTAO = """
+             where a.usuario_destino_titulo = ?
+                or (a.unidade_destino_codigo = ? and a.usuario_destino_titulo is null)
+            """;
+
+    private static final String PAGINA_POR_OFFSET = """
+            select distinct a.codigo, a.data_hora, a.descricao, p.codigo, p.descricao, p.situacao, o.sigla, d.sigla
+              from alerta a
+              left join processo p on p.codigo = a.processo_codigo
+              left join unidade o on o.codigo = a.unidade_origem_codigo
+              left join unidade d on d.codigo = a.unidade_destino_codigo
+            """ + ONDE_GESTAO + """
+             order by a.data_hora desc
+             offset ? rows fetch next ? rows only
+            """;
+
+    private static final String CONTAGEM = "select count(a.codigo) from alerta a" + ONDE_GESTAO;
+
+    private static final String PAGINA_POR_CURSOR = """
+            select a.codigo, a.data_hora, p.codigo, p.descricao, p.situacao, o.sigla, d.sigla, a.descricao,
+                   au.data_hora_leitura
+              from alerta a
+              join unidade o on o.codigo = a.unidade_origem_codigo
+              left join processo p on p.codigo = a.processo_codigo
+              left join unidade d on d.codigo = a.unidade_destino_codigo
+              left join alerta_usuario au on au.alerta_codigo = a.codigo and au.usuario_titulo = ?
+             where (a.usuario_destino_titulo = ?
+                    or (a.unidade_destino_codigo = ? and a.usuario_destino_titulo is null))
+               and (a.data_hora < ? or (a.data_hora = ? and a.codigo < ?))
+             order by a.data_hora desc, a.codigo desc
+             fetch first ? rows only
+            """;
+
+    private Connection conexao;
+
+    @Setup
+    public void preparar() throws SQLException {
+        conexao = DriverManager.getConnection("jdbc:h2:mem:painel-alertas;DB_CLOSE_DELAY=-1");
+        try (Statement ddl = conexao.createStatement()) {
+            ddl.execute("create table unidade (codigo bigint primary key, sigla varchar(20) not null)");
+            ddl.execute("create table processo (codigo bigint primary key, descricao varchar(255), situacao varchar(20))");
+            ddl.execute("""
+                    create table alerta (
+                        codigo bigint primary key,
+                        processo_codigo bigint,
+                        data_hora timestamp not null,
+                        unidade_origem_codigo bigint not null,
+                        unidade_destino_codigo bigint,
+                        usuario_destino_titulo varchar(12),
+                        descricao varchar(255) not null)
+                    """);
+            ddl.execute("""
+                    create table alerta_usuario (
+                        alerta_codigo bigint not null,
+                        usuario_titulo varchar(12) not null,
+                        data_hora_leitura timestamp,
+                        primary key (alerta_codigo, usuario_titulo))
+                    """);
+            ddl.execute("create index idx_alerta_destino_data on alerta (unidade_destino_codigo, usuario_destino_titulo, data_hora)");
+            ddl.execute("create index idx_alerta_usuario_destino_data on alerta (usuario_destino_titulo, data_hora)");
+        }
+        popular();
+    }
+
+    private void popular() throws SQLException {
+        conexao.setAutoCommit(false);
+        try (PreparedStatement unidade = conexao.prepareStatement("insert into unidade values (?, ?)");
+             PreparedStatement processo = conexao.prepareStatement("insert into processo values (?, ?, ?)")) {
+            for (long codigo = 1; codigo <= UNIDADES; codigo++) {
+                unidade.setLong(1, codigo);
+                unidade.setString(2, "UNID" + codigo);
+                unidade.addBatch();
+            }
+            unidade.executeBatch();
+            for (long codigo = 1; codigo <= 50; codigo++) {
+                processo.setLong(1, codigo);
+                processo.setString(2, "Processo " + codigo);
+                processo.setString(3, codigo % 5 == 0 ? "FINALIZADO" : "EM_ANDAMENTO");
+                processo.addBatch();
+            }
+            processo.executeBatch();
+        }
+
+        Random aleatorio = new Random(42);
+        LocalDateTime inicio = LocalDateTime.of(2020, 1, 1, 0, 0);
+        try (PreparedStatement alerta = conexao.prepareStatement("insert into alerta values (?, ?, ?, ?, ?, ?, ?)");
+             PreparedStatement leitura = conexao.prepareStatement("insert into alerta_usuario values (?, ?, ?)")) {
+            for (long codigo = 1; codigo <= ALERTAS; codigo++) {
+                boolean pessoal = codigo % 20 == 0;
+                LocalDateTime dataHora = inicio.plusMinutes(codigo * 15 + aleatorio.nextInt(10));
+                alerta.setLong(1, codigo);
+                alerta.setLong(2, 1 + codigo % 50);
+                alerta.setTimestamp(3, Timestamp.valueOf(dataHora));
+                alerta.setLong(4, 1);
+                alerta.setLong(5, 1 + aleatorio.nextInt(UNIDADES));
+                alerta.setString(6, pessoal ? "%012d".formatted(1 + aleatorio.nextInt(UNIDADES)) : null);
+                alerta.setString(7, "Alerta " + codigo);
+                alerta.addBatch();
+                if (codigo % 3 == 0) {
+                    leitura.setLong(1, codigo);
+                    leitura.setString(2, USUARIO);
+                    leitura.setTimestamp(3, Timestamp.valueOf(dataHora.plusHours(1)));
+                    leitura.addBatch();
+                }
+                if (codigo % 5_000 == 0) {
+                    alerta.executeBatch();
+                    leitura.executeBatch();
+                }
+            }
+            alerta.executeBatch();
+            leitura.executeBatch();
+        }
+        conexao.commit();
+        conexao.setAutoCommit(true);
+    }
+
+    @TearDown
+    public void encerrar() throws SQLException {
+        conexao.close();
+    }
+
+    @Benchmark
+    public void paginaPorOffsetComContagemELeituras(Blackhole blackhole) throws SQLException {
+        List<Long> codigos = new ArrayList<>(PAGINA);
+        try (PreparedStatement pagina = conexao.prepareStatement(PAGINA_POR_OFFSET)) {
+            pagina.setString(1, USUARIO);
+            pagina.setLong(2, UNIDADE_ATIVA);
+            pagina.setInt(3, 0);
+            pagina.setInt(4, PAGINA);
+            try (ResultSet rs = pagina.executeQuery()) {
+                while (rs.next()) {
+                    codigos.add(rs.getLong(1));
+                    blackhole.consume(rs.getString(8));
+                }
+            }
+        }
+        try (PreparedStatement contagem = conexao.prepareStatement(CONTAGEM)) {
+            contagem.setString(1, USUARIO);
+            contagem.setLong(2, UNIDADE_ATIVA);
+            try (ResultSet rs = contagem.executeQuery()) {
+                rs.next();
+                blackhole.consume(rs.getLong(1));
+            }
+        }
+        if (codigos.isEmpty()) return;
+
+        String marcadores = String.join(", ", Collections.nCopies(codigos.size(), "?"));
+        try (PreparedStatement leituras = conexao.prepareStatement(
+                "select alerta_codigo, data_hora_leitura from alerta_usuario where usuario_titulo = ? and alerta_codigo in ("
+                        + marcadores + ")")) {
+            leituras.setString(1, USUARIO);
+            for (int i = 0; i < codigos.size(); i++) {
+                leituras.setLong(i + 2, codigos.get(i));
+            }
+            try (ResultSet rs = leituras.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getTimestamp(2));
+                }
+            }
+        }
+    }
+
+    @Benchmark
+    public void paginaPorCursorComLeituraNaProjecao(Blackhole blackhole) throws SQLException {
+        LocalDateTime inicio = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
+        try (PreparedStatement pagina = conexao.prepareStatement(PAGINA_POR_CURSOR)) {
+            pagina.setString(1, USUARIO);
+            pagina.setString(2, USUARIO);
+            pagina.setLong(3, UNIDADE_ATIVA);
+            pagina.setTimestamp(4, Timestamp.valueOf(inicio));
+            pagina.setTimestamp(5, Timestamp.valueOf(inicio));
+            pagina.setLong(6, Long.MAX_VALUE);
+            pagina.setInt(7, PAGINA);
+            try (ResultSet rs = pagina.executeQuery()) {
+                while (rs.next()) {
+                    blackhole.consume(rs.getString(7));
+                    blackhole.consume(rs.getTimestamp(9));
+                }
+            }
+        }
+    }
+}
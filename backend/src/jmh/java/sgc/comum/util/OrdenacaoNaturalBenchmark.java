@@ -0,0 +1,71 @@
+package sgc.comum.util;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.text.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.function.*;
+
+/**
+ * Ordena um conjunto de siglas do tamanho da estrutura organizacional completa: comparação que
+ * cria um {@link Collator} e separa os segmentos a cada chamada, como era feito no relatório de
+ * unidades sem mapa vigente, contra {@link OrdenacaoNatural#ordenar}, que calcula cada chave uma vez.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OrdenacaoNaturalBenchmark {
+    private static final String[] PREFIXOS = {"SEC", "COORD", "SEÇÃO", "ASSESSORIA", "NÚCLEO", "DIRETORIA"};
+
+    @Param({"1200"})
+    private int unidades;
+
+    private List<String> siglas;
+
+    @Setup
+    public void preparar() {
+        Random aleatorio = new Random(42);
+        siglas = new ArrayList<>(unidades);
+        for (int i = 0; i < unidades; i++) {
+            siglas.add(i % 3 == 0
+                    ? "ZE " + (i / 3 + 1)
+                    : PREFIXOS[aleatorio.nextInt(PREFIXOS.length)] + " " + aleatorio.nextInt(200) + " " + (char) ('A' + i % 26));
+        }
+        Collections.shuffle(siglas, aleatorio);
+    }
+
+    @Benchmark
+    public List<String> collatorPorComparacao() {
+        List<String> copia = new ArrayList<>(siglas);
+        copia.sort(OrdenacaoNaturalBenchmark::compararCriandoCollator);
+        return copia;
+    }
+
+    @Benchmark
+    public List<String> chavesPreCalculadas() {
+        return OrdenacaoNatural.ordenados(siglas, Function.identity());
+    }
+
+    private static int compararCriandoCollator(String a, String b) {
+        List<String> partesA = OrdenacaoNatural.separarSegmentos(a);
+        List<String> partesB = OrdenacaoNatural.separarSegmentos(b);
+        int limite = Math.min(partesA.size(), partesB.size());
+        for (int i = 0; i < limite; i++) {
+            String segmentoA = partesA.get(i);
+            String segmentoB = partesB.get(i);
+            int comparacao;
+            if (segmentoA.chars().allMatch(Character::isDigit) && segmentoB.chars().allMatch(Character::isDigit)) {
+                comparacao = Integer.compare(Integer.parseInt(segmentoA), Integer.parseInt(segmentoB));
+            } else {
+                Collator collator = Collator.getInstance(Locale.forLanguageTag("pt-BR"));
+                collator.setStrength(Collator.PRIMARY);
+                comparacao = collator.compare(segmentoA, segmentoB);
+            }
+            if (comparacao != 0) {
+                return comparacao;
+            }
+        }
+        return Integer.compare(partesA.size(), partesB.size());
+    }
+}
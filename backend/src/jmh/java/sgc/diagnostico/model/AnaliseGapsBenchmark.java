@@ -0,0 +1,126 @@
+package sgc.diagnostico.model;
+
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.infra.*;
+import sgc.organizacao.model.*;
+
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Compara, sobre 50 mil avaliações de um processo de diagnóstico, a análise de gaps da subárvore de uma unidade
+ * feita sobre a lista de linhas (filtro por {@link IndiceHierarquia#isSubordinada} e agrupamento em mapas) com
+ * a varredura de faixa contígua de {@link ColunasAvaliacaoDiagnostico}, contando ou não a montagem das colunas.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class AnaliseGapsBenchmark {
+    private static final int AVALIACOES = 50_000;
+    private static final int SECRETARIAS = 8;
+    private static final int COORDENADORIAS_POR_SECRETARIA = 6;
+    private static final int SECOES_POR_COORDENADORIA = 10;
+    private static final int COMPETENCIAS = 25;
+    private static final int LIMITE = 10;
+    private static final long SECRETARIA_ANALISADA = 2;
+    private static final ValorSituacaoCapacitacao[] SITUACOES = ValorSituacaoCapacitacao.values();
+
+    private IndiceHierarquia indice;
+    private List<AvaliacaoAnaliseLeitura> linhas;
+    private ColunasAvaliacaoDiagnostico colunas;
+
+    @Setup
+    public void preparar() {
+        List<UnidadeHierarquiaLeitura> unidades = new ArrayList<>();
+        List<Long> secoes = new ArrayList<>();
+        unidades.add(unidade(0L, null));
+        long proximo = SECRETARIAS + 1;
+        for (long secretaria = 1; secretaria <= SECRETARIAS; secretaria++) {
+            unidades.add(unidade(secretaria, 0L));
+            for (int c = 0; c < COORDENADORIAS_POR_SECRETARIA; c++) {
+                long coordenadoria = proximo++;
+                unidades.add(unidade(coordenadoria, secretaria));
+                for (int s = 0; s < SECOES_POR_COORDENADORIA; s++) {
+                    long secao = proximo++;
+                    unidades.add(unidade(secao, coordenadoria));
+                    secoes.add(secao);
+                }
+            }
+        }
+        Collections.shuffle(unidades, new Random(7));
+        indice = IndiceHierarquia.construir(unidades);
+
+        Random aleatorio = new Random(42);
+        linhas = new ArrayList<>(AVALIACOES);
+        for (int i = 0; i < AVALIACOES; i++) {
+            int importancia = 1 + aleatorio.nextInt(6);
+            int dominio = 1 + aleatorio.nextInt(6);
+            boolean avaliada = aleatorio.nextInt(10) > 0;
+            linhas.add(new AvaliacaoAnaliseLeitura(
+                    secoes.get(aleatorio.nextInt(secoes.size())),
+                    "Competência " + aleatorio.nextInt(COMPETENCIAS),
+                    avaliada ? importancia : null,
+                    avaliada ? dominio : null,
+                    avaliada ? importancia - dominio : null,
+                    avaliada ? SITUACOES[aleatorio.nextInt(SITUACOES.length)] : null));
+        }
+        colunas = ColunasAvaliacaoDiagnostico.construir(linhas, indice);
+    }
+
+    @Benchmark
+    public void agrupamentoSobreLista(Blackhole blackhole) {
+        Map<String, long[]> porCompetencia = new HashMap<>();
+        Map<Long, Map<String, long[]>> porUnidade = new HashMap<>();
+        for (AvaliacaoAnaliseLeitura linha : linhas) {
+            Long unidade = linha.unidadeCodigo();
+            if (unidade != SECRETARIA_ANALISADA && !indice.isSubordinada(unidade, SECRETARIA_ANALISADA)) {
+                continue;
+            }
+            long[] totais = porCompetencia.computeIfAbsent(linha.competenciaDescricao(), d -> new long[2 + SITUACOES.length]);
+            if (linha.gap() != null) {
+                totais[0] += linha.gap();
+                totais[1]++;
+                long[] daUnidade = porUnidade.computeIfAbsent(unidade, u -> new HashMap<>())
+                        .computeIfAbsent(linha.competenciaDescricao(), d -> new long[2]);
+                daUnidade[0] += linha.gap();
+                daUnidade[1]++;
+            }
+            if (linha.situacaoCapacitacao() != null) {
+                totais[2 + linha.situacaoCapacitacao().ordinal()]++;
+            }
+        }
+
+        List<Map.Entry<String, Double>> medias = new ArrayList<>();
+        porUnidade.forEach((unidade, competencias) -> competencias.forEach((descricao, soma) ->
+                medias.add(Map.entry(unidade + "|" + descricao, (double) soma[0] / soma[1]))));
+        medias.sort(Map.Entry.<String, Double>comparingByValue().reversed());
+        blackhole.consume(porCompetencia);
+        blackhole.consume(medias.subList(0, Math.min(LIMITE, medias.size())));
+    }
+
+    @Benchmark
+    public void faixaNasColunas(Blackhole blackhole) {
+        ColunasAvaliacaoDiagnostico.Faixa faixa = colunas.subarvore(SECRETARIA_ANALISADA);
+        blackhole.consume(colunas.totalizarPorCompetencia(faixa));
+        blackhole.consume(colunas.maioresGaps(faixa, LIMITE));
+    }
+
+    @Benchmark
+    public void montagemEFaixaNasColunas(Blackhole blackhole) {
+        ColunasAvaliacaoDiagnostico montadas = ColunasAvaliacaoDiagnostico.construir(linhas, indice);
+        ColunasAvaliacaoDiagnostico.Faixa faixa = montadas.subarvore(SECRETARIA_ANALISADA);
+        blackhole.consume(montadas.totalizarPorCompetencia(faixa));
+        blackhole.consume(montadas.maioresGaps(faixa, LIMITE));
+    }
+
+    private static UnidadeHierarquiaLeitura unidade(Long codigo, Long codigoPai) {
+        return UnidadeHierarquiaLeitura.builder()
+                .codigo(codigo)
+                .nome("Unidade " + codigo)
+                .sigla("U" + codigo)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .unidadeSuperiorCodigo(codigoPai)
+                .build();
+    }
+}
@@ -2,10 +2,13 @@ package sgc.alerta;
 
 import lombok.*;
 import lombok.extern.slf4j.*;
+import org.jspecify.annotations.*;
 import org.springframework.dao.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
+import org.springframework.transaction.support.*;
+import sgc.alerta.dto.*;
 import sgc.alerta.model.*;
 import sgc.comum.util.*;
 import sgc.configuracoes.*;
@@ -22,13 +25,17 @@ import java.util.*;
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class AlertaAplicacaoService {
+    static final String EVENTO_ALERTA_CRIADO = "alerta-criado";
     private static final String SIGLA_UNIDADE_ADMIN = "ADMIN";
+    private static final LocalDateTime INICIO_PAINEL = LocalDateTime.of(9999, 12, 31, 23, 59, 59);
 
     private final AlertaService alertaService;
     private final UsuarioService usuarioService;
     private final UnidadeService unidadeService;
     private final UnidadeHierarquiaService unidadeHierarquiaService;
     private final ConfiguracaoService configuracaoService;
+    private final RegistroSseEmitter registroSseEmitter;
+    private final AlertaDtoMapper alertaDtoMapper;
 
     private Unidade unidadeRaiz() {
         return unidadeService.buscarPorCodigo(1L);
@@ -60,6 +67,36 @@ public class AlertaAplicacaoService {
         return alertas;
     }
 
+    /**
+     * Alertas do painel em ordem decrescente de (dataHora, codigo), com a leitura do usuário já resolvida.
+     *
+     * <p>Sem cursor, começa pelo alerta mais recente; com cursor, continua depois do alerta
+     * ({@code antesDeDataHora}, {@code antesDeCodigo}) recebido por último. O prazo de leitura automática
+     * é lido uma única vez por página.
+     */
+    public List<AlertaPainelQuery> listarParaPainel(ContextoUsuarioAutenticado contextoUsuario,
+                                                    @Nullable LocalDateTime antesDeDataHora,
+                                                    @Nullable Long antesDeCodigo,
+                                                    int limite) {
+        LocalDateTime cursorDataHora = antesDeDataHora != null ? antesDeDataHora : INICIO_PAINEL;
+        Long cursorCodigo = antesDeCodigo != null ? antesDeCodigo : Long.MAX_VALUE;
+        String usuarioTitulo = contextoUsuario.usuarioTitulo();
+
+        List<AlertaPainelQuery> alertas = contextoUsuario.perfil() == Perfil.SERVIDOR
+                ? alertaService.listarPainelParaServidor(usuarioTitulo, cursorDataHora, cursorCodigo, limite)
+                : alertaService.listarPainelParaGestao(
+                contextoUsuario.unidadeAtivaCodigo(), usuarioTitulo, cursorDataHora, cursorCodigo, limite);
+        if (alertas.isEmpty()) return alertas;
+
+        int diasAlertaNovo = configuracaoService.buscarDiasAlertaNovo();
+        LocalDateTime corteLeituraAutomatica = LocalDateTime.now().minusDays(diasAlertaNovo);
+        return alertas.stream()
+                .map(alerta -> alerta.dataHoraLeitura() == null && alerta.dataHora().isBefore(corteLeituraAutomatica)
+                        ? alerta.comDataHoraLeitura(alerta.dataHora().plusDays(diasAlertaNovo))
+                        : alerta)
+                .toList();
+    }
+
     public void aplicarPrazoConfiguradoLeituraAutomatica(Collection<Alerta> alertas) {
         int diasAlertaNovo = configuracaoService.buscarDiasAlertaNovo();
         LocalDateTime corteLeituraAutomatica = LocalDateTime.now().minusDays(diasAlertaNovo);
@@ -134,7 +171,7 @@ public class AlertaAplicacaoService {
                 .usuarioDestinoTitulo(usuarioTitulo)
                 .descricao(descricao)
                 .build();
-        return alertaService.salvar(alerta);
+        return publicarAposCommit(alertaService.salvar(alerta));
     }
 
     @Transactional
@@ -147,7 +184,7 @@ public class AlertaAplicacaoService {
                 .usuarioDestinoTitulo(usuarioTitulo)
                 .descricao(descricao)
                 .build();
-        return alertaService.salvar(alerta);
+        return publicarAposCommit(alertaService.salvar(alerta));
     }
 
     @Transactional
@@ -202,7 +239,9 @@ public class AlertaAplicacaoService {
                     unidadeDestino, "Início do processo em unidade(s) subordinada(s)"));
         }
 
-        return alertaService.salvarTodos(alertasCriados);
+        List<Alerta> alertasSalvos = alertaService.salvarTodos(alertasCriados);
+        alertasSalvos.forEach(this::publicarAposCommit);
+        return alertasSalvos;
     }
 
     @Transactional
@@ -214,7 +253,40 @@ public class AlertaAplicacaoService {
     private Alerta criarAlerta(Processo processo, Unidade origem, Unidade destino, String descricao) {
         Alerta alerta = criarAlertaEntidade(processo, origem, destino, descricao);
 
-        return alertaService.salvar(alerta);
+        return publicarAposCommit(alertaService.salvar(alerta));
+    }
+
+    /**
+     * Envia o alerta, após o commit, aos clientes SSE que o veem no painel: o usuário destinatário, no alerta
+     * pessoal, ou os perfis de gestão com a unidade de destino ativa.
+     *
+     * <p>O DTO é montado ainda dentro da transação, enquanto processo e unidades estão acessíveis.
+     */
+    private Alerta publicarAposCommit(Alerta alerta) {
+        AlertaDto dto = alertaDtoMapper.paraAlertaDto(alerta);
+        String usuarioDestinoTitulo = alerta.getUsuarioDestinoTitulo();
+        Unidade unidadeDestino = alerta.getUnidadeDestino();
+        Runnable publicar;
+        if (usuarioDestinoTitulo != null) {
+            publicar = () -> registroSseEmitter.transmitirParaUsuario(usuarioDestinoTitulo, EVENTO_ALERTA_CRIADO, dto);
+        } else if (unidadeDestino != null) {
+            Long codUnidadeDestino = unidadeDestino.getCodigo();
+            publicar = () -> registroSseEmitter.transmitirParaUnidade(codUnidadeDestino, EVENTO_ALERTA_CRIADO, dto);
+        } else {
+            return alerta;
+        }
+
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            publicar.run();
+            return alerta;
+        }
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                publicar.run();
+            }
+        });
+        return alerta;
     }
 
     private Alerta criarAlertaEntidade(Processo processo, Unidade origem, Unidade destino, String descricao) {
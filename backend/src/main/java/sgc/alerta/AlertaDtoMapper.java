@@ -13,8 +13,7 @@ public class AlertaDtoMapper {
     public AlertaDto paraAlertaDto(Alerta alerta) {
         boolean processoFinalizado = alerta.getProcesso() != null
                 && alerta.getProcesso().getSituacao() == SituacaoProcesso.FINALIZADO;
-        boolean alertaFinalizacaoProcesso = DESCRICAO_PROCESSO_FINALIZADO.equals(alerta.getDescricao())
-                || DESCRICAO_PROCESSO_FINALIZADO_SUBORDINADAS.equals(alerta.getDescricao());
+        boolean alertaFinalizacaoProcesso = isAlertaFinalizacaoProcesso(alerta.getDescricao());
 
         return AlertaDto.builder()
                 .codigo(alerta.getCodigo())
@@ -31,6 +30,27 @@ public class AlertaDtoMapper {
                 .build();
     }
 
+    public AlertaDto paraAlertaDto(AlertaPainelQuery alerta) {
+        return AlertaDto.builder()
+                .codigo(alerta.codigo())
+                .codProcesso(alerta.codProcesso())
+                .processo(alerta.processoDescricao())
+                .origem(alerta.origemSigla())
+                .unidadeDestino(alerta.destinoSigla())
+                .descricao(alerta.descricao())
+                .mensagem(alerta.descricao())
+                .processoFinalizado(alerta.situacaoProcesso() == SituacaoProcesso.FINALIZADO)
+                .alertaFinalizacaoProcesso(isAlertaFinalizacaoProcesso(alerta.descricao()))
+                .dataHora(alerta.dataHora())
+                .dataHoraLeitura(alerta.dataHoraLeitura())
+                .build();
+    }
+
+    private boolean isAlertaFinalizacaoProcesso(String descricao) {
+        return DESCRICAO_PROCESSO_FINALIZADO.equals(descricao)
+                || DESCRICAO_PROCESSO_FINALIZADO_SUBORDINADAS.equals(descricao);
+    }
+
     public NotificacaoDto paraNotificacaoDto(NotificacaoEmail notificacao) {
         Long subprocessoCodigo = notificacao.getSubprocesso() != null ? notificacao.getSubprocesso().getCodigo() : null;
         Processo processo = notificacao.getSubprocesso() != null
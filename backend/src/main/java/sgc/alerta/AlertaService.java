@@ -4,6 +4,7 @@ import lombok.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
+import sgc.alerta.dto.*;
 import sgc.alerta.model.*;
 
 import java.time.*;
@@ -52,6 +53,17 @@ public class AlertaService {
         return alertaRepo.buscarAlertasDaGestao(codigoUnidade, usuarioTitulo, pageable);
     }
 
+    public List<AlertaPainelQuery> listarPainelParaServidor(
+            String usuarioTitulo, LocalDateTime antesDeDataHora, Long antesDeCodigo, int limite) {
+        return alertaRepo.listarPainelDoUsuario(usuarioTitulo, antesDeDataHora, antesDeCodigo, PageRequest.of(0, limite));
+    }
+
+    public List<AlertaPainelQuery> listarPainelParaGestao(
+            Long codigoUnidade, String usuarioTitulo, LocalDateTime antesDeDataHora, Long antesDeCodigo, int limite) {
+        return alertaRepo.listarPainelDaGestao(
+                codigoUnidade, usuarioTitulo, antesDeDataHora, antesDeCodigo, PageRequest.of(0, limite));
+    }
+
     public Optional<AlertaUsuario> alertaUsuario(AlertaUsuario.Chave chave) {
         return alertaUsuarioRepo.findById(chave);
     }
@@ -0,0 +1,28 @@
+package sgc.alerta;
+
+import org.thymeleaf.dialect.*;
+import org.thymeleaf.postprocessor.*;
+import org.thymeleaf.templatemode.*;
+
+import java.util.*;
+
+/**
+ * Registra o {@link ManipuladorCssInline} como pós-processador dos templates HTML.
+ */
+public class DialetoCssInline extends AbstractDialect implements IPostProcessorDialect {
+    private static final int PRECEDENCIA = 1000;
+
+    public DialetoCssInline() {
+        super("sgc-css-inline");
+    }
+
+    @Override
+    public int getDialectPostProcessorPrecedence() {
+        return PRECEDENCIA;
+    }
+
+    @Override
+    public Set<IPostProcessor> getPostProcessors() {
+        return Set.of(new PostProcessor(TemplateMode.HTML, ManipuladorCssInline.class, PRECEDENCIA));
+    }
+}
@@ -4,11 +4,13 @@ import jakarta.mail.*;
 import jakarta.mail.internet.*;
 import lombok.extern.slf4j.*;
 import org.springframework.beans.factory.annotation.*;
+import org.springframework.mail.*;
 import org.springframework.mail.javamail.*;
 import org.springframework.stereotype.Service;
 import sgc.comum.config.*;
 
 import java.io.*;
+import java.util.*;
 import java.util.regex.*;
 
 @Service
@@ -35,8 +37,65 @@ public class EmailService {
         processarEnvioEmail(para, assunto, corpo, false);
     }
 
+    /**
+     * Envia HTML como recebido. Os templates de e-mail já saem com o CSS inlinado pelo {@link DialetoCssInline};
+     * HTML montado de outra forma deve passar por {@link InlinerCss#inlinar} antes.
+     */
     public void enviarEmailHtml(String para, String assunto, String corpoHtml) {
-        processarEnvioEmail(para, assunto, InlinerCss.inlinar(corpoHtml), true);
+        processarEnvioEmail(para, assunto, corpoHtml, true);
+    }
+
+    /**
+     * Envia várias mensagens HTML pela mesma conexão SMTP.
+     *
+     * @return falhas indexadas pela posição da mensagem na lista; mensagens ausentes do mapa foram enviadas
+     * ou descartadas (endereço inválido ou modo mock), como em {@link #enviarEmailHtml}.
+     */
+    public Map<Integer, Exception> enviarEmailsHtml(List<MensagemEmailHtml> mensagens) {
+        Map<Integer, Exception> falhas = new HashMap<>();
+        Map<MimeMessage, Integer> posicoes = new LinkedHashMap<>();
+        for (int i = 0; i < mensagens.size(); i++) {
+            MensagemEmailHtml mensagem = mensagens.get(i);
+            String para = mensagem.destinatario();
+            if (!isEmailValido(para)) {
+                log.error("Endereço de e-mail inválido, envio cancelado: {}", para);
+                continue;
+            }
+            String corpo = mensagem.corpoHtml();
+            if (modoMockAtivo()) {
+                registrarEmailMockado(para, mensagem.assunto(), corpo, true);
+                continue;
+            }
+            try {
+                posicoes.put(criarMensagem(para, mensagem.assunto(), corpo, true), i);
+            } catch (ErroEnvioEmail e) {
+                falhas.put(i, e);
+            }
+        }
+        if (!posicoes.isEmpty()) {
+            enviarMensagensSmtp(posicoes, falhas);
+        }
+        return falhas;
+    }
+
+    private void enviarMensagensSmtp(Map<MimeMessage, Integer> posicoes, Map<Integer, Exception> falhas) {
+        try {
+            enviadorEmail.send(posicoes.keySet().toArray(MimeMessage[]::new));
+        } catch (MailSendException e) {
+            Map<Object, Exception> falhasPorMensagem = e.getFailedMessages();
+            if (falhasPorMensagem.isEmpty()) {
+                posicoes.values().forEach(posicao -> falhas.put(posicao, e));
+                return;
+            }
+            falhasPorMensagem.forEach((mensagem, erro) -> {
+                Integer posicao = posicoes.get(mensagem);
+                if (posicao != null) {
+                    falhas.put(posicao, erro);
+                }
+            });
+        } catch (MailException e) {
+            posicoes.values().forEach(posicao -> falhas.put(posicao, e));
+        }
     }
 
     private void processarEnvioEmail(String para, String assunto, String corpo, boolean html) {
@@ -54,6 +113,10 @@ public class EmailService {
     }
 
     private void enviarEmailSmtp(String destinatario, String assunto, String corpo, boolean html) {
+        enviadorEmail.send(criarMensagem(destinatario, assunto, corpo, html));
+    }
+
+    private MimeMessage criarMensagem(String destinatario, String assunto, String corpo, boolean html) {
         MimeMessage mensagem = enviadorEmail.createMimeMessage();
         ConfigAplicacao.Email emailConfig = config.getEmail();
         try {
@@ -62,7 +125,7 @@ public class EmailService {
             helper.setTo(destinatario);
             helper.setSubject(montarAssuntoCompleto(emailConfig.getAssuntoPrefixo(), assunto));
             helper.setText(corpo, html);
-            enviadorEmail.send(mensagem);
+            return mensagem;
         } catch (MessagingException | UnsupportedEncodingException e) {
             throw new ErroEnvioEmail(destinatario, e);
         }
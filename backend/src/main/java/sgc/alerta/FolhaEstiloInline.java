@@ -0,0 +1,99 @@
+package sgc.alerta;
+
+import com.github.benmanes.caffeine.cache.*;
+import org.jspecify.annotations.*;
+import org.unbescape.html.*;
+
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * Bloco {@code <style>} já dividido entre regras inlináveis, com seletores compilados e declarações
+ * pré-processadas, e o CSS que precisa permanecer no documento.
+ *
+ * <p>Aplica as mesmas regras do {@link InlinerCss}: blocos preservados por {@link InlinerCss.BlocoCSS#deveManter()}
+ * continuam no {@code <style>}, as regras são aplicadas na ordem da folha e o estilo inline existente prevalece.
+ * Seletores fora do subconjunto de {@link SeletorCss} também continuam no {@code <style>}.
+ *
+ * <p>As compilações são mantidas por texto da folha. Os templates de e-mail compartilham o mesmo
+ * {@code _layout.html}, então na prática existe uma única entrada; o limite de {@value #MAXIMO_FOLHAS} entradas
+ * impede que folhas com conteúdo variável façam o cache crescer sem controle.
+ */
+final class FolhaEstiloInline {
+    static final int MAXIMO_FOLHAS = 16;
+    private static final Cache<String, FolhaEstiloInline> COMPILADAS = Caffeine.newBuilder()
+            .maximumSize(MAXIMO_FOLHAS)
+            .build();
+    private static final Pattern PADRAO_COMENTARIO = Pattern.compile("/\\*.*?\\*/", Pattern.DOTALL);
+
+    private final List<RegraInline> regras;
+    private final String cssRestante;
+
+    private FolhaEstiloInline(String css) {
+        List<RegraInline> compiladas = new ArrayList<>();
+        StringBuilder restante = new StringBuilder();
+        for (InlinerCss.BlocoCSS bloco : InlinerCss.extrairBlocos(css)) {
+            if (bloco.deveManter()) {
+                manter(restante, bloco.prefixo(), bloco.corpo());
+                continue;
+            }
+            Map<String, String> declaracoes = escapar(InlinerCss.parsearDeclaracoes(bloco.corpo()));
+            for (String seletor : bloco.prefixo().split(",")) {
+                String limpo = PADRAO_COMENTARIO.matcher(seletor).replaceAll("").strip();
+                if (limpo.isEmpty()) {
+                    continue;
+                }
+                SeletorCss.compilar(limpo).ifPresentOrElse(
+                        compilado -> compiladas.add(new RegraInline(compilado, declaracoes)),
+                        () -> manter(restante, limpo, bloco.corpo()));
+            }
+        }
+        this.regras = List.copyOf(compiladas);
+        this.cssRestante = restante.toString().strip();
+    }
+
+    static FolhaEstiloInline compilar(String css) {
+        return COMPILADAS.get(css, FolhaEstiloInline::new);
+    }
+
+    String cssRestante() {
+        return cssRestante;
+    }
+
+    /**
+     * Calcula o atributo {@code style} do elemento após aplicar as regras que o selecionam.
+     *
+     * @return o novo estilo, ou {@code null} se nenhuma regra se aplica
+     */
+    @Nullable String estiloPara(SeletorCss.ElementoCss elemento, List<SeletorCss.ElementoCss> ancestrais,
+                                @Nullable String estiloAtual) {
+        String estilo = estiloAtual;
+        boolean aplicado = false;
+        for (RegraInline regra : regras) {
+            if (regra.seletor().casa(elemento, ancestrais)) {
+                Map<String, String> mapa = new LinkedHashMap<>(regra.declaracoes());
+                mapa.putAll(InlinerCss.parsearDeclaracoes(estilo));
+                estilo = InlinerCss.montarEstilo(mapa);
+                aplicado = true;
+            }
+        }
+        return aplicado ? estilo : null;
+    }
+
+    private static void manter(StringBuilder restante, String prefixo, String corpo) {
+        restante.append(prefixo).append(" {\n").append(corpo).append("\n}\n\n");
+    }
+
+    /**
+     * O valor é gravado direto no atributo pelo Thymeleaf, que não escapa atributos definidos por
+     * pós-processadores.
+     */
+    private static Map<String, String> escapar(Map<String, String> declaracoes) {
+        Map<String, String> escapadas = new LinkedHashMap<>();
+        declaracoes.forEach((propriedade, valor) -> escapadas.put(propriedade, HtmlEscape.escapeHtml4Xml(valor)));
+        return Collections.unmodifiableMap(escapadas);
+    }
+
+    private record RegraInline(SeletorCss seletor, Map<String, String> declaracoes) {
+    }
+}
@@ -1,5 +1,6 @@
 package sgc.alerta;
 
+import org.jspecify.annotations.*;
 import org.jsoup.Jsoup;
 import org.jsoup.nodes.*;
 import org.jsoup.select.*;
@@ -19,6 +20,9 @@ import java.util.*;
  *
  * <p>Estilos {@code style=""} já existentes nos elementos têm prioridade sobre
  * as declarações da folha de estilo.
+ *
+ * <p>Os templates de e-mail já saem inlinados do Thymeleaf pelo {@link ManipuladorCssInline}, que usa as
+ * mesmas regras sem reprocessar o documento a cada mensagem; {@link #inlinar} atende HTML avulso.
  */
 public class InlinerCss {
 
@@ -122,7 +126,7 @@ public class InlinerCss {
         return blocos;
     }
 
-    private static Map<String, String> parsearDeclaracoes(String css) {
+    static Map<String, String> parsearDeclaracoes(@Nullable String css) {
         var mapa = new LinkedHashMap<String, String>();
         if (css == null || css.isBlank()) return mapa;
         for (String declaracao : css.split(";")) {
@@ -139,7 +143,7 @@ public class InlinerCss {
         return mapa;
     }
 
-    private static String montarEstilo(Map<String, String> mapa) {
+    static String montarEstilo(Map<String, String> mapa) {
         var sb = new StringBuilder();
         mapa.forEach((prop, valor) -> {
             if (!sb.isEmpty()) sb.append("; ");
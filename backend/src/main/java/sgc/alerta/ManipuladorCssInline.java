@@ -0,0 +1,102 @@
+package sgc.alerta;
+
+import org.jspecify.annotations.*;
+import org.thymeleaf.engine.*;
+import org.thymeleaf.model.*;
+
+import java.util.*;
+
+/**
+ * Pós-processador do Thymeleaf que inlina o CSS dos templates de e-mail durante a renderização.
+ *
+ * <p>Trabalha sobre os eventos de saída mantendo apenas a pilha de elementos abertos: cada {@code <style>}
+ * é trocado pelo CSS que não pode ser inlinado e as regras compiladas por {@link FolhaEstiloInline} são
+ * aplicadas às tags seguintes. Assim o HTML já sai pronto para envio, sem nova análise pelo jsoup.
+ *
+ * <p>Instanciado pelo Thymeleaf a cada renderização, por isso precisa de construtor público sem argumentos.
+ */
+public class ManipuladorCssInline extends AbstractTemplateHandler {
+    private static final String STYLE = "style";
+
+    private final List<SeletorCss.ElementoCss> abertos = new ArrayList<>();
+    private final List<FolhaEstiloInline> folhas = new ArrayList<>();
+    private final StringBuilder cssPendente = new StringBuilder();
+    private @Nullable IOpenElementTag aberturaStyle;
+
+    @Override
+    public void handleOpenElement(IOpenElementTag tag) {
+        if (aberturaStyle == null && ehStyle(tag)) {
+            aberturaStyle = tag;
+            cssPendente.setLength(0);
+            return;
+        }
+        SeletorCss.ElementoCss elemento = elemento(tag);
+        super.handleOpenElement(aplicarEstilos(tag, elemento));
+        abertos.add(elemento);
+    }
+
+    @Override
+    public void handleStandaloneElement(IStandaloneElementTag tag) {
+        super.handleStandaloneElement(aplicarEstilos(tag, elemento(tag)));
+    }
+
+    @Override
+    public void handleText(IText text) {
+        if (aberturaStyle != null) {
+            cssPendente.append(text.getText());
+            return;
+        }
+        super.handleText(text);
+    }
+
+    @Override
+    public void handleCloseElement(ICloseElementTag tag) {
+        IOpenElementTag abertura = aberturaStyle;
+        if (abertura != null && ehStyle(tag)) {
+            aberturaStyle = null;
+            fecharStyle(abertura, tag);
+            return;
+        }
+        if (!tag.isUnmatched() && !abertos.isEmpty()) {
+            abertos.removeLast();
+        }
+        super.handleCloseElement(tag);
+    }
+
+    private void fecharStyle(IOpenElementTag abertura, ICloseElementTag fechamento) {
+        FolhaEstiloInline folha = FolhaEstiloInline.compilar(cssPendente.toString());
+        folhas.add(folha);
+        if (folha.cssRestante().isEmpty()) {
+            return;
+        }
+        super.handleOpenElement(abertura);
+        super.handleText(getContext().getModelFactory().createText(folha.cssRestante()));
+        super.handleCloseElement(fechamento);
+    }
+
+    private <T extends IProcessableElementTag> T aplicarEstilos(T tag, SeletorCss.ElementoCss elemento) {
+        @Nullable String original = tag.getAttributeValue(STYLE);
+        @Nullable String estilo = original;
+        for (FolhaEstiloInline folha : folhas) {
+            String novo = folha.estiloPara(elemento, abertos, estilo);
+            if (novo != null) {
+                estilo = novo;
+            }
+        }
+        if (estilo == null || estilo.equals(original)) {
+            return tag;
+        }
+        return getContext().getModelFactory().setAttribute(tag, STYLE, estilo);
+    }
+
+    private static SeletorCss.ElementoCss elemento(IProcessableElementTag tag) {
+        return SeletorCss.ElementoCss.de(
+                tag.getElementCompleteName(),
+                tag.getAttributeValue("id"),
+                tag.getAttributeValue("class"));
+    }
+
+    private static boolean ehStyle(IElementTag tag) {
+        return STYLE.equalsIgnoreCase(tag.getElementCompleteName());
+    }
+}
@@ -0,0 +1,8 @@
+package sgc.alerta;
+
+public record MensagemEmailHtml(
+        String destinatario,
+        String assunto,
+        String corpoHtml
+) {
+}
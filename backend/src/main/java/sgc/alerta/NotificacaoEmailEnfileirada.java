@@ -0,0 +1,8 @@
+package sgc.alerta;
+
+/**
+ * Publicado por {@link NotificacaoService#enfileirar} quando uma nova notificação entra na fila. O
+ * {@link NotificacaoWorker} só o recebe após o commit, quando a notificação já está visível para a reserva.
+ */
+record NotificacaoEmailEnfileirada(Long codigo) {
+}
@@ -1,6 +1,8 @@
 package sgc.alerta;
 
 import lombok.*;
+import lombok.extern.slf4j.*;
+import org.springframework.context.*;
 import org.springframework.dao.*;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.*;
@@ -17,7 +19,10 @@ import java.util.*;
 @Service
 @RequiredArgsConstructor
 @Transactional
+@Slf4j
 public class NotificacaoService {
+    static final Duration TEMPO_MAXIMO_RESERVA = Duration.ofMinutes(15);
+    private static final String ERRO_RESERVA_EXPIRADA = "Reserva de envio expirada sem conclusão do lote";
     private static final int LIMITE_ERRO = 2000;
     private static final int MAX_TENTATIVAS = 5;
     private static final int LIMITE_CONSULTA_MAXIMO = 100;
@@ -25,6 +30,7 @@ public class NotificacaoService {
     private final NotificacaoEmailRepo notificacaoEmailRepo;
     private final Clock clock;
     private final AlertaDtoMapper alertaDtoMapper;
+    private final ApplicationEventPublisher eventPublisher;
 
     public NotificacaoEmail enfileirar(EnfileirarNotificacaoCommand cmd) {
         if (notificacaoEmailRepo.existsByChaveIdempotencia(cmd.chaveIdempotencia())) {
@@ -55,20 +61,22 @@ public class NotificacaoService {
                 .build();
 
         try {
-            return notificacaoEmailRepo.save(notificacao);
+            NotificacaoEmail salva = notificacaoEmailRepo.save(notificacao);
+            eventPublisher.publishEvent(new NotificacaoEmailEnfileirada(salva.getCodigo()));
+            return salva;
         } catch (DataIntegrityViolationException ex) {
             return notificacaoEmailRepo.findByChaveIdempotencia(cmd.chaveIdempotencia())
                     .orElseThrow(() -> ex);
         }
     }
 
+    /**
+     * Menor {@code proximaTentativaEm} entre as notificações ainda não enviadas, usada pelo worker para
+     * agendar a próxima verificação da fila.
+     */
     @Transactional(readOnly = true)
-    public List<NotificacaoEmail> listarPendentes(int limite) {
-        return notificacaoEmailRepo.findBySituacaoInAndProximaTentativaEmLessThanEqualOrderByDataHoraCriacaoAsc(
-                List.of(SituacaoNotificacao.PENDENTE, SituacaoNotificacao.FALHA_TEMPORARIA),
-                agora(),
-                PageRequest.of(0, limite)
-        );
+    public Optional<LocalDateTime> buscarProximaTentativa() {
+        return notificacaoEmailRepo.buscarProximaTentativaPendente();
     }
 
     @Transactional(readOnly = true)
@@ -102,23 +110,43 @@ public class NotificacaoService {
         return notificacaoEmailRepo.reenviarPorCodigo(codigo, agora());
     }
 
-    public boolean marcarEnviandoSeDisponivel(NotificacaoEmail notificacao) {
-        int atualizados = notificacaoEmailRepo.marcarEnviandoSeDisponivel(notificacao.getCodigo(), agora());
-        if (atualizados == 0) {
-            return false;
+    /**
+     * Reserva até {@code limite} notificações vencidas para envio com um único UPDATE, retornando
+     * apenas as que foram efetivamente capturadas por este lote.
+     *
+     * <p>Antes, devolve à fila os lotes reservados há mais de {@link #TEMPO_MAXIMO_RESERVA} que ficaram em
+     * ENVIANDO porque o worker que os reservou foi interrompido. Cada reserva perdida conta como tentativa,
+     * para que uma mensagem que sempre trava o worker chegue à falha definitiva.
+     */
+    public List<NotificacaoEmail> reservarLote(int limite) {
+        LocalDateTime agora = agora();
+        int liberadas = notificacaoEmailRepo.liberarReservasExpiradas(
+                agora.minus(TEMPO_MAXIMO_RESERVA), agora, ERRO_RESERVA_EXPIRADA, MAX_TENTATIVAS);
+        if (liberadas > 0) {
+            log.warn("{} notificações reservadas há mais de {} minutos voltaram para a fila",
+                    liberadas, TEMPO_MAXIMO_RESERVA.toMinutes());
+        }
+        List<Long> codigos = notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(agora, PageRequest.of(0, limite));
+        if (codigos.isEmpty()) {
+            return List.of();
+        }
+        String lote = UUID.randomUUID().toString();
+        if (notificacaoEmailRepo.reservarLote(codigos, lote, agora) == 0) {
+            return List.of();
         }
-        notificacao.setSituacao(SituacaoNotificacao.ENVIANDO);
-        return true;
+        return notificacaoEmailRepo.findByLoteEnvioOrderByDataHoraCriacaoAsc(lote);
     }
 
     public void marcarEnviado(NotificacaoEmail notificacao) {
         notificacao.setSituacao(SituacaoNotificacao.ENVIADO);
         notificacao.setDataHoraEnvio(agora());
         notificacao.setUltimoErro(null);
-        notificacaoEmailRepo.marcarEnviado(new NotificacaoEmailRepo.MarcarEnviadoCommand(
+        int atualizadas = notificacaoEmailRepo.marcarEnviado(new NotificacaoEmailRepo.MarcarEnviadoCommand(
                 notificacao.getCodigo(),
+                notificacao.getLoteEnvio(),
                 notificacao.getDataHoraEnvio()
         ));
+        avisarReservaPerdida(notificacao, atualizadas);
     }
 
     public void marcarFalha(NotificacaoEmail notificacao, Exception erro) {
@@ -132,13 +160,22 @@ public class NotificacaoService {
             notificacao.setSituacao(SituacaoNotificacao.FALHA_TEMPORARIA);
             notificacao.setProximaTentativaEm(agora().plusSeconds(atrasoRetrySegundos(tentativas)));
         }
-        notificacaoEmailRepo.marcarFalha(new NotificacaoEmailRepo.MarcarFalhaCommand(
+        int atualizadas = notificacaoEmailRepo.marcarFalha(new NotificacaoEmailRepo.MarcarFalhaCommand(
                 notificacao.getCodigo(),
+                notificacao.getLoteEnvio(),
                 notificacao.getSituacao(),
                 notificacao.getTentativas(),
                 notificacao.getUltimoErro(),
                 notificacao.getProximaTentativaEm()
         ));
+        avisarReservaPerdida(notificacao, atualizadas);
+    }
+
+    private void avisarReservaPerdida(NotificacaoEmail notificacao, int atualizadas) {
+        if (atualizadas == 0) {
+            log.warn("Notificação {} não pertence mais ao lote {}; resultado do envio descartado",
+                    notificacao.getCodigo(), notificacao.getLoteEnvio());
+        }
     }
 
     private LocalDateTime agora() {
@@ -1,48 +1,308 @@
 package sgc.alerta;
 
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.*;
+import org.jspecify.annotations.*;
 import org.springframework.beans.factory.annotation.*;
-import org.springframework.scheduling.annotation.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.event.*;
 import sgc.alerta.model.*;
 
+import java.time.Clock;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Despacha a fila de notificações por e-mail.
+ *
+ * <p>Cada ciclo reserva lotes com {@link NotificacaoService#reservarLote(int)} até esgotar as notificações
+ * vencidas. As mensagens do lote são agrupadas pelo domínio do destinatário e cada grupo é enviado por uma
+ * única conexão SMTP em uma virtual thread. A concorrência é limitada globalmente e por domínio, de modo que
+ * um servidor lento ocupa apenas as próprias permissões. A situação de cada notificação é registrada na thread
+ * do worker depois que todos os envios do lote terminam.
+ *
+ * <p>Os ciclos rodam em uma thread própria e são disparados pelo commit de cada {@link NotificacaoService#enfileirar}.
+ * Ao fim de cada ciclo o worker agenda uma verificação para a menor {@code proximaTentativaEm} pendente, limitada a
+ * {@code intervalo-maximo-worker-ms}, que cobre retentativas e notificações enfileiradas por outras instâncias. Sem
+ * ela, vale o antigo {@code intervalo-worker-ms}, para não perder a configuração de quem ainda o define.
+ */
 @Component
 @Slf4j
 public class NotificacaoWorker {
+    private static final Duration ESPERA_MINIMA = Duration.ofSeconds(1);
+
     private final NotificacaoService notificacaoService;
     private final EmailService emailService;
+    private final Clock clock;
     private final int loteWorker;
+    private final int concorrenciaPorDominio;
+    private final int mensagensPorConexao;
+    private final Semaphore permissoesGlobais;
+    private final Map<String, Semaphore> permissoesPorDominio = new ConcurrentHashMap<>();
+    private final AtomicInteger emEnvio = new AtomicInteger();
+    private final Counter enviadas;
+    private final Counter falhas;
+    private final Timer duracaoLote;
+    private final Timer atraso;
+    private final Counter despertaresPorEnfileiramento;
+    private final Counter despertaresAgendados;
+    private final Duration intervaloMaximo;
+    private final ScheduledExecutorService agendador = Executors.newSingleThreadScheduledExecutor(
+            Thread.ofPlatform().name("notificacao-email-worker").daemon().factory());
+    private final AtomicBoolean cicloSolicitado = new AtomicBoolean();
+    private @Nullable ScheduledFuture<?> verificacaoAgendada;
 
     public NotificacaoWorker(
             NotificacaoService notificacaoService,
             EmailService emailService,
-            @Value("${sgc.notificacao-email.lote-worker:20}") int loteWorker) {
+            Clock clock,
+            MeterRegistry meterRegistry,
+            @Value("${sgc.notificacao-email.lote-worker:100}") int loteWorker,
+            @Value("${sgc.notificacao-email.concorrencia-maxima:8}") int concorrenciaMaxima,
+            @Value("${sgc.notificacao-email.concorrencia-por-dominio:4}") int concorrenciaPorDominio,
+            @Value("${sgc.notificacao-email.mensagens-por-conexao:20}") int mensagensPorConexao,
+            @Value("${sgc.notificacao-email.intervalo-maximo-worker-ms:${sgc.notificacao-email.intervalo-worker-ms:300000}}") long intervaloMaximoMs) {
         this.notificacaoService = notificacaoService;
         this.emailService = emailService;
-        this.loteWorker = loteWorker;
+        this.clock = clock;
+        this.loteWorker = Math.max(1, loteWorker);
+        this.concorrenciaPorDominio = Math.max(1, concorrenciaPorDominio);
+        this.mensagensPorConexao = Math.max(1, mensagensPorConexao);
+        this.permissoesGlobais = new Semaphore(Math.max(1, concorrenciaMaxima));
+        this.intervaloMaximo = Duration.ofMillis(Math.max(ESPERA_MINIMA.toMillis(), intervaloMaximoMs));
+        this.enviadas = Counter.builder("sgc.notificacao.email.envios")
+                .description("Notificações por e-mail processadas pelo worker")
+                .tag("resultado", "sucesso")
+                .register(meterRegistry);
+        this.falhas = Counter.builder("sgc.notificacao.email.envios")
+                .description("Notificações por e-mail processadas pelo worker")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        this.duracaoLote = Timer.builder("sgc.notificacao.email.lote")
+                .description("Duração do envio de um lote reservado")
+                .register(meterRegistry);
+        this.atraso = Timer.builder("sgc.notificacao.email.atraso")
+                .description("Tempo entre a notificação ficar disponível e o início do envio")
+                .register(meterRegistry);
+        Gauge.builder("sgc.notificacao.email.em.envio", emEnvio, AtomicInteger::get)
+                .description("Mensagens em envio neste momento")
+                .register(meterRegistry);
+        this.despertaresPorEnfileiramento = Counter.builder("sgc.notificacao.email.despertares")
+                .description("Ciclos do worker solicitados")
+                .tag("origem", "enfileiramento")
+                .register(meterRegistry);
+        this.despertaresAgendados = Counter.builder("sgc.notificacao.email.despertares")
+                .description("Ciclos do worker solicitados")
+                .tag("origem", "agendamento")
+                .register(meterRegistry);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void iniciar() {
+        despertar();
+    }
+
+    @TransactionalEventListener(fallbackExecution = true)
+    public void aoEnfileirar(NotificacaoEmailEnfileirada evento) {
+        despertaresPorEnfileiramento.increment();
+        despertar();
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        agendador.shutdownNow();
+    }
+
+    /**
+     * Solicita um ciclo na thread do worker. Pedidos feitos enquanto outro ainda aguarda execução são
+     * absorvidos por ele; pedidos feitos durante um ciclo geram exatamente mais um.
+     */
+    void despertar() {
+        if (!cicloSolicitado.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            agendador.execute(this::executarCiclo);
+        } catch (RejectedExecutionException ex) {
+            cicloSolicitado.set(false);
+            log.debug("Worker de notificacoes de email encerrado; ciclo ignorado");
+        }
+    }
+
+    private void executarCiclo() {
+        cicloSolicitado.set(false);
+        try {
+            processarPendentes();
+        } catch (RuntimeException ex) {
+            log.error("Falha ao processar a fila de notificacoes de email", ex);
+        }
+        agendarVerificacao();
+    }
+
+    private void agendarVerificacao() {
+        if (verificacaoAgendada != null) {
+            verificacaoAgendada.cancel(false);
+        }
+        verificacaoAgendada = agendador.schedule(() -> {
+            despertaresAgendados.increment();
+            despertar();
+        }, calcularEspera().toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * Tempo até a próxima retentativa pendente, entre {@link #ESPERA_MINIMA} e o intervalo máximo configurado.
+     */
+    Duration calcularEspera() {
+        try {
+            LocalDateTime agora = LocalDateTime.now(clock);
+            return notificacaoService.buscarProximaTentativa()
+                    .map(proxima -> Duration.between(agora, proxima))
+                    .map(espera -> espera.compareTo(ESPERA_MINIMA) < 0 ? ESPERA_MINIMA : espera)
+                    .filter(espera -> espera.compareTo(intervaloMaximo) < 0)
+                    .orElse(intervaloMaximo);
+        } catch (RuntimeException ex) {
+            log.warn("Falha ao consultar a proxima retentativa de notificacao de email", ex);
+            return intervaloMaximo;
+        }
     }
 
-    @Scheduled(fixedDelayString = "${sgc.notificacao-email.intervalo-worker-ms:30000}")
     public void processarPendentes() {
-        for (NotificacaoEmail notificacao : notificacaoService.listarPendentes(loteWorker)) {
-            processar(notificacao);
+        int reservadas;
+        do {
+            reservadas = processarLote();
+        } while (reservadas >= loteWorker);
+    }
+
+    private int processarLote() {
+        List<NotificacaoEmail> lote = notificacaoService.reservarLote(loteWorker);
+        if (lote.isEmpty()) {
+            return 0;
         }
+        registrarAtraso(lote);
+        duracaoLote.record(() -> enviarLote(lote));
+        return lote.size();
     }
 
-    private void processar(NotificacaoEmail notificacao) {
-        if (!notificacaoService.marcarEnviandoSeDisponivel(notificacao)) {
-            return;
+    private void enviarLote(List<NotificacaoEmail> lote) {
+        List<EnvioGrupo> envios = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            agruparPorDominio(lote).forEach((dominio, notificacoes) ->
+                    dividirPorConexao(notificacoes).forEach(grupo -> envios.add(
+                            new EnvioGrupo(grupo, executor.submit(() -> enviarComPermissoes(dominio, grupo))))));
+        }
+        for (EnvioGrupo envio : envios) {
+            Map<Integer, Exception> falhasEnvio = resultado(envio);
+            for (int i = 0; i < envio.grupo().size(); i++) {
+                registrarResultado(envio.grupo().get(i), falhasEnvio.get(i));
+            }
+        }
+    }
+
+    private Map<Integer, Exception> enviarComPermissoes(String dominio, List<NotificacaoEmail> grupo) {
+        Semaphore permissoesDominio = permissoesPorDominio.computeIfAbsent(
+                dominio, d -> new Semaphore(concorrenciaPorDominio));
+        permissoesDominio.acquireUninterruptibly();
+        permissoesGlobais.acquireUninterruptibly();
+        emEnvio.addAndGet(grupo.size());
+        try {
+            return emailService.enviarEmailsHtml(grupo.stream()
+                    .map(n -> new MensagemEmailHtml(n.getDestinatario(), n.getAssunto(), n.getCorpoHtml()))
+                    .toList());
+        } catch (RuntimeException ex) {
+            return todasComErro(grupo.size(), ex);
+        } finally {
+            emEnvio.addAndGet(-grupo.size());
+            permissoesGlobais.release();
+            permissoesDominio.release();
+        }
+    }
+
+    /**
+     * Falhas por posição no grupo. Se a tarefa do grupo terminou com algo que {@link #enviarComPermissoes} não
+     * trata (um {@link Error}, por exemplo), todas as mensagens do grupo são dadas como falhas, para que não
+     * fiquem em ENVIANDO até a reserva expirar.
+     */
+    private Map<Integer, Exception> resultado(EnvioGrupo envio) {
+        Future<Map<Integer, Exception>> resultado = envio.resultado();
+        if (resultado.state() == Future.State.SUCCESS) {
+            return resultado.resultNow();
         }
+        @Nullable Throwable causa = resultado.state() == Future.State.FAILED ? resultado.exceptionNow() : null;
+        Exception erro = causa instanceof Exception ex
+                ? ex
+                : new IllegalStateException("Envio do grupo encerrado sem resultado", causa);
+        log.error("Falha inesperada no envio de um grupo de {} notificacoes de email", envio.grupo().size(), causa);
+        return todasComErro(envio.grupo().size(), erro);
+    }
+
+    private static Map<Integer, Exception> todasComErro(int tamanho, Exception erro) {
+        Map<Integer, Exception> todas = new HashMap<>();
+        for (int i = 0; i < tamanho; i++) {
+            todas.put(i, erro);
+        }
+        return todas;
+    }
+
+    private void registrarResultado(NotificacaoEmail notificacao, @Nullable Exception erro) {
         try {
-            emailService.enviarEmailHtml(
-                    notificacao.getDestinatario(),
-                    notificacao.getAssunto(),
-                    notificacao.getCorpoHtml()
-            );
-            notificacaoService.marcarEnviado(notificacao);
-        } catch (Exception ex) {
-            log.warn("Falha ao enviar notificacao de email {}", notificacao.getCodigo(), ex);
-            notificacaoService.marcarFalha(notificacao, ex);
+            if (erro == null) {
+                notificacaoService.marcarEnviado(notificacao);
+                enviadas.increment();
+                return;
+            }
+            log.warn("Falha ao enviar notificacao de email {}", notificacao.getCodigo(), erro);
+            notificacaoService.marcarFalha(notificacao, erro);
+            falhas.increment();
+        } catch (RuntimeException ex) {
+            log.error("Falha ao registrar resultado da notificacao de email {}", notificacao.getCodigo(), ex);
         }
     }
+
+    private void registrarAtraso(List<NotificacaoEmail> lote) {
+        LocalDateTime agora = LocalDateTime.now(clock);
+        for (NotificacaoEmail notificacao : lote) {
+            LocalDateTime disponivelEm = notificacao.getProximaTentativaEm() != null
+                    ? notificacao.getProximaTentativaEm()
+                    : notificacao.getDataHoraCriacao();
+            if (!disponivelEm.isAfter(agora)) {
+                atraso.record(Duration.between(disponivelEm, agora));
+            }
+        }
+    }
+
+    private Map<String, List<NotificacaoEmail>> agruparPorDominio(List<NotificacaoEmail> lote) {
+        Map<String, List<NotificacaoEmail>> porDominio = new LinkedHashMap<>();
+        for (NotificacaoEmail notificacao : lote) {
+            porDominio.computeIfAbsent(dominio(notificacao.getDestinatario()), d -> new ArrayList<>())
+                    .add(notificacao);
+        }
+        return porDominio;
+    }
+
+    /**
+     * Divide as mensagens de um domínio para ocupar até {@code concorrenciaPorDominio} conexões, sem passar de
+     * {@code mensagensPorConexao} mensagens por conexão.
+     */
+    private List<List<NotificacaoEmail>> dividirPorConexao(List<NotificacaoEmail> notificacoes) {
+        int tamanho = Math.clamp(Math.ceilDiv(notificacoes.size(), concorrenciaPorDominio), 1, mensagensPorConexao);
+        List<List<NotificacaoEmail>> grupos = new ArrayList<>();
+        for (int inicio = 0; inicio < notificacoes.size(); inicio += tamanho) {
+            grupos.add(notificacoes.subList(inicio, Math.min(inicio + tamanho, notificacoes.size())));
+        }
+        return grupos;
+    }
+
+    private static String dominio(String destinatario) {
+        int arroba = destinatario.lastIndexOf('@');
+        return arroba < 0 ? "" : destinatario.substring(arroba + 1).toLowerCase(Locale.ROOT);
+    }
+
+    private record EnvioGrupo(List<NotificacaoEmail> grupo, Future<Map<Integer, Exception>> resultado) {
+    }
 }
@@ -0,0 +1,115 @@
+package sgc.alerta;
+
+import org.jspecify.annotations.*;
+
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * Seletor CSS compilado para ser avaliado sobre a pilha de elementos abertos, sem montar DOM.
+ *
+ * <p>Suporta seletores compostos por tipo, {@code *}, {@code .classe} e {@code #id}, ligados por
+ * descendência (espaço) ou filiação ({@code >}). Qualquer outra sintaxe não é compilada.
+ */
+record SeletorCss(List<Composto> compostos, List<Boolean> filhoDireto) {
+    private static final Pattern PADRAO_COMPOSTO =
+            Pattern.compile("(\\*|[a-zA-Z][a-zA-Z0-9-]*)?((?:[.#][a-zA-Z_-][a-zA-Z0-9_-]*)*)");
+    private static final Pattern PADRAO_SIMPLES = Pattern.compile("([.#])([a-zA-Z_-][a-zA-Z0-9_-]*)");
+
+    static Optional<SeletorCss> compilar(String seletor) {
+        String[] tokens = seletor.replace(">", " > ").strip().split("\\s+");
+        List<Composto> compostos = new ArrayList<>();
+        List<Boolean> filhoDireto = new ArrayList<>();
+        boolean proximoFilhoDireto = false;
+        for (String token : tokens) {
+            if (token.equals(">")) {
+                if (compostos.isEmpty() || proximoFilhoDireto) {
+                    return Optional.empty();
+                }
+                proximoFilhoDireto = true;
+                continue;
+            }
+            Composto composto = compilarComposto(token);
+            if (composto == null) {
+                return Optional.empty();
+            }
+            if (!compostos.isEmpty()) {
+                filhoDireto.add(proximoFilhoDireto);
+            }
+            compostos.add(composto);
+            proximoFilhoDireto = false;
+        }
+        if (compostos.isEmpty() || proximoFilhoDireto) {
+            return Optional.empty();
+        }
+        return Optional.of(new SeletorCss(List.copyOf(compostos), List.copyOf(filhoDireto)));
+    }
+
+    /**
+     * @param ancestrais elementos abertos da raiz até o pai de {@code elemento}
+     */
+    boolean casa(ElementoCss elemento, List<ElementoCss> ancestrais) {
+        int ultimo = compostos.size() - 1;
+        return compostos.get(ultimo).casa(elemento) && casaAncestrais(ultimo - 1, ancestrais, ancestrais.size() - 1);
+    }
+
+    private boolean casaAncestrais(int indice, List<ElementoCss> ancestrais, int limite) {
+        if (indice < 0) {
+            return true;
+        }
+        Composto composto = compostos.get(indice);
+        if (filhoDireto.get(indice)) {
+            return limite >= 0
+                    && composto.casa(ancestrais.get(limite))
+                    && casaAncestrais(indice - 1, ancestrais, limite - 1);
+        }
+        for (int i = limite; i >= 0; i--) {
+            if (composto.casa(ancestrais.get(i)) && casaAncestrais(indice - 1, ancestrais, i - 1)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static @Nullable Composto compilarComposto(String token) {
+        Matcher matcher = PADRAO_COMPOSTO.matcher(token);
+        if (token.isEmpty() || !matcher.matches()) {
+            return null;
+        }
+        @Nullable String tipo = matcher.group(1);
+        @Nullable String id = null;
+        Set<String> classes = new HashSet<>();
+        Matcher simples = PADRAO_SIMPLES.matcher(matcher.group(2));
+        while (simples.find()) {
+            if (simples.group(1).equals("#")) {
+                id = simples.group(2);
+            } else {
+                classes.add(simples.group(2));
+            }
+        }
+        return new Composto(
+                tipo == null || tipo.equals("*") ? null : tipo.toLowerCase(Locale.ROOT),
+                id,
+                Set.copyOf(classes));
+    }
+
+    record Composto(@Nullable String tipo, @Nullable String id, Set<String> classes) {
+        boolean casa(ElementoCss elemento) {
+            return (tipo == null || tipo.equals(elemento.tipo()))
+                    && (id == null || id.equals(elemento.id()))
+                    && elemento.classes().containsAll(classes);
+        }
+    }
+
+    /**
+     * Dados de um elemento relevantes para o casamento de seletores.
+     */
+    record ElementoCss(String tipo, @Nullable String id, Set<String> classes) {
+        static ElementoCss de(String tipo, @Nullable String id, @Nullable String classes) {
+            Set<String> conjunto = classes == null || classes.isBlank()
+                    ? Set.of()
+                    : Set.copyOf(Arrays.asList(classes.strip().split("\\s+")));
+            return new ElementoCss(tipo.toLowerCase(Locale.ROOT), id, conjunto);
+        }
+    }
+}
@@ -0,0 +1,26 @@
+package sgc.alerta.dto;
+
+import org.jspecify.annotations.*;
+import sgc.processo.model.*;
+
+import java.time.*;
+
+/**
+ * Linha do painel de alertas, já com as siglas e a leitura do usuário, montada numa única consulta.
+ */
+public record AlertaPainelQuery(
+        Long codigo,
+        LocalDateTime dataHora,
+        @Nullable Long codProcesso,
+        @Nullable String processoDescricao,
+        @Nullable SituacaoProcesso situacaoProcesso,
+        String origemSigla,
+        @Nullable String destinoSigla,
+        String descricao,
+        @Nullable LocalDateTime dataHoraLeitura
+) {
+    public AlertaPainelQuery comDataHoraLeitura(LocalDateTime leitura) {
+        return new AlertaPainelQuery(codigo, dataHora, codProcesso, processoDescricao, situacaoProcesso,
+                origemSigla, destinoSigla, descricao, leitura);
+    }
+}
@@ -4,7 +4,9 @@ import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.*;
 import org.springframework.stereotype.*;
+import sgc.alerta.dto.*;
 
+import java.time.*;
 import java.util.*;
 
 /**
@@ -84,4 +86,57 @@ public interface AlertaRepo extends JpaRepository<Alerta, Long> {
     Page<Alerta> buscarAlertasExclusivosDoUsuario(
             @Param("usuarioTitulo") String usuarioTitulo,
             Pageable pageable);
+
+    /**
+     * Página do painel para perfis de gestão, em ordem decrescente de (dataHora, codigo) e começando
+     * depois do cursor informado. A leitura do usuário vem na mesma linha e não há COUNT: o cliente pede
+     * a página seguinte a partir do último alerta recebido.
+     */
+    @Query("""
+            SELECT new sgc.alerta.dto.AlertaPainelQuery(
+                a.codigo, a.dataHora, p.codigo, p.descricao, p.situacao,
+                o.sigla, d.sigla, a.descricao, au.dataHoraLeitura)
+            FROM Alerta a
+            JOIN a.unidadeOrigem o
+            LEFT JOIN a.processo p
+            LEFT JOIN a.unidadeDestino d
+            LEFT JOIN AlertaUsuario au
+                   ON au.codigo.alertaCodigo = a.codigo AND au.codigo.usuarioTitulo = :usuarioTitulo
+            WHERE (a.usuarioDestinoTitulo = :usuarioTitulo
+                   OR (a.unidadeDestino.codigo = :codUnidade AND a.usuarioDestinoTitulo IS NULL))
+              AND (a.dataHora < :antesDeDataHora
+                   OR (a.dataHora = :antesDeDataHora AND a.codigo < :antesDeCodigo))
+            ORDER BY a.dataHora DESC, a.codigo DESC
+            """)
+    List<AlertaPainelQuery> listarPainelDaGestao(
+            @Param("codUnidade") Long codUnidade,
+            @Param("usuarioTitulo") String usuarioTitulo,
+            @Param("antesDeDataHora") LocalDateTime antesDeDataHora,
+            @Param("antesDeCodigo") Long antesDeCodigo,
+            Pageable limite);
+
+    /**
+     * Página do painel para o perfil SERVIDOR, com a mesma ordenação e cursor de
+     * {@link #listarPainelDaGestao}.
+     */
+    @Query("""
+            SELECT new sgc.alerta.dto.AlertaPainelQuery(
+                a.codigo, a.dataHora, p.codigo, p.descricao, p.situacao,
+                o.sigla, d.sigla, a.descricao, au.dataHoraLeitura)
+            FROM Alerta a
+            JOIN a.unidadeOrigem o
+            LEFT JOIN a.processo p
+            LEFT JOIN a.unidadeDestino d
+            LEFT JOIN AlertaUsuario au
+                   ON au.codigo.alertaCodigo = a.codigo AND au.codigo.usuarioTitulo = :usuarioTitulo
+            WHERE a.usuarioDestinoTitulo = :usuarioTitulo
+              AND (a.dataHora < :antesDeDataHora
+                   OR (a.dataHora = :antesDeDataHora AND a.codigo < :antesDeCodigo))
+            ORDER BY a.dataHora DESC, a.codigo DESC
+            """)
+    List<AlertaPainelQuery> listarPainelDoUsuario(
+            @Param("usuarioTitulo") String usuarioTitulo,
+            @Param("antesDeDataHora") LocalDateTime antesDeDataHora,
+            @Param("antesDeCodigo") Long antesDeCodigo,
+            Pageable limite);
 }
@@ -71,4 +71,16 @@ public class NotificacaoEmail extends EntidadeBase {
 
     @Column(name = "chave_idempotencia", nullable = false, unique = true)
     private String chaveIdempotencia;
+
+    /**
+     * Identificador do lote que reservou a notificação para envio.
+     */
+    @Column(name = "lote_envio", length = 36)
+    private @Nullable String loteEnvio;
+
+    /**
+     * Momento em que o lote reservou a notificação; usado para liberar reservas de workers interrompidos.
+     */
+    @Column(name = "data_hora_reserva")
+    private @Nullable LocalDateTime dataHoraReserva;
 }
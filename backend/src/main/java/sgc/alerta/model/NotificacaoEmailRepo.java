@@ -1,5 +1,6 @@
 package sgc.alerta.model;
 
+import org.jspecify.annotations.*;
 import org.springframework.data.domain.*;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.*;
@@ -15,24 +16,83 @@ public interface NotificacaoEmailRepo extends JpaRepository<NotificacaoEmail, Lo
 
     Optional<NotificacaoEmail> findByChaveIdempotencia(String chaveIdempotencia);
 
-    List<NotificacaoEmail> findBySituacaoInAndProximaTentativaEmLessThanEqualOrderByDataHoraCriacaoAsc(
-            Collection<SituacaoNotificacao> situacoes,
-            LocalDateTime agora,
-            Pageable pageable
-    );
+    @Query("""
+            select notificacao.codigo
+              from NotificacaoEmail notificacao
+             where notificacao.situacao in (
+                    sgc.alerta.model.SituacaoNotificacao.PENDENTE,
+                    sgc.alerta.model.SituacaoNotificacao.FALHA_TEMPORARIA
+               )
+               and notificacao.proximaTentativaEm <= :agora
+             order by notificacao.dataHoraCriacao asc
+            """)
+    List<Long> listarCodigosDisponiveisParaEnvio(@Param("agora") LocalDateTime agora, Pageable pageable);
 
+    /**
+     * Reserva em um único UPDATE as notificações ainda disponíveis, marcando-as com o lote informado.
+     * As que já foram capturadas por outra instância no intervalo são ignoradas pela própria condição.
+     */
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
             update NotificacaoEmail notificacao
-               set notificacao.situacao = sgc.alerta.model.SituacaoNotificacao.ENVIANDO
-             where notificacao.codigo = :codigo
+               set notificacao.situacao = sgc.alerta.model.SituacaoNotificacao.ENVIANDO,
+                   notificacao.loteEnvio = :lote,
+                   notificacao.dataHoraReserva = :agora
+             where notificacao.codigo in :codigos
                and notificacao.situacao in (
                     sgc.alerta.model.SituacaoNotificacao.PENDENTE,
                     sgc.alerta.model.SituacaoNotificacao.FALHA_TEMPORARIA
                )
                and notificacao.proximaTentativaEm <= :agora
             """)
-    int marcarEnviandoSeDisponivel(@Param("codigo") Long codigo, @Param("agora") LocalDateTime agora);
+    int reservarLote(
+            @Param("codigos") Collection<Long> codigos,
+            @Param("lote") String lote,
+            @Param("agora") LocalDateTime agora
+    );
+
+    List<NotificacaoEmail> findByLoteEnvioOrderByDataHoraCriacaoAsc(String loteEnvio);
+
+    /**
+     * Devolve à fila as notificações reservadas antes de {@code limite} que continuam em ENVIANDO, como as de
+     * um worker interrompido no meio do lote. A reserva perdida conta como tentativa: a que atingir
+     * {@code maxTentativas} vai para FALHA_DEFINITIVA, como em {@link #marcarFalha}, em vez de voltar à fila.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query("""
+            update NotificacaoEmail notificacao
+               set notificacao.situacao = case
+                        when notificacao.tentativas + 1 >= :maxTentativas
+                        then sgc.alerta.model.SituacaoNotificacao.FALHA_DEFINITIVA
+                        else sgc.alerta.model.SituacaoNotificacao.FALHA_TEMPORARIA
+                   end,
+                   notificacao.tentativas = notificacao.tentativas + 1,
+                   notificacao.loteEnvio = null,
+                   notificacao.dataHoraReserva = null,
+                   notificacao.proximaTentativaEm = case
+                        when notificacao.tentativas + 1 >= :maxTentativas then null
+                        else :agora
+                   end,
+                   notificacao.ultimoErro = :erro
+             where notificacao.situacao = sgc.alerta.model.SituacaoNotificacao.ENVIANDO
+               and notificacao.dataHoraReserva < :limite
+            """)
+    int liberarReservasExpiradas(
+            @Param("limite") LocalDateTime limite,
+            @Param("agora") LocalDateTime agora,
+            @Param("erro") String erro,
+            @Param("maxTentativas") int maxTentativas
+    );
+
+    @Query("""
+            select min(notificacao.proximaTentativaEm)
+              from NotificacaoEmail notificacao
+             where notificacao.situacao in (
+                    sgc.alerta.model.SituacaoNotificacao.PENDENTE,
+                    sgc.alerta.model.SituacaoNotificacao.FALHA_TEMPORARIA
+               )
+            """)
+    Optional<LocalDateTime> buscarProximaTentativaPendente();
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -42,8 +102,9 @@ public interface NotificacaoEmailRepo extends JpaRepository<NotificacaoEmail, Lo
                    notificacao.ultimoErro = null
              where notificacao.codigo = :#{#cmd.codigo}
                and notificacao.situacao = sgc.alerta.model.SituacaoNotificacao.ENVIANDO
+               and notificacao.loteEnvio = :#{#cmd.lote}
             """)
-    void marcarEnviado(@Param("cmd") MarcarEnviadoCommand cmd);
+    int marcarEnviado(@Param("cmd") MarcarEnviadoCommand cmd);
 
     @Modifying(clearAutomatically = true, flushAutomatically = true)
     @Query("""
@@ -54,8 +115,9 @@ public interface NotificacaoEmailRepo extends JpaRepository<NotificacaoEmail, Lo
                    notificacao.proximaTentativaEm = :#{#cmd.proximaTentativaEm}
              where notificacao.codigo = :#{#cmd.codigo}
                and notificacao.situacao = sgc.alerta.model.SituacaoNotificacao.ENVIANDO
+               and notificacao.loteEnvio = :#{#cmd.lote}
             """)
-    void marcarFalha(@Param("cmd") MarcarFalhaCommand cmd);
+    int marcarFalha(@Param("cmd") MarcarFalhaCommand cmd);
 
     List<NotificacaoEmail> findBySubprocesso_CodigoOrderByDataHoraCriacaoDesc(Long subprocessoCodigo, Pageable pageable);
 
@@ -153,11 +215,16 @@ public interface NotificacaoEmailRepo extends JpaRepository<NotificacaoEmail, Lo
             @Param("agora") LocalDateTime agora
     );
 
-    record MarcarEnviadoCommand(Long codigo, LocalDateTime agora) {
+    /**
+     * {@code lote} é o lote que reservou a notificação; se a reserva expirou e passou a outro lote, o UPDATE
+     * não altera nada.
+     */
+    record MarcarEnviadoCommand(Long codigo, @Nullable String lote, LocalDateTime agora) {
     }
 
     record MarcarFalhaCommand(
             Long codigo,
+            @Nullable String lote,
             SituacaoNotificacao situacao,
             int tentativas,
             String ultimoErro,
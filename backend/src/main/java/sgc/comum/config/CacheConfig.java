@@ -6,30 +6,78 @@ import org.springframework.cache.annotation.*;
 import org.springframework.cache.caffeine.*;
 import org.springframework.context.annotation.*;
 
+import java.util.*;
+
+import static sgc.comum.config.CacheConfig.FonteCache.*;
+
 @Configuration
 @EnableCaching
 public class CacheConfig {
 
     public static final String CACHE_DIAGNOSTICO_ORGANIZACIONAL = "diagnosticoOrganizacional";
     public static final String CACHE_ARVORE_UNIDADES = "arvoreUnidades";
-    public static final String CACHE_MAPA_HIERARQUIA_UNIDADES = "mapaHierarquiaUnidades";
     public static final String CACHE_UNIDADES_COM_MAPA = "unidadesComMapa";
     public static final String CACHE_UNIDADE_ADMIN = "unidadeAdmin";
     public static final String CACHE_UNIDADE_POR_SIGLA = "unidadePorSigla";
     public static final String CACHE_UNIDADE_CODIGO_POR_SIGLA = "unidadeCodigoPorSigla";
-    public static final String CACHE_MAPA_FILHO_PAI = "mapaFilhoPai";
+    public static final String CACHE_SNAPSHOT_ORGANIZACIONAL = "snapshotOrganizacional";
     public static final String CACHE_USUARIO_AUTORIZACOES = "usuarioAutorizacoes";
     public static final String CACHE_VW_UNIDADE = "vwUnidade";
     public static final String CACHE_VW_USUARIO = "vwUsuario";
     public static final String CACHE_VW_RESPONSABILIDADE = "vwResponsabilidade";
     public static final String CACHE_VW_USUARIO_PERFIL = "vwUsuarioPerfil";
+    public static final String CACHE_PRINCIPAL_JWT = "principalJwt";
+
+    /**
+     * Tabelas e views de origem dos dados mantidos em cache.
+     */
+    public enum FonteCache {
+        VW_UNIDADE,
+        VW_USUARIO,
+        VW_RESPONSABILIDADE,
+        ADMINISTRADOR,
+        ATRIBUICAO_TEMPORARIA,
+        UNIDADE_MAPA
+    }
+
+    /**
+     * Fontes das quais cada cache deriva, direta ou indiretamente. Uma alteração em uma fonte invalida
+     * apenas os caches que a listam aqui.
+     */
+    static final Map<String, Set<FonteCache>> DEPENDENCIAS = Map.ofEntries(
+            Map.entry(CACHE_VW_UNIDADE, EnumSet.of(VW_UNIDADE)),
+            Map.entry(CACHE_VW_USUARIO, EnumSet.of(VW_USUARIO)),
+            Map.entry(CACHE_VW_RESPONSABILIDADE, EnumSet.of(VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA)),
+            Map.entry(CACHE_VW_USUARIO_PERFIL, EnumSet.of(VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA, ADMINISTRADOR)),
+            Map.entry(CACHE_USUARIO_AUTORIZACOES, EnumSet.of(VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA, ADMINISTRADOR)),
+            Map.entry(CACHE_ARVORE_UNIDADES, EnumSet.of(VW_UNIDADE)),
+            Map.entry(CACHE_SNAPSHOT_ORGANIZACIONAL, EnumSet.of(VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA)),
+            Map.entry(CACHE_UNIDADE_POR_SIGLA, EnumSet.of(VW_UNIDADE)),
+            Map.entry(CACHE_UNIDADE_CODIGO_POR_SIGLA, EnumSet.of(VW_UNIDADE)),
+            Map.entry(CACHE_UNIDADE_ADMIN, EnumSet.of(VW_UNIDADE, VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA)),
+            Map.entry(CACHE_UNIDADES_COM_MAPA, EnumSet.of(UNIDADE_MAPA)),
+            Map.entry(CACHE_DIAGNOSTICO_ORGANIZACIONAL, EnumSet.of(VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE, ATRIBUICAO_TEMPORARIA)),
+            Map.entry(CACHE_PRINCIPAL_JWT, EnumSet.of(VW_USUARIO))
+    );
+
+    /**
+     * Caches que precisam ser invalidados quando alguma das fontes informadas é alterada.
+     */
+    public static Set<String> cachesDependentes(Collection<FonteCache> fontes) {
+        Set<String> caches = new TreeSet<>();
+        DEPENDENCIAS.forEach((cache, dependencias) -> {
+            if (!Collections.disjoint(dependencias, fontes)) {
+                caches.add(cache);
+            }
+        });
+        return caches;
+    }
 
     @Bean
     public CacheManager cacheManager() {
         CaffeineCacheManager cacheManager = new CaffeineCacheManager(
                 CACHE_DIAGNOSTICO_ORGANIZACIONAL,
                 CACHE_ARVORE_UNIDADES,
-                CACHE_MAPA_HIERARQUIA_UNIDADES,
                 CACHE_UNIDADES_COM_MAPA,
                 CACHE_UNIDADE_ADMIN,
                 CACHE_UNIDADE_POR_SIGLA,
@@ -55,11 +103,6 @@ public class CacheConfig {
                 .maximumSize(500)
                 .expireAfterWrite(java.time.Duration.ofHours(12))
                 .build());
-        cacheManager.registerCustomCache(CACHE_MAPA_FILHO_PAI, Caffeine.newBuilder()
-                .recordStats()
-                .maximumSize(1)
-                .expireAfterWrite(java.time.Duration.ofHours(12))
-                .build());
         cacheManager.registerCustomCache(CACHE_USUARIO_AUTORIZACOES, Caffeine.newBuilder()
                 .recordStats()
                 .maximumSize(1000)
@@ -85,6 +128,16 @@ public class CacheConfig {
                 .maximumSize(5000)
                 .expireAfterWrite(java.time.Duration.ofMinutes(15))
                 .build());
+        cacheManager.registerCustomCache(CACHE_SNAPSHOT_ORGANIZACIONAL, Caffeine.newBuilder()
+                .recordStats()
+                .maximumSize(1)
+                .expireAfterWrite(java.time.Duration.ofMinutes(15))
+                .build());
+        cacheManager.registerCustomCache(CACHE_PRINCIPAL_JWT, Caffeine.newBuilder()
+                .recordStats()
+                .maximumSize(5000)
+                .expireAfterWrite(java.time.Duration.ofMinutes(10))
+                .build());
         return cacheManager;
     }
 }
@@ -0,0 +1,31 @@
+package sgc.comum.config;
+
+import org.hibernate.cfg.AvailableSettings;
+import org.hibernate.stat.spi.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.hibernate.autoconfigure.*;
+import org.springframework.context.annotation.*;
+import sgc.comum.util.*;
+
+/**
+ * Liga a contagem de SQL por requisição quando {@code sgc.monitoramento.sql.ativo=true}: o inspetor de statements,
+ * o medidor de tempo JDBC por sessão e as estatísticas do Hibernate que somam as linhas lidas.
+ *
+ * <p>Substitui qualquer {@code hibernate.session_factory.statement_inspector} configurado; por isso fica desligada
+ * no perfil de testes, que usa o próprio coletor de SQL.
+ */
+@Configuration
+@ConditionalOnProperty(name = "sgc.monitoramento.sql.ativo", havingValue = "true")
+public class ConfigMonitoramentoSql {
+    private static final String FABRICA_ESTATISTICAS = "hibernate.stats.factory";
+
+    @Bean
+    public HibernatePropertiesCustomizer monitoramentoSqlHibernate() {
+        return propriedades -> {
+            propriedades.put(AvailableSettings.STATEMENT_INSPECTOR, new InspetorSqlRequisicao());
+            propriedades.put(AvailableSettings.AUTO_SESSION_EVENTS_LISTENER, MedidorJdbcSessao.class.getName());
+            propriedades.put(AvailableSettings.GENERATE_STATISTICS, true);
+            propriedades.put(FABRICA_ESTATISTICAS, (StatisticsFactory) EstatisticasSqlRequisicao::new);
+        };
+    }
+}
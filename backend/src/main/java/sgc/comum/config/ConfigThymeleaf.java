@@ -4,9 +4,11 @@ import org.springframework.context.annotation.*;
 import org.thymeleaf.spring6.*;
 import org.thymeleaf.templatemode.*;
 import org.thymeleaf.templateresolver.*;
+import sgc.alerta.*;
 
 /**
  * Configuração explícita do Thymeleaf para garantir o carregamento correto dos templates de e-mail.
+ * Os templates já saem com o CSS inlinado pelo {@link DialetoCssInline}.
  */
 @Configuration
 public class ConfigThymeleaf {
@@ -15,6 +17,7 @@ public class ConfigThymeleaf {
     public SpringTemplateEngine springTemplateEngine() {
         SpringTemplateEngine springTemplateEngine = new SpringTemplateEngine();
         springTemplateEngine.addTemplateResolver(templateResolver());
+        springTemplateEngine.addDialect(new DialetoCssInline());
         return springTemplateEngine;
     }
 
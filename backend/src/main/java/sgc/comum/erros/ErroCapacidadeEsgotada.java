@@ -0,0 +1,13 @@
+package sgc.comum.erros;
+
+import org.springframework.http.*;
+
+/**
+ * Lançada quando uma fila de processamento está cheia e a solicitação deve ser repetida mais tarde.
+ */
+public class ErroCapacidadeEsgotada extends ErroNegocioBase {
+
+    public ErroCapacidadeEsgotada(String message) {
+        super(message, "CAPACIDADE_ESGOTADA", HttpStatus.SERVICE_UNAVAILABLE);
+    }
+}
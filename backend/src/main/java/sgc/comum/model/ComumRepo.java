@@ -66,6 +66,16 @@ public class ComumRepo {
         }
     }
 
+    /**
+     * Sincroniza e descarta as entidades gerenciadas pelo contexto de persistência atual.
+     * Usado por leituras longas que processam dados em páginas, para que a memória não cresça
+     * com o total de entidades carregadas na transação.
+     */
+    public void liberarContexto() {
+        em.flush();
+        em.clear();
+    }
+
     private Path<?> getPath(Root<?> root, String attributeName) {
         Path<?> path = root;
         for (String part : attributeName.split("\\.")) {
@@ -17,8 +17,12 @@ public abstract class EntidadeBase implements Serializable {
     @Serial
     private static final long serialVersionUID = 1L;
 
+    /**
+     * Gerado pela sequência {@code <entidade>_seq} de cada tabela, com incremento 50 e otimizador
+     * pooled-lo: os códigos são reservados em blocos, mantendo o batching de inserts do Hibernate.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE)
     @Column(name = "codigo")
     @JsonView(ComumViews.Publica.class)
     private Long codigo;
@@ -0,0 +1,89 @@
+package sgc.comum.util;
+
+import org.jspecify.annotations.*;
+
+import java.util.*;
+
+/**
+ * SQL executado pela requisição corrente: statements preparados, linhas lidas, tempo de JDBC e quantas vezes
+ * cada texto de statement se repetiu. Como o Hibernate gera o SQL com parâmetros {@code ?}, o mesmo texto
+ * repetido muitas vezes é o padrão N+1 (uma consulta por elemento de uma lista carregada antes).
+ *
+ * <p>Aberto e fechado por {@link FiltroMonitoramentoHttp} na thread da requisição. SQL executado em outras threads
+ * (tarefas assíncronas, jobs agendados) não é atribuído a nenhuma requisição.
+ */
+final class ConsumoSqlRequisicao {
+    /**
+     * Textos distintos acompanhados por requisição; os demais entram só na contagem total.
+     */
+    static final int LIMITE_FORMATOS = 256;
+
+    private static final ThreadLocal<ConsumoSqlRequisicao> ATUAL = new ThreadLocal<>();
+
+    private final Map<String, Integer> repeticoesPorSql = new HashMap<>();
+    private int statements;
+    private long linhas;
+    private long jdbcNs;
+    private int maiorRepeticao;
+    private @Nullable String sqlMaisRepetido;
+
+    static ConsumoSqlRequisicao iniciar() {
+        ConsumoSqlRequisicao consumo = new ConsumoSqlRequisicao();
+        ATUAL.set(consumo);
+        return consumo;
+    }
+
+    static void encerrar() {
+        ATUAL.remove();
+    }
+
+    static @Nullable ConsumoSqlRequisicao atual() {
+        return ATUAL.get();
+    }
+
+    void registrarStatement(String sql) {
+        statements++;
+        Integer anteriores = repeticoesPorSql.get(sql);
+        int repeticoes;
+        if (anteriores != null) {
+            repeticoes = anteriores + 1;
+        } else if (repeticoesPorSql.size() < LIMITE_FORMATOS) {
+            repeticoes = 1;
+        } else {
+            return;
+        }
+        repeticoesPorSql.put(sql, repeticoes);
+        if (repeticoes > maiorRepeticao) {
+            maiorRepeticao = repeticoes;
+            sqlMaisRepetido = sql;
+        }
+    }
+
+    void registrarLinhas(long quantidade) {
+        linhas += quantidade;
+    }
+
+    void registrarTempoJdbc(long duracaoNs) {
+        jdbcNs += duracaoNs;
+    }
+
+    int statements() {
+        return statements;
+    }
+
+    long linhas() {
+        return linhas;
+    }
+
+    long jdbcNs() {
+        return jdbcNs;
+    }
+
+    int maiorRepeticao() {
+        return maiorRepeticao;
+    }
+
+    @Nullable String sqlMaisRepetido() {
+        return sqlMaisRepetido;
+    }
+}
@@ -0,0 +1,33 @@
+package sgc.comum.util;
+
+import org.hibernate.engine.spi.*;
+import org.hibernate.stat.internal.*;
+
+/**
+ * Estatísticas do Hibernate que também somam ao {@link ConsumoSqlRequisicao} corrente as linhas devolvidas por
+ * consultas e as entidades buscadas por identificador fora delas.
+ */
+public class EstatisticasSqlRequisicao extends StatisticsImpl {
+
+    public EstatisticasSqlRequisicao(SessionFactoryImplementor sessionFactory) {
+        super(sessionFactory);
+    }
+
+    @Override
+    public void queryExecuted(String hql, int rows, long time) {
+        super.queryExecuted(hql, rows, time);
+        ConsumoSqlRequisicao consumo = ConsumoSqlRequisicao.atual();
+        if (consumo != null) {
+            consumo.registrarLinhas(rows);
+        }
+    }
+
+    @Override
+    public void fetchEntity(String entityName) {
+        super.fetchEntity(entityName);
+        ConsumoSqlRequisicao consumo = ConsumoSqlRequisicao.atual();
+        if (consumo != null) {
+            consumo.registrarLinhas(1);
+        }
+    }
+}
@@ -0,0 +1,47 @@
+package sgc.comum.util;
+
+import io.prometheus.metrics.tracer.common.*;
+import org.jspecify.annotations.*;
+import org.slf4j.*;
+import org.springframework.stereotype.*;
+
+/**
+ * Contexto de exemplares do registro Prometheus: as amostras dos histogramas gravadas durante uma requisição
+ * levam o identificador de correlação ({@code X-Correlacao-Id}) em {@code trace_id} e {@code span_id}, e o
+ * painel de métricas leva do bucket lento direto às linhas de log da requisição.
+ *
+ * <p>Fora de requisições (jobs agendados, por exemplo) não há identificador no MDC e nenhum exemplar é anexado.
+ * Os exemplares só aparecem na exposição em formato OpenMetrics.
+ *
+ * <p>O OpenMetrics limita os rótulos de um exemplar a 128 caracteres, contando nomes e valores; como o identificador
+ * vai nos dois rótulos, só os primeiros {@value #TAMANHO_MAXIMO_ID} caracteres entram no exemplar. Um exemplar acima
+ * do limite faz o Prometheus rejeitar a coleta inteira.
+ */
+@Component
+public class ExemplarCorrelacao implements SpanContext {
+    static final int TAMANHO_MAXIMO_ID = 56;
+
+    @Override
+    public @Nullable String getCurrentTraceId() {
+        String correlacaoId = MDC.get(FiltroMonitoramentoHttp.MDC_CORRELACAO_ID);
+        if (correlacaoId == null || correlacaoId.length() <= TAMANHO_MAXIMO_ID) {
+            return correlacaoId;
+        }
+        return correlacaoId.substring(0, TAMANHO_MAXIMO_ID);
+    }
+
+    @Override
+    public @Nullable String getCurrentSpanId() {
+        return getCurrentTraceId();
+    }
+
+    @Override
+    public boolean isCurrentSpanSampled() {
+        return getCurrentTraceId() != null;
+    }
+
+    @Override
+    public void markCurrentSpanAsExemplar() {
+        // Não há span real a marcar: o identificador de correlação já é o vínculo com os logs
+    }
+}
@@ -1,16 +1,35 @@
 package sgc.comum.util;
 
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
+import org.jspecify.annotations.*;
 import org.slf4j.*;
+import org.springframework.beans.factory.*;
 import org.springframework.stereotype.*;
 import org.springframework.util.*;
 import org.springframework.web.context.request.*;
 import org.springframework.web.filter.*;
+import org.springframework.web.servlet.*;
 
 import java.io.*;
+import java.time.*;
 import java.util.*;
-
+import java.util.concurrent.*;
+import java.util.regex.*;
+
+/**
+ * Atribui o identificador de correlação de cada requisição a {@code /api/} e mede sua duração no timer
+ * {@value #METRICA_HTTP}, com as tags {@code metodo}, {@code rota} (o padrão mapeado no controller, como
+ * {@code /api/processos/{codigo}}) e {@code status} e os buckets de SLO de {@link MonitoramentoProperties#getSloHttp()}.
+ *
+ * <p>Os timers ficam em cache por método, rota e status. O identificador de correlação vai para o MDC, de onde
+ * {@link ExemplarCorrelacao} o lê para anexar exemplares às amostras dos histogramas.
+ *
+ * <p>Com {@code sgc.monitoramento.sql.ativo}, o SQL executado pela requisição é contado em um
+ * {@link ConsumoSqlRequisicao} e avaliado por {@link OrcamentoSql} na mesma rota.
+ */
 @Component
 public class FiltroMonitoramentoHttp extends OncePerRequestFilter {
     public static final String HEADER_CORRELACAO_ID = "X-Correlacao-Id";
@@ -20,12 +39,32 @@ public class FiltroMonitoramentoHttp extends OncePerRequestFilter {
     public static final String ATRIBUTO_HTTP_CAMINHO = "sgc.monitoramento.httpCaminho";
     public static final String ATRIBUTO_JAVA_LENTOS = "sgc.monitoramento.javaLentos";
     public static final String MDC_CORRELACAO_ID = "correlacaoId";
+    static final String METRICA_HTTP = "sgc.http.duracao";
+    static final String ROTA_NAO_MAPEADA = "NAO_MAPEADA";
     private static final Logger LOG_MONITORAMENTO = LoggerFactory.getLogger("sgc.monitoramento");
+    private static final Pattern CORRELACAO_ID_VALIDO = Pattern.compile("[A-Za-z0-9._-]{1,64}");
+    private static final Set<String> METODOS_HTTP = Set.of("GET", "HEAD", "POST", "PUT", "PATCH", "DELETE", "OPTIONS");
 
     private final MonitoramentoProperties monitoramentoProperties;
+    private final MeterRegistry meterRegistry;
+    private final Duration[] slos;
+    private final ConcurrentMap<ChaveTimer, Timer> timers = new ConcurrentHashMap<>();
+    private final @Nullable OrcamentoSql orcamentoSql;
+
+    /**
+     * Sem registro de métricas no contexto (como nos testes de fatia web), usa o registro global do Micrometer.
+     */
+    public FiltroMonitoramentoHttp(MonitoramentoProperties monitoramentoProperties,
+                                   ObjectProvider<MeterRegistry> meterRegistry) {
+        this(monitoramentoProperties, meterRegistry.getIfAvailable(() -> Metrics.globalRegistry));
+    }
 
-    public FiltroMonitoramentoHttp(MonitoramentoProperties monitoramentoProperties) {
+    FiltroMonitoramentoHttp(MonitoramentoProperties monitoramentoProperties, MeterRegistry meterRegistry) {
         this.monitoramentoProperties = monitoramentoProperties;
+        this.meterRegistry = meterRegistry;
+        this.slos = monitoramentoProperties.getSloHttp().toArray(Duration[]::new);
+        MonitoramentoProperties.Sql sql = monitoramentoProperties.getSql();
+        this.orcamentoSql = sql.isAtivo() ? new OrcamentoSql(sql, meterRegistry) : null;
     }
 
     public static String obterCorrelacaoIdAtual() {
@@ -90,54 +129,78 @@ public class FiltroMonitoramentoHttp extends OncePerRequestFilter {
     protected void doFilterInternal(HttpServletRequest request,
                                     HttpServletResponse response,
                                     FilterChain filterChain) throws ServletException, IOException {
-        if (!monitoramentoProperties.isMonitoramentoHttpAtivo()) {
-            filterChain.doFilter(request, response);
-            return;
-        }
-
         long inicioNs = System.nanoTime();
         String correlacaoId = obterOuGerarCorrelacaoId(request);
+        boolean logAtivo = monitoramentoProperties.isLogHttpLentoAtivo();
 
         request.setAttribute(ATRIBUTO_CORRELACAO_ID, correlacaoId);
-        request.setAttribute(ATRIBUTO_HTTP_METODO, request.getMethod());
-        request.setAttribute(ATRIBUTO_HTTP_CAMINHO, obterCaminhoComQueryString(request));
-        request.setAttribute(ATRIBUTO_JAVA_LENTOS, new ArrayList<String>());
+        if (logAtivo) {
+            request.setAttribute(ATRIBUTO_HTTP_METODO, request.getMethod());
+            request.setAttribute(ATRIBUTO_HTTP_CAMINHO, obterCaminhoComQueryString(request));
+            request.setAttribute(ATRIBUTO_JAVA_LENTOS, new ArrayList<String>());
+        }
         response.setHeader(HEADER_CORRELACAO_ID, correlacaoId);
 
         MDC.put(MDC_CORRELACAO_ID, correlacaoId);
+        OrcamentoSql orcamento = orcamentoSql;
+        ConsumoSqlRequisicao consumoSql = orcamento != null ? ConsumoSqlRequisicao.iniciar() : null;
 
         try {
             filterChain.doFilter(request, response);
         } finally {
-            long duracaoMs = java.util.concurrent.TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - inicioNs);
+            long duracaoNs = System.nanoTime() - inicioNs;
+            long duracaoMs = TimeUnit.NANOSECONDS.toMillis(duracaoNs);
 
             response.setHeader(HEADER_TEMPO_SERVIDOR_MS, String.valueOf(duracaoMs));
             response.setHeader("Server-Timing", "app;dur=" + duracaoMs);
+            String metodo = METODOS_HTTP.contains(request.getMethod()) ? request.getMethod() : "OUTRO";
+            String rota = obterRota(request);
+            // Gravado antes de sair do MDC, para que o exemplar leve o identificador de correlação
+            timer(metodo, rota, response.getStatus()).record(duracaoNs, TimeUnit.NANOSECONDS);
+            if (orcamento != null && consumoSql != null) {
+                ConsumoSqlRequisicao.encerrar();
+                orcamento.avaliar(metodo, rota, consumoSql, correlacaoId);
+            }
 
-            if (deveLogarHttp(duracaoMs)) {
-                LOG_MONITORAMENTO.info(formatarLinhaHttp(request, response, duracaoMs));
+            if (logAtivo) {
+                if (deveLogarHttp(duracaoMs)) {
+                    logarHttp(request, response, duracaoMs);
+                }
+                logarJavaLento(request);
             }
-            logarJavaLento(request);
 
             MDC.remove(MDC_CORRELACAO_ID);
         }
     }
 
+    private static String obterRota(HttpServletRequest request) {
+        Object padrao = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        return padrao instanceof String padraoMapeado ? padraoMapeado : ROTA_NAO_MAPEADA;
+    }
+
+    private Timer timer(String metodo, String rota, int status) {
+        return timers.computeIfAbsent(new ChaveTimer(metodo, rota, status), chave -> Timer.builder(METRICA_HTTP)
+                .description("Duração das requisições à API por rota")
+                .tag("metodo", chave.metodo())
+                .tag("rota", chave.rota())
+                .tag("status", String.valueOf(chave.status()))
+                .serviceLevelObjectives(slos)
+                .register(meterRegistry));
+    }
+
     private boolean deveLogarHttp(long duracaoMs) {
         return duracaoMs >= monitoramentoProperties.getTempoHttpLentoMs();
     }
 
-    private String formatarLinhaHttp(HttpServletRequest request,
-                                     HttpServletResponse response,
-                                     long duracaoMs) {
+    private void logarHttp(HttpServletRequest request, HttpServletResponse response, long duracaoMs) {
         String caminho = obterCaminhoComQueryString(request);
         int status = response.getStatus();
 
         if (status == HttpServletResponse.SC_OK) {
-            return String.format("http %s %s %dms", request.getMethod(), caminho, duracaoMs);
+            LOG_MONITORAMENTO.info("http {} {} {}ms", request.getMethod(), caminho, duracaoMs);
+        } else {
+            LOG_MONITORAMENTO.info("http {} {} {} {}ms", request.getMethod(), caminho, status, duracaoMs);
         }
-
-        return String.format("http %s %s %d %dms", request.getMethod(), caminho, status, duracaoMs);
     }
 
     private void logarJavaLento(HttpServletRequest request) {
@@ -151,9 +214,13 @@ public class FiltroMonitoramentoHttp extends OncePerRequestFilter {
                 .forEach(LOG_MONITORAMENTO::info);
     }
 
+    /**
+     * Aceita o identificador enviado pelo cliente só se for curto e sem caracteres especiais, já que ele
+     * vai para logs, cabeçalhos de resposta e rótulos de exemplares.
+     */
     private String obterOuGerarCorrelacaoId(HttpServletRequest request) {
         String correlacaoIdHeader = request.getHeader(HEADER_CORRELACAO_ID);
-        if (StringUtils.hasText(correlacaoIdHeader)) {
+        if (correlacaoIdHeader != null && CORRELACAO_ID_VALIDO.matcher(correlacaoIdHeader).matches()) {
             return correlacaoIdHeader;
         }
         return UUID.randomUUID().toString();
@@ -166,4 +233,7 @@ public class FiltroMonitoramentoHttp extends OncePerRequestFilter {
         }
         return request.getRequestURI() + "?" + queryString;
     }
+
+    private record ChaveTimer(String metodo, String rota, int status) {
+    }
 }
@@ -0,0 +1,19 @@
+package sgc.comum.util;
+
+import org.hibernate.resource.jdbc.spi.*;
+
+/**
+ * Conta cada statement preparado pelo Hibernate no {@link ConsumoSqlRequisicao} da requisição corrente, sem
+ * alterar o SQL.
+ */
+public class InspetorSqlRequisicao implements StatementInspector {
+
+    @Override
+    public String inspect(String sql) {
+        ConsumoSqlRequisicao consumo = ConsumoSqlRequisicao.atual();
+        if (consumo != null) {
+            consumo.registrarStatement(sql);
+        }
+        return sql;
+    }
+}
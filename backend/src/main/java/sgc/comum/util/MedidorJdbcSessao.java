@@ -0,0 +1,38 @@
+package sgc.comum.util;
+
+import org.hibernate.*;
+
+/**
+ * Soma ao {@link ConsumoSqlRequisicao} corrente o tempo gasto na execução de statements e lotes JDBC. O Hibernate
+ * cria uma instância por sessão, e uma sessão não executa dois statements ao mesmo tempo.
+ */
+public class MedidorJdbcSessao implements SessionEventListener {
+    private long inicioNs;
+
+    @Override
+    public void jdbcExecuteStatementStart() {
+        inicioNs = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteStatementEnd() {
+        registrar();
+    }
+
+    @Override
+    public void jdbcExecuteBatchStart() {
+        inicioNs = System.nanoTime();
+    }
+
+    @Override
+    public void jdbcExecuteBatchEnd() {
+        registrar();
+    }
+
+    private void registrar() {
+        ConsumoSqlRequisicao consumo = ConsumoSqlRequisicao.atual();
+        if (consumo != null) {
+            consumo.registrarTempoJdbc(System.nanoTime() - inicioNs);
+        }
+    }
+}
@@ -1,55 +1,98 @@
 package sgc.comum.util;
 
+import io.micrometer.core.instrument.*;
 import lombok.extern.slf4j.*;
 import org.aspectj.lang.*;
 import org.aspectj.lang.annotation.*;
-import org.springframework.beans.factory.annotation.*;
+import org.aspectj.lang.reflect.*;
+import org.jspecify.annotations.*;
 import org.springframework.stereotype.*;
 import org.springframework.util.*;
 
+import java.lang.reflect.*;
+import java.time.*;
+import java.util.concurrent.*;
+
+/**
+ * Mede cada chamada a métodos de {@code *Service} e {@code *Repo} no timer {@value #METRICA_METODO}, com as tags
+ * {@code camada}, {@code classe} e {@code metodo} e os buckets de SLO de {@link MonitoramentoProperties#getSloJava()}.
+ *
+ * <p>O timer de cada método é criado na primeira chamada e guardado por bean e {@link Method}, de modo que as
+ * chamadas seguintes não montam tags nem consultam o registro. Métodos herdados de interfaces do Spring Data são
+ * atribuídos ao repositório do SGC que os expõe.
+ */
 @Aspect
 @Component
 @Slf4j
 public class MonitoramentoAspect {
-    private final boolean monitoramentoJavaLentoAtivo;
-    private final long tempoMinimoJavaMs;
-
-    public MonitoramentoAspect() {
-        this(false, 500);
-    }
+    static final String METRICA_METODO = "sgc.metodo.duracao";
 
-    public MonitoramentoAspect(boolean monitoramentoJavaLentoAtivo, long tempoMinimoJavaMs) {
-        this.monitoramentoJavaLentoAtivo = monitoramentoJavaLentoAtivo;
-        this.tempoMinimoJavaMs = tempoMinimoJavaMs;
-    }
+    private final MeterRegistry meterRegistry;
+    private final boolean logJavaLentoAtivo;
+    private final long tempoMinimoJavaNs;
+    private final Duration[] slos;
+    private final ConcurrentMap<Class<?>, ConcurrentMap<Method, Timer>> timersPorBean = new ConcurrentHashMap<>();
 
-    @Autowired
-    public MonitoramentoAspect(MonitoramentoProperties props) {
-        this.monitoramentoJavaLentoAtivo = props.isMonitoramentoJavaLentoAtivo();
-        this.tempoMinimoJavaMs = props.getTempoMinimoJavaMs();
+    public MonitoramentoAspect(MeterRegistry meterRegistry, MonitoramentoProperties props) {
+        this.meterRegistry = meterRegistry;
+        this.logJavaLentoAtivo = props.isLogJavaLentoAtivo();
+        this.tempoMinimoJavaNs = TimeUnit.MILLISECONDS.toNanos(props.getTempoMinimoJavaMs());
+        this.slos = props.getSloJava().toArray(Duration[]::new);
     }
 
     @Around("execution(* sgc..*Service.*(..))" +
             " || execution(* sgc..*Repo.*(..))"
     )
-
     public Object monitorarExecucao(ProceedingJoinPoint joinPoint) throws Throwable {
-        if (!monitoramentoJavaLentoAtivo) return joinPoint.proceed();
-
-        StopWatch stopWatch = new StopWatch();
-        stopWatch.start();
+        long inicio = System.nanoTime();
         try {
             return joinPoint.proceed();
         } finally {
-            stopWatch.stop();
-            double tempoTotal = stopWatch.getTotalTimeNanos() / 1_000_000d;
+            long duracaoNs = System.nanoTime() - inicio;
             Signature assinatura = joinPoint.getSignature();
-            String classe = assinatura != null ? assinatura.getDeclaringTypeName() : joinPoint.getClass().getName();
-            String metodo = assinatura != null ? assinatura.getName() : "desconhecido";
+            if (assinatura instanceof MethodSignature metodo) {
+                timer(joinPoint.getThis(), metodo.getMethod()).record(duracaoNs, TimeUnit.NANOSECONDS);
+            }
+            if (logJavaLentoAtivo && duracaoNs > tempoMinimoJavaNs) {
+                String classe = assinatura != null ? assinatura.getDeclaringTypeName() : joinPoint.getClass().getName();
+                String nomeMetodo = assinatura != null ? assinatura.getName() : "desconhecido";
+                FiltroMonitoramentoHttp.registrarJavaLento(classe, nomeMetodo, duracaoNs / 1_000_000d);
+            }
+        }
+    }
+
+    private Timer timer(@Nullable Object bean, Method metodo) {
+        Class<?> tipoBean = bean != null ? bean.getClass() : metodo.getDeclaringClass();
+        return timersPorBean
+                .computeIfAbsent(tipoBean, tipo -> new ConcurrentHashMap<>())
+                .computeIfAbsent(metodo, m -> registrarTimer(tipoBean, m));
+    }
 
-            if (tempoTotal > tempoMinimoJavaMs) {
-                FiltroMonitoramentoHttp.registrarJavaLento(classe, metodo, tempoTotal);
+    private Timer registrarTimer(Class<?> tipoBean, Method metodo) {
+        String classe = nomeClasse(tipoBean, metodo);
+        return Timer.builder(METRICA_METODO)
+                .description("Duração das chamadas a métodos de serviços e repositórios")
+                .tag("camada", classe.endsWith("Repo") ? "repo" : "service")
+                .tag("classe", classe)
+                .tag("metodo", metodo.getName())
+                .serviceLevelObjectives(slos)
+                .register(meterRegistry);
+    }
+
+    /**
+     * Nome simples da classe do SGC que declara o método ou, para métodos herdados de bibliotecas, da primeira
+     * interface do SGC implementada pelo bean.
+     */
+    static String nomeClasse(Class<?> tipoBean, Method metodo) {
+        Class<?> declarante = metodo.getDeclaringClass();
+        if (declarante.getName().startsWith("sgc.")) {
+            return declarante.getSimpleName();
+        }
+        for (Class<?> interfaceBean : ClassUtils.getAllInterfacesForClassAsSet(tipoBean)) {
+            if (interfaceBean.getName().startsWith("sgc.")) {
+                return interfaceBean.getSimpleName();
             }
         }
+        return ClassUtils.getUserClass(tipoBean).getSimpleName();
     }
 }
@@ -3,6 +3,13 @@ package sgc.comum.util;
 import lombok.*;
 import org.springframework.boot.context.properties.*;
 
+import java.time.*;
+import java.util.*;
+
+/**
+ * Os timers de {@link MonitoramentoAspect} e {@link FiltroMonitoramentoHttp} ficam sempre ativos; {@code modo}
+ * liga apenas as linhas de log das requisições e dos métodos acima dos limites configurados.
+ */
 @ConfigurationProperties(prefix = "sgc.monitoramento")
 @Getter
 @Setter
@@ -10,15 +17,40 @@ public class MonitoramentoProperties {
     private Modo modo = Modo.NAO;
     private long tempoMinimoJavaMs = 500;
     private long tempoHttpLentoMs = 100;
+    private List<Duration> sloHttp = List.of(
+            Duration.ofMillis(50), Duration.ofMillis(100), Duration.ofMillis(250), Duration.ofMillis(500),
+            Duration.ofSeconds(1), Duration.ofMillis(2500), Duration.ofSeconds(5));
+    private List<Duration> sloJava = List.of(
+            Duration.ofMillis(5), Duration.ofMillis(25), Duration.ofMillis(100), Duration.ofMillis(250),
+            Duration.ofMillis(500), Duration.ofSeconds(1), Duration.ofSeconds(5));
+    @NestedConfigurationProperty
+    private Sql sql = new Sql();
 
-    public boolean isMonitoramentoHttpAtivo() {
+    public boolean isLogHttpLentoAtivo() {
         return modo == Modo.SIM;
     }
 
-    public boolean isMonitoramentoJavaLentoAtivo() {
+    public boolean isLogJavaLentoAtivo() {
         return modo == Modo.SIM;
     }
 
+    /**
+     * Contagem de SQL por requisição ({@link ConsumoSqlRequisicao}). Desligada por padrão, pois exige as
+     * estatísticas do Hibernate; os orçamentos são indexados pela rota mapeada, como {@code /api/processos/{codigo}}.
+     */
+    @Getter
+    @Setter
+    public static class Sql {
+        private boolean ativo = false;
+        private int limiteStatements = 50;
+        private int limiteRepeticoes = 10;
+        private Map<String, Integer> orcamentos = new HashMap<>();
+
+        public int limiteStatements(String rota) {
+            return orcamentos.getOrDefault(rota, limiteStatements);
+        }
+    }
+
     public enum Modo {
         SIM,
         NAO
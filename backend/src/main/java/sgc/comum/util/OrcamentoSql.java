@@ -0,0 +1,91 @@
+package sgc.comum.util;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.*;
+
+import java.util.concurrent.*;
+
+/**
+ * Exporta o {@link ConsumoSqlRequisicao} de cada requisição por método e rota mapeada e registra no log as
+ * requisições que passam do orçamento de statements da rota ou repetem o mesmo statement além de
+ * {@link MonitoramentoProperties.Sql#getLimiteRepeticoes()}.
+ */
+final class OrcamentoSql {
+    static final String METRICA_STATEMENTS = "sgc.sql.statements";
+    static final String METRICA_LINHAS = "sgc.sql.linhas";
+    static final String METRICA_DURACAO = "sgc.sql.duracao";
+    static final String METRICA_VIOLACOES = "sgc.sql.violacoes";
+    private static final int TAMANHO_MAXIMO_SQL_LOG = 300;
+    private static final Logger LOG_MONITORAMENTO = LoggerFactory.getLogger("sgc.monitoramento");
+
+    private final MonitoramentoProperties.Sql propriedades;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<Rota, MedidoresRota> medidores = new ConcurrentHashMap<>();
+
+    OrcamentoSql(MonitoramentoProperties.Sql propriedades, MeterRegistry meterRegistry) {
+        this.propriedades = propriedades;
+        this.meterRegistry = meterRegistry;
+    }
+
+    void avaliar(String metodo, String rota, ConsumoSqlRequisicao consumo, String correlacaoId) {
+        MedidoresRota medidoresRota = medidores.computeIfAbsent(new Rota(metodo, rota), this::registrar);
+        medidoresRota.statements().record(consumo.statements());
+        medidoresRota.linhas().record(consumo.linhas());
+        medidoresRota.duracao().record(consumo.jdbcNs(), TimeUnit.NANOSECONDS);
+
+        int limite = propriedades.limiteStatements(rota);
+        if (consumo.statements() > limite) {
+            medidoresRota.orcamentoExcedido().increment();
+            LOG_MONITORAMENTO.warn("sql orcamento {} {} statements={} limite={} linhas={} jdbc={}ms correlacao={}",
+                    metodo, rota, consumo.statements(), limite, consumo.linhas(),
+                    TimeUnit.NANOSECONDS.toMillis(consumo.jdbcNs()), correlacaoId);
+        }
+
+        String sqlMaisRepetido = consumo.sqlMaisRepetido();
+        if (sqlMaisRepetido != null && consumo.maiorRepeticao() > propriedades.getLimiteRepeticoes()) {
+            medidoresRota.repeticao().increment();
+            LOG_MONITORAMENTO.warn("sql repetido {} {} {}x correlacao={}: {}",
+                    metodo, rota, consumo.maiorRepeticao(), correlacaoId, resumir(sqlMaisRepetido));
+        }
+    }
+
+    private MedidoresRota registrar(Rota chave) {
+        Tags tags = Tags.of("metodo", chave.metodo(), "rota", chave.rota());
+        return new MedidoresRota(
+                DistributionSummary.builder(METRICA_STATEMENTS)
+                        .description("Statements SQL preparados por requisição")
+                        .tags(tags)
+                        .register(meterRegistry),
+                DistributionSummary.builder(METRICA_LINHAS)
+                        .description("Linhas lidas do banco por requisição")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Timer.builder(METRICA_DURACAO)
+                        .description("Tempo de execução JDBC por requisição")
+                        .tags(tags)
+                        .register(meterRegistry),
+                Counter.builder(METRICA_VIOLACOES)
+                        .description("Requisições acima do orçamento de SQL")
+                        .tags(tags)
+                        .tag("tipo", "orcamento")
+                        .register(meterRegistry),
+                Counter.builder(METRICA_VIOLACOES)
+                        .description("Requisições acima do orçamento de SQL")
+                        .tags(tags)
+                        .tag("tipo", "repeticao")
+                        .register(meterRegistry));
+    }
+
+    private static String resumir(String sql) {
+        String linha = sql.replaceAll("\\s+", " ");
+        return linha.length() <= TAMANHO_MAXIMO_SQL_LOG ? linha : linha.substring(0, TAMANHO_MAXIMO_SQL_LOG) + "...";
+    }
+
+    private record Rota(String metodo, String rota) {
+    }
+
+    private record MedidoresRota(DistributionSummary statements, DistributionSummary linhas, Timer duracao,
+                                 Counter orcamentoExcedido, Counter repeticao) {
+    }
+}
@@ -0,0 +1,149 @@
+package sgc.comum.util;
+
+import lombok.*;
+
+import java.text.*;
+import java.util.*;
+import java.util.function.*;
+
+/**
+ * Ordenação natural em pt-BR para siglas e nomes de unidades.
+ *
+ * <p>Trechos numéricos são comparados pelo valor ("SEC 2" antes de "SEC 10") e os demais pelo
+ * {@link Collator} pt-BR com força primária, ignorando acentos e caixa. O collator é criado uma única
+ * vez e cada texto é decomposto em {@link Chave} apenas uma vez por ordenação.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class OrdenacaoNatural {
+    private static final Collator COLLATOR = criarCollator();
+
+    private static final Comparator<String> COMPARADOR = Comparator.comparing(OrdenacaoNatural::chave);
+
+    /**
+     * Comparador avulso; para ordenar listas prefira {@link #ordenar(List, Function)}, que calcula cada chave uma só vez.
+     */
+    public static Comparator<String> comparador() {
+        return COMPARADOR;
+    }
+
+    /**
+     * Ordena a lista no lugar pelo texto extraído de cada item.
+     */
+    public static <T> void ordenar(List<T> itens, Function<? super T, String> texto) {
+        if (itens.size() < 2) {
+            return;
+        }
+        List<ItemChave<T>> chaves = new ArrayList<>(itens.size());
+        for (T item : itens) {
+            chaves.add(new ItemChave<>(chave(texto.apply(item)), item));
+        }
+        chaves.sort((a, b) -> a.chave().compareTo(b.chave()));
+        ListIterator<T> iterador = itens.listIterator();
+        for (ItemChave<T> itemChave : chaves) {
+            iterador.next();
+            iterador.set(itemChave.item());
+        }
+    }
+
+    public static <T> List<T> ordenados(Collection<T> itens, Function<? super T, String> texto) {
+        List<T> copia = new ArrayList<>(itens);
+        ordenar(copia, texto);
+        return copia;
+    }
+
+    public static Chave chave(String texto) {
+        List<String> partes = separarSegmentos(texto);
+        Segmento[] segmentos = new Segmento[partes.size()];
+        for (int i = 0; i < segmentos.length; i++) {
+            segmentos[i] = Segmento.de(partes.get(i));
+        }
+        return new Chave(segmentos);
+    }
+
+    static List<String> separarSegmentos(String texto) {
+        if (texto.isBlank()) {
+            return List.of("");
+        }
+
+        List<String> segmentos = new ArrayList<>();
+        StringBuilder atual = new StringBuilder();
+        boolean numeroAtual = Character.isDigit(texto.charAt(0));
+
+        for (char caractere : texto.toCharArray()) {
+            boolean numero = Character.isDigit(caractere);
+            if (numero == numeroAtual) {
+                atual.append(caractere);
+                continue;
+            }
+            segmentos.add(atual.toString());
+            atual = new StringBuilder().append(caractere);
+            numeroAtual = numero;
+        }
+        segmentos.add(atual.toString());
+        return segmentos;
+    }
+
+    private static Collator criarCollator() {
+        Collator collator = Collator.getInstance(Locale.forLanguageTag("pt-BR"));
+        collator.setStrength(Collator.PRIMARY);
+        return collator;
+    }
+
+    /**
+     * Texto já decomposto em segmentos comparáveis.
+     */
+    public static final class Chave implements Comparable<Chave> {
+        private final Segmento[] segmentos;
+
+        private Chave(Segmento[] segmentos) {
+            this.segmentos = segmentos;
+        }
+
+        @Override
+        public int compareTo(Chave outra) {
+            int limite = Math.min(segmentos.length, outra.segmentos.length);
+            for (int i = 0; i < limite; i++) {
+                int comparacao = segmentos[i].compareTo(outra.segmentos[i]);
+                if (comparacao != 0) {
+                    return comparacao;
+                }
+            }
+            return Integer.compare(segmentos.length, outra.segmentos.length);
+        }
+    }
+
+    /**
+     * Segmento numérico (dígitos sem zeros à esquerda) ou textual ({@link CollationKey}).
+     */
+    private record Segmento(String digitos, boolean numerico, CollationKey colacao) implements Comparable<Segmento> {
+        static Segmento de(String texto) {
+            boolean numerico = texto.chars().allMatch(Character::isDigit);
+            String digitos = numerico ? removerZerosEsquerda(texto) : "";
+            CollationKey colacao;
+            synchronized (COLLATOR) {
+                colacao = COLLATOR.getCollationKey(texto);
+            }
+            return new Segmento(digitos, numerico, colacao);
+        }
+
+        @Override
+        public int compareTo(Segmento outro) {
+            if (numerico && outro.numerico) {
+                int porTamanho = Integer.compare(digitos.length(), outro.digitos.length());
+                return porTamanho != 0 ? porTamanho : digitos.compareTo(outro.digitos);
+            }
+            return colacao.compareTo(outro.colacao);
+        }
+
+        private static String removerZerosEsquerda(String texto) {
+            int inicio = 0;
+            while (inicio < texto.length() && texto.charAt(inicio) == '0') {
+                inicio++;
+            }
+            return texto.substring(inicio);
+        }
+    }
+
+    private record ItemChave<T>(Chave chave, T item) {
+    }
+}
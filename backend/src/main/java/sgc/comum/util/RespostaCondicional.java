@@ -0,0 +1,27 @@
+package sgc.comum.util;
+
+import lombok.*;
+import org.springframework.http.*;
+import org.springframework.web.context.request.*;
+
+import java.util.function.*;
+
+/**
+ * GET condicional para recursos que têm uma versão conhecida antes de montar a resposta.
+ *
+ * <p>O ETag é derivado da versão dos dados, não do corpo: o {@code If-None-Match} é comparado primeiro e,
+ * quando o cliente já tem a versão atual, a resposta é {@code 304} sem montar DTOs nem serializar. O
+ * {@code Cache-Control: no-cache, private} permite ao navegador guardar a resposta, sempre revalidando.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class RespostaCondicional {
+    private static final CacheControl REVALIDAR = CacheControl.noCache().cachePrivate();
+
+    public static <T> ResponseEntity<T> versionada(WebRequest request, String versao, Supplier<T> corpo) {
+        String etag = "\"" + versao + "\"";
+        if (request.checkNotModified(etag)) {
+            return ResponseEntity.status(HttpStatus.NOT_MODIFIED).cacheControl(REVALIDAR).build();
+        }
+        return ResponseEntity.ok().eTag(etag).cacheControl(REVALIDAR).body(corpo.get());
+    }
+}
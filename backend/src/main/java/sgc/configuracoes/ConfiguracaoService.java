@@ -17,6 +17,7 @@ public class ConfiguracaoService {
     public static final int PADRAO_DIAS_ALERTA_NOVO = 3;
 
     private final ConfiguracaoRepo configuracaoRepo;
+    private final RegistroConfiguracoes registroConfiguracoes;
 
     public List<Configuracao> buscarTodos() {
         return configuracaoRepo.findAll();
@@ -36,42 +37,32 @@ public class ConfiguracaoService {
 
     @Transactional
     public List<Configuracao> salvar(List<Configuracao> configuracaos) {
-        return configuracaoRepo.saveAll(configuracaos);
+        List<Configuracao> salvas = configuracaoRepo.saveAll(configuracaos);
+        registroConfiguracoes.recarregarAposCommit();
+        return salvas;
     }
 
     @Transactional
     public Configuracao atualizar(String chave, String novoValor) {
         Configuracao configuracao = buscarPorChave(chave);
         configuracao.setValor(novoValor);
-        return configuracaoRepo.save(configuracao);
+        Configuracao salva = configuracaoRepo.save(configuracao);
+        registroConfiguracoes.recarregarAposCommit();
+        return salva;
     }
 
-    @Transactional(readOnly = true)
     public int buscarDiasInativacaoProcesso() {
         return buscarValorInteiro(CHAVE_DIAS_INATIVACAO_PROCESSO, PADRAO_DIAS_INATIVACAO_PROCESSO);
     }
 
-    @Transactional(readOnly = true)
     public int buscarDiasAlertaNovo() {
         return buscarValorInteiro(CHAVE_DIAS_ALERTA_NOVO, PADRAO_DIAS_ALERTA_NOVO);
     }
 
-    @Transactional(readOnly = true)
+    /**
+     * Lido de {@link RegistroConfiguracoes}, sem ida ao banco.
+     */
     public int buscarValorInteiro(String chave, int valorPadrao) {
-        Optional<Configuracao> configuracaoOpt = configuracaoRepo.findByChave(chave);
-        if (configuracaoOpt.isEmpty()) {
-            return valorPadrao;
-        }
-
-        String valor = configuracaoOpt.get().getValor();
-        try {
-            int valorConvertido = Integer.parseInt(valor);
-            if (valorConvertido < 1) {
-                throw new ErroConfiguracao("Configuração '%s' deve ser maior ou igual a 1.".formatted(chave));
-            }
-            return valorConvertido;
-        } catch (NumberFormatException e) {
-            throw new ErroConfiguracao("Configuração '%s' possui valor inválido: '%s'.".formatted(chave, valor));
-        }
+        return registroConfiguracoes.inteiro(chave, valorPadrao);
     }
 }
@@ -0,0 +1,103 @@
+package sgc.configuracoes;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+import org.jspecify.annotations.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.support.*;
+import sgc.comum.erros.*;
+import sgc.configuracoes.model.*;
+import sgc.organizacao.service.*;
+
+import java.util.*;
+import java.util.stream.*;
+
+/**
+ * Valores vigentes da tabela CONFIGURACAO, mantidos em memória.
+ *
+ * <p>Todas as linhas são carregadas na inicialização (ou no primeiro acesso, se este vier antes) e a leitura
+ * é o acesso a um mapa imutável publicado num campo volátil, sem consulta ao banco. Alterações feitas por
+ * {@link ConfiguracaoService} recarregam o mapa após o commit e avisam os clientes com o evento SSE
+ * {@value #EVENTO_CONFIGURACOES_ATUALIZADAS}.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RegistroConfiguracoes {
+    static final String EVENTO_CONFIGURACOES_ATUALIZADAS = "configuracoes-atualizadas";
+
+    private final ConfiguracaoRepo configuracaoRepo;
+    private final RegistroSseEmitter registroSseEmitter;
+
+    private volatile @Nullable Map<String, String> valores;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void carregar() {
+        Map<String, String> carregados = configuracaoRepo.findAll().stream()
+                .collect(Collectors.toUnmodifiableMap(Configuracao::getChave, Configuracao::getValor, (a, b) -> a));
+        valores = carregados;
+        log.debug("{} configurações carregadas.", carregados.size());
+    }
+
+    /**
+     * Recarrega os valores depois do commit da transação corrente (ou já, fora de transação) e
+     * notifica os clientes conectados.
+     */
+    public void recarregarAposCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            recarregarENotificar();
+            return;
+        }
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                recarregarENotificar();
+            }
+        });
+    }
+
+    public Optional<String> valor(String chave) {
+        return Optional.ofNullable(vigentes().get(chave));
+    }
+
+    /**
+     * Valor inteiro positivo da configuração, ou {@code valorPadrao} quando ela não existe.
+     */
+    public int inteiro(String chave, int valorPadrao) {
+        String valor = vigentes().get(chave);
+        if (valor == null) {
+            return valorPadrao;
+        }
+
+        try {
+            int valorConvertido = Integer.parseInt(valor);
+            if (valorConvertido < 1) {
+                throw new ErroConfiguracao("Configuração '%s' deve ser maior ou igual a 1.".formatted(chave));
+            }
+            return valorConvertido;
+        } catch (NumberFormatException e) {
+            throw new ErroConfiguracao("Configuração '%s' possui valor inválido: '%s'.".formatted(chave, valor));
+        }
+    }
+
+    private Map<String, String> vigentes() {
+        Map<String, String> atuais = valores;
+        if (atuais == null) {
+            synchronized (this) {
+                if (valores == null) {
+                    carregar();
+                }
+                atuais = Objects.requireNonNull(valores);
+            }
+        }
+        return atuais;
+    }
+
+    private void recarregarENotificar() {
+        carregar();
+        registroSseEmitter.transmitir(EVENTO_CONFIGURACOES_ATUALIZADAS);
+    }
+}
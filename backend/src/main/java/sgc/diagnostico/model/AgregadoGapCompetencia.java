@@ -0,0 +1,70 @@
+package sgc.diagnostico.model;
+
+import jakarta.persistence.*;
+import lombok.*;
+import lombok.experimental.*;
+import org.jspecify.annotations.*;
+import sgc.comum.model.*;
+
+/**
+ * Totais de um diagnóstico para uma competência: soma e quantidade dos gaps calculados e quantidade de
+ * situações de capacitação por valor. Mantidos por {@code DiagnosticoGapService} a cada gravação de
+ * avaliações e situações, para que os relatórios não precisem reler as linhas de cada servidor.
+ */
+@Entity
+@Table(name = "AGREGADO_GAP_COMPETENCIA", schema = "sgc")
+@Getter
+@Setter
+@NoArgsConstructor
+@SuperBuilder
+@AttributeOverride(name = "codigo", column = @Column(name = "codigo"))
+public class AgregadoGapCompetencia extends EntidadeBase {
+
+    @Column(name = "diagnostico_codigo", nullable = false)
+    private Long diagnosticoCodigo;
+
+    @Column(name = "competencia_codigo", nullable = false)
+    private Long competenciaCodigo;
+
+    @Column(name = "soma_gap", nullable = false)
+    private long somaGap;
+
+    @Column(name = "total_gap", nullable = false)
+    private int totalGap;
+
+    @Column(name = "total_nao_se_aplica", nullable = false)
+    private int totalNaoSeAplica;
+
+    @Column(name = "total_a_capacitar", nullable = false)
+    private int totalACapacitar;
+
+    @Column(name = "total_em_capacitacao", nullable = false)
+    private int totalEmCapacitacao;
+
+    @Column(name = "total_capacitado", nullable = false)
+    private int totalCapacitado;
+
+    @Column(name = "total_instrutor", nullable = false)
+    private int totalInstrutor;
+
+    public void contarGap(@Nullable Integer gap) {
+        if (gap == null) {
+            return;
+        }
+        somaGap += gap;
+        totalGap++;
+    }
+
+    public void contarSituacao(@Nullable ValorSituacaoCapacitacao valor) {
+        if (valor == null) {
+            return;
+        }
+        switch (valor) {
+            case NA -> totalNaoSeAplica++;
+            case AC -> totalACapacitar++;
+            case EC -> totalEmCapacitacao++;
+            case C -> totalCapacitado++;
+            case I -> totalInstrutor++;
+        }
+    }
+}
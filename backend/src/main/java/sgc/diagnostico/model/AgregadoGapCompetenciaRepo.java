@@ -0,0 +1,57 @@
+package sgc.diagnostico.model;
+
+import org.springframework.data.jpa.repository.*;
+import org.springframework.data.repository.query.*;
+import org.springframework.stereotype.*;
+
+import java.util.*;
+
+@Repository
+public interface AgregadoGapCompetenciaRepo extends JpaRepository<AgregadoGapCompetencia, Long> {
+
+    @Query("""
+            SELECT a FROM AgregadoGapCompetencia a
+            WHERE a.diagnosticoCodigo IN :diagnosticoCodigos
+            """)
+    List<AgregadoGapCompetencia> listarPorDiagnosticos(@Param("diagnosticoCodigos") Collection<Long> diagnosticoCodigos);
+
+    /**
+     * Soma variações de gap diretamente na linha, sem carregá-la: avaliações de servidores diferentes da mesma
+     * unidade são gravadas em transações concorrentes e não podem sobrescrever os totais umas das outras.
+     */
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE AgregadoGapCompetencia a
+            SET a.somaGap = a.somaGap + :variacaoSoma,
+                a.totalGap = a.totalGap + :variacaoTotal
+            WHERE a.diagnosticoCodigo = :diagnosticoCodigo
+            AND a.competenciaCodigo = :competenciaCodigo
+            """)
+    int somarGap(@Param("diagnosticoCodigo") Long diagnosticoCodigo,
+                 @Param("competenciaCodigo") Long competenciaCodigo,
+                 @Param("variacaoSoma") long variacaoSoma,
+                 @Param("variacaoTotal") int variacaoTotal);
+
+    @Modifying(flushAutomatically = true)
+    @Query("""
+            UPDATE AgregadoGapCompetencia a
+            SET a.totalNaoSeAplica = :totalNaoSeAplica,
+                a.totalACapacitar = :totalACapacitar,
+                a.totalEmCapacitacao = :totalEmCapacitacao,
+                a.totalCapacitado = :totalCapacitado,
+                a.totalInstrutor = :totalInstrutor
+            WHERE a.diagnosticoCodigo = :diagnosticoCodigo
+            AND a.competenciaCodigo = :competenciaCodigo
+            """)
+    int definirSituacoes(@Param("diagnosticoCodigo") Long diagnosticoCodigo,
+                         @Param("competenciaCodigo") Long competenciaCodigo,
+                         @Param("totalNaoSeAplica") int totalNaoSeAplica,
+                         @Param("totalACapacitar") int totalACapacitar,
+                         @Param("totalEmCapacitacao") int totalEmCapacitacao,
+                         @Param("totalCapacitado") int totalCapacitado,
+                         @Param("totalInstrutor") int totalInstrutor);
+
+    @Modifying(flushAutomatically = true)
+    @Query("DELETE FROM AgregadoGapCompetencia a WHERE a.diagnosticoCodigo = :diagnosticoCodigo")
+    void excluirPorDiagnostico(@Param("diagnosticoCodigo") Long diagnosticoCodigo);
+}
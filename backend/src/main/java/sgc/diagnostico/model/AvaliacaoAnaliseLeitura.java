@@ -0,0 +1,17 @@
+package sgc.diagnostico.model;
+
+import org.jspecify.annotations.*;
+
+/**
+ * Linha de avaliação lida para a análise de gaps de um processo: unidade do subprocesso, competência,
+ * valores finais e situação de capacitação, sem servidor.
+ */
+public record AvaliacaoAnaliseLeitura(
+        Long unidadeCodigo,
+        String competenciaDescricao,
+        @Nullable Integer importancia,
+        @Nullable Integer dominio,
+        @Nullable Integer gap,
+        @Nullable ValorSituacaoCapacitacao situacaoCapacitacao
+) {
+}
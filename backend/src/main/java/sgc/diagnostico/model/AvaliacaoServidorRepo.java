@@ -58,6 +58,21 @@ public interface AvaliacaoServidorRepo extends JpaRepository<AvaliacaoServidor,
     List<AvaliacaoServidor> buscarAvaliacoesDoServidor(@Param("diagnosticoCodigo") long diagnosticoCodigo,
                                                        @Param("servidorTitulo") String servidorTitulo);
 
+    @Query("""
+                SELECT new sgc.diagnostico.model.AvaliacaoAnaliseLeitura(
+                    sp.unidade.codigo, c.descricao, a.importancia, a.dominio, a.gap, s.situacaoCapacitacao)
+                FROM AvaliacaoServidor a
+                JOIN a.diagnostico d
+                JOIN d.subprocesso sp
+                JOIN a.competencia c
+                LEFT JOIN SituacaoCapacitacao s
+                    ON s.diagnostico = d
+                    AND s.servidor = a.servidor
+                    AND s.competencia = c
+                WHERE sp.processo.codigo = :codProcesso
+            """)
+    List<AvaliacaoAnaliseLeitura> listarParaAnalise(@Param("codProcesso") long codProcesso);
+
     @Query("""
                 SELECT CASE WHEN COUNT(a) > 0 THEN true ELSE false END
                 FROM AvaliacaoServidor a
@@ -0,0 +1,285 @@
+package sgc.diagnostico.model;
+
+import org.jspecify.annotations.*;
+import sgc.organizacao.model.*;
+
+import java.util.*;
+
+/**
+ * Avaliações de um processo de diagnóstico guardadas em colunas de tipos primitivos e ordenadas pela
+ * pré-ordem da hierarquia ({@link IndiceHierarquia}).
+ *
+ * <p>Como os descendentes de uma unidade ocupam uma faixa contígua da pré-ordem, as linhas da unidade e de
+ * toda a sua subárvore também ficam contíguas: {@code inicioPorPosicao[p]} é a primeira linha da unidade
+ * na posição {@code p}, e a subárvore é a faixa {@code [inicioPorPosicao[p], inicioPorPosicao[saida(p) + 1])}.
+ * Os totais de uma subárvore são então uma varredura sequencial de arrays, sem mapas nem objetos por linha.
+ *
+ * <p>Competências são agrupadas pela descrição, já que cada unidade tem o próprio mapa e seus próprios códigos.
+ * Unidades do processo ausentes do índice (por exemplo, inativadas depois do início) recebem posições
+ * após as indexadas: entram nos totais do processo, mas em nenhuma subárvore além da própria.
+ */
+public final class ColunasAvaliacaoDiagnostico {
+    static final short SEM_VALOR = Short.MIN_VALUE;
+    static final byte SEM_SITUACAO = -1;
+    private static final ValorSituacaoCapacitacao[] SITUACOES = ValorSituacaoCapacitacao.values();
+
+    private final IndiceHierarquia indice;
+    private final long[] unidadesForaDoIndice;
+    private final String[] competencias;
+    private final int[] inicioPorPosicao;
+    private final int[] competencia;
+    private final short[] importancia;
+    private final short[] dominio;
+    private final short[] gap;
+    private final byte[] situacao;
+
+    private ColunasAvaliacaoDiagnostico(IndiceHierarquia indice,
+                                        long[] unidadesForaDoIndice,
+                                        String[] competencias,
+                                        int[] inicioPorPosicao,
+                                        int[] competencia,
+                                        short[] importancia,
+                                        short[] dominio,
+                                        short[] gap,
+                                        byte[] situacao) {
+        this.indice = indice;
+        this.unidadesForaDoIndice = unidadesForaDoIndice;
+        this.competencias = competencias;
+        this.inicioPorPosicao = inicioPorPosicao;
+        this.competencia = competencia;
+        this.importancia = importancia;
+        this.dominio = dominio;
+        this.gap = gap;
+        this.situacao = situacao;
+    }
+
+    /**
+     * Distribui as linhas pelas posições das unidades com uma ordenação por contagem, em tempo linear.
+     */
+    public static ColunasAvaliacaoDiagnostico construir(List<AvaliacaoAnaliseLeitura> linhas, IndiceHierarquia indice) {
+        int totalLinhas = linhas.size();
+        int indexadas = indice.tamanho();
+        Map<Long, Integer> foraDoIndice = new LinkedHashMap<>();
+        Map<String, Integer> indicePorCompetencia = new HashMap<>();
+        List<String> competencias = new ArrayList<>();
+
+        int[] posicaoLinha = new int[totalLinhas];
+        int[] competenciaLinha = new int[totalLinhas];
+        for (int i = 0; i < totalLinhas; i++) {
+            AvaliacaoAnaliseLeitura linha = linhas.get(i);
+            int posicao = indice.posicao(linha.unidadeCodigo());
+            if (posicao < 0) {
+                posicao = indexadas + foraDoIndice.computeIfAbsent(linha.unidadeCodigo(), c -> foraDoIndice.size());
+            }
+            posicaoLinha[i] = posicao;
+            competenciaLinha[i] = indicePorCompetencia.computeIfAbsent(linha.competenciaDescricao().strip(), descricao -> {
+                competencias.add(descricao);
+                return competencias.size() - 1;
+            });
+        }
+
+        int totalPosicoes = indexadas + foraDoIndice.size();
+        int[] inicioPorPosicao = new int[totalPosicoes + 1];
+        for (int posicao : posicaoLinha) {
+            inicioPorPosicao[posicao + 1]++;
+        }
+        for (int p = 0; p < totalPosicoes; p++) {
+            inicioPorPosicao[p + 1] += inicioPorPosicao[p];
+        }
+
+        int[] proxima = Arrays.copyOf(inicioPorPosicao, totalPosicoes);
+        int[] competencia = new int[totalLinhas];
+        short[] importancia = new short[totalLinhas];
+        short[] dominio = new short[totalLinhas];
+        short[] gap = new short[totalLinhas];
+        byte[] situacao = new byte[totalLinhas];
+        for (int i = 0; i < totalLinhas; i++) {
+            AvaliacaoAnaliseLeitura linha = linhas.get(i);
+            int destino = proxima[posicaoLinha[i]]++;
+            competencia[destino] = competenciaLinha[i];
+            importancia[destino] = paraColuna(linha.importancia(), (short) 0);
+            dominio[destino] = paraColuna(linha.dominio(), (short) 0);
+            gap[destino] = paraColuna(linha.gap(), SEM_VALOR);
+            ValorSituacaoCapacitacao valorSituacao = linha.situacaoCapacitacao();
+            situacao[destino] = valorSituacao == null ? SEM_SITUACAO : (byte) valorSituacao.ordinal();
+        }
+
+        long[] unidadesForaDoIndice = foraDoIndice.keySet().stream().mapToLong(Long::longValue).toArray();
+        return new ColunasAvaliacaoDiagnostico(indice, unidadesForaDoIndice, competencias.toArray(String[]::new),
+                inicioPorPosicao, competencia, importancia, dominio, gap, situacao);
+    }
+
+    public int totalLinhas() {
+        return competencia.length;
+    }
+
+    /**
+     * Todas as unidades do processo.
+     */
+    public Faixa todas() {
+        return new Faixa(0, inicioPorPosicao.length - 1);
+    }
+
+    /**
+     * A unidade e seus descendentes, ou faixa vazia se a unidade não tem posição.
+     */
+    public Faixa subarvore(Long codigoUnidade) {
+        int posicao = indice.posicao(codigoUnidade);
+        if (posicao >= 0) {
+            return new Faixa(posicao, indice.fimSubarvore(posicao) + 1);
+        }
+        for (int i = 0; i < unidadesForaDoIndice.length; i++) {
+            if (unidadesForaDoIndice[i] == codigoUnidade) {
+                int posicaoFora = indice.tamanho() + i;
+                return new Faixa(posicaoFora, posicaoFora + 1);
+            }
+        }
+        return new Faixa(0, 0);
+    }
+
+    public int contarLinhas(Faixa faixa) {
+        return inicioPorPosicao[faixa.fim()] - inicioPorPosicao[faixa.inicio()];
+    }
+
+    public int contarUnidadesComAvaliacoes(Faixa faixa) {
+        int unidades = 0;
+        for (int p = faixa.inicio(); p < faixa.fim(); p++) {
+            if (inicioPorPosicao[p + 1] > inicioPorPosicao[p]) {
+                unidades++;
+            }
+        }
+        return unidades;
+    }
+
+    /**
+     * Totais de cada competência avaliada na faixa, em ordem de primeira ocorrência no processo.
+     */
+    public List<TotaisCompetencia> totalizarPorCompetencia(Faixa faixa) {
+        int quantidade = competencias.length;
+        int[] linhas = new int[quantidade];
+        long[] somaGap = new long[quantidade];
+        int[] totalGap = new int[quantidade];
+        long[] somaImportancia = new long[quantidade];
+        int[] totalImportancia = new int[quantidade];
+        long[] somaDominio = new long[quantidade];
+        int[] totalDominio = new int[quantidade];
+        int[] porSituacao = new int[quantidade * SITUACOES.length];
+
+        int fim = inicioPorPosicao[faixa.fim()];
+        for (int i = inicioPorPosicao[faixa.inicio()]; i < fim; i++) {
+            int c = competencia[i];
+            linhas[c]++;
+            if (gap[i] != SEM_VALOR) {
+                somaGap[c] += gap[i];
+                totalGap[c]++;
+            }
+            if (importancia[i] > 0) {
+                somaImportancia[c] += importancia[i];
+                totalImportancia[c]++;
+            }
+            if (dominio[i] > 0) {
+                somaDominio[c] += dominio[i];
+                totalDominio[c]++;
+            }
+            if (situacao[i] != SEM_SITUACAO) {
+                porSituacao[c * SITUACOES.length + situacao[i]]++;
+            }
+        }
+
+        List<TotaisCompetencia> totais = new ArrayList<>();
+        for (int c = 0; c < quantidade; c++) {
+            if (linhas[c] == 0) {
+                continue;
+            }
+            int base = c * SITUACOES.length;
+            totais.add(new TotaisCompetencia(competencias[c], linhas[c],
+                    somaGap[c], totalGap[c],
+                    somaImportancia[c], totalImportancia[c],
+                    somaDominio[c], totalDominio[c],
+                    Arrays.copyOfRange(porSituacao, base, base + SITUACOES.length)));
+        }
+        return totais;
+    }
+
+    /**
+     * Pares (unidade, competência) da faixa com as maiores médias de gap, da maior para a menor.
+     */
+    public List<MaiorGap> maioresGaps(Faixa faixa, int limite) {
+        if (limite < 1) {
+            return List.of();
+        }
+        long[] soma = new long[competencias.length];
+        int[] total = new int[competencias.length];
+        int[] tocadas = new int[competencias.length];
+        Comparator<MaiorGap> ordem = Comparator.comparingDouble(MaiorGap::mediaGap)
+                .thenComparing(MaiorGap::unidadeCodigo, Comparator.reverseOrder())
+                .thenComparing(MaiorGap::competenciaDescricao, Comparator.reverseOrder());
+        PriorityQueue<MaiorGap> menores = new PriorityQueue<>(limite + 1, ordem);
+
+        for (int p = faixa.inicio(); p < faixa.fim(); p++) {
+            int quantidadeTocadas = 0;
+            for (int i = inicioPorPosicao[p]; i < inicioPorPosicao[p + 1]; i++) {
+                if (gap[i] == SEM_VALOR) {
+                    continue;
+                }
+                int c = competencia[i];
+                if (total[c] == 0) {
+                    tocadas[quantidadeTocadas++] = c;
+                }
+                soma[c] += gap[i];
+                total[c]++;
+            }
+            for (int t = 0; t < quantidadeTocadas; t++) {
+                int c = tocadas[t];
+                MaiorGap candidato = new MaiorGap(codigoNaPosicao(p), competencias[c], (double) soma[c] / total[c], total[c]);
+                if (menores.size() < limite) {
+                    menores.add(candidato);
+                } else if (ordem.compare(candidato, menores.peek()) > 0) {
+                    menores.poll();
+                    menores.add(candidato);
+                }
+                soma[c] = 0;
+                total[c] = 0;
+            }
+        }
+
+        List<MaiorGap> maiores = new ArrayList<>(menores);
+        maiores.sort(ordem.reversed());
+        return maiores;
+    }
+
+    private long codigoNaPosicao(int posicao) {
+        return posicao < indice.tamanho()
+                ? indice.codigoNaPosicao(posicao)
+                : unidadesForaDoIndice[posicao - indice.tamanho()];
+    }
+
+    private static short paraColuna(@Nullable Integer valor, short ausente) {
+        return valor == null ? ausente : valor.shortValue();
+    }
+
+    /**
+     * Intervalo de posições da pré-ordem, com fim exclusivo.
+     */
+    public record Faixa(int inicio, int fim) {
+    }
+
+    public record TotaisCompetencia(
+            String descricao,
+            int totalAvaliacoes,
+            long somaGap,
+            int totalGap,
+            long somaImportancia,
+            int totalImportancia,
+            long somaDominio,
+            int totalDominio,
+            int[] porSituacao
+    ) {
+        public int totalSituacao(ValorSituacaoCapacitacao valor) {
+            return porSituacao[valor.ordinal()];
+        }
+    }
+
+    public record MaiorGap(long unidadeCodigo, String competenciaDescricao, double mediaGap, int totalAvaliacoes) {
+    }
+}
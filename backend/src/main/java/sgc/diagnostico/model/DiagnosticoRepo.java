@@ -1,5 +1,6 @@
 package sgc.diagnostico.model;
 
+import jakarta.persistence.LockModeType;
 import org.springframework.data.jpa.repository.*;
 import org.springframework.data.repository.query.*;
 import org.springframework.stereotype.*;
@@ -19,4 +20,13 @@ public interface DiagnosticoRepo extends JpaRepository<Diagnostico, Long> {
 
     Optional<Diagnostico> findBySubprocessoCodigo(Long subprocessoCodigo);
 
+    List<Diagnostico> findBySubprocessoCodigoIn(Collection<Long> subprocessoCodigos);
+
+    /**
+     * Trava a linha do diagnóstico até o fim da transação, serializando quem reconstrói os dados derivados dele.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT d FROM Diagnostico d WHERE d.codigo = :codigo")
+    Optional<Diagnostico> travarPorCodigo(@Param("codigo") Long codigo);
+
 }
@@ -0,0 +1,83 @@
+package sgc.diagnostico.service;
+
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
+import jakarta.persistence.*;
+import lombok.extern.slf4j.*;
+import org.hibernate.*;
+import org.springframework.stereotype.*;
+import sgc.diagnostico.model.*;
+
+import java.time.*;
+import java.util.*;
+
+/**
+ * Grava o diagnóstico criado no início de um processo de diagnóstico junto com suas linhas iniciais
+ * (uma {@link AvaliacaoServidor} e uma {@link SituacaoCapacitacao} por servidor e competência, mais o
+ * {@link AgregadoGapCompetencia} zerado de cada competência).
+ *
+ * <p>Só o {@link Diagnostico} entra no contexto de persistência. As linhas são inseridas por uma
+ * {@link StatelessSession} na mesma conexão e transação, em lotes JDBC, com códigos do mesmo gerador das
+ * entidades. Assim elas não são gerenciadas nem verificadas a cada flush do restante do início do processo,
+ * que percorre centenas de unidades numa única transação.
+ *
+ * <p>Publica {@code sgc.diagnostico.carga.linhas}, {@code sgc.diagnostico.carga.duracao} e
+ * {@code sgc.diagnostico.carga.vazao} (linhas por segundo de cada gravação).
+ */
+@Component
+@Slf4j
+public class CargaInicialDiagnostico {
+
+    @PersistenceContext
+    private EntityManager em;
+
+    private final Counter linhas;
+    private final Timer duracao;
+    private final DistributionSummary vazao;
+
+    public CargaInicialDiagnostico(MeterRegistry meterRegistry) {
+        this.linhas = Counter.builder("sgc.diagnostico.carga.linhas")
+                .description("Linhas de avaliação e situação de capacitação gravadas no início de diagnósticos")
+                .register(meterRegistry);
+        this.duracao = Timer.builder("sgc.diagnostico.carga.duracao")
+                .description("Duração da gravação inicial de um diagnóstico")
+                .register(meterRegistry);
+        this.vazao = DistributionSummary.builder("sgc.diagnostico.carga.vazao")
+                .description("Linhas por segundo na gravação inicial de um diagnóstico")
+                .baseUnit("linhas/s")
+                .register(meterRegistry);
+    }
+
+    /**
+     * O diagnóstico é gravado e desanexado: leituras seguintes na transação o carregam do banco já com as linhas.
+     */
+    public void gravar(Diagnostico diagnostico,
+                       List<AvaliacaoServidor> avaliacoes,
+                       List<SituacaoCapacitacao> situacoes) {
+        long inicio = System.nanoTime();
+        em.persist(diagnostico);
+        // Subprocesso e diagnóstico precisam estar no banco antes das chaves estrangeiras das linhas
+        em.flush();
+
+        List<AgregadoGapCompetencia> agregados = List.copyOf(
+                DiagnosticoGapService.agregar(diagnostico.getCodigo(), avaliacoes, situacoes));
+        Session sessao = em.unwrap(Session.class);
+        sessao.doWork(conexao -> {
+            try (StatelessSession stateless = sessao.getSessionFactory().openStatelessSession(conexao)) {
+                stateless.insertMultiple(avaliacoes);
+                stateless.insertMultiple(situacoes);
+                stateless.insertMultiple(agregados);
+            }
+        });
+        em.detach(diagnostico);
+
+        Duration decorrido = Duration.ofNanos(System.nanoTime() - inicio);
+        int gravadas = avaliacoes.size() + situacoes.size();
+        linhas.increment(gravadas);
+        duracao.record(decorrido);
+        if (gravadas > 0 && !decorrido.isZero()) {
+            vazao.record(gravadas * 1_000_000_000.0 / decorrido.toNanos());
+        }
+        log.debug("Diagnóstico {} inicializado com {} linhas em {} ms", diagnostico.getCodigo(), gravadas, decorrido.toMillis());
+    }
+}
@@ -0,0 +1,100 @@
+package sgc.diagnostico.service;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+import sgc.comum.erros.*;
+import sgc.diagnostico.model.*;
+import sgc.organizacao.model.*;
+import sgc.organizacao.service.*;
+import sgc.relatorio.*;
+
+import java.util.*;
+
+/**
+ * Análise de gaps entre unidades de um processo de diagnóstico: médias por competência da unidade somada aos
+ * descendentes, maiores gaps por unidade e competência e distribuição das situações de capacitação.
+ *
+ * <p>Cada análise lê as avaliações do processo numa única projeção e as monta em
+ * {@link ColunasAvaliacaoDiagnostico}, onde a subárvore da unidade é uma faixa contígua de linhas.
+ */
+@Service
+@RequiredArgsConstructor
+@Transactional(readOnly = true)
+public class DiagnosticoAnaliseService {
+    static final int LIMITE_MAXIMO_MAIORES_GAPS = 100;
+
+    private final AvaliacaoServidorRepo avaliacaoRepo;
+    private final UnidadeHierarquiaService unidadeHierarquiaService;
+
+    /**
+     * @param codUnidade unidade raiz da análise; nulo para todas as unidades do processo
+     * @param limite     quantidade de maiores gaps, de 1 a {@value #LIMITE_MAXIMO_MAIORES_GAPS}
+     */
+    public RelatorioDiagnosticoAnaliseDto analisar(Long codProcesso, @Nullable Long codUnidade, int limite) {
+        if (limite < 1 || limite > LIMITE_MAXIMO_MAIORES_GAPS) {
+            throw new ErroValidacao("O limite de maiores gaps deve estar entre 1 e %d.".formatted(LIMITE_MAXIMO_MAIORES_GAPS));
+        }
+
+        ColunasAvaliacaoDiagnostico colunas = ColunasAvaliacaoDiagnostico.construir(
+                avaliacaoRepo.listarParaAnalise(codProcesso),
+                unidadeHierarquiaService.buscarIndiceHierarquia());
+        ColunasAvaliacaoDiagnostico.Faixa faixa = codUnidade == null ? colunas.todas() : colunas.subarvore(codUnidade);
+        Map<Long, UnidadeHierarquiaLeitura> unidades = unidadeHierarquiaService.buscarMapaCodigoParaUnidade();
+        @Nullable UnidadeHierarquiaLeitura unidade = codUnidade == null ? null : unidades.get(codUnidade);
+
+        List<RelatorioDiagnosticoAnaliseCompetenciaDto> competencias = colunas.totalizarPorCompetencia(faixa).stream()
+                .map(DiagnosticoAnaliseService::criarCompetenciaDto)
+                .sorted(Comparator.comparing(RelatorioDiagnosticoAnaliseCompetenciaDto::competenciaDescricao))
+                .toList();
+        List<RelatorioDiagnosticoMaiorGapDto> maioresGaps = colunas.maioresGaps(faixa, limite).stream()
+                .map(maiorGap -> criarMaiorGapDto(maiorGap, unidades.get(maiorGap.unidadeCodigo())))
+                .toList();
+
+        return RelatorioDiagnosticoAnaliseDto.builder()
+                .codigoUnidade(codUnidade)
+                .siglaUnidade(unidade != null ? unidade.sigla() : null)
+                .nomeUnidade(unidade != null ? unidade.nome() : null)
+                .totalUnidadesAvaliadas(colunas.contarUnidadesComAvaliacoes(faixa))
+                .totalAvaliacoes(colunas.contarLinhas(faixa))
+                .competencias(competencias)
+                .maioresGaps(maioresGaps)
+                .build();
+    }
+
+    private static RelatorioDiagnosticoAnaliseCompetenciaDto criarCompetenciaDto(ColunasAvaliacaoDiagnostico.TotaisCompetencia totais) {
+        return RelatorioDiagnosticoAnaliseCompetenciaDto.builder()
+                .competenciaDescricao(totais.descricao())
+                .totalAvaliacoes(totais.totalAvaliacoes())
+                .mediaGap(media(totais.somaGap(), totais.totalGap()))
+                .totalAvaliacoesConsideradas(totais.totalGap())
+                .mediaImportancia(media(totais.somaImportancia(), totais.totalImportancia()))
+                .mediaDominio(media(totais.somaDominio(), totais.totalDominio()))
+                .totalNaoSeAplica(totais.totalSituacao(ValorSituacaoCapacitacao.NA))
+                .totalACapacitar(totais.totalSituacao(ValorSituacaoCapacitacao.AC))
+                .totalEmCapacitacao(totais.totalSituacao(ValorSituacaoCapacitacao.EC))
+                .totalCapacitado(totais.totalSituacao(ValorSituacaoCapacitacao.C))
+                .totalInstrutor(totais.totalSituacao(ValorSituacaoCapacitacao.I))
+                .build();
+    }
+
+    private static RelatorioDiagnosticoMaiorGapDto criarMaiorGapDto(ColunasAvaliacaoDiagnostico.MaiorGap maiorGap,
+                                                                    @Nullable UnidadeHierarquiaLeitura unidade) {
+        return RelatorioDiagnosticoMaiorGapDto.builder()
+                .codigoUnidade(maiorGap.unidadeCodigo())
+                .siglaUnidade(unidade != null ? unidade.sigla() : null)
+                .competenciaDescricao(maiorGap.competenciaDescricao())
+                .mediaGap(arredondarDuasCasas(maiorGap.mediaGap()))
+                .totalAvaliacoesConsideradas(maiorGap.totalAvaliacoes())
+                .build();
+    }
+
+    private static @Nullable Double media(long soma, int total) {
+        return total == 0 ? null : arredondarDuasCasas((double) soma / total);
+    }
+
+    private static double arredondarDuasCasas(double valor) {
+        return Math.round(valor * 100.0d) / 100.0d;
+    }
+}
@@ -51,9 +51,9 @@ public class DiagnosticoAvaliacaoService {
             avaliacao.setAutodominio(item.dominio());
             avaliacao.setImportancia(item.importancia());
             avaliacao.setDominio(item.dominio());
-            gapService.recalcularGap(avaliacao);
         }
 
+        gapService.recalcularGaps(diagnostico.getCodigo(), avaliacoes);
         avaliacaoRepo.saveAll(avaliacoes);
         if (subprocesso.getSituacao() == SituacaoSubprocesso.NAO_INICIADO) {
             subprocesso.setSituacao(SituacaoSubprocesso.DIAGNOSTICO_EM_ANDAMENTO);
@@ -98,9 +98,9 @@ public class DiagnosticoAvaliacaoService {
             avaliacao.setConsensoDominio(item.consensoDominio());
             avaliacao.setImportancia(item.consensoImportancia());
             avaliacao.setDominio(item.consensoDominio());
-            gapService.recalcularGap(avaliacao);
         }
 
+        gapService.recalcularGaps(diagnostico.getCodigo(), avaliacoes);
         avaliacaoRepo.saveAll(avaliacoes);
     }
 
@@ -178,20 +178,18 @@ public class DiagnosticoAvaliacaoService {
                 a.setDominio(a.getAutodominio());
                 a.setConsensoImportancia(null);
                 a.setConsensoDominio(null);
-                a.calculaGap();
             } else if (situacaoRetorno == SituacaoAvaliacaoServidor.AUTOAVALIACAO_CONCLUIDA) {
                 a.setImportancia(a.getAutoimportancia());
                 a.setDominio(a.getAutodominio());
-                a.calculaGap();
             } else {
                 a.setImportancia(a.getConsensoImportancia() != null ? a.getConsensoImportancia()
                         : a.getChefiaImportancia() != null ? a.getChefiaImportancia() : a.getAutoimportancia());
                 a.setDominio(a.getConsensoDominio() != null ? a.getConsensoDominio()
                         : a.getChefiaDominio() != null ? a.getChefiaDominio() : a.getAutodominio());
-                a.calculaGap();
             }
         });
 
+        gapService.recalcularGaps(diagnostico.getCodigo(), avaliacoes);
         avaliacaoRepo.saveAll(avaliacoes);
     }
 
@@ -228,6 +226,7 @@ public class DiagnosticoAvaliacaoService {
             );
         }
         situacaoCapacitacaoRepo.saveAll(registrosParaSalvar);
+        gapService.atualizarSituacoesCapacitacao(diagnostico.getCodigo(), registrosParaSalvar);
     }
 
     private SituacaoCapacitacao criarSituacaoCapacitacao(Diagnostico diagnostico, AvaliacaoServidor avaliacao) {
@@ -23,7 +23,6 @@ import java.util.*;
 @RequiredArgsConstructor
 @Transactional
 public class DiagnosticoFluxoService {
-    private final DiagnosticoRepo diagnosticoRepo;
     private final ComumRepo repo;
     private final DiagnosticoValidacaoService validacaoService;
     private final DiagnosticoNotificacaoService notificacaoService;
@@ -36,7 +35,12 @@ public class DiagnosticoFluxoService {
     private final DiagnosticoUsuarioContextoService usuarioContextoService;
     private final UsuarioService usuarioService;
     private final ResponsavelUnidadeService responsavelUnidadeService;
+    private final CargaInicialDiagnostico cargaInicialDiagnostico;
 
+    /**
+     * Cria o diagnóstico da unidade com uma avaliação e uma situação de capacitação por servidor participante
+     * e competência do mapa vigente, gravadas em lote por {@link CargaInicialDiagnostico}.
+     */
     public void inicializarDiagnostico(Subprocesso subprocesso) {
         Diagnostico diagnostico = Diagnostico.builder()
                 .subprocesso(subprocesso)
@@ -51,40 +55,45 @@ public class DiagnosticoFluxoService {
                     .toList();
         }
         List<Usuario> servidores = carregarServidoresSnapshot(servidoresSnapshot);
-        List<AvaliacaoServidor> avaliacoes = new ArrayList<>();
-        List<SituacaoCapacitacao> situacaoCapacitacoes = new ArrayList<>();
+        Map<String, ServidorProcesso> snapshotPorTitulo = new HashMap<>();
+        servidoresSnapshot.forEach(snapshot -> snapshotPorTitulo.putIfAbsent(snapshot.getUsuarioTitulo(), snapshot));
 
         Mapa mapa = resolverMapaDiagnostico(subprocesso);
+        List<Competencia> competencias = List.copyOf(mapa.getCompetencias());
         UnidadeProcesso unidadeSnapshot = subprocesso.getProcesso()
                 .buscarParticipante(subprocesso.getUnidade().getCodigo())
                 .orElse(null);
+        Long unidadeCodigoSnapshot = unidadeSnapshot != null ? unidadeSnapshot.getUnidadeCodigoPersistido() : subprocesso.getUnidade().getCodigo();
+        String unidadeSiglaSnapshot = unidadeSnapshot != null ? unidadeSnapshot.getSigla() : subprocesso.getUnidade().getSigla();
+        String unidadeNomeSnapshot = unidadeSnapshot != null ? unidadeSnapshot.getNome() : subprocesso.getUnidade().getNome();
+
+        int totalLinhas = servidores.size() * competencias.size();
+        List<AvaliacaoServidor> avaliacoes = new ArrayList<>(totalLinhas);
+        List<SituacaoCapacitacao> situacaoCapacitacoes = new ArrayList<>(totalLinhas);
         for (Usuario servidor : servidores) {
-            ServidorProcesso servidorSnapshot = localizarSnapshotObrigatorio(servidoresSnapshot, servidor.getTituloEleitoral());
-            for (Competencia competencia : mapa.getCompetencias()) {
-                AvaliacaoServidor avaliacao = AvaliacaoServidor.builder()
+            String servidorNome = localizarSnapshotObrigatorio(snapshotPorTitulo, servidor.getTituloEleitoral()).getNome();
+            for (Competencia competencia : competencias) {
+                avaliacoes.add(AvaliacaoServidor.builder()
                         .diagnostico(diagnostico)
                         .servidor(servidor)
-                        .servidorNomeSnapshot(servidorSnapshot.getNome())
+                        .servidorNomeSnapshot(servidorNome)
                         .competencia(competencia)
                         .situacaoServidor(SituacaoAvaliacaoServidor.AUTOAVALIACAO_NAO_INICIADA)
-                        .build();
-                avaliacoes.add(avaliacao);
+                        .build());
 
                 situacaoCapacitacoes.add(SituacaoCapacitacao.builder()
                         .diagnostico(diagnostico)
                         .servidor(servidor)
-                        .servidorNomeSnapshot(servidorSnapshot.getNome())
-                        .unidadeCodigoSnapshot(unidadeSnapshot != null ? unidadeSnapshot.getUnidadeCodigoPersistido() : subprocesso.getUnidade().getCodigo())
-                        .unidadeSiglaSnapshot(unidadeSnapshot != null ? unidadeSnapshot.getSigla() : subprocesso.getUnidade().getSigla())
-                        .unidadeNomeSnapshot(unidadeSnapshot != null ? unidadeSnapshot.getNome() : subprocesso.getUnidade().getNome())
+                        .servidorNomeSnapshot(servidorNome)
+                        .unidadeCodigoSnapshot(unidadeCodigoSnapshot)
+                        .unidadeSiglaSnapshot(unidadeSiglaSnapshot)
+                        .unidadeNomeSnapshot(unidadeNomeSnapshot)
                         .competencia(competencia)
                         .build());
             }
         }
 
-        diagnostico.setAvaliacaoServidores(avaliacoes);
-        diagnostico.setSituacaoCapacitacoes(situacaoCapacitacoes);
-        diagnosticoRepo.save(diagnostico);
+        cargaInicialDiagnostico.gravar(diagnostico, avaliacoes, situacaoCapacitacoes);
     }
 
     private Mapa resolverMapaDiagnostico(Subprocesso subprocesso) {
@@ -117,13 +126,13 @@ public class DiagnosticoFluxoService {
                 .toList();
     }
 
-    private ServidorProcesso localizarSnapshotObrigatorio(List<ServidorProcesso> snapshots, String tituloEleitoral) {
-        return snapshots.stream()
-                .filter(snapshot -> Objects.equals(snapshot.getUsuarioTitulo(), tituloEleitoral))
-                .findFirst()
-                .orElseThrow(() -> new sgc.comum.erros.ErroInconsistenciaInterna(
-                        "Servidor %s não encontrado no snapshot do processo".formatted(tituloEleitoral)
-                ));
+    private ServidorProcesso localizarSnapshotObrigatorio(Map<String, ServidorProcesso> snapshotPorTitulo, String tituloEleitoral) {
+        ServidorProcesso snapshot = snapshotPorTitulo.get(tituloEleitoral);
+        if (snapshot == null) {
+            throw new sgc.comum.erros.ErroInconsistenciaInterna(
+                    "Servidor %s não encontrado no snapshot do processo".formatted(tituloEleitoral));
+        }
+        return snapshot;
     }
 
     private @Nullable String buscarResponsavelTitulo(Long unidadeCodigo) {
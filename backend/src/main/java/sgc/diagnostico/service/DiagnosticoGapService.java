@@ -1,11 +1,26 @@
 package sgc.diagnostico.service;
 
-
+import lombok.*;
+import org.jspecify.annotations.*;
 import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
 import sgc.diagnostico.model.*;
 
+import java.util.*;
+
+/**
+ * Calcula o gap das avaliações e mantém os totais por competência de cada diagnóstico
+ * ({@link AgregadoGapCompetencia}), lidos pelos relatórios de gaps e de situação de capacitação.
+ */
 @Service
+@RequiredArgsConstructor
+@Transactional
 public class DiagnosticoGapService {
+    private final DiagnosticoRepo diagnosticoRepo;
+    private final AgregadoGapCompetenciaRepo agregadoRepo;
+    private final AvaliacaoServidorRepo avaliacaoRepo;
+    private final SituacaoCapacitacaoRepo situacaoCapacitacaoRepo;
+
     public void recalcularGap(AvaliacaoServidor avaliacao) {
         Integer importancia = avaliacao.getImportancia();
         Integer dominio = avaliacao.getDominio();
@@ -15,4 +30,112 @@ public class DiagnosticoGapService {
         }
         avaliacao.setGap(importancia - dominio);
     }
-}
\ No newline at end of file
+
+    /**
+     * Recalcula o gap das avaliações e soma nos totais do diagnóstico apenas a diferença em relação ao
+     * gap anterior, uma atualização por competência alterada.
+     */
+    public void recalcularGaps(Long codDiagnostico, Collection<AvaliacaoServidor> avaliacoes) {
+        Map<Long, VariacaoGap> variacoes = new LinkedHashMap<>();
+        for (AvaliacaoServidor avaliacao : avaliacoes) {
+            Integer anterior = avaliacao.getGap();
+            recalcularGap(avaliacao);
+            Integer atual = avaliacao.getGap();
+            if (Objects.equals(anterior, atual)) {
+                continue;
+            }
+            VariacaoGap variacao = variacoes.computeIfAbsent(avaliacao.getCompetencia().getCodigo(), c -> new VariacaoGap());
+            variacao.remover(anterior);
+            variacao.adicionar(atual);
+        }
+
+        for (Map.Entry<Long, VariacaoGap> entrada : variacoes.entrySet()) {
+            VariacaoGap variacao = entrada.getValue();
+            if (variacao.soma == 0 && variacao.total == 0) {
+                continue;
+            }
+            if (agregadoRepo.somarGap(codDiagnostico, entrada.getKey(), variacao.soma, variacao.total) == 0) {
+                recalcularAgregados(codDiagnostico);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Redefine as contagens de situação de capacitação do diagnóstico. {@code situacoes} deve conter todos os
+     * registros do diagnóstico, já com os valores gravados.
+     */
+    public void atualizarSituacoesCapacitacao(Long codDiagnostico, Collection<SituacaoCapacitacao> situacoes) {
+        Collection<AgregadoGapCompetencia> contagens = agregar(codDiagnostico, List.of(), situacoes);
+        for (AgregadoGapCompetencia contagem : contagens) {
+            int atualizados = agregadoRepo.definirSituacoes(codDiagnostico, contagem.getCompetenciaCodigo(),
+                    contagem.getTotalNaoSeAplica(),
+                    contagem.getTotalACapacitar(),
+                    contagem.getTotalEmCapacitacao(),
+                    contagem.getTotalCapacitado(),
+                    contagem.getTotalInstrutor());
+            if (atualizados == 0) {
+                recalcularAgregados(codDiagnostico);
+                return;
+            }
+        }
+    }
+
+    /**
+     * Refaz os totais do diagnóstico a partir das avaliações e situações gravadas. Usado quando as linhas foram
+     * alteradas sem passar por este serviço ou quando os totais ainda não existem.
+     *
+     * <p>A linha do diagnóstico fica travada até o fim da transação: duas reconstruções simultâneas do mesmo
+     * diagnóstico excluiriam e reinseririam as mesmas competências, colidindo na chave única. A segunda espera a
+     * primeira confirmar e relê as avaliações já gravadas.
+     */
+    public void recalcularAgregados(Long codDiagnostico) {
+        diagnosticoRepo.travarPorCodigo(codDiagnostico);
+        agregadoRepo.excluirPorDiagnostico(codDiagnostico);
+        agregadoRepo.saveAll(agregar(codDiagnostico,
+                avaliacaoRepo.listarPorDiagnostico(codDiagnostico),
+                situacaoCapacitacaoRepo.listarPorDiagnostico(codDiagnostico)));
+    }
+
+    static Collection<AgregadoGapCompetencia> agregar(Long codDiagnostico,
+                                                      Collection<AvaliacaoServidor> avaliacoes,
+                                                      Collection<SituacaoCapacitacao> situacoes) {
+        Map<Long, AgregadoGapCompetencia> porCompetencia = new LinkedHashMap<>();
+        for (AvaliacaoServidor avaliacao : avaliacoes) {
+            agregadoDa(porCompetencia, codDiagnostico, avaliacao.getCompetencia().getCodigo()).contarGap(avaliacao.getGap());
+        }
+        for (SituacaoCapacitacao situacao : situacoes) {
+            agregadoDa(porCompetencia, codDiagnostico, situacao.getCompetencia().getCodigo())
+                    .contarSituacao(situacao.getSituacaoCapacitacao());
+        }
+        return porCompetencia.values();
+    }
+
+    private static AgregadoGapCompetencia agregadoDa(Map<Long, AgregadoGapCompetencia> porCompetencia,
+                                                     Long codDiagnostico,
+                                                     Long codCompetencia) {
+        return porCompetencia.computeIfAbsent(codCompetencia, c -> AgregadoGapCompetencia.builder()
+                .diagnosticoCodigo(codDiagnostico)
+                .competenciaCodigo(c)
+                .build());
+    }
+
+    private static final class VariacaoGap {
+        private long soma;
+        private int total;
+
+        private void adicionar(@Nullable Integer gap) {
+            if (gap != null) {
+                soma += gap;
+                total++;
+            }
+        }
+
+        private void remover(@Nullable Integer gap) {
+            if (gap != null) {
+                soma -= gap;
+                total--;
+            }
+        }
+    }
+}
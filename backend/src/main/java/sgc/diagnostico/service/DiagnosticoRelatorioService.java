@@ -12,43 +12,48 @@ import sgc.subprocesso.model.*;
 
 import java.util.*;
 
+/**
+ * Relatórios de diagnóstico montados a partir de {@link AgregadoGapCompetencia}: cada lote de subprocessos
+ * lê os totais de todas as unidades numa única consulta por código de diagnóstico.
+ */
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 public class DiagnosticoRelatorioService {
     private final DiagnosticoRepo diagnosticoRepo;
-    private final AvaliacaoServidorRepo avaliacaoServidorRepo;
-    private final SituacaoCapacitacaoRepo situacaoCapacitacaoRepo;
+    private final AgregadoGapCompetenciaRepo agregadoRepo;
     private final UnidadeService unidadeService;
 
-    public RelatorioDiagnosticoGapDto criarRelatorioGapDiagnostico(Subprocesso subprocesso) {
-        Diagnostico diagnostico = diagnosticoRepo.findBySubprocessoCodigo(subprocesso.getCodigo())
-                .orElseThrow(() -> new ErroEntidadeNaoEncontrada("Diagnostico", subprocesso.getCodigo()));
-        List<AvaliacaoServidor> avaliacoes = avaliacaoServidorRepo.listarPorDiagnostico(diagnostico.getCodigo());
+    public List<RelatorioDiagnosticoGapDto> criarRelatoriosGapDiagnostico(List<Subprocesso> subprocessos) {
+        Map<Long, Map<Long, AgregadoGapCompetencia>> agregados = buscarAgregadosPorSubprocesso(subprocessos);
+        return subprocessos.stream()
+                .map(subprocesso -> criarRelatorioGapDiagnostico(subprocesso,
+                        agregados.getOrDefault(subprocesso.getCodigo(), Map.of())))
+                .toList();
+    }
 
-        var avaliacoesPorCompetencia = avaliacoes.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        avaliacao -> avaliacao.getCompetencia().getCodigo(),
-                        LinkedHashMap::new,
-                        java.util.stream.Collectors.toList()
-                ));
+    public List<RelatorioDiagnosticoSituacaoCapacitacaoDto> criarRelatoriosSituacaoCapacitacaoDiagnostico(List<Subprocesso> subprocessos) {
+        Map<Long, Map<Long, AgregadoGapCompetencia>> agregados = buscarAgregadosPorSubprocesso(subprocessos);
+        return subprocessos.stream()
+                .map(subprocesso -> criarRelatorioSituacaoCapacitacaoDiagnostico(subprocesso,
+                        agregados.getOrDefault(subprocesso.getCodigo(), Map.of())))
+                .toList();
+    }
 
+    private RelatorioDiagnosticoGapDto criarRelatorioGapDiagnostico(Subprocesso subprocesso,
+                                                                    Map<Long, AgregadoGapCompetencia> agregadosPorCompetencia) {
         List<RelatorioDiagnosticoGapCompetenciaDto> competencias = resolverMapaDiagnostico(subprocesso).getCompetencias().stream()
                 .map(competencia -> {
-                    List<AvaliacaoServidor> avaliacoesCompetencia = avaliacoesPorCompetencia.getOrDefault(competencia.getCodigo(), List.of());
-                    java.util.IntSummaryStatistics estatisticas = avaliacoesCompetencia.stream()
-                            .map(AvaliacaoServidor::getGap)
-                            .filter(Objects::nonNull)
-                            .mapToInt(Integer::intValue)
-                            .summaryStatistics();
-                    Double mediaGap = estatisticas.getCount() == 0
+                    AgregadoGapCompetencia agregado = agregadosPorCompetencia.getOrDefault(
+                            competencia.getCodigo(), new AgregadoGapCompetencia());
+                    Double mediaGap = agregado.getTotalGap() == 0
                             ? null
-                            : arredondarDuasCasas((double) estatisticas.getSum() / estatisticas.getCount());
+                            : arredondarDuasCasas((double) agregado.getSomaGap() / agregado.getTotalGap());
                     return RelatorioDiagnosticoGapCompetenciaDto.builder()
                             .competenciaCodigo(competencia.getCodigo())
                             .competenciaDescricao(competencia.getDescricao())
                             .mediaGap(mediaGap)
-                            .totalAvaliacoesConsideradas((int) estatisticas.getCount())
+                            .totalAvaliacoesConsideradas(agregado.getTotalGap())
                             .build();
                 })
                 .toList();
@@ -61,29 +66,22 @@ public class DiagnosticoRelatorioService {
                 .build();
     }
 
-    public RelatorioDiagnosticoSituacaoCapacitacaoDto criarRelatorioSituacaoCapacitacaoDiagnostico(Subprocesso subprocesso) {
-        Diagnostico diagnostico = diagnosticoRepo.findBySubprocessoCodigo(subprocesso.getCodigo())
-                .orElseThrow(() -> new ErroEntidadeNaoEncontrada("Diagnostico", subprocesso.getCodigo()));
-        List<SituacaoCapacitacao> situacoes = situacaoCapacitacaoRepo.listarPorDiagnostico(diagnostico.getCodigo());
-
-        var situacoesPorCompetencia = situacoes.stream()
-                .collect(java.util.stream.Collectors.groupingBy(
-                        situacao -> situacao.getCompetencia().getCodigo(),
-                        LinkedHashMap::new,
-                        java.util.stream.Collectors.toList()
-                ));
-
+    private RelatorioDiagnosticoSituacaoCapacitacaoDto criarRelatorioSituacaoCapacitacaoDiagnostico(
+            Subprocesso subprocesso,
+            Map<Long, AgregadoGapCompetencia> agregadosPorCompetencia
+    ) {
         List<RelatorioDiagnosticoSituacaoCapacitacaoCompetenciaDto> competencias = resolverMapaDiagnostico(subprocesso).getCompetencias().stream()
                 .map(competencia -> {
-                    List<SituacaoCapacitacao> situacoesCompetencia = situacoesPorCompetencia.getOrDefault(competencia.getCodigo(), List.of());
+                    AgregadoGapCompetencia agregado = agregadosPorCompetencia.getOrDefault(
+                            competencia.getCodigo(), new AgregadoGapCompetencia());
                     return RelatorioDiagnosticoSituacaoCapacitacaoCompetenciaDto.builder()
                             .competenciaCodigo(competencia.getCodigo())
                             .competenciaDescricao(competencia.getDescricao())
-                            .totalNaoSeAplica(contarSituacoes(situacoesCompetencia, ValorSituacaoCapacitacao.NA))
-                            .totalACapacitar(contarSituacoes(situacoesCompetencia, ValorSituacaoCapacitacao.AC))
-                            .totalEmCapacitacao(contarSituacoes(situacoesCompetencia, ValorSituacaoCapacitacao.EC))
-                            .totalCapacitado(contarSituacoes(situacoesCompetencia, ValorSituacaoCapacitacao.C))
-                            .totalInstrutor(contarSituacoes(situacoesCompetencia, ValorSituacaoCapacitacao.I))
+                            .totalNaoSeAplica(agregado.getTotalNaoSeAplica())
+                            .totalACapacitar(agregado.getTotalACapacitar())
+                            .totalEmCapacitacao(agregado.getTotalEmCapacitacao())
+                            .totalCapacitado(agregado.getTotalCapacitado())
+                            .totalInstrutor(agregado.getTotalInstrutor())
                             .build();
                 })
                 .toList();
@@ -96,10 +94,31 @@ public class DiagnosticoRelatorioService {
                 .build();
     }
 
-    private int contarSituacoes(List<SituacaoCapacitacao> situacoes, ValorSituacaoCapacitacao valor) {
-        return (int) situacoes.stream()
-                .filter(situacao -> situacao.getSituacaoCapacitacao() == valor)
-                .count();
+    /**
+     * Agregados do diagnóstico de cada subprocesso, indexados por subprocesso e competência.
+     */
+    private Map<Long, Map<Long, AgregadoGapCompetencia>> buscarAgregadosPorSubprocesso(List<Subprocesso> subprocessos) {
+        if (subprocessos.isEmpty()) {
+            return Map.of();
+        }
+        List<Long> codigosSubprocesso = subprocessos.stream().map(Subprocesso::getCodigo).toList();
+        Map<Long, Long> subprocessoPorDiagnostico = new HashMap<>();
+        for (Diagnostico diagnostico : diagnosticoRepo.findBySubprocessoCodigoIn(codigosSubprocesso)) {
+            subprocessoPorDiagnostico.put(diagnostico.getCodigo(), diagnostico.getSubprocesso().getCodigo());
+        }
+        Set<Long> comDiagnostico = new HashSet<>(subprocessoPorDiagnostico.values());
+        for (Long codigoSubprocesso : codigosSubprocesso) {
+            if (!comDiagnostico.contains(codigoSubprocesso)) {
+                throw new ErroEntidadeNaoEncontrada("Diagnostico", codigoSubprocesso);
+            }
+        }
+
+        Map<Long, Map<Long, AgregadoGapCompetencia>> agregados = new HashMap<>();
+        for (AgregadoGapCompetencia agregado : agregadoRepo.listarPorDiagnosticos(subprocessoPorDiagnostico.keySet())) {
+            agregados.computeIfAbsent(subprocessoPorDiagnostico.get(agregado.getDiagnosticoCodigo()), c -> new HashMap<>())
+                    .put(agregado.getCompetenciaCodigo(), agregado);
+        }
+        return agregados;
     }
 
     private double arredondarDuasCasas(double valor) {
@@ -18,7 +18,9 @@ import org.springframework.web.bind.annotation.*;
 import org.jspecify.annotations.Nullable;
 import sgc.alerta.model.*;
 import sgc.comum.erros.*;
+import sgc.configuracoes.*;
 import sgc.diagnostico.model.*;
+import sgc.diagnostico.service.*;
 import sgc.feedback.*;
 import sgc.mapa.model.*;
 import sgc.organizacao.model.*;
@@ -62,6 +64,8 @@ public class E2eController {
     private final UnidadeService unidadeService;
     private final ResourceLoader resourceLoader;
     private final CacheManager cacheManager;
+    private final @Nullable RegistroConfiguracoes registroConfiguracoes;
+    private final @Nullable DiagnosticoGapService diagnosticoGapService;
 
     @Autowired
     public E2eController(
@@ -80,7 +84,9 @@ public class E2eController {
             @Nullable UsuarioRepo usuarioRepo,
             UnidadeService unidadeService,
             ResourceLoader resourceLoader,
-            CacheManager cacheManager
+            CacheManager cacheManager,
+            @Nullable RegistroConfiguracoes registroConfiguracoes,
+            @Nullable DiagnosticoGapService diagnosticoGapService
     ) {
         this.jdbcTemplate = jdbcTemplate;
         this.namedJdbcTemplate = namedJdbcTemplate;
@@ -98,6 +104,8 @@ public class E2eController {
         this.unidadeService = unidadeService;
         this.resourceLoader = resourceLoader;
         this.cacheManager = cacheManager;
+        this.registroConfiguracoes = registroConfiguracoes;
+        this.diagnosticoGapService = diagnosticoGapService;
     }
 
     E2eController(
@@ -131,7 +139,9 @@ public class E2eController {
                 null,
                 unidadeService,
                 resourceLoader,
-                cacheManager
+                cacheManager,
+                null,
+                null
         );
     }
 
@@ -167,6 +177,9 @@ public class E2eController {
         try (Connection conn = dataSource.getConnection()) {
             executeDatabaseReset(conn);
             limparCaches();
+            if (registroConfiguracoes != null) {
+                registroConfiguracoes.carregar();
+            }
             log.info("Reset do banco de dados e caches concluído.");
         } catch (Exception e) {
             log.error("Erro crítico ao resetar banco de dados", e);
@@ -747,6 +760,7 @@ public class E2eController {
 
         jdbcTemplate.update("INSERT INTO sgc.movimentacao (subprocesso_codigo, unidade_origem_codigo, unidade_destino_codigo, usuario_titulo, data_hora, descricao) " +
                 "VALUES (?, ?, ?, '111111', ?, ?)", codSubprocesso, codUnidade, codDestino, LocalDateTime.now(), "Movimentação automática via fixture");
+        jdbcTemplate.update("UPDATE sgc.subprocesso SET localizacao_atual_codigo = ? WHERE codigo = ?", codDestino, codSubprocesso);
 
         return processoService.buscarPorCodigo(codProcesso);
     }
@@ -930,6 +944,9 @@ public class E2eController {
                 "INSERT INTO sgc.movimentacao (subprocesso_codigo, unidade_origem_codigo, unidade_destino_codigo, usuario_titulo, data_hora, descricao) " +
                         "VALUES (?, ?, ?, ?, ?, ?)",
                 codSubprocesso, codOrigem, codDestino, TITULO_USUARIO_FIXTURE_ADMIN, LocalDateTime.now(), descricao);
+        jdbcTemplate.update(
+                "UPDATE sgc.subprocesso SET localizacao_atual_codigo = ? WHERE codigo = ?",
+                codDestino, codSubprocesso);
     }
 
     private String descricaoFixture(ProcessoFixtureRequest request, TipoProcesso tipo) {
@@ -1016,7 +1033,7 @@ public class E2eController {
     }
 
     private Long consultarProximoCodigo(String tabela) {
-        Long proximo = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(codigo), 0) + 1 FROM sgc." + tabela, Long.class);
+        Long proximo = jdbcTemplate.queryForObject("SELECT NEXT VALUE FOR sgc." + tabela + "_seq", Long.class);
         if (proximo == null) {
             throw new IllegalStateException("Fixture E2E não encontrou próximo codigo para tabela: " + tabela);
         }
@@ -1072,6 +1089,7 @@ public class E2eController {
             avaliacao.setSituacaoServidor(SituacaoAvaliacaoServidor.AUTOAVALIACAO_CONCLUIDA);
         });
         avaliacaoServidorRepo.saveAllAndFlush(avaliacoes);
+        recalcularAgregadosDiagnostico(avaliacoes.getFirst().getDiagnostico().getCodigo());
 
         Subprocesso subprocesso = avaliacoes.getFirst().getDiagnostico().getSubprocesso();
         if (subprocesso.getSituacao() == SituacaoSubprocesso.NAO_INICIADO) {
@@ -1097,6 +1115,7 @@ public class E2eController {
             avaliacao.setSituacaoServidor(SituacaoAvaliacaoServidor.CONSENSO_CRIADO);
         });
         avaliacaoServidorRepo.saveAllAndFlush(avaliacoes);
+        recalcularAgregadosDiagnostico(avaliacoes.getFirst().getDiagnostico().getCodigo());
         limparCaches();
     }
 
@@ -1172,6 +1191,8 @@ public class E2eController {
                 .usuario(usuarioGestor)
                 .descricao("Aceite de diagnóstico via fixture")
                 .build());
+        subprocesso.setLocalizacaoAtual(admin);
+        subprocessoRepo.saveAndFlush(subprocesso);
         limparCaches();
     }
 
@@ -1215,6 +1236,7 @@ public class E2eController {
         }
 
         avaliacaoServidorRepo.saveAllAndFlush(avaliacoes);
+        recalcularAgregadosDiagnostico(diagnostico.getCodigo());
     }
 
     private void preencherSituacoesCapacitacaoFixture(Diagnostico diagnostico) {
@@ -1229,6 +1251,13 @@ public class E2eController {
         }
 
         situacaoCapacitacaoRepo.saveAllAndFlush(situacoes);
+        recalcularAgregadosDiagnostico(diagnostico.getCodigo());
+    }
+
+    private void recalcularAgregadosDiagnostico(Long codDiagnostico) {
+        if (diagnosticoGapService != null) {
+            diagnosticoGapService.recalcularAgregados(codDiagnostico);
+        }
     }
 
     private Long buscarCodigoSubprocesso(Long codProcesso, String unidadeSigla) {
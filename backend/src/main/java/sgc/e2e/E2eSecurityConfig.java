@@ -44,8 +44,9 @@ public class E2eSecurityConfig {
     }
 
     @Bean
-    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService, ListaNegraJwt listaNegraJwt) {
-        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt);
+    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService,
+                               ListaNegraJwt listaNegraJwt, CachePrincipalJwt cachePrincipalJwt) {
+        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt, cachePrincipalJwt);
     }
 
     @Bean
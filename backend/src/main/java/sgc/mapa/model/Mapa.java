@@ -41,6 +41,15 @@ public class Mapa extends EntidadeBase {
     @JsonIgnore
     private Subprocesso subprocesso;
 
+    /**
+     * Cresce a cada alteração do mapa ou de suas atividades, conhecimentos e competências; serve de ETag
+     * do mapa completo.
+     */
+    @Column(name = "versao", nullable = false)
+    @Setter(AccessLevel.NONE)
+    @JsonIgnore
+    private long versao;
+
     @OneToMany(mappedBy = "mapa", cascade = CascadeType.ALL, orphanRemoval = true)
     @lombok.Builder.Default
     @JsonView(MapaViews.Publica.class)
@@ -52,4 +61,13 @@ public class Mapa extends EntidadeBase {
     @JsonView(MapaViews.Publica.class)
     @JsonIgnoreProperties("mapa")
     private Set<Competencia> competencias = new LinkedHashSet<>();
+
+    /**
+     * Chamado pelo Hibernate em todo update da linha e, explicitamente, pelos serviços que alteram apenas
+     * as entidades filhas do mapa.
+     */
+    @PreUpdate
+    public void registrarAlteracao() {
+        versao++;
+    }
 }
@@ -59,7 +59,10 @@ public class CopiaMapaService {
                 .map(ativ -> prepararCopiaAtividade(ativ, mapaDestino))
                 .toList();
 
-        if (!atividadesParaSalvar.isEmpty()) atividadeRepo.saveAll(atividadesParaSalvar);
+        if (!atividadesParaSalvar.isEmpty()) {
+            mapaDestino.registrarAlteracao();
+            atividadeRepo.saveAll(atividadesParaSalvar);
+        }
         return atividadesParaSalvar.size();
     }
 
@@ -153,6 +153,7 @@ public class MapaManutencaoService {
 
         Atividade entidade = Atividade.criarDe(request);
         entidade.setMapa(mapa);
+        mapa.registrarAlteracao();
 
         log.info("Atividade criada no mapa {}", request.mapaCodigo());
         Atividade atividadeSalva = atividadeRepo.save(entidade);
@@ -168,6 +169,7 @@ public class MapaManutencaoService {
         }
 
         existente.atualizarDe(request);
+        existente.getMapa().registrarAlteracao();
         atividadeRepo.save(existente);
         reconciliarSituacaoSubprocesso(existente.getMapa().getCodigo());
         log.info("Atividade {} atualizada", codigo);
@@ -184,7 +186,9 @@ public class MapaManutencaoService {
                 atividade.setDescricao(novaDescricao);
             }
             var mapa = atividade.getMapa();
-            mapasAfetados.add(mapa.getCodigo());
+            if (mapasAfetados.add(mapa.getCodigo())) {
+                mapa.registrarAlteracao();
+            }
         });
 
         atividadeRepo.saveAll(atividades);
@@ -206,6 +210,7 @@ public class MapaManutencaoService {
         conhecimentoRepo.deleteAll(conhecimentos);
 
         atividadeRepo.delete(atividade);
+        mapa.registrarAlteracao();
         reconciliarSituacaoSubprocesso(mapa.getCodigo());
     }
 
@@ -247,11 +252,16 @@ public class MapaManutencaoService {
 
     @Transactional
     public void salvarCompetencia(Competencia competencia) {
+        competencia.getMapa().registrarAlteracao();
         competenciaRepo.save(competencia);
     }
 
     @Transactional
     public void salvarCompetencias(List<Competencia> competencias) {
+        competencias.stream()
+                .map(Competencia::getMapa)
+                .distinct()
+                .forEach(Mapa::registrarAlteracao);
         competenciaRepo.saveAll(competencias);
         log.info("Salvas {} competências em lote", competencias.size());
     }
@@ -264,6 +274,7 @@ public class MapaManutencaoService {
                 .build();
 
         prepararCompetenciasAtividades(codigosAtividades, competencia);
+        mapa.registrarAlteracao();
         competenciaRepo.save(competencia);
         atividadeRepo.saveAll(competencia.getAtividades());
 
@@ -274,6 +285,7 @@ public class MapaManutencaoService {
     public void atualizarCompetencia(Long codigo, String desc, List<Long> atividadesCodigos) {
         Competencia competencia = repo.buscar(Competencia.class, codigo);
         competencia.setDescricao(desc);
+        competencia.getMapa().registrarAlteracao();
 
         List<Atividade> atividadesAntigas = atividadeRepo.listarPorCompetencia(competencia);
         atividadesAntigas.forEach(atividade -> atividade.getCompetencias().remove(competencia));
@@ -297,6 +309,7 @@ public class MapaManutencaoService {
 
         atividadeRepo.saveAll(atividadesAssociadas);
         competenciaRepo.delete(competencia);
+        competencia.getMapa().registrarAlteracao();
         log.info("Competência excluída de mapa {}", competencia.getMapa().getCodigo());
     }
 
@@ -309,6 +322,7 @@ public class MapaManutencaoService {
         var conhecimento = Conhecimento.criarDe(request);
         conhecimento.setAtividade(atividade);
         atividade.getConhecimentos().add(conhecimento);
+        mapa.registrarAlteracao();
 
         Conhecimento conhecimentoSalvo = conhecimentoRepo.save(conhecimento);
         reconciliarSituacaoSubprocesso(mapa.getCodigo());
@@ -332,6 +346,7 @@ public class MapaManutencaoService {
         var mapa = existente.getAtividade().getMapa();
 
         existente.atualizarDe(request);
+        mapa.registrarAlteracao();
         conhecimentoRepo.save(existente);
         reconciliarSituacaoSubprocesso(mapa.getCodigo());
 
@@ -355,6 +370,7 @@ public class MapaManutencaoService {
         Mapa mapa = conhecimento.getAtividade().getMapa();
         conhecimento.getAtividade().getConhecimentos().remove(conhecimento);
         conhecimentoRepo.delete(conhecimento);
+        mapa.registrarAlteracao();
         reconciliarSituacaoSubprocesso(mapa.getCodigo());
     }
 
@@ -50,6 +50,7 @@ public class MapaSalvamentoService {
         var sanitizedObservacoes = UtilSanitizacao.sanitizarFormatado(observacoes);
 
         mapa.setObservacoesDisponibilizacao(sanitizedObservacoes);
+        mapa.registrarAlteracao();
         mapaRepo.save(mapa);
     }
 
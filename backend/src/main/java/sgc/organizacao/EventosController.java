@@ -8,11 +8,12 @@ import org.springframework.web.servlet.mvc.method.annotation.*;
 import sgc.organizacao.service.*;
 
 /**
- * Endpoint SSE para notificações de atualização de cache.
+ * Endpoint SSE para notificações do servidor.
  *
  * <p>Clientes Vue se conectam a este endpoint para receber eventos
  * quando os caches organizacionais são atualizados, permitindo que
- * os stores Pinia recarreguem seus dados automaticamente.
+ * os stores Pinia recarreguem seus dados automaticamente, e para
+ * receber os alertas novos dirigidos ao usuário ou à sua unidade ativa.
  */
 @RestController
 @RequestMapping("/api/eventos")
@@ -20,10 +21,11 @@ import sgc.organizacao.service.*;
 public class EventosController {
 
     private final RegistroSseEmitter registroSseEmitter;
+    private final UsuarioAplicacaoService usuarioAplicacaoService;
 
     @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
     @PreAuthorize("isAuthenticated()")
     public SseEmitter assinar() {
-        return registroSseEmitter.registrar();
+        return registroSseEmitter.registrar(usuarioAplicacaoService.contextoAutenticado());
     }
 }
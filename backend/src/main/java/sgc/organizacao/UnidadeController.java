@@ -7,7 +7,9 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.*;
 import org.springframework.validation.annotation.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.*;
 import org.springframework.web.util.*;
+import sgc.comum.util.*;
 import sgc.organizacao.dto.*;
 import sgc.organizacao.model.*;
 import sgc.organizacao.service.*;
@@ -73,9 +75,9 @@ public class UnidadeController {
     }
 
     @GetMapping
-    public ResponseEntity<List<UnidadeDto>> buscarTodasUnidades() {
-        List<UnidadeDto> hierarquia = hierarquiaService.buscarArvoreHierarquica();
-        return ResponseEntity.ok(hierarquia);
+    public ResponseEntity<List<UnidadeDto>> buscarTodasUnidades(WebRequest request) {
+        String versao = "unidades-" + hierarquiaService.versaoHierarquia();
+        return RespostaCondicional.versionada(request, versao, hierarquiaService::buscarArvoreHierarquica);
     }
 
     @GetMapping("/diagnostico-organizacional")
@@ -55,7 +55,7 @@ public class UsuarioAplicacaoService {
 
     @Transactional(readOnly = true)
     public @Nullable Usuario carregarUsuarioSemAtribuicoesParaAutenticacao(String titulo) {
-        return usuarioService.buscarOpt(titulo).orElse(null);
+        return usuarioService.buscarOptComUnidadeLotacao(titulo).orElse(null);
     }
 
     private Optional<String> tituloUsuarioAutenticado() {
@@ -0,0 +1,141 @@
+package sgc.organizacao.model;
+
+import org.jspecify.annotations.*;
+
+import java.text.*;
+import java.util.*;
+import java.util.regex.*;
+
+/**
+ * Índice de prefixos para a busca de usuários por nome ou título eleitoral.
+ *
+ * <p>Cada palavra do nome e o título, sem acentos e em minúsculas, viram chaves de um array ordenado que
+ * aponta para a posição do usuário na lista ordenada por nome. A busca é uma pesquisa binária até a primeira
+ * chave com o prefixo procurado seguida da varredura apenas das chaves que o compartilham; os resultados saem
+ * naturalmente em ordem de nome.
+ */
+final class IndiceBuscaUsuarios {
+    static final Comparator<UsuarioConsultaLeitura> POR_NOME =
+            Comparator.comparing(UsuarioConsultaLeitura::nome, Comparator.nullsLast(String::compareTo));
+
+    private static final Pattern MARCAS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARADORES = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private final List<UsuarioConsultaLeitura> usuariosPorNome;
+    private final String[][] palavrasPorUsuario;
+    private final String[] chaves;
+    private final int[] posicoes;
+
+    private IndiceBuscaUsuarios(
+            List<UsuarioConsultaLeitura> usuariosPorNome,
+            String[][] palavrasPorUsuario,
+            String[] chaves,
+            int[] posicoes
+    ) {
+        this.usuariosPorNome = usuariosPorNome;
+        this.palavrasPorUsuario = palavrasPorUsuario;
+        this.chaves = chaves;
+        this.posicoes = posicoes;
+    }
+
+    static IndiceBuscaUsuarios construir(Collection<UsuarioConsultaLeitura> usuarios) {
+        List<UsuarioConsultaLeitura> ordenados = usuarios.stream().sorted(POR_NOME).toList();
+        String[][] palavrasPorUsuario = new String[ordenados.size()][];
+        List<Entrada> entradas = new ArrayList<>(ordenados.size() * 4);
+
+        for (int posicao = 0; posicao < ordenados.size(); posicao++) {
+            UsuarioConsultaLeitura usuario = ordenados.get(posicao);
+            Set<String> palavras = new LinkedHashSet<>(palavras(usuario.nome()));
+            String titulo = normalizar(usuario.tituloEleitoral());
+            if (!titulo.isEmpty()) {
+                palavras.add(titulo);
+            }
+            palavrasPorUsuario[posicao] = palavras.toArray(String[]::new);
+            for (String palavra : palavras) {
+                entradas.add(new Entrada(palavra, posicao));
+            }
+        }
+
+        entradas.sort(Comparator.comparing(Entrada::chave).thenComparingInt(Entrada::posicao));
+        String[] chaves = new String[entradas.size()];
+        int[] posicoes = new int[entradas.size()];
+        for (int i = 0; i < entradas.size(); i++) {
+            chaves[i] = entradas.get(i).chave();
+            posicoes[i] = entradas.get(i).posicao();
+        }
+        return new IndiceBuscaUsuarios(ordenados, palavrasPorUsuario, chaves, posicoes);
+    }
+
+    /**
+     * Usuários em que cada palavra do termo é início de alguma palavra do nome ou do título, em ordem de nome.
+     */
+    List<UsuarioConsultaLeitura> buscar(String termo, int limite) {
+        List<String> termos = palavras(termo);
+        if (termos.isEmpty() || limite <= 0) {
+            return List.of();
+        }
+
+        String prefixo = termos.stream().max(Comparator.comparingInt(String::length)).orElseThrow();
+        BitSet encontrados = new BitSet(usuariosPorNome.size());
+        for (int i = primeiraChaveNaoMenorQue(prefixo); i < chaves.length && chaves[i].startsWith(prefixo); i++) {
+            int posicao = posicoes[i];
+            if (!encontrados.get(posicao) && contemTodos(palavrasPorUsuario[posicao], termos)) {
+                encontrados.set(posicao);
+            }
+        }
+
+        List<UsuarioConsultaLeitura> resultado = new ArrayList<>(Math.min(limite, encontrados.cardinality()));
+        for (int posicao = encontrados.nextSetBit(0); posicao >= 0 && resultado.size() < limite;
+             posicao = encontrados.nextSetBit(posicao + 1)) {
+            resultado.add(usuariosPorNome.get(posicao));
+        }
+        return resultado;
+    }
+
+    static String normalizar(@Nullable String texto) {
+        if (texto == null || texto.isEmpty()) {
+            return "";
+        }
+        String semAcentos = MARCAS.matcher(Normalizer.normalize(texto, Normalizer.Form.NFD)).replaceAll("");
+        return semAcentos.toLowerCase(Locale.ROOT);
+    }
+
+    private static List<String> palavras(@Nullable String texto) {
+        return Arrays.stream(SEPARADORES.split(normalizar(texto)))
+                .filter(palavra -> !palavra.isEmpty())
+                .toList();
+    }
+
+    private int primeiraChaveNaoMenorQue(String prefixo) {
+        int inicio = 0;
+        int fim = chaves.length;
+        while (inicio < fim) {
+            int meio = (inicio + fim) >>> 1;
+            if (chaves[meio].compareTo(prefixo) < 0) {
+                inicio = meio + 1;
+            } else {
+                fim = meio;
+            }
+        }
+        return inicio;
+    }
+
+    private static boolean contemTodos(String[] palavrasUsuario, List<String> termos) {
+        for (String termo : termos) {
+            boolean encontrado = false;
+            for (String palavra : palavrasUsuario) {
+                if (palavra.startsWith(termo)) {
+                    encontrado = true;
+                    break;
+                }
+            }
+            if (!encontrado) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private record Entrada(String chave, int posicao) {
+    }
+}
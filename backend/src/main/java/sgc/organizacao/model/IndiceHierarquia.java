@@ -0,0 +1,150 @@
+package sgc.organizacao.model;
+
+import java.util.*;
+
+/**
+ * Índice imutável da hierarquia de unidades codificado por intervalos (Euler tour).
+ *
+ * <p>Cada unidade recebe sua posição na ordem de pré-visita ({@code entrada}) e a maior
+ * posição alcançada dentro da sua subárvore ({@code saida}). Uma unidade X está abaixo
+ * de Y se, e somente se, {@code entrada[Y] < entrada[X] <= saida[Y]}, o que torna a
+ * verificação de subordinação duas comparações inteiras, sem alocação.
+ *
+ * <p>Os descendentes de uma unidade ocupam uma faixa contígua da pré-ordem (veja {@link #buscarDescendentes(Long)}).
+ * Unidades inalcançáveis a partir de uma raiz (por exemplo, em ciclos) não são indexadas.
+ */
+public final class IndiceHierarquia {
+    private static final IndiceHierarquia VAZIO = new IndiceHierarquia(Map.of(), new long[0], new int[0]);
+
+    private final Map<Long, Integer> posicoes;
+    private final long[] codigosEmPreOrdem;
+    private final int[] saidas;
+
+    private IndiceHierarquia(Map<Long, Integer> posicoes, long[] codigosEmPreOrdem, int[] saidas) {
+        this.posicoes = posicoes;
+        this.codigosEmPreOrdem = codigosEmPreOrdem;
+        this.saidas = saidas;
+    }
+
+    public static IndiceHierarquia vazio() {
+        return VAZIO;
+    }
+
+    /**
+     * Constrói o índice a partir das unidades ativas, preservando a ordem da lista entre irmãs.
+     */
+    public static IndiceHierarquia construir(List<UnidadeHierarquiaLeitura> unidades) {
+        if (unidades.isEmpty()) {
+            return VAZIO;
+        }
+
+        Set<Long> codigos = HashSet.newHashSet(unidades.size());
+        unidades.forEach(u -> codigos.add(u.codigo()));
+
+        Map<Long, List<Long>> filhosPorPai = new HashMap<>();
+        List<Long> raizes = new ArrayList<>();
+        for (UnidadeHierarquiaLeitura u : unidades) {
+            Long codigoPai = u.unidadeSuperiorCodigo();
+            if (codigoPai == null || !codigos.contains(codigoPai)) {
+                raizes.add(u.codigo());
+            } else {
+                filhosPorPai.computeIfAbsent(codigoPai, k -> new ArrayList<>()).add(u.codigo());
+            }
+        }
+
+        Map<Long, Integer> posicoes = HashMap.newHashMap(codigos.size());
+        long[] preOrdem = new long[codigos.size()];
+        int[] saidas = new int[codigos.size()];
+        int proxima = 0;
+
+        Deque<Long> pilha = new ArrayDeque<>();
+        Deque<Iterator<Long>> iteradores = new ArrayDeque<>();
+        for (Long raiz : raizes) {
+            if (posicoes.containsKey(raiz)) {
+                continue;
+            }
+            posicoes.put(raiz, proxima);
+            preOrdem[proxima++] = raiz;
+            pilha.push(raiz);
+            iteradores.push(filhosPorPai.getOrDefault(raiz, List.of()).iterator());
+
+            while (!pilha.isEmpty()) {
+                Iterator<Long> filhos = iteradores.peek();
+                if (filhos.hasNext()) {
+                    Long filho = filhos.next();
+                    if (posicoes.putIfAbsent(filho, proxima) == null) {
+                        preOrdem[proxima++] = filho;
+                        pilha.push(filho);
+                        iteradores.push(filhosPorPai.getOrDefault(filho, List.of()).iterator());
+                    }
+                } else {
+                    saidas[posicoes.get(pilha.pop())] = proxima - 1;
+                    iteradores.pop();
+                }
+            }
+        }
+
+        return new IndiceHierarquia(
+                Map.copyOf(posicoes),
+                Arrays.copyOf(preOrdem, proxima),
+                Arrays.copyOf(saidas, proxima));
+    }
+
+    /**
+     * Indica se {@code alvo} é descendente estrito de {@code superior}.
+     */
+    public boolean isSubordinada(Long alvo, Long superior) {
+        Integer posicaoAlvo = posicoes.get(alvo);
+        Integer posicaoSuperior = posicoes.get(superior);
+        if (posicaoAlvo == null || posicaoSuperior == null) {
+            return false;
+        }
+        int entradaAlvo = posicaoAlvo;
+        int entradaSuperior = posicaoSuperior;
+        return entradaSuperior < entradaAlvo && entradaAlvo <= saidas[entradaSuperior];
+    }
+
+    public boolean contem(Long codigo) {
+        return posicoes.containsKey(codigo);
+    }
+
+    /**
+     * Posição da unidade na pré-visita, ou {@code -1} se não indexada.
+     */
+    public int posicao(Long codigo) {
+        Integer posicao = posicoes.get(codigo);
+        return posicao == null ? -1 : posicao;
+    }
+
+    /**
+     * Última posição (inclusiva) da subárvore iniciada na posição informada.
+     */
+    public int fimSubarvore(int posicao) {
+        return saidas[posicao];
+    }
+
+    public int tamanho() {
+        return codigosEmPreOrdem.length;
+    }
+
+    public long codigoNaPosicao(int posicao) {
+        return codigosEmPreOrdem[posicao];
+    }
+
+    /**
+     * Códigos dos descendentes (sem incluir a própria unidade), em pré-ordem.
+     */
+    public List<Long> buscarDescendentes(Long codigo) {
+        Integer posicao = posicoes.get(codigo);
+        if (posicao == null) {
+            return List.of();
+        }
+        int inicio = posicao + 1;
+        int fim = saidas[posicao];
+        List<Long> descendentes = new ArrayList<>(Math.max(0, fim - inicio + 1));
+        for (int i = inicio; i <= fim; i++) {
+            descendentes.add(codigosEmPreOrdem[i]);
+        }
+        return descendentes;
+    }
+}
@@ -0,0 +1,182 @@
+package sgc.organizacao.model;
+
+import org.jspecify.annotations.*;
+
+import java.util.*;
+
+/**
+ * Retrato imutável das views organizacionais, com os índices usados pelos serviços de consulta.
+ *
+ * <p>É montado uma vez a cada troca das views e compartilhado por todas as requisições: buscas por código,
+ * sigla, título, lotação e responsável são consultas diretas a mapas, sem reconstrução por chamada, e a
+ * pesquisa de usuários por nome usa um índice de prefixos montado junto.
+ *
+ * <p>A {@link #versao()} cresce a cada montagem e identifica o conteúdo do snapshot, podendo compor
+ * validadores de cache HTTP.
+ */
+public final class SnapshotOrganizacional {
+    private final long versao;
+    private final List<UnidadeHierarquiaLeitura> unidades;
+    private final List<UsuarioConsultaLeitura> usuarios;
+    private final List<ResponsabilidadeLeitura> responsabilidades;
+    private final Map<Long, UnidadeHierarquiaLeitura> unidadesPorCodigo;
+    private final Map<String, UnidadeHierarquiaLeitura> unidadesPorSigla;
+    private final Map<String, UsuarioConsultaLeitura> usuariosPorTitulo;
+    private final Map<Long, List<UsuarioConsultaLeitura>> usuariosPorLotacao;
+    private final Map<Long, String> responsaveisPorUnidade;
+    private final Map<Long, Long> paiPorFilho;
+    private final Map<Long, List<Long>> filhosPorPai;
+    private final IndiceHierarquia indice;
+    private final IndiceBuscaUsuarios buscaUsuarios;
+
+    private SnapshotOrganizacional(
+            long versao,
+            List<UnidadeHierarquiaLeitura> unidades,
+            List<UsuarioConsultaLeitura> usuarios,
+            List<ResponsabilidadeLeitura> responsabilidades
+    ) {
+        this.versao = versao;
+        this.unidades = List.copyOf(unidades);
+        this.usuarios = List.copyOf(usuarios);
+        this.responsabilidades = List.copyOf(responsabilidades);
+
+        Map<Long, UnidadeHierarquiaLeitura> porCodigo = HashMap.newHashMap(unidades.size());
+        Map<String, UnidadeHierarquiaLeitura> porSigla = HashMap.newHashMap(unidades.size());
+        Map<Long, Long> pais = HashMap.newHashMap(unidades.size());
+        Map<Long, List<Long>> filhos = new HashMap<>();
+        for (UnidadeHierarquiaLeitura unidade : unidades) {
+            porCodigo.putIfAbsent(unidade.codigo(), unidade);
+            porSigla.putIfAbsent(unidade.sigla(), unidade);
+            Long codigoPai = unidade.unidadeSuperiorCodigo();
+            if (codigoPai != null) {
+                pais.put(unidade.codigo(), codigoPai);
+                filhos.computeIfAbsent(codigoPai, k -> new ArrayList<>()).add(unidade.codigo());
+            }
+        }
+
+        Map<String, UsuarioConsultaLeitura> porTitulo = HashMap.newHashMap(usuarios.size());
+        Map<Long, List<UsuarioConsultaLeitura>> porLotacao = new HashMap<>();
+        for (UsuarioConsultaLeitura usuario : usuarios) {
+            porTitulo.putIfAbsent(usuario.tituloEleitoral(), usuario);
+            porLotacao.computeIfAbsent(usuario.unidadeCodigo(), k -> new ArrayList<>()).add(usuario);
+        }
+        porLotacao.replaceAll((codigo, lotados) -> lotados.stream().sorted(IndiceBuscaUsuarios.POR_NOME).toList());
+
+        Map<Long, String> responsaveis = HashMap.newHashMap(responsabilidades.size());
+        responsabilidades.forEach(r -> responsaveis.put(r.unidadeCodigo(), r.usuarioTitulo()));
+
+        filhos.replaceAll((codigo, codigos) -> List.copyOf(codigos));
+        this.unidadesPorCodigo = Collections.unmodifiableMap(porCodigo);
+        this.unidadesPorSigla = Collections.unmodifiableMap(porSigla);
+        this.usuariosPorTitulo = Collections.unmodifiableMap(porTitulo);
+        this.usuariosPorLotacao = Collections.unmodifiableMap(porLotacao);
+        this.responsaveisPorUnidade = Collections.unmodifiableMap(responsaveis);
+        this.paiPorFilho = Collections.unmodifiableMap(pais);
+        this.filhosPorPai = Collections.unmodifiableMap(filhos);
+        this.indice = IndiceHierarquia.construir(this.unidades);
+        this.buscaUsuarios = IndiceBuscaUsuarios.construir(porTitulo.values());
+    }
+
+    /**
+     * Monta o snapshot e todos os seus índices a partir das leituras completas das views.
+     */
+    public static SnapshotOrganizacional construir(
+            long versao,
+            List<UnidadeHierarquiaLeitura> unidades,
+            List<UsuarioConsultaLeitura> usuarios,
+            List<ResponsabilidadeLeitura> responsabilidades
+    ) {
+        return new SnapshotOrganizacional(versao, unidades, usuarios, responsabilidades);
+    }
+
+    public long versao() {
+        return versao;
+    }
+
+    /**
+     * Indica se {@code outro} foi montado a partir das mesmas linhas das views, desconsiderando a versão.
+     */
+    public boolean mesmoConteudo(SnapshotOrganizacional outro) {
+        return unidades.equals(outro.unidades)
+                && usuarios.equals(outro.usuarios)
+                && responsabilidades.equals(outro.responsabilidades);
+    }
+
+    public List<UnidadeHierarquiaLeitura> unidades() {
+        return unidades;
+    }
+
+    public List<UsuarioConsultaLeitura> usuarios() {
+        return usuarios;
+    }
+
+    public List<ResponsabilidadeLeitura> responsabilidades() {
+        return responsabilidades;
+    }
+
+    public @Nullable UnidadeHierarquiaLeitura unidade(Long codigo) {
+        return unidadesPorCodigo.get(codigo);
+    }
+
+    public @Nullable UnidadeHierarquiaLeitura unidadePorSigla(String sigla) {
+        return unidadesPorSigla.get(sigla);
+    }
+
+    public @Nullable UsuarioConsultaLeitura usuario(String titulo) {
+        return usuariosPorTitulo.get(titulo);
+    }
+
+    /**
+     * Usuários lotados na unidade, ordenados por nome.
+     */
+    public List<UsuarioConsultaLeitura> usuariosLotados(Long codigoUnidade) {
+        return usuariosPorLotacao.getOrDefault(codigoUnidade, List.of());
+    }
+
+    /**
+     * Busca por prefixo, sem diferenciar acentos nem maiúsculas, em qualquer palavra do nome ou no título.
+     * Os resultados vêm ordenados por nome.
+     */
+    public List<UsuarioConsultaLeitura> pesquisarUsuarios(String termo, int limite) {
+        return buscaUsuarios.buscar(termo, limite);
+    }
+
+    public @Nullable String tituloResponsavel(Long codigoUnidade) {
+        return responsaveisPorUnidade.get(codigoUnidade);
+    }
+
+    public @Nullable Long codigoPai(Long codigoUnidade) {
+        return paiPorFilho.get(codigoUnidade);
+    }
+
+    /**
+     * Filhas diretas da unidade, na ordem em que aparecem na view.
+     */
+    public List<Long> codigosFilhos(Long codigoUnidade) {
+        return filhosPorPai.getOrDefault(codigoUnidade, List.of());
+    }
+
+    public Map<Long, UnidadeHierarquiaLeitura> unidadesPorCodigo() {
+        return unidadesPorCodigo;
+    }
+
+    public Map<String, UsuarioConsultaLeitura> usuariosPorTitulo() {
+        return usuariosPorTitulo;
+    }
+
+    public Map<Long, String> responsaveisPorUnidade() {
+        return responsaveisPorUnidade;
+    }
+
+    public Map<Long, Long> paiPorFilho() {
+        return paiPorFilho;
+    }
+
+    public Map<Long, List<Long>> filhosPorPai() {
+        return filhosPorPai;
+    }
+
+    public IndiceHierarquia indice() {
+        return indice;
+    }
+}
@@ -16,6 +16,15 @@ public interface UnidadeMapaRepo extends JpaRepository<UnidadeMapa, Long> {
             """)
     List<Long> listarTodosCodigosUnidadeComMapaVigente();
 
+    @Query("""
+            SELECT um.unidadeCodigo
+            FROM UnidadeMapa um
+            JOIN um.mapaVigente mapa
+            JOIN mapa.subprocesso subprocesso
+            WHERE um.unidadeCodigo IN :codigosUnidades
+            """)
+    List<Long> listarCodigosUnidadeComMapaVigente(@Param("codigosUnidades") Collection<Long> codigosUnidades);
+
     @Query("""
             SELECT um
             FROM UnidadeMapa um
@@ -1,66 +1,182 @@
 package sgc.organizacao.service;
 
-import lombok.*;
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.Timer;
 import lombok.extern.slf4j.*;
+import org.jspecify.annotations.*;
 import org.springframework.cache.*;
+import org.springframework.cache.interceptor.*;
 import org.springframework.scheduling.annotation.*;
 import org.springframework.stereotype.*;
 import sgc.comum.config.*;
+import sgc.organizacao.model.*;
+
+import java.time.*;
+import java.time.Clock;
+import java.util.concurrent.atomic.*;
 
 /**
- * Agendador responsável por invalidar e recarregar periodicamente os caches das views.
+ * Agendador responsável por renovar periodicamente os caches das views.
  *
  * <p>Executa a cada 10 minutos, evitando "misses" frios e limitando a staleness máxima
- * independentemente do TTL configurado. Após a recarga, transmite um evento SSE
+ * independentemente do TTL configurado. As views são lidas de novo por completo em segundo plano
+ * e só então substituem, chave a chave, os valores em cache: durante a leitura as requisições
+ * continuam servidas pelo snapshot anterior. Após a troca, transmite um evento SSE
  * para que os clientes Vue atualizem seus stores.
  *
- * <p>A ordem de recarga segue a dependência entre as views:
- * VW_UNIDADE → VW_RESPONSABILIDADE → VW_USUARIO_PERFIL_UNIDADE.
+ * <p>O {@link SnapshotOrganizacional} é publicado antes das views individuais, de modo que os serviços que
+ * leem dele (hierarquia, usuários, autorizações) passam para o conteúdo novo de uma só vez. Os demais caches
+ * derivados em memória (árvores, buscas por sigla) são limpos depois da troca e reconstruídos a partir dele.
+ * Quando a leitura traz o mesmo conteúdo já publicado, nada é trocado: o snapshot mantém a versão e os caches
+ * derivados (autorizações, árvores, principal do JWT) continuam válidos.
+ *
+ * <p>Uma invalidação após commit ({@link CacheOrganizacaoService#invalidarAposCommit}) durante a leitura faria
+ * o snapshot lido antes do commit sobrescrever a limpeza até o refresh seguinte. Por isso a geração de
+ * invalidação é lida antes da leitura e conferida antes e depois da publicação: se mudou, a leitura é refeita,
+ * e uma publicação já feita é descartada.
+ *
+ * <p>Publica {@code org.cache.refresh.duration} e {@code org.cache.snapshot.age}.
  */
 @Component
-@RequiredArgsConstructor
 @Slf4j
 public class AgendadorRefreshCache {
 
     private static final long INTERVALO_REFRESH_MS = 600_000;
+    static final int TENTATIVAS_TROCA = 3;
     private final CacheViewsOrganizacaoService cacheViewsOrganizacaoService;
+    private final CacheOrganizacaoService cacheOrganizacaoService;
     private final CacheManager cacheManager;
     private final RegistroSseEmitter registroSseEmitter;
+    private final Clock clock;
+    private final Timer duracaoSucesso;
+    private final Timer duracaoFalha;
+    private final AtomicReference<Instant> ultimaTroca = new AtomicReference<>();
+
+    public AgendadorRefreshCache(
+            CacheViewsOrganizacaoService cacheViewsOrganizacaoService,
+            CacheOrganizacaoService cacheOrganizacaoService,
+            CacheManager cacheManager,
+            RegistroSseEmitter registroSseEmitter,
+            Clock clock,
+            MeterRegistry meterRegistry) {
+        this.cacheViewsOrganizacaoService = cacheViewsOrganizacaoService;
+        this.cacheOrganizacaoService = cacheOrganizacaoService;
+        this.cacheManager = cacheManager;
+        this.registroSseEmitter = registroSseEmitter;
+        this.clock = clock;
+        this.duracaoSucesso = Timer.builder("org.cache.refresh.duration")
+                .description("Duração da leitura e troca do snapshot das views organizacionais")
+                .tag("resultado", "sucesso")
+                .register(meterRegistry);
+        this.duracaoFalha = Timer.builder("org.cache.refresh.duration")
+                .description("Duração da leitura e troca do snapshot das views organizacionais")
+                .tag("resultado", "falha")
+                .register(meterRegistry);
+        Gauge.builder("org.cache.snapshot.age", this, AgendadorRefreshCache::idadeSnapshotSegundos)
+                .description("Tempo desde a última troca do snapshot das views organizacionais")
+                .baseUnit("seconds")
+                .register(meterRegistry);
+    }
 
     @Scheduled(fixedDelay = INTERVALO_REFRESH_MS)
     public void atualizarTudo() {
+        long inicio = System.nanoTime();
         try {
             log.debug("Iniciando refresh periódico dos caches organizacionais...");
-            evictarTodosCaches();
-            recarregarCaches();
+            trocarSnapshot();
             registroSseEmitter.transmitir("org-cache-refreshed");
+            duracaoSucesso.record(Duration.ofNanos(System.nanoTime() - inicio));
             log.debug("Refresh periódico dos caches concluído.");
         } catch (Exception e) {
-            log.warn("Falha no refresh periódico dos caches", e);
+            duracaoFalha.record(Duration.ofNanos(System.nanoTime() - inicio));
+            log.warn("Falha no refresh periódico dos caches; o snapshot anterior continua em uso", e);
         }
     }
 
+    /**
+     * Lê as views por completo e só então substitui os valores em cache, desde que nenhuma invalidação tenha
+     * ocorrido desde o início da leitura.
+     */
+    public void trocarSnapshot() {
+        for (int tentativa = 1; tentativa <= TENTATIVAS_TROCA; tentativa++) {
+            long geracao = cacheOrganizacaoService.geracaoInvalidacao();
+            ViewsOrganizacionais views = cacheViewsOrganizacaoService.carregarViews();
+            if (geracao != cacheOrganizacaoService.geracaoInvalidacao()) {
+                log.debug("Invalidação durante a leitura das views; refazendo a leitura (tentativa {})", tentativa);
+                continue;
+            }
+
+            publicar(views);
+            if (geracao == cacheOrganizacaoService.geracaoInvalidacao()) {
+                ultimaTroca.set(clock.instant());
+                return;
+            }
+            log.debug("Invalidação durante a publicação do snapshot; descartando-o (tentativa {})", tentativa);
+            evictarTodosCaches();
+        }
+        log.info("Snapshot organizacional não trocado: houve invalidação em todas as {} tentativas", TENTATIVAS_TROCA);
+    }
+
+    private void publicar(ViewsOrganizacionais views) {
+        SnapshotOrganizacional snapshot = views.snapshot();
+        if (semAlteracao(views)) {
+            log.debug("Views organizacionais inalteradas; snapshot atual mantido");
+            return;
+        }
+        substituir(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL, snapshot);
+        substituir(CacheConfig.CACHE_VW_UNIDADE, snapshot.unidades());
+        substituir(CacheConfig.CACHE_VW_USUARIO, snapshot.usuarios());
+        substituir(CacheConfig.CACHE_VW_RESPONSABILIDADE, snapshot.responsabilidades());
+        substituir(CacheConfig.CACHE_VW_USUARIO_PERFIL, views.perfis());
+        limparDerivados();
+    }
+
     public void evictarTodosCaches() {
         cacheViewsOrganizacaoService.evictarUnidades();
         cacheViewsOrganizacaoService.evictarUsuarios();
         cacheViewsOrganizacaoService.evictarResponsabilidades();
         cacheViewsOrganizacaoService.evictarPerfisUnidade();
+        limparCacheDerivado(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL);
+        limparDerivados();
+    }
+
+    public void recarregarCaches() {
+        cacheViewsOrganizacaoService.listarTodasUnidades();
+        cacheViewsOrganizacaoService.listarTodosUsuarios();
+        cacheViewsOrganizacaoService.listarTodasResponsabilidades();
+        cacheViewsOrganizacaoService.listarTodosPerfisUnidade();
+        cacheViewsOrganizacaoService.buscarSnapshot();
+        ultimaTroca.set(clock.instant());
+    }
+
+    private void limparDerivados() {
         limparCacheDerivado(CacheConfig.CACHE_ARVORE_UNIDADES);
-        limparCacheDerivado(CacheConfig.CACHE_MAPA_HIERARQUIA_UNIDADES);
-        limparCacheDerivado(CacheConfig.CACHE_MAPA_FILHO_PAI);
         limparCacheDerivado(CacheConfig.CACHE_UNIDADE_ADMIN);
         limparCacheDerivado(CacheConfig.CACHE_UNIDADE_POR_SIGLA);
         limparCacheDerivado(CacheConfig.CACHE_UNIDADE_CODIGO_POR_SIGLA);
         limparCacheDerivado(CacheConfig.CACHE_UNIDADES_COM_MAPA);
         limparCacheDerivado(CacheConfig.CACHE_USUARIO_AUTORIZACOES);
         limparCacheDerivado(CacheConfig.CACHE_DIAGNOSTICO_ORGANIZACIONAL);
+        limparCacheDerivado(CacheConfig.CACHE_PRINCIPAL_JWT);
     }
 
-    public void recarregarCaches() {
-        cacheViewsOrganizacaoService.listarTodasUnidades();
-        cacheViewsOrganizacaoService.listarTodosUsuarios();
-        cacheViewsOrganizacaoService.listarTodasResponsabilidades();
-        cacheViewsOrganizacaoService.listarTodosPerfisUnidade();
+    private boolean semAlteracao(ViewsOrganizacionais views) {
+        return valorEmCache(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL) instanceof SnapshotOrganizacional atual
+                && atual.mesmoConteudo(views.snapshot())
+                && views.perfis().equals(valorEmCache(CacheConfig.CACHE_VW_USUARIO_PERFIL));
+    }
+
+    private @Nullable Object valorEmCache(String nome) {
+        Cache cache = cacheManager.getCache(nome);
+        Cache.ValueWrapper valor = cache != null ? cache.get(SimpleKey.EMPTY) : null;
+        return valor != null ? valor.get() : null;
+    }
+
+    private void substituir(String nome, Object valor) {
+        Cache cache = cacheManager.getCache(nome);
+        if (cache != null) {
+            cache.put(SimpleKey.EMPTY, valor);
+        }
     }
 
     private void limparCacheDerivado(String nome) {
@@ -69,4 +185,9 @@ public class AgendadorRefreshCache {
             cache.clear();
         }
     }
+
+    private double idadeSnapshotSegundos() {
+        Instant troca = ultimaTroca.get();
+        return troca == null ? Double.NaN : Duration.between(troca, clock.instant()).toMillis() / 1000.0;
+    }
 }
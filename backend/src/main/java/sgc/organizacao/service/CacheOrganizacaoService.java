@@ -1,39 +1,71 @@
 package sgc.organizacao.service;
 
+import io.micrometer.core.instrument.*;
 import lombok.*;
+import lombok.extern.slf4j.*;
 import org.springframework.cache.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.support.*;
+import sgc.comum.config.*;
+import sgc.comum.config.CacheConfig.*;
 
+import java.util.*;
+import java.util.concurrent.atomic.*;
+
+/**
+ * Invalida, após o commit, somente os caches que derivam das fontes alteradas pela transação.
+ *
+ * <p>As dependências entre caches e fontes ficam em {@link CacheConfig}. Cada cache limpo incrementa
+ * {@code sgc.cache.invalidacoes} com a tag {@code cache}.
+ *
+ * <p>Cada invalidação avança {@link #geracaoInvalidacao()} antes de limpar os caches, para que
+ * {@link AgendadorRefreshCache} descarte um snapshot lido enquanto uma invalidação acontecia.
+ */
 @Service
 @RequiredArgsConstructor
+@Slf4j
 public class CacheOrganizacaoService {
     private static final String EVENTO_CACHE_ATUALIZADO = "org-cache-refreshed";
 
     private final CacheManager cacheManager;
     private final RegistroSseEmitter registroSseEmitter;
+    private final MeterRegistry meterRegistry;
+    private final AtomicLong geracao = new AtomicLong();
+
+    public long geracaoInvalidacao() {
+        return geracao.get();
+    }
 
-    public void invalidarAposCommit() {
+    public void invalidarAposCommit(FonteCache fonte, FonteCache... outras) {
+        Set<FonteCache> fontes = EnumSet.of(fonte, outras);
         if (!TransactionSynchronizationManager.isSynchronizationActive()) {
-            invalidarAgora();
+            invalidarAgora(fontes);
             return;
         }
 
         TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
             @Override
             public void afterCommit() {
-                invalidarAgora();
+                invalidarAgora(fontes);
             }
         });
     }
 
-    private void invalidarAgora() {
-        cacheManager.getCacheNames().forEach(nome -> {
+    private void invalidarAgora(Set<FonteCache> fontes) {
+        geracao.incrementAndGet();
+        Set<String> caches = CacheConfig.cachesDependentes(fontes);
+        caches.forEach(nome -> {
             Cache cache = cacheManager.getCache(nome);
             if (cache != null) {
                 cache.clear();
+                Counter.builder("sgc.cache.invalidacoes")
+                        .description("Caches limpos por alteração em uma das fontes de que dependem")
+                        .tag("cache", nome)
+                        .register(meterRegistry)
+                        .increment();
             }
         });
+        log.debug("Caches invalidados por alteração em {}: {}", fontes, caches);
         registroSseEmitter.transmitir(EVENTO_CACHE_ATUALIZADO);
     }
 }
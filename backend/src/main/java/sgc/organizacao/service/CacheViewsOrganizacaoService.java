@@ -10,15 +10,17 @@ import sgc.comum.config.CacheConfig;
 import sgc.organizacao.model.*;
 
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * Serviço responsável pelo cache de leitura das views organizacionais.
  *
  * <p>Cada método encapsula uma leitura completa de uma view Oracle:
- * VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE e VW_USUARIO_PERFIL_UNIDADE.
+ * VW_UNIDADE, VW_USUARIO, VW_RESPONSABILIDADE e VW_USUARIO_PERFIL_UNIDADE. As três primeiras também
+ * são publicadas juntas, já indexadas, como {@link SnapshotOrganizacional}.
  *
- * <p>Os caches de view são invalidados e recarregados periodicamente
- * pelo {@code AgendadorRefreshCache} e manualmente pelo {@code CacheAdminController}.
+ * <p>Os caches de view são substituídos periodicamente pelo {@code AgendadorRefreshCache}, a partir de
+ * {@link #carregarViews()}, e invalidados manualmente pelo {@code CacheAdminController}.
  */
 @SuppressWarnings("EmptyMethod")
 @Service
@@ -33,6 +35,10 @@ public class CacheViewsOrganizacaoService {
     private final UsuarioPerfilRepo usuarioPerfilRepo;
     private final ObjectProvider<CacheViewsOrganizacaoService> selfProvider;
     private final Environment environment;
+    /**
+     * Parte do instante de inicialização para que as versões não se repitam entre reinícios da aplicação.
+     */
+    private final AtomicLong versoesSnapshot = new AtomicLong(System.currentTimeMillis());
 
     @Cacheable(cacheNames = CacheConfig.CACHE_VW_UNIDADE, sync = true)
     public List<UnidadeHierarquiaLeitura> listarTodasUnidades() {
@@ -56,8 +62,7 @@ public class CacheViewsOrganizacaoService {
 
     @Cacheable(cacheNames = CacheConfig.CACHE_VW_RESPONSABILIDADE, sync = true)
     public List<ResponsabilidadeLeitura> listarTodasResponsabilidades() {
-        return List.copyOf(responsabilidadeRepo.listarTodasLeituras().stream()
-                .toList());
+        return List.copyOf(responsabilidadeRepo.listarTodasLeituras());
     }
 
     @CacheEvict(cacheNames = CacheConfig.CACHE_VW_RESPONSABILIDADE, allEntries = true)
@@ -67,19 +72,37 @@ public class CacheViewsOrganizacaoService {
 
     @Cacheable(cacheNames = CacheConfig.CACHE_VW_USUARIO_PERFIL, sync = true)
     public List<UsuarioPerfilLeitura> listarTodosPerfisUnidade() {
+        return montarPerfis(self().buscarSnapshot());
+    }
+
+    /**
+     * Snapshot indexado das views em cache. É remontado, com nova versão, sempre que uma das views muda.
+     */
+    @Cacheable(cacheNames = CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL, sync = true)
+    public SnapshotOrganizacional buscarSnapshot() {
         CacheViewsOrganizacaoService self = self();
-        Map<String, UsuarioConsultaLeitura> usuariosPorTitulo = self.listarTodosUsuarios().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        UsuarioConsultaLeitura::tituloEleitoral,
-                        usuario -> usuario,
-                        (primeiro, segundo) -> primeiro
-                ));
-        Map<Long, UnidadeHierarquiaLeitura> unidadesPorCodigo = self.listarTodasUnidades().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        UnidadeHierarquiaLeitura::codigo,
-                        unidade -> unidade,
-                        (primeira, segunda) -> primeira
-                ));
+        return SnapshotOrganizacional.construir(
+                versoesSnapshot.incrementAndGet(),
+                self.listarTodasUnidades(),
+                self.listarTodosUsuarios(),
+                self.listarTodasResponsabilidades());
+    }
+
+    /**
+     * Lê as views diretamente do banco, sem consultar nem alterar os caches, para montar um snapshot
+     * completo que substituirá o atual de uma só vez.
+     */
+    public ViewsOrganizacionais carregarViews() {
+        SnapshotOrganizacional snapshot = SnapshotOrganizacional.construir(
+                versoesSnapshot.incrementAndGet(),
+                unidadeRepo.listarEstruturasAtivas(),
+                usuarioRepo.listarTodasConsultas(),
+                responsabilidadeRepo.listarTodasLeituras());
+        return new ViewsOrganizacionais(snapshot, montarPerfis(snapshot));
+    }
+
+    private List<UsuarioPerfilLeitura> montarPerfis(SnapshotOrganizacional snapshot) {
+        Map<String, UsuarioConsultaLeitura> usuariosPorTitulo = snapshot.usuariosPorTitulo();
 
         Set<UsuarioPerfilLeitura> perfis = new LinkedHashSet<>();
 
@@ -90,8 +113,8 @@ public class CacheViewsOrganizacaoService {
                 .map(titulo -> new UsuarioPerfilLeitura(titulo, 1L, Perfil.ADMIN))
                 .forEach(perfis::add);
 
-        self.listarTodasResponsabilidades().forEach(responsabilidade -> {
-            UnidadeHierarquiaLeitura unidade = unidadesPorCodigo.get(responsabilidade.unidadeCodigo());
+        snapshot.responsabilidades().forEach(responsabilidade -> {
+            UnidadeHierarquiaLeitura unidade = snapshot.unidade(responsabilidade.unidadeCodigo());
             if (unidade == null) {
                 return;
             }
@@ -105,7 +128,7 @@ public class CacheViewsOrganizacaoService {
 
         usuariosPorTitulo.values().forEach(usuario -> {
             Long codigoUnidadeCompetencia = usuario.unidadeCompetenciaCodigo();
-            UnidadeHierarquiaLeitura unidadeCompetencia = unidadesPorCodigo.get(codigoUnidadeCompetencia);
+            UnidadeHierarquiaLeitura unidadeCompetencia = snapshot.unidade(codigoUnidadeCompetencia);
             if (unidadeCompetencia != null && !Objects.equals(usuario.tituloEleitoral(), unidadeCompetencia.tituloTitular())) {
                 perfis.add(new UsuarioPerfilLeitura(usuario.tituloEleitoral(), codigoUnidadeCompetencia, Perfil.SERVIDOR));
             }
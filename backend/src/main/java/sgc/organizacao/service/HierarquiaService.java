@@ -23,8 +23,8 @@ public class HierarquiaService {
     }
 
     public boolean isSubordinada(Unidade alvo, Unidade superior) {
-        List<Long> descendentes = unidadeHierarquiaService.buscarIdsDescendentes(superior.getCodigo());
-        if (descendentes.contains(alvo.getCodigo())) {
+        IndiceHierarquia indice = unidadeHierarquiaService.buscarIndiceHierarquia();
+        if (indice.isSubordinada(alvo.getCodigo(), superior.getCodigo())) {
             return true;
         }
 
@@ -1,43 +1,134 @@
 package sgc.organizacao.service;
 
+import io.micrometer.core.instrument.*;
+import jakarta.annotation.PreDestroy;
 import lombok.extern.slf4j.*;
+import org.jspecify.annotations.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.scheduling.annotation.*;
 import org.springframework.stereotype.*;
 import org.springframework.web.servlet.mvc.method.annotation.*;
+import sgc.organizacao.*;
+import sgc.organizacao.model.*;
 
 import java.io.*;
+import java.time.Clock;
+import java.time.*;
+import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.*;
 
 /**
  * Registro centralizado de emissores SSE.
  *
  * <p>Mantém a lista de clientes conectados e provê métodos para
  * registrar novos emissores e transmitir eventos a todos eles.
+ *
+ * <p>Emissores registrados com o contexto do usuário também entram nos canais do usuário e, exceto para
+ * o perfil SERVIDOR, da unidade ativa, permitindo enviar um evento só a quem deve recebê-lo.
+ *
+ * <p>Transmitir apenas enfileira: cada cliente tem uma fila limitada a {@code capacidade-fila} mensagens,
+ * esvaziada por uma virtual thread própria enquanto houver mensagens. Um evento igual a outro ainda pendente
+ * na fila é agrupado com ele; com a fila cheia, a mensagem mais antiga é descartada. Assim um cliente lento
+ * não atrasa a thread que transmite nem os demais clientes.
+ *
+ * <p>A cada {@code intervalo-heartbeat-ms} um comentário SSE é enfileirado para todos, o que mantém a conexão
+ * viva atrás de proxies e revela conexões mortas pela falha de escrita. Clientes sem nenhum envio concluído
+ * há mais de {@code inatividade-maxima-ms} são encerrados e removidos.
+ *
+ * <p>Publica {@code sgc.sse.clientes}, {@code sgc.sse.fila}, {@code sgc.sse.fila.maxima},
+ * {@code sgc.sse.eventos.descartados}, {@code sgc.sse.eventos.agrupados} e {@code sgc.sse.clientes.removidos}.
  */
 @Component
 @Slf4j
 public class RegistroSseEmitter {
 
     /**
-     * Timeout zero indica conexão permanente (sem expiração automática).
+     * Timeout zero indica conexão permanente (sem expiração automática); conexões mortas são
+     * detectadas pelo heartbeat.
      */
     private static final long SEM_TIMEOUT = 0L;
 
-    private final CopyOnWriteArrayList<SseEmitter> emissores = new CopyOnWriteArrayList<>();
+    /**
+     * Nome interno do heartbeat, enviado como comentário SSE (ignorado pelo {@code EventSource}).
+     */
+    static final String EVENTO_HEARTBEAT = "heartbeat";
 
     @FunctionalInterface
     public interface SseSender {
-        void send(SseEmitter emitter, String evento) throws IOException;
+        void send(SseEmitter emitter, String evento, Object dados) throws IOException;
     }
 
     private final SseSender sender;
+    private final Executor executor;
+    private final Clock clock;
+    private final int capacidadeFila;
+    private final Duration inatividadeMaxima;
+
+    private final Map<SseEmitter, Cliente> clientes = new ConcurrentHashMap<>();
+    private final ConcurrentMap<String, Set<Cliente>> clientesPorUsuario = new ConcurrentHashMap<>();
+    private final ConcurrentMap<Long, Set<Cliente>> clientesPorUnidade = new ConcurrentHashMap<>();
+
+    private final Counter descartados;
+    private final Counter agrupados;
+    private final Counter removidosPorErro;
+    private final Counter removidosPorInatividade;
 
-    public RegistroSseEmitter() {
-        this.sender = (emitter, evento) -> emitter.send(SseEmitter.event().name(evento).data(""));
+    @Autowired
+    public RegistroSseEmitter(
+            MeterRegistry meterRegistry,
+            Clock clock,
+            @Value("${sgc.sse.capacidade-fila:32}") int capacidadeFila,
+            @Value("${sgc.sse.inatividade-maxima-ms:90000}") long inatividadeMaximaMs) {
+        this((emitter, evento, dados) -> emitter.send(EVENTO_HEARTBEAT.equals(evento)
+                        ? SseEmitter.event().comment(EVENTO_HEARTBEAT)
+                        : SseEmitter.event().name(evento).data(dados)),
+                Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("sse-", 0).factory()),
+                meterRegistry, clock, capacidadeFila, Duration.ofMillis(inatividadeMaximaMs));
     }
 
     // Construtor package-private para testes
-    RegistroSseEmitter(SseSender sender) {
+    RegistroSseEmitter(SseSender sender,
+                       Executor executor,
+                       MeterRegistry meterRegistry,
+                       Clock clock,
+                       int capacidadeFila,
+                       Duration inatividadeMaxima) {
         this.sender = sender;
+        this.executor = executor;
+        this.clock = clock;
+        this.capacidadeFila = Math.max(1, capacidadeFila);
+        this.inatividadeMaxima = inatividadeMaxima;
+        Gauge.builder("sgc.sse.clientes", clientes, Map::size)
+                .description("Clientes SSE conectados")
+                .register(meterRegistry);
+        Gauge.builder("sgc.sse.fila", this, RegistroSseEmitter::profundidadeTotalFilas)
+                .description("Mensagens SSE aguardando envio, somadas entre os clientes")
+                .register(meterRegistry);
+        Gauge.builder("sgc.sse.fila.maxima", this, RegistroSseEmitter::profundidadeMaximaFila)
+                .description("Maior fila de mensagens SSE aguardando envio a um cliente")
+                .register(meterRegistry);
+        this.descartados = Counter.builder("sgc.sse.eventos.descartados")
+                .description("Mensagens SSE descartadas por fila cheia")
+                .register(meterRegistry);
+        this.agrupados = Counter.builder("sgc.sse.eventos.agrupados")
+                .description("Mensagens SSE agrupadas com outra igual ainda pendente")
+                .register(meterRegistry);
+        this.removidosPorErro = Counter.builder("sgc.sse.clientes.removidos")
+                .description("Clientes SSE removidos pelo servidor")
+                .tag("motivo", "erro")
+                .register(meterRegistry);
+        this.removidosPorInatividade = Counter.builder("sgc.sse.clientes.removidos")
+                .description("Clientes SSE removidos pelo servidor")
+                .tag("motivo", "inatividade")
+                .register(meterRegistry);
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        if (executor instanceof ExecutorService servico) {
+            servico.shutdownNow();
+        }
     }
 
     /**
@@ -45,10 +136,35 @@ public class RegistroSseEmitter {
      */
     public SseEmitter registrar() {
         SseEmitter emitter = new SseEmitter(SEM_TIMEOUT);
-        emissores.add(emitter);
-        emitter.onCompletion(() -> emissores.remove(emitter));
-        emitter.onTimeout(() -> emissores.remove(emitter));
-        emitter.onError(e -> emissores.remove(emitter));
+        Cliente cliente = new Cliente(emitter, capacidadeFila, clock.instant());
+        clientes.put(emitter, cliente);
+        emitter.onCompletion(() -> remover(cliente));
+        emitter.onTimeout(() -> remover(cliente));
+        emitter.onError(e -> remover(cliente));
+        return emitter;
+    }
+
+    /**
+     * Registra um novo emissor SSE inscrito também nos canais do usuário e da unidade ativa.
+     *
+     * <p>Segue a visibilidade dos alertas do CDU-02: o perfil SERVIDOR só recebe o que é dirigido a ele.
+     */
+    public SseEmitter registrar(ContextoUsuarioAutenticado contextoUsuario) {
+        SseEmitter emitter = registrar();
+        Cliente cliente = clientes.get(emitter);
+        if (cliente == null) {
+            return emitter;
+        }
+        cliente.usuarioTitulo = contextoUsuario.usuarioTitulo();
+        adicionarAoCanal(clientesPorUsuario, cliente.usuarioTitulo, cliente);
+        if (contextoUsuario.perfil() != Perfil.SERVIDOR) {
+            cliente.unidadeCodigo = contextoUsuario.unidadeAtivaCodigo();
+            adicionarAoCanal(clientesPorUnidade, cliente.unidadeCodigo, cliente);
+        }
+        // Desconectado durante a inscrição: a remoção pode ter rodado antes de os canais serem conhecidos
+        if (!clientes.containsKey(emitter)) {
+            remover(cliente);
+        }
         return emitter;
     }
 
@@ -57,18 +173,184 @@ public class RegistroSseEmitter {
      * Emissores com falha são removidos automaticamente.
      */
     public void transmitir(String evento) {
-        for (SseEmitter emitter : emissores) {
+        transmitir(evento, "");
+    }
+
+    /**
+     * Transmite um evento com conteúdo para todos os clientes conectados.
+     * Emissores com falha são removidos automaticamente.
+     */
+    public void transmitir(String evento, Object dados) {
+        enfileirar(clientes.values(), evento, dados);
+    }
+
+    /**
+     * Transmite um evento só aos emissores do usuário informado.
+     */
+    public void transmitirParaUsuario(String usuarioTitulo, String evento, Object dados) {
+        enfileirar(clientesPorUsuario.getOrDefault(usuarioTitulo, Set.of()), evento, dados);
+    }
+
+    /**
+     * Transmite um evento só aos emissores cuja unidade ativa é a informada (perfis de gestão).
+     */
+    public void transmitirParaUnidade(Long codUnidade, String evento, Object dados) {
+        enfileirar(clientesPorUnidade.getOrDefault(codUnidade, Set.of()), evento, dados);
+    }
+
+    /**
+     * Envia o heartbeat e encerra os clientes sem envio concluído dentro do prazo de inatividade.
+     */
+    @Scheduled(fixedDelayString = "${sgc.sse.intervalo-heartbeat-ms:25000}")
+    public void manterConexoes() {
+        Instant limite = clock.instant().minus(inatividadeMaxima);
+        for (Cliente cliente : clientes.values()) {
+            if (cliente.ultimaAtividade.get().isBefore(limite)) {
+                removidosPorInatividade.increment();
+                desconectar(cliente);
+            }
+        }
+        enfileirar(clientes.values(), EVENTO_HEARTBEAT, "");
+    }
+
+    private void enfileirar(Collection<Cliente> destinatarios, String evento, Object dados) {
+        Mensagem mensagem = new Mensagem(evento, dados);
+        for (Cliente cliente : destinatarios) {
+            switch (cliente.oferecer(mensagem)) {
+                case AGRUPADA -> agrupados.increment();
+                case DESCARTOU_ANTIGA -> descartados.increment();
+                case ENFILEIRADA -> { /* nada a contabilizar */ }
+            }
+            agendarEnvio(cliente);
+        }
+    }
+
+    private void agendarEnvio(Cliente cliente) {
+        if (!cliente.enviando.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            executor.execute(() -> esvaziar(cliente));
+        } catch (RejectedExecutionException e) {
+            cliente.enviando.set(false);
+            log.debug("Executor SSE encerrado; envio ignorado");
+        }
+    }
+
+    private void esvaziar(Cliente cliente) {
+        Mensagem mensagem;
+        while ((mensagem = cliente.fila.poll()) != null) {
             try {
-                sender.send(emitter, evento);
-            } catch (IOException e) {
-                emissores.remove(emitter);
+                sender.send(cliente.emitter, mensagem.evento(), mensagem.dados());
+                cliente.ultimaAtividade.set(clock.instant());
+            } catch (IOException | IllegalStateException e) {
+                removidosPorErro.increment();
                 log.debug("Emissor SSE removido após erro de envio: {}", e.getMessage());
+                desconectar(cliente);
+                return;
             }
         }
+        cliente.enviando.set(false);
+        // Mensagem enfileirada entre o último poll e a liberação acima ficaria sem quem a envie
+        if (!cliente.fila.isEmpty()) {
+            agendarEnvio(cliente);
+        }
+    }
+
+    // O complete roda no executor porque pode esperar por um envio travado no mesmo emissor
+    private void desconectar(Cliente cliente) {
+        remover(cliente);
+        cliente.fila.clear();
+        try {
+            executor.execute(() -> {
+                try {
+                    cliente.emitter.complete();
+                } catch (RuntimeException e) {
+                    log.debug("Falha ao encerrar emissor SSE: {}", e.getMessage());
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            log.debug("Executor SSE encerrado; emissor não foi completado");
+        }
+    }
+
+    private void remover(Cliente cliente) {
+        clientes.remove(cliente.emitter);
+        removerDoCanal(clientesPorUsuario, cliente.usuarioTitulo, cliente);
+        removerDoCanal(clientesPorUnidade, cliente.unidadeCodigo, cliente);
+    }
+
+    // Alterações feitas dentro de compute para que um canal esvaziado não seja descartado durante uma inscrição
+    private static <K> void adicionarAoCanal(ConcurrentMap<K, Set<Cliente>> canais, K chave, Cliente cliente) {
+        canais.compute(chave, (k, canal) -> {
+            Set<Cliente> atualizado = canal != null ? canal : ConcurrentHashMap.newKeySet();
+            atualizado.add(cliente);
+            return atualizado;
+        });
+    }
+
+    private static <K> void removerDoCanal(ConcurrentMap<K, Set<Cliente>> canais, @Nullable K chave, Cliente cliente) {
+        if (chave == null) {
+            return;
+        }
+        canais.computeIfPresent(chave, (k, canal) -> {
+            canal.remove(cliente);
+            return canal.isEmpty() ? null : canal;
+        });
+    }
+
+    private double profundidadeTotalFilas() {
+        long total = 0;
+        for (Cliente cliente : clientes.values()) {
+            total += cliente.fila.size();
+        }
+        return total;
+    }
+
+    private double profundidadeMaximaFila() {
+        int maxima = 0;
+        for (Cliente cliente : clientes.values()) {
+            maxima = Math.max(maxima, cliente.fila.size());
+        }
+        return maxima;
     }
 
     // Método package-private observável para testes (Padrão 3)
     int obterQuantidadeEmissores() {
-        return emissores.size();
+        return clientes.size();
+    }
+
+    private record Mensagem(String evento, Object dados) {
+    }
+
+    private enum ResultadoOferta {ENFILEIRADA, AGRUPADA, DESCARTOU_ANTIGA}
+
+    private static final class Cliente {
+        private final SseEmitter emitter;
+        private final BlockingQueue<Mensagem> fila;
+        private final AtomicBoolean enviando = new AtomicBoolean();
+        private final AtomicReference<Instant> ultimaAtividade;
+        // Canais em que o cliente foi inscrito, para que a remoção não percorra todos os canais
+        private volatile @Nullable String usuarioTitulo;
+        private volatile @Nullable Long unidadeCodigo;
+
+        private Cliente(SseEmitter emitter, int capacidadeFila, Instant registro) {
+            this.emitter = emitter;
+            this.fila = new ArrayBlockingQueue<>(capacidadeFila);
+            this.ultimaAtividade = new AtomicReference<>(registro);
+        }
+
+        // Sincronizado para que verificar pendente, descartar a mais antiga e enfileirar sejam uma única operação
+        private synchronized ResultadoOferta oferecer(Mensagem mensagem) {
+            if (fila.contains(mensagem)) {
+                return ResultadoOferta.AGRUPADA;
+            }
+            if (fila.offer(mensagem)) {
+                return ResultadoOferta.ENFILEIRADA;
+            }
+            fila.poll();
+            fila.offer(mensagem);
+            return ResultadoOferta.DESCARTOU_ANTIGA;
+        }
     }
 }
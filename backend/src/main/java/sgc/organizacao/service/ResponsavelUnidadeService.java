@@ -104,7 +104,7 @@ public class ResponsavelUnidadeService {
 
         AtribuicaoTemporaria atribuicaoSalva = atribuicaoTemporariaRepo.save(atribuicao);
         criarNotificacoesAtribuicaoTemporaria(atribuicaoSalva, usuario);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
     }
 
     @Transactional
@@ -116,7 +116,7 @@ public class ResponsavelUnidadeService {
 
         montarAtribuicaoTemporaria(new ContextoAtribuicaoTemporaria(atribuicao, unidade, usuario, request));
         atribuicaoTemporariaRepo.save(atribuicao);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
     }
 
     @Transactional
@@ -124,7 +124,7 @@ public class ResponsavelUnidadeService {
         AtribuicaoTemporaria atribuicao = buscarAtribuicaoObrigatoria(codigoAtribuicao);
         validarPertencimentoUnidade(atribuicao, codUnidade);
         atribuicaoTemporariaRepo.delete(atribuicao);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
     }
 
     private Usuario buscarUsuarioObrigatorio(String titulo) {
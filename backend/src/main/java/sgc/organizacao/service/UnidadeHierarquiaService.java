@@ -7,12 +7,12 @@ import org.springframework.cache.annotation.*;
 import org.springframework.stereotype.*;
 import sgc.comum.config.CacheConfig;
 import sgc.comum.erros.*;
+import sgc.comum.util.*;
 import sgc.organizacao.dto.*;
 import sgc.organizacao.model.*;
 
 import java.util.*;
 import java.util.function.*;
-import java.util.stream.Collectors;
 
 import static sgc.organizacao.model.TipoUnidade.*;
 
@@ -33,17 +33,21 @@ public class UnidadeHierarquiaService {
      */
     @Cacheable(cacheNames = CacheConfig.CACHE_ARVORE_UNIDADES, sync = true)
     public List<UnidadeDto> buscarArvoreHierarquica() {
-        List<UnidadeHierarquiaLeitura> todasUnidades = cacheViewsOrganizacaoService.listarTodasUnidades();
-        return montarHierarquia(todasUnidades, Map.of(), null);
+        return montarHierarquia(cacheViewsOrganizacaoService.buscarSnapshot(), null);
+    }
+
+    /**
+     * Versão do snapshot organizacional que sustenta a árvore; muda sempre que a árvore pode mudar.
+     */
+    public long versaoHierarquia() {
+        return cacheViewsOrganizacaoService.buscarSnapshot().versao();
     }
 
     /**
      * Busca a árvore hierárquica com filtro de elegibilidade.
      */
     public List<UnidadeDto> buscarArvoreComElegibilidade(Predicate<UnidadeElegibilidadeInfo> elegibilidadeChecker) {
-        List<UnidadeHierarquiaLeitura> todasUnidades = cacheViewsOrganizacaoService.listarTodasUnidades();
-        Map<Long, String> titulosResponsavel = carregarTitulosResponsavel(todasUnidades);
-        return montarHierarquia(todasUnidades, titulosResponsavel, elegibilidadeChecker);
+        return montarHierarquia(cacheViewsOrganizacaoService.buscarSnapshot(), elegibilidadeChecker);
     }
 
     /**
@@ -68,7 +72,7 @@ public class UnidadeHierarquiaService {
      * Busca todos os IDs de unidades descendentes de uma unidade.
      */
     public List<Long> buscarIdsDescendentes(Long codigoUnidade) {
-        return buscarDescendentes(codigoUnidade, self().buscarMapaHierarquia());
+        return buscarDescendentes(codigoUnidade, buscarMapaHierarquia());
     }
 
     /**
@@ -81,62 +85,50 @@ public class UnidadeHierarquiaService {
     }
 
     /**
-     * Constrói o mapa filho→pai (filhoCodigo → codigoPai) a partir de todas as unidades ativas.
+     * Mapa filho→pai (filhoCodigo → codigoPai) de todas as unidades ativas, lido do snapshot.
      */
-    @Cacheable(cacheNames = CacheConfig.CACHE_MAPA_FILHO_PAI, sync = true)
     public Map<Long, Long> buscarMapaFilhoPai() {
-        List<UnidadeHierarquiaLeitura> todas = cacheViewsOrganizacaoService.listarTodasUnidades();
-        Map<Long, Long> mapFilhoPai = new HashMap<>();
-        for (UnidadeHierarquiaLeitura u : todas) {
-            if (u.unidadeSuperiorCodigo() != null) {
-                mapFilhoPai.put(u.codigo(), u.unidadeSuperiorCodigo());
-            }
-        }
-        return mapFilhoPai;
+        return cacheViewsOrganizacaoService.buscarSnapshot().paiPorFilho();
+    }
+
+    /**
+     * Índice de intervalos (pré/pós-ordem) da hierarquia para verificações de subordinação em O(1).
+     */
+    public IndiceHierarquia buscarIndiceHierarquia() {
+        return cacheViewsOrganizacaoService.buscarSnapshot().indice();
     }
 
     /**
      * Retorna mapa de codigoUnidade para UnidadeHierarquiaLeitura para todas as unidades ativas.
-     * Usa a mesma fonte cacheada de listarTodasUnidades, sem cache proprio.
      */
     public Map<Long, UnidadeHierarquiaLeitura> buscarMapaCodigoParaUnidade() {
-        return cacheViewsOrganizacaoService.listarTodasUnidades().stream()
-                .collect(Collectors.toMap(UnidadeHierarquiaLeitura::codigo, u -> u, (u1, u2) -> u1));
+        return cacheViewsOrganizacaoService.buscarSnapshot().unidadesPorCodigo();
     }
 
     /**
      * Retorna a lista de códigos dos ancestores de uma unidade, do pai imediato até a raiz.
      */
     public List<Long> buscarCodigosSuperiores(Long codigoInicial) {
-        Map<Long, Long> mapFilhoPai = self().buscarMapaFilhoPai();
+        SnapshotOrganizacional snapshot = cacheViewsOrganizacaoService.buscarSnapshot();
         List<Long> superiores = new ArrayList<>();
         Set<Long> visitados = new HashSet<>();
-        Long atual = mapFilhoPai.get(codigoInicial);
+        Long atual = snapshot.codigoPai(codigoInicial);
         while (atual != null && visitados.add(atual)) {
             superiores.add(atual);
-            atual = mapFilhoPai.get(atual);
+            atual = snapshot.codigoPai(atual);
         }
         return superiores;
     }
 
     public @Nullable Long buscarCodigoPai(Long codigoFilho) {
-        return self().buscarMapaFilhoPai().get(codigoFilho);
+        return cacheViewsOrganizacaoService.buscarSnapshot().codigoPai(codigoFilho);
     }
 
     /**
-     * Constrói o mapa de hierarquia (Pai -> Lista de Filhos) buscando todas as unidades.
+     * Mapa de hierarquia (Pai -> Lista de Filhos) de todas as unidades ativas, lido do snapshot.
      */
-    @Cacheable(cacheNames = CacheConfig.CACHE_MAPA_HIERARQUIA_UNIDADES, sync = true)
     public Map<Long, List<Long>> buscarMapaHierarquia() {
-        List<UnidadeHierarquiaLeitura> todas = cacheViewsOrganizacaoService.listarTodasUnidades();
-
-        Map<Long, List<Long>> mapPaiFilhos = new HashMap<>();
-        for (UnidadeHierarquiaLeitura u : todas) {
-            Optional.ofNullable(u.unidadeSuperiorCodigo()).ifPresent(codigoPai ->
-                    mapPaiFilhos.computeIfAbsent(codigoPai, k -> new ArrayList<>()).add(u.codigo())
-            );
-        }
-        return mapPaiFilhos;
+        return cacheViewsOrganizacaoService.buscarSnapshot().filhosPorPai();
     }
 
     /**
@@ -196,35 +188,19 @@ public class UnidadeHierarquiaService {
                 .toList();
     }
 
-    private Map<Long, String> carregarTitulosResponsavel(List<UnidadeHierarquiaLeitura> unidades) {
-        List<Long> codigos = unidades.stream()
-                .map(UnidadeHierarquiaLeitura::codigo)
-                .toList();
-
-        if (codigos.isEmpty()) {
-            return Map.of();
-        }
-
-        Set<Long> codigosUnidades = new HashSet<>(codigos);
-        return cacheViewsOrganizacaoService.listarTodasResponsabilidades().stream()
-                .filter(leitura -> codigosUnidades.contains(leitura.unidadeCodigo()))
-                .collect(HashMap::new,
-                        (mapa, leitura) -> mapa.put(leitura.unidadeCodigo(), leitura.usuarioTitulo()),
-                        HashMap::putAll);
-    }
-
     private UnidadeHierarquiaService self() {
         return selfProvider.getObject();
     }
 
-    private List<UnidadeDto> montarHierarquia(List<UnidadeHierarquiaLeitura> unidades, Map<Long, String> titulosResponsavel,
+    private List<UnidadeDto> montarHierarquia(SnapshotOrganizacional snapshot,
                                               @Nullable Predicate<UnidadeElegibilidadeInfo> elegibilidadeChecker) {
+        List<UnidadeHierarquiaLeitura> unidades = snapshot.unidades();
         Map<Long, UnidadeDto> mapaUnidades = new HashMap<>();
         Map<Long, List<UnidadeDto>> mapaFilhas = new HashMap<>();
         List<UnidadeDto> raizes = new ArrayList<>();
 
         for (UnidadeHierarquiaLeitura u : unidades) {
-            var info = new UnidadeElegibilidadeInfo(u.codigo(), u.tipo(), titulosResponsavel.get(u.codigo()));
+            var info = new UnidadeElegibilidadeInfo(u.codigo(), u.tipo(), snapshot.tituloResponsavel(u.codigo()));
             boolean isElegivel = elegibilidadeChecker == null || elegibilidadeChecker.test(info);
             UnidadeDto dto = UnidadeDto.fromResumoObrigatorio(
                     u.codigo(),
@@ -253,9 +229,15 @@ public class UnidadeHierarquiaService {
             );
         }
 
+        OrdenacaoNatural.ordenar(raizes, UnidadeHierarquiaService::textoOrdenacao);
+        mapaFilhas.values().forEach(filhas -> OrdenacaoNatural.ordenar(filhas, UnidadeHierarquiaService::textoOrdenacao));
         return raizes.stream().map(raiz -> montarComSubunidades(raiz, mapaFilhas)).toList();
     }
 
+    private static String textoOrdenacao(UnidadeDto unidade) {
+        return unidade.getSigla().isBlank() ? unidade.getNome() : unidade.getSigla();
+    }
+
     UnidadeDto montarComSubunidades(UnidadeDto dto, Map<Long, List<UnidadeDto>> mapaFilhas) {
         List<UnidadeDto> filhas = mapaFilhas.get(dto.getCodigo());
         if (filhas == null || filhas.isEmpty()) {
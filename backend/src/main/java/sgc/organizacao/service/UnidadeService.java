@@ -105,6 +105,17 @@ public class UnidadeService {
         return unidadeRepo.buscarCodigosUnidadesSemMapaVigente();
     }
 
+    /**
+     * Filtra as unidades informadas, na mesma ordem, mantendo só as que têm mapa vigente.
+     */
+    public List<Long> filtrarUnidadesComMapaVigente(List<Long> codigosUnidades) {
+        if (codigosUnidades.isEmpty()) {
+            return List.of();
+        }
+        Set<Long> comMapa = new HashSet<>(unidadeMapaRepo.listarCodigosUnidadeComMapaVigente(codigosUnidades));
+        return codigosUnidades.stream().filter(comMapa::contains).toList();
+    }
+
     public List<UnidadeMapa> buscarMapasPorUnidades(List<Long> codigosUnidades) {
         if (codigosUnidades.isEmpty()) {
             return List.of();
@@ -124,7 +135,7 @@ public class UnidadeService {
         unidadeMapa.setMapaVigente(mapa);
 
         unidadeMapaRepo.save(unidadeMapa);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.UNIDADE_MAPA);
     }
 
     @Transactional
@@ -149,7 +160,7 @@ public class UnidadeService {
                 .toList();
 
         unidadeMapaRepo.saveAll(paraAtualizar);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.UNIDADE_MAPA);
     }
 
     private Optional<UnidadeMapa> buscarRegistroMapaVigente(Long codigoUnidade) {
@@ -17,12 +17,7 @@ public class UsuarioPerfilCacheService {
 
     @Cacheable(cacheNames = CacheConfig.CACHE_USUARIO_AUTORIZACOES, key = "#usuarioTitulo", sync = true)
     public List<UsuarioPerfilAutorizacaoLeitura> buscarAutorizacoesPerfil(String usuarioTitulo) {
-        Map<Long, UnidadeHierarquiaLeitura> unidadesPorCodigo = cacheViewsOrganizacaoService.listarTodasUnidades().stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        UnidadeHierarquiaLeitura::codigo,
-                        unidade -> unidade,
-                        (primeira, segunda) -> primeira
-                ));
+        SnapshotOrganizacional snapshot = cacheViewsOrganizacaoService.buscarSnapshot();
 
         return usuarioPerfilRepo.findByUsuarioTitulo(usuarioTitulo).stream()
                 .map(perfil -> new UsuarioPerfilLeitura(
@@ -31,7 +26,7 @@ public class UsuarioPerfilCacheService {
                         perfil.getPerfil()
                 ))
                 .map(perfil -> {
-                    UnidadeHierarquiaLeitura unidade = unidadesPorCodigo.get(perfil.unidadeCodigo());
+                    UnidadeHierarquiaLeitura unidade = snapshot.unidade(perfil.unidadeCodigo());
                     if (unidade == null) {
                         return null;
                     }
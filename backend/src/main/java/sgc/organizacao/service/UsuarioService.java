@@ -6,6 +6,7 @@ import org.springframework.security.core.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
 import sgc.comum.*;
+import sgc.comum.config.*;
 import sgc.comum.erros.*;
 import sgc.organizacao.dto.*;
 import sgc.organizacao.model.*;
@@ -44,16 +45,11 @@ public class UsuarioService {
     }
 
     public Optional<UsuarioConsultaLeitura> buscarConsultaPorTitulo(String titulo) {
-        return cacheViewsOrganizacaoService.listarTodosUsuarios().stream()
-                .filter(usuario -> Objects.equals(usuario.tituloEleitoral(), titulo))
-                .findFirst();
+        return Optional.ofNullable(cacheViewsOrganizacaoService.buscarSnapshot().usuario(titulo));
     }
 
     public List<UsuarioConsultaLeitura> buscarConsultasPorUnidadeLotacao(Long codUnidade) {
-        return cacheViewsOrganizacaoService.listarTodosUsuarios().stream()
-                .filter(usuario -> Objects.equals(usuario.unidadeCodigo(), codUnidade))
-                .sorted(Comparator.comparing(UsuarioConsultaLeitura::nome, Comparator.nullsLast(String::compareTo)))
-                .toList();
+        return cacheViewsOrganizacaoService.buscarSnapshot().usuariosLotados(codUnidade);
     }
 
     public List<Usuario> buscarPorTitulos(List<String> titulos) {
@@ -61,8 +57,10 @@ public class UsuarioService {
     }
 
     public List<UsuarioConsultaLeitura> buscarConsultasPorTitulos(Collection<String> titulos) {
-        return cacheViewsOrganizacaoService.listarTodosUsuarios().stream()
-                .filter(usuario -> titulos.contains(usuario.tituloEleitoral()))
+        SnapshotOrganizacional snapshot = cacheViewsOrganizacaoService.buscarSnapshot();
+        return new LinkedHashSet<>(titulos).stream()
+                .map(snapshot::usuario)
+                .filter(Objects::nonNull)
                 .toList();
     }
 
@@ -73,12 +71,7 @@ public class UsuarioService {
             return List.of();
         }
 
-        String termoBusca = termoNormalizado.toLowerCase(Locale.ROOT);
-        return cacheViewsOrganizacaoService.listarTodosUsuarios().stream()
-                .filter(usuario -> iniciaCom(usuario.nome(), termoBusca)
-                        || iniciaCom(usuario.tituloEleitoral(), termoBusca))
-                .sorted(Comparator.comparing(UsuarioConsultaLeitura::nome, Comparator.nullsLast(String::compareTo)))
-                .limit(LIMITE_PESQUISA_USUARIO)
+        return cacheViewsOrganizacaoService.buscarSnapshot().pesquisarUsuarios(termoNormalizado, LIMITE_PESQUISA_USUARIO).stream()
                 .map(usuario -> new UsuarioPesquisaDto(usuario.tituloEleitoral(), usuario.nome()))
                 .toList();
     }
@@ -118,7 +111,7 @@ public class UsuarioService {
                 .build();
 
         administradorRepo.save(administrador);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.ADMINISTRADOR);
     }
 
     @Transactional
@@ -128,14 +121,10 @@ public class UsuarioService {
             throw new ErroValidacao(Mensagens.NAO_REMOVER_UNICO_ADMINISTRADOR);
         }
         administradorRepo.deleteById(usuarioTitulo);
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(CacheConfig.FonteCache.ADMINISTRADOR);
     }
 
     public boolean isAdministrador(String usuarioTitulo) {
         return administradorRepo.existsById(usuarioTitulo);
     }
-
-    private boolean iniciaCom(String valor, String termoBusca) {
-        return valor.toLowerCase(Locale.ROOT).startsWith(termoBusca);
-    }
 }
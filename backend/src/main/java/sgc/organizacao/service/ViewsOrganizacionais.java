@@ -0,0 +1,14 @@
+package sgc.organizacao.service;
+
+import sgc.organizacao.model.*;
+
+import java.util.*;
+
+/**
+ * Leitura completa e consistente das views organizacionais, montada fora dos caches.
+ */
+public record ViewsOrganizacionais(
+        SnapshotOrganizacional snapshot,
+        List<UsuarioPerfilLeitura> perfis
+) {
+}
@@ -7,9 +7,11 @@ import lombok.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.*;
 import org.springframework.web.servlet.support.*;
 import sgc.comum.*;
 import sgc.comum.erros.*;
+import sgc.comum.util.*;
 import sgc.organizacao.model.*;
 import sgc.processo.dto.*;
 import sgc.processo.model.*;
@@ -51,11 +53,12 @@ public class ProcessoController {
 
     @GetMapping("/{codigo}")
     @PreAuthorize("hasRole('ADMIN') or @processoService.checarAcesso(authentication, #codigo)")
-    public ResponseEntity<ProcessoResumoDto> obterPorCodigo(@PathVariable Long codigo) {
+    public ResponseEntity<ProcessoResumoDto> obterPorCodigo(@PathVariable Long codigo, WebRequest request) {
         return processoService
                 .buscarOpt(codigo)
-                .map(processoDtoMapper::paraResumo)
-                .map(ResponseEntity::ok)
+                .map(processo -> RespostaCondicional.versionada(request,
+                        "processo-%d-v%d".formatted(codigo, processo.getVersao()),
+                        () -> processoDtoMapper.paraResumo(processo)))
                 .orElseGet(() -> ResponseEntity.notFound().build());
     }
 
@@ -3,6 +3,7 @@ package sgc.processo.model;
 import jakarta.persistence.*;
 import lombok.*;
 import lombok.experimental.*;
+import org.jspecify.annotations.*;
 import sgc.comum.model.*;
 import sgc.organizacao.model.*;
 
@@ -56,6 +57,30 @@ public class Processo extends EntidadeBase {
     @Builder.Default
     private List<ServidorProcesso> servidoresParticipantes = new ArrayList<>();
 
+    /**
+     * Siglas das unidades participantes já agrupadas pela hierarquia (ver {@link ResumoParticipantes}),
+     * gravadas quando os participantes são definidos. Nulo quando o resumo não cabe na coluna; nesse caso o
+     * painel agrupa as siglas na leitura.
+     */
+    @Column(name = "resumo_participantes", length = ResumoParticipantes.TAMANHO_MAXIMO_BYTES)
+    private @Nullable String resumoParticipantes;
+
+    /**
+     * Cresce a cada alteração persistida do processo ou de seus participantes; serve de ETag do resumo.
+     */
+    @Column(name = "versao", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private long versao;
+
+    /**
+     * Chamado pelo Hibernate em todo update da linha e, explicitamente, quando só as coleções de
+     * participantes mudam, pois estas não sujam a entidade.
+     */
+    @PreUpdate
+    public void registrarAlteracao() {
+        versao++;
+    }
+
     /**
      * Adiciona unidades participantes criando snapshots do estado atual.
      */
@@ -66,6 +91,7 @@ public class Processo extends EntidadeBase {
             if (!jaParticipa) {
                 UnidadeProcesso snapshot = UnidadeProcesso.criarSnapshot(this, unidade);
                 participantes.add(snapshot);
+                registrarAlteracao();
             }
         }
     }
@@ -79,7 +105,9 @@ public class Processo extends EntidadeBase {
                 .map(Unidade::getCodigo)
                 .collect(Collectors.toSet());
 
-        participantes.removeIf(up -> !novosCodigos.contains(up.getUnidadeCodigoPersistido()));
+        if (participantes.removeIf(up -> !novosCodigos.contains(up.getUnidadeCodigoPersistido()))) {
+            registrarAlteracao();
+        }
 
         adicionarParticipantes(novasUnidades);
     }
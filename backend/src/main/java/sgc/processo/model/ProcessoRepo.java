@@ -10,6 +10,12 @@ import java.util.*;
 @Repository
 public interface ProcessoRepo extends JpaRepository<Processo, Long> {
 
+    @Query("""
+            SELECT DISTINCT p FROM Processo p LEFT JOIN FETCH p.participantes
+            WHERE p.resumoParticipantes IS NULL AND p.participantes IS NOT EMPTY
+            """)
+    List<Processo> listarComParticipantesSemResumo();
+
     @Query("""
             SELECT DISTINCT p FROM Processo p LEFT JOIN FETCH p.participantes WHERE p.situacao = :situacao
             """)
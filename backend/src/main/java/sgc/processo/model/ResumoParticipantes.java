@@ -0,0 +1,130 @@
+package sgc.processo.model;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+import sgc.comum.util.*;
+
+import java.nio.charset.*;
+import java.util.*;
+import java.util.function.*;
+import java.util.stream.*;
+
+import static java.util.stream.Collectors.*;
+
+/**
+ * Monta o texto "unidades participantes" exibido no painel: as siglas dos participantes, agrupadas na
+ * unidade superior sempre que todas as filhas dela participam, em ordem natural.
+ *
+ * <p>O resultado depende só dos snapshots de participantes e da hierarquia, por isso é calculado quando os
+ * participantes são definidos e gravado em {@link Processo#getResumoParticipantes()}, desde que caiba na coluna.
+ */
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public final class ResumoParticipantes {
+    /**
+     * Tamanho da coluna {@code resumo_participantes}: VARCHAR2(4000), em bytes no Oracle.
+     */
+    public static final int TAMANHO_MAXIMO_BYTES = 4000;
+
+    /**
+     * @param filhosPorPai  filhas diretas de cada unidade
+     * @param paiPorFilho   unidade superior de cada unidade
+     * @param buscarSiglas  siglas das unidades agrupadas que não estão entre os participantes
+     */
+    public static String resumir(Collection<UnidadeProcesso> participantes,
+                                 Map<Long, List<Long>> filhosPorPai,
+                                 Map<Long, Long> paiPorFilho,
+                                 Function<List<Long>, List<String>> buscarSiglas) {
+        if (participantes.isEmpty()) return "";
+
+        Set<Long> participantesIds = participantes.stream()
+                .map(UnidadeProcesso::getUnidadeCodigoPersistido)
+                .collect(Collectors.toSet());
+
+        Set<Long> displayIds = new HashSet<>();
+        Map<Long, Boolean> coveredCache = new HashMap<>();
+        for (Long codUnidade : participantesIds) {
+            Long candidate = codUnidade;
+            Long parent = paiPorFilho.get(candidate);
+
+            while (parent != null && paiPorFilho.get(parent) != null) {
+                // Agrupa no pai se ele estiver totalmente coberto pelas unidades participantes.
+                // Interrompe o agrupamento no nível imediatamente abaixo da unidade raiz.
+                if (isCovered(parent, participantesIds, filhosPorPai, coveredCache)) {
+                    candidate = parent;
+                    parent = paiPorFilho.get(candidate);
+                } else break;
+            }
+            displayIds.add(candidate);
+        }
+
+        Map<Long, String> existingSiglas = participantes.stream()
+                .filter(participante -> participante.getSigla() != null && !participante.getSigla().isBlank())
+                .collect(toMap(
+                        UnidadeProcesso::getUnidadeCodigoPersistido,
+                        UnidadeProcesso::getSigla,
+                        (s1, s2) -> s1)
+                );
+
+        List<String> siglas = new ArrayList<>();
+        List<Long> missingIds = new ArrayList<>();
+        displayIds.forEach(codUnidade -> {
+            String sigla = existingSiglas.get(codUnidade);
+            if (sigla != null) {
+                siglas.add(sigla);
+            } else {
+                missingIds.add(codUnidade);
+            }
+        });
+
+        if (!missingIds.isEmpty()) {
+            siglas.addAll(buscarSiglas.apply(missingIds));
+        }
+
+        OrdenacaoNatural.ordenar(siglas, sigla -> sigla);
+        return String.join(", ", siglas);
+    }
+
+    /**
+     * O próprio resumo, se couber em {@link #TAMANHO_MAXIMO_BYTES} em UTF-8; senão nulo, para ser agrupado na leitura.
+     */
+    public static @Nullable String paraColuna(String resumo) {
+        if (resumo.length() * 3L <= TAMANHO_MAXIMO_BYTES) return resumo;
+        return resumo.getBytes(StandardCharsets.UTF_8).length <= TAMANHO_MAXIMO_BYTES ? resumo : null;
+    }
+
+    /**
+     * Inverte o mapa pai→filhas, para quem só dispõe dele.
+     */
+    public static Map<Long, Long> paiPorFilho(Map<Long, List<Long>> filhosPorPai) {
+        Map<Long, Long> mapaFilhoPai = new HashMap<>();
+        filhosPorPai.forEach((pai, filhos) -> filhos.forEach(filho -> mapaFilhoPai.put(filho, pai)));
+        return mapaFilhoPai;
+    }
+
+    private static boolean isCovered(Long codUnidade,
+                                     Set<Long> participantesIds,
+                                     Map<Long, List<Long>> filhosPorPai,
+                                     Map<Long, Boolean> cache) {
+
+        if (participantesIds.contains(codUnidade)) return true;
+
+        if (cache.containsKey(codUnidade)) return cache.get(codUnidade);
+
+        List<Long> children = filhosPorPai.get(codUnidade);
+        if (children == null || children.isEmpty()) {
+            cache.put(codUnidade, false);
+            return false;
+        }
+
+        boolean allCovered = true;
+        for (Long codFilho : children) {
+            if (!isCovered(codFilho, participantesIds, filhosPorPai, cache)) {
+                allCovered = false;
+                break;
+            }
+        }
+
+        cache.put(codUnidade, allCovered);
+        return allCovered;
+    }
+}
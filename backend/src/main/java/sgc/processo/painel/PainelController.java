@@ -5,6 +5,7 @@ import io.swagger.v3.oas.annotations.tags.*;
 import lombok.*;
 import org.springframework.data.domain.*;
 import org.springframework.data.web.*;
+import org.springframework.format.annotation.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.*;
 import org.springframework.web.bind.annotation.*;
@@ -15,6 +16,7 @@ import sgc.organizacao.*;
 import sgc.processo.dto.*;
 import sgc.processo.painel.dto.*;
 
+import java.time.*;
 import java.util.*;
 
 @RestController
@@ -57,6 +59,19 @@ public class PainelController {
         return ResponseEntity.ok(page.map(alertaDtoMapper::paraAlertaDto));
     }
 
+    /**
+     * Continua a lista de alertas do painel a partir do último alerta recebido (paginação por cursor).
+     */
+    @GetMapping("/alertas/seguintes")
+    @Operation(summary = "Lista os alertas do painel seguintes ao último alerta recebido")
+    public ResponseEntity<List<AlertaDto>> listarAlertasSeguintes(
+            @RequestParam @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime antesDeDataHora,
+            @RequestParam Long antesDeCodigo,
+            @RequestParam(defaultValue = "50") int limite) {
+        ContextoUsuarioAutenticado contextoUsuario = usuarioAplicacaoService.contextoAutenticado();
+        return ResponseEntity.ok(painelService.listarAlertasSeguintes(contextoUsuario, antesDeDataHora, antesDeCodigo, limite));
+    }
+
     /**
      * Marca alertas visualizados como lidos.
      * Chamado pelo frontend de forma assíncrona após exibir a lista de alertas.
@@ -8,6 +8,7 @@ import org.springframework.data.domain.Sort.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
 import sgc.alerta.*;
+import sgc.alerta.dto.*;
 import sgc.alerta.model.*;
 import sgc.comum.erros.*;
 import sgc.organizacao.*;
@@ -20,15 +21,14 @@ import sgc.processo.service.*;
 
 import java.time.*;
 import java.util.*;
-import java.util.stream.*;
-
-import static java.util.stream.Collectors.*;
 
 @Service
 @RequiredArgsConstructor
 @Transactional(readOnly = true)
 @Slf4j
 public class PainelService {
+    static final int LIMITE_ALERTAS_PAINEL = 200;
+
     private final AlertaAplicacaoService alertaAplicacaoService;
     private final AlertaDtoMapper alertaDtoMapper;
     private final UnidadeHierarquiaService hierarquiaService;
@@ -62,7 +62,11 @@ public class PainelService {
             codigosUnidades.add(codigoUnidade);
             processos = processoService.listarIniciadosPorSubprocessos(codigosUnidades, sortedPageable);
         }
-        return processos.map(processo -> paraProcessoResumoDto(processo, perfil, siglaUnidadeUsuario, mapaPaiFilhos));
+        Map<Long, Long> mapaFilhoPai = processos.stream().anyMatch(processo -> processo.getResumoParticipantes() == null)
+                ? ResumoParticipantes.paiPorFilho(mapaPaiFilhos)
+                : Map.of();
+        return processos.map(processo ->
+                paraProcessoResumoDto(processo, perfil, siglaUnidadeUsuario, mapaPaiFilhos, mapaFilhoPai));
     }
 
     private Pageable garantirOrdenacaoPadrao(Pageable pageable) {
@@ -99,7 +103,8 @@ public class PainelService {
     private ProcessoResumoDto paraProcessoResumoDto(Processo processo,
                                                     Perfil perfil,
                                                     @Nullable String siglaUnidadeUsuario,
-                                                    Map<Long, List<Long>> mapaPaiFilhos) {
+                                                    Map<Long, List<Long>> mapaPaiFilhos,
+                                                    Map<Long, Long> mapaFilhoPai) {
 
         var participantes = processo.getParticipantes();
         UnidadeProcesso participante = participantes.isEmpty() ? null : participantes.getFirst();
@@ -108,9 +113,10 @@ public class PainelService {
         String nomeUnidMapeado = participante != null ? participante.getNome() : null;
 
         String linkDestino = calcularLinkDestinoProcesso(processo, perfil, siglaUnidadeUsuario);
-        String unidadesParticipantes = participantes.isEmpty()
-                ? ""
-                : formatarUnidadesParticipantes(participantes, mapaPaiFilhos);
+        // Resumos que não cabem na coluna ficam nulos e são agrupados na leitura.
+        String unidadesParticipantes = processo.getResumoParticipantes() != null
+                ? processo.getResumoParticipantes()
+                : ResumoParticipantes.resumir(participantes, mapaPaiFilhos, mapaFilhoPai, unidadeService::buscarSiglasPorCodigos);
 
         return ProcessoResumoDto.builder()
                 .codigo(processo.getCodigo())
@@ -126,91 +132,6 @@ public class PainelService {
                 .build();
     }
 
-    private String formatarUnidadesParticipantes(List<UnidadeProcesso> participantes,
-                                                 Map<Long, List<Long>> mapaPaiFilhos) {
-
-        Map<Long, Long> mapaFilhoPai = new HashMap<>();
-        mapaPaiFilhos.forEach((key, value) -> value.forEach(filho -> mapaFilhoPai.put(filho, key)));
-
-        Set<Long> participantesIds = participantes.stream()
-                .map(UnidadeProcesso::getUnidadeCodigoPersistido)
-                .collect(Collectors.toSet());
-
-        Set<Long> displayIds = new HashSet<>();
-        Map<Long, Boolean> coveredCache = new HashMap<>();
-        for (Long codUnidade : participantesIds) {
-            Long candidate = codUnidade;
-            Long parent = mapaFilhoPai.get(candidate);
-
-            while (parent != null && mapaFilhoPai.get(parent) != null) {
-                // Agrupa no pai se ele estiver totalmente coberto pelas unidades participantes.
-                // Interrompe o agrupamento no nível imediatamente abaixo da unidade raiz.
-                if (isCovered(parent, participantesIds, mapaPaiFilhos, coveredCache)) {
-                    candidate = parent;
-                    parent = mapaFilhoPai.get(candidate);
-                } else break;
-            }
-            displayIds.add(candidate);
-        }
-
-        Map<Long, String> existingSiglas = participantes.stream()
-                .filter(participante -> participante.getSigla() != null && !participante.getSigla().isBlank())
-                .collect(toMap(
-                        UnidadeProcesso::getUnidadeCodigoPersistido,
-                        UnidadeProcesso::getSigla,
-                        (s1, s2) -> s1)
-                );
-
-        List<String> siglas = new ArrayList<>();
-        List<Long> missingIds = new ArrayList<>();
-        displayIds.forEach(codUnidade -> {
-            String sigla = existingSiglas.get(codUnidade);
-            if (sigla != null) {
-                siglas.add(sigla);
-            } else {
-                missingIds.add(codUnidade);
-            }
-        });
-
-        if (!missingIds.isEmpty()) {
-            siglas.addAll(unidadeService.buscarSiglasPorCodigos(missingIds));
-        }
-
-        return siglas.stream().sorted().collect(Collectors.joining(", "));
-    }
-
-    private boolean isCovered(Long codUnidade,
-                              Set<Long> participantesIds,
-                              Map<Long, List<Long>> mapaPaiFilhos,
-                              Map<Long, Boolean> cache) {
-
-        if (participantesIds.contains(codUnidade)) return true;
-
-        if (cache.containsKey(codUnidade)) return cache.get(codUnidade);
-
-        List<Long> children = mapaPaiFilhos.get(codUnidade);
-        if (children == null) {
-            cache.put(codUnidade, false);
-            return false;
-        }
-
-        if (children.isEmpty()) {
-            cache.put(codUnidade, false);
-            return false;
-        }
-
-        boolean allCovered = true;
-        for (Long codFilho : children) {
-            if (!isCovered(codFilho, participantesIds, mapaPaiFilhos, cache)) {
-                allCovered = false;
-                break;
-            }
-        }
-
-        cache.put(codUnidade, allCovered);
-        return allCovered;
-    }
-
     private String calcularLinkDestinoProcesso(Processo processo, Perfil perfil, @Nullable String siglaUnidadeUsuario) {
         if (perfil == Perfil.ADMIN && processo.getSituacao() == SituacaoProcesso.CRIADO) {
             return String.format("/processo/cadastro?codProcesso=%s", processo.getCodigo());
@@ -226,16 +147,34 @@ public class PainelService {
         return String.format("/processo/%s/%s", processo.getCodigo(), siglaUnidadeUsuario);
     }
 
+    /**
+     * Dados iniciais do painel. Os alertas vêm da consulta de leitura do painel, já com a leitura do
+     * usuário e sem contagem; as páginas seguintes são pedidas em {@link #listarAlertasSeguintes}.
+     */
     public PainelBootstrapDto obterBootstrap(ContextoUsuarioAutenticado contextoUsuario) {
         Page<ProcessoResumoDto> processos = listarProcessos(contextoUsuario, PageRequest.of(0, 10));
-        Page<Alerta> alertas = listarAlertas(contextoUsuario, PageRequest.of(0, 200));
 
         return PainelBootstrapDto.builder()
                 .processos(processos.getContent())
-                .alertas(alertas.getContent().stream().map(alertaDtoMapper::paraAlertaDto).toList())
+                .alertas(listarAlertasSeguintes(contextoUsuario, null, null, LIMITE_ALERTAS_PAINEL))
                 .build();
     }
 
+    /**
+     * Alertas do painel posteriores, na ordem decrescente, ao alerta ({@code antesDeDataHora},
+     * {@code antesDeCodigo}); sem cursor, os mais recentes.
+     */
+    public List<AlertaDto> listarAlertasSeguintes(ContextoUsuarioAutenticado contextoUsuario,
+                                                  @Nullable LocalDateTime antesDeDataHora,
+                                                  @Nullable Long antesDeCodigo,
+                                                  int limite) {
+        int limiteNormalizado = Math.clamp(limite, 1, LIMITE_ALERTAS_PAINEL);
+        return alertaAplicacaoService.listarParaPainel(contextoUsuario, antesDeDataHora, antesDeCodigo, limiteNormalizado)
+                .stream()
+                .map(alertaDtoMapper::paraAlertaDto)
+                .toList();
+    }
+
     // TODO nao faz sentido retornar nulo para sigla. Todo usuário tem sigla de unidade!
     private @Nullable String obterSiglaUnidadeUsuario(Perfil perfil, Long codigoUnidade) {
         if (perfil == Perfil.ADMIN || perfil == Perfil.GESTOR) return null;
@@ -0,0 +1,31 @@
+package sgc.processo.service;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.*;
+import org.springframework.stereotype.*;
+
+/**
+ * Carga da coluna {@code resumo_participantes} dos processos gravados antes de ela existir.
+ *
+ * <p>Executada na inicialização quando {@code sgc.processo.carga-resumo-participantes=true}. Só considera
+ * processos com participantes e resumo nulo, portanto é idempotente; depois da primeira execução restam apenas
+ * os resumos que não cabem na coluna.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "sgc.processo.carga-resumo-participantes", havingValue = "true")
+public class CargaResumoParticipantesProcesso {
+    private final ProcessoService processoService;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void preencherPendentes() {
+        int preenchidos = processoService.preencherResumosParticipantesPendentes();
+        if (preenchidos > 0) {
+            log.info("Resumo de participantes preenchido para {} processos.", preenchidos);
+        }
+    }
+}
@@ -78,6 +78,13 @@ public class ProcessoExclusaoCompletaService {
                     " OR competencia_codigo IN " + SUBQUERY_COMPETENCIAS, codigoProcesso, codigoProcesso);
         }
 
+        if (tabelaExiste("AGREGADO_GAP_COMPETENCIA")) {
+            jdbcTemplate.update("""
+                    DELETE FROM sgc.agregado_gap_competencia
+                    WHERE diagnostico_codigo IN""" + SUBQUERY_DIAGNOSTICOS +
+                    " OR competencia_codigo IN " + SUBQUERY_COMPETENCIAS, codigoProcesso, codigoProcesso);
+        }
+
         if (tabelaExiste("DIAGNOSTICO")) {
             jdbcTemplate.update("DELETE FROM sgc.diagnostico WHERE subprocesso_codigo IN " + SUBQUERY_SUBPROCESSOS, codigoProcesso);
         }
@@ -232,6 +232,7 @@ public class ProcessoService {
                 .setDataCriacao(LocalDateTime.now());
 
         processo.adicionarParticipantes(participantes);
+        atualizarResumoParticipantes(processo);
         log.info("Processo criado com {} unidades participantes", participantes.size());
         return processoRepo.saveAndFlush(processo);
     }
@@ -251,11 +252,44 @@ public class ProcessoService {
         processo.setTipo(req.tipo());
         processo.setDataLimite(req.dataLimiteEtapa1());
         processo.sincronizarParticipantes(participantes);
+        atualizarResumoParticipantes(processo);
 
         log.info("Processo {} atualizado.", codigo);
         return processoRepo.saveAndFlush(processo);
     }
 
+    /**
+     * Grava o resumo dos processos com participantes e sem resumo, como os criados antes da coluna existir.
+     *
+     * @return quantidade de processos que passaram a ter resumo
+     */
+    public int preencherResumosParticipantesPendentes() {
+        int preenchidos = 0;
+        for (Processo processo : processoRepo.listarComParticipantesSemResumo()) {
+            atualizarResumoParticipantes(processo);
+            if (processo.getResumoParticipantes() != null) {
+                preenchidos++;
+            }
+        }
+        return preenchidos;
+    }
+
+    /**
+     * Recalcula o resumo exibido no painel a partir dos participantes atuais e da hierarquia vigente.
+     */
+    private void atualizarResumoParticipantes(Processo processo) {
+        String resumo = ResumoParticipantes.resumir(
+                processo.getParticipantes(),
+                unidadeHierarquiaService.buscarMapaHierarquia(),
+                unidadeHierarquiaService.buscarMapaFilhoPai(),
+                unidadeService::buscarSiglasPorCodigos);
+        String resumoGravado = ResumoParticipantes.paraColuna(resumo);
+        if (resumoGravado == null) {
+            log.info("Resumo de participantes do processo {} excede a coluna; será agrupado na leitura", processo.getCodigo());
+        }
+        processo.setResumoParticipantes(resumoGravado);
+    }
+
     public void apagar(Long codigo) {
         Processo processo = buscarPorCodigo(codigo);
         if (processo.getSituacao() != CRIADO) {
@@ -1660,6 +1694,7 @@ public class ProcessoService {
 
         Set<Unidade> unidadesParaProcessar = new HashSet<>(unidadeService.buscarPorCodigos(codigosUnidades));
         processo.sincronizarParticipantes(unidadesParaProcessar);
+        atualizarResumoParticipantes(processo);
         if (tipo == DIAGNOSTICO) {
             Map<Long, List<Usuario>> servidoresPorUnidade = mapearServidoresPorUnidade(unidadesParaProcessar);
             validarServidoresParticipantes(unidadesParaProcessar, servidoresPorUnidade);
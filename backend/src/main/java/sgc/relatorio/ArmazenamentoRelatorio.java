@@ -0,0 +1,81 @@
+package sgc.relatorio;
+
+import lombok.extern.slf4j.*;
+import org.springframework.stereotype.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.stream.*;
+
+/**
+ * Armazena em disco local os PDFs gerados por tarefas assíncronas.
+ *
+ * <p>O relatório é escrito em um arquivo parcial e só recebe o nome definitivo quando a geração
+ * termina, para que um download nunca encontre um PDF pela metade.
+ */
+@Component
+@Slf4j
+public class ArmazenamentoRelatorio {
+    private static final String EXTENSAO = ".pdf";
+    private static final String EXTENSAO_PARCIAL = ".pdf.parcial";
+
+    private final Path diretorio;
+
+    public ArmazenamentoRelatorio(RelatorioTarefasPropriedades propriedades) {
+        this.diretorio = Path.of(propriedades.diretorio()).toAbsolutePath().normalize();
+    }
+
+    OutputStream abrirEscrita(String codigo) throws IOException {
+        Files.createDirectories(diretorio);
+        return new BufferedOutputStream(Files.newOutputStream(caminhoParcial(codigo)));
+    }
+
+    Path concluir(String codigo) throws IOException {
+        return Files.move(caminhoParcial(codigo), diretorio.resolve(codigo + EXTENSAO),
+                StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    void descartar(String codigo) {
+        remover(caminhoParcial(codigo));
+        remover(diretorio.resolve(codigo + EXTENSAO));
+    }
+
+    /**
+     * Remove arquivos não modificados desde {@code limite}, inclusive os que sobraram de execuções anteriores.
+     */
+    void removerAnteriores(Instant limite) {
+        if (!Files.isDirectory(diretorio)) {
+            return;
+        }
+        try (Stream<Path> arquivos = Files.list(diretorio)) {
+            arquivos.filter(arquivo -> modificadoAntes(arquivo, limite)).forEach(this::remover);
+        } catch (IOException e) {
+            log.warn("Falha ao listar relatórios armazenados em {}: {}", diretorio, e.getMessage());
+        }
+    }
+
+    private boolean modificadoAntes(Path arquivo, Instant limite) {
+        String nome = arquivo.getFileName().toString();
+        if (!nome.endsWith(EXTENSAO) && !nome.endsWith(EXTENSAO_PARCIAL)) {
+            return false;
+        }
+        try {
+            return Files.getLastModifiedTime(arquivo).toInstant().isBefore(limite);
+        } catch (IOException e) {
+            return false;
+        }
+    }
+
+    private void remover(Path arquivo) {
+        try {
+            Files.deleteIfExists(arquivo);
+        } catch (IOException e) {
+            log.warn("Falha ao remover relatório {}: {}", arquivo, e.getMessage());
+        }
+    }
+
+    private Path caminhoParcial(String codigo) {
+        return diretorio.resolve(codigo + EXTENSAO_PARCIAL);
+    }
+}
@@ -4,6 +4,7 @@ import io.swagger.v3.oas.annotations.*;
 import io.swagger.v3.oas.annotations.tags.*;
 import jakarta.servlet.http.*;
 import lombok.*;
+import org.jspecify.annotations.*;
 import org.springframework.http.*;
 import org.springframework.security.access.prepost.*;
 import org.springframework.web.bind.annotation.*;
@@ -126,6 +127,17 @@ public class RelatorioController {
         relatorioService.gerarRelatorioGapsDiagnostico(codProcesso, codigosUnidades, response.getOutputStream());
     }
 
+    @GetMapping("/diagnostico/analise/{codProcesso}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR') and @processoService.checarAcesso(authentication, #codProcesso)")
+    @Operation(summary = "Gera a análise de gaps de diagnóstico da unidade somada às subordinadas")
+    public ResponseEntity<RelatorioDiagnosticoAnaliseDto> obterAnaliseGapsDiagnostico(
+            @PathVariable Long codProcesso,
+            @RequestParam(name = "codUnidade", required = false) @Nullable Long codUnidade,
+            @RequestParam(name = "limite", defaultValue = "10") int limite
+    ) {
+        return ResponseEntity.ok(relatorioService.obterAnaliseGapsDiagnostico(codProcesso, codUnidade, limite));
+    }
+
     @GetMapping("/diagnostico/situacao-capacitacao/{codProcesso}")
     @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR') and @processoService.checarAcesso(authentication, #codProcesso)")
     @Operation(summary = "Gera a visualização em JSON do relatório de situação de capacitação")
@@ -0,0 +1,20 @@
+package sgc.relatorio;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+
+@Builder
+public record RelatorioDiagnosticoAnaliseCompetenciaDto(
+        String competenciaDescricao,
+        int totalAvaliacoes,
+        @Nullable Double mediaGap,
+        int totalAvaliacoesConsideradas,
+        @Nullable Double mediaImportancia,
+        @Nullable Double mediaDominio,
+        int totalNaoSeAplica,
+        int totalACapacitar,
+        int totalEmCapacitacao,
+        int totalCapacitado,
+        int totalInstrutor
+) {
+}
@@ -0,0 +1,22 @@
+package sgc.relatorio;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+
+import java.util.*;
+
+/**
+ * Análise de gaps de um processo de diagnóstico consolidada para uma unidade e seus descendentes,
+ * ou para o processo inteiro quando {@code codigoUnidade} é nulo.
+ */
+@Builder
+public record RelatorioDiagnosticoAnaliseDto(
+        @Nullable Long codigoUnidade,
+        @Nullable String siglaUnidade,
+        @Nullable String nomeUnidade,
+        int totalUnidadesAvaliadas,
+        int totalAvaliacoes,
+        List<RelatorioDiagnosticoAnaliseCompetenciaDto> competencias,
+        List<RelatorioDiagnosticoMaiorGapDto> maioresGaps
+) {
+}
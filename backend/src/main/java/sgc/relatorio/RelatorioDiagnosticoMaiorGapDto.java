@@ -0,0 +1,14 @@
+package sgc.relatorio;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+
+@Builder
+public record RelatorioDiagnosticoMaiorGapDto(
+        Long codigoUnidade,
+        @Nullable String siglaUnidade,
+        String competenciaDescricao,
+        double mediaGap,
+        int totalAvaliacoesConsideradas
+) {
+}
@@ -12,6 +12,8 @@ import org.springframework.core.io.*;
 import org.springframework.stereotype.*;
 import org.springframework.transaction.annotation.*;
 import sgc.comum.erros.*;
+import sgc.comum.model.*;
+import sgc.comum.util.*;
 import sgc.diagnostico.service.*;
 import sgc.mapa.model.*;
 import sgc.mapa.service.*;
@@ -31,9 +33,21 @@ import java.time.format.*;
 import java.util.*;
 import java.util.List;
 
+/**
+ * Monta os relatórios em JSON e em PDF.
+ *
+ * <p>Os PDFs com muitas unidades são escritos em páginas de {@value #UNIDADES_POR_PAGINA} unidades: cada
+ * seção vai direto para o {@link PdfWriter}, o contexto de persistência é liberado e a saída é descarregada
+ * antes de carregar a próxima página, de modo que o consumo de memória não cresce com o número de unidades.
+ * Nos relatórios de andamento e de diagnóstico só os subprocessos, uma linha por unidade, são lidos de uma vez;
+ * responsáveis, localizações, mapas e totais são buscados página a página.
+ */
 @Service
 @RequiredArgsConstructor
 public class RelatorioService {
+    static final int UNIDADES_POR_PAGINA = 25;
+    static final int LINHAS_POR_BLOCO_TABELA = 50;
+
     private static final String NOME_SISTEMA = "Sistema de Gestão de Competências";
     private static final DateTimeFormatter FORMATADOR_DATA = DateTimeFormatter.ofPattern("dd/MM/yyyy");
     private static final DateTimeFormatter FORMATADOR_DATA_HORA = DateTimeFormatter.ofPattern("dd/MM/yyyy HH:mm");
@@ -63,6 +77,8 @@ public class RelatorioService {
     private final UsuarioAplicacaoService usuarioAplicacaoService;
     private final PdfFactory pdfFactory;
     private final DiagnosticoRelatorioService diagnosticoRelatorioService;
+    private final DiagnosticoAnaliseService diagnosticoAnaliseService;
+    private final ComumRepo comumRepo;
 
     @Transactional(readOnly = true)
     public List<RelatorioAndamentoDto> obterRelatorioAndamento(Long codProcesso) {
@@ -79,48 +95,68 @@ public class RelatorioService {
     public void gerarRelatorioAndamento(Long codProcesso, OutputStream outputStream) {
         Processo processo = processoService.buscarPorCodigo(codProcesso);
         List<Subprocesso> subprocessos = consultaService.listarEntidadesPorProcesso(codProcesso);
-        Map<Long, UnidadeResponsavelDto> responsaveisPorUnidade = buscarResponsaveisPorUnidade(subprocessos);
-        Map<Long, Unidade> localizacoes = localizacaoSubprocessoService.obterLocalizacoesAtuais(subprocessos);
         LocalDateTime dataGeracao = LocalDateTime.now();
 
         try (Document document = pdfFactory.createDocument()) {
             pdfFactory.createWriter(document, outputStream);
             document.open();
-            List<RelatorioAndamentoDto> relatorios = subprocessos.stream()
-                    .map(sp -> criarRelatorioAndamentoDto(sp, responsaveisPorUnidade, localizacoes.get(sp.getCodigo())))
-                    .toList();
-
             adicionarCabecalhoRelatorio(document, new CabecalhoRelatorio(
                     "Relatório de Andamento",
                     "Processo",
                     processo.getDescricao(),
                     dataGeracao,
                     processo.getTipo().name(),
-                    relatorios.size()
+                    subprocessos.size()
             ));
 
-            adicionarCartoesAndamento(document, relatorios);
+            for (List<Subprocesso> pagina : paginar(subprocessos)) {
+                Map<Long, UnidadeResponsavelDto> responsaveisPorUnidade = buscarResponsaveisPorUnidade(pagina);
+                Map<Long, Unidade> localizacoes = localizacaoSubprocessoService.obterLocalizacoesAtuais(pagina);
+                for (Subprocesso sp : pagina) {
+                    adicionarCartaoAndamento(document,
+                            criarRelatorioAndamentoDto(sp, responsaveisPorUnidade, localizacoes.get(sp.getCodigo())));
+                }
+                comumRepo.liberarContexto();
+                outputStream.flush();
+            }
         } catch (DocumentException | IOException e) {
             throw new ErroInconsistenciaInterna("Erro ao gerar PDF de andamento", e);
         }
     }
 
+    /**
+     * Gera o PDF consolidado de mapas vigentes buscando as unidades em páginas. Cada página é escrita
+     * no documento e descartada antes da seguinte, o que mantém a memória estável mesmo quando todas
+     * as unidades são selecionadas.
+     */
     @Transactional(readOnly = true)
     public void gerarRelatorioMapas(List<Long> codigosUnidades, OutputStream outputStream) {
-        List<RelatorioMapaDto> relatorios = obterRelatorioMapas(codigosUnidades);
-        gerarRelatorioMapasPdf(
-                relatorios,
-                new CabecalhoRelatorio(
-                        "Relatório de Mapas Vigentes",
-                        "Escopo",
-                        "Unidades selecionadas",
-                        LocalDateTime.now(),
-                        null,
-                        relatorios.size()
-                ),
-                outputStream,
-                this::adicionarSecaoMapaCompleta
-        );
+        List<Long> codigosComMapa = codigosUnidades.isEmpty()
+                ? List.of()
+                : unidadeService.filtrarUnidadesComMapaVigente(List.copyOf(validarEscopoRelatorioMapas(codigosUnidades)));
+
+        try (Document document = pdfFactory.createDocument()) {
+            pdfFactory.createWriter(document, outputStream);
+            document.open();
+            adicionarCabecalhoRelatorio(document, new CabecalhoRelatorio(
+                    "Relatório de Mapas Vigentes",
+                    "Escopo",
+                    "Unidades selecionadas",
+                    LocalDateTime.now(),
+                    null,
+                    codigosComMapa.size()
+            ));
+
+            for (List<Long> pagina : paginar(codigosComMapa)) {
+                for (Subprocesso subprocesso : buscarSubprocessosMapasVigentesNormalizados(pagina)) {
+                    adicionarSecaoMapaCompleta(document, criarRelatorioMapaDto(subprocesso));
+                }
+                comumRepo.liberarContexto();
+                outputStream.flush();
+            }
+        } catch (DocumentException | IOException e) {
+            throw new ErroInconsistenciaInterna("Erro ao gerar PDF de mapas", e);
+        }
     }
 
     @Transactional(readOnly = true)
@@ -228,15 +264,15 @@ public class RelatorioService {
         Processo processo = validarProcessoDiagnostico(codProcesso);
         List<Subprocesso> subprocessosSelecionados = buscarSubprocessosDiagnosticoSelecionados(processo, codigosUnidades);
 
-        return subprocessosSelecionados.stream()
-                .map(diagnosticoRelatorioService::criarRelatorioGapDiagnostico)
+        return paginar(subprocessosSelecionados).stream()
+                .flatMap(pagina -> diagnosticoRelatorioService.criarRelatoriosGapDiagnostico(pagina).stream())
                 .toList();
     }
 
     @Transactional(readOnly = true)
     public void gerarRelatorioGapsDiagnostico(Long codProcesso, List<Long> codigosUnidades, OutputStream outputStream) {
         Processo processo = validarProcessoDiagnostico(codProcesso);
-        List<RelatorioDiagnosticoGapDto> relatorios = obterRelatorioGapsDiagnostico(codProcesso, codigosUnidades);
+        List<Subprocesso> subprocessos = buscarSubprocessosDiagnosticoSelecionados(processo, codigosUnidades);
 
         try (Document document = pdfFactory.createDocument()) {
             pdfFactory.createWriter(document, outputStream);
@@ -247,9 +283,15 @@ public class RelatorioService {
                     processo.getDescricao(),
                     LocalDateTime.now(),
                     processo.getTipo().name(),
-                    relatorios.size()
+                    subprocessos.size()
             ));
-            adicionarSecoesRelatorioGapsDiagnostico(document, relatorios);
+            for (List<Subprocesso> pagina : paginar(subprocessos)) {
+                for (RelatorioDiagnosticoGapDto relatorio : diagnosticoRelatorioService.criarRelatoriosGapDiagnostico(pagina)) {
+                    adicionarSecaoRelatorioGapsDiagnostico(document, relatorio);
+                }
+                comumRepo.liberarContexto();
+                outputStream.flush();
+            }
         } catch (DocumentException | IOException e) {
             throw new ErroInconsistenciaInterna("Erro ao gerar PDF de gaps de diagnóstico", e);
         }
@@ -263,15 +305,15 @@ public class RelatorioService {
         Processo processo = validarProcessoDiagnostico(codProcesso);
         List<Subprocesso> subprocessosSelecionados = buscarSubprocessosDiagnosticoSelecionados(processo, codigosUnidades);
 
-        return subprocessosSelecionados.stream()
-                .map(diagnosticoRelatorioService::criarRelatorioSituacaoCapacitacaoDiagnostico)
+        return paginar(subprocessosSelecionados).stream()
+                .flatMap(pagina -> diagnosticoRelatorioService.criarRelatoriosSituacaoCapacitacaoDiagnostico(pagina).stream())
                 .toList();
     }
 
     @Transactional(readOnly = true)
     public void gerarRelatorioSituacaoCapacitacaoDiagnostico(Long codProcesso, List<Long> codigosUnidades, OutputStream outputStream) {
         Processo processo = validarProcessoDiagnostico(codProcesso);
-        List<RelatorioDiagnosticoSituacaoCapacitacaoDto> relatorios = obterRelatorioSituacaoCapacitacaoDiagnostico(codProcesso, codigosUnidades);
+        List<Subprocesso> subprocessos = buscarSubprocessosDiagnosticoSelecionados(processo, codigosUnidades);
 
         try (Document document = pdfFactory.createDocument()) {
             pdfFactory.createWriter(document, outputStream);
@@ -282,14 +324,31 @@ public class RelatorioService {
                     processo.getDescricao(),
                     LocalDateTime.now(),
                     processo.getTipo().name(),
-                    relatorios.size()
+                    subprocessos.size()
             ));
-            adicionarSecoesRelatorioSituacaoCapacitacaoDiagnostico(document, relatorios);
+            for (List<Subprocesso> pagina : paginar(subprocessos)) {
+                for (RelatorioDiagnosticoSituacaoCapacitacaoDto relatorio
+                        : diagnosticoRelatorioService.criarRelatoriosSituacaoCapacitacaoDiagnostico(pagina)) {
+                    adicionarSecaoRelatorioSituacaoCapacitacaoDiagnostico(document, relatorio);
+                }
+                comumRepo.liberarContexto();
+                outputStream.flush();
+            }
         } catch (DocumentException | IOException e) {
             throw new ErroInconsistenciaInterna("Erro ao gerar PDF de situação de capacitação", e);
         }
     }
 
+    /**
+     * Análise de gaps da unidade informada somada aos descendentes. Sem unidade, o administrador analisa
+     * o processo inteiro e o gestor, a própria unidade.
+     */
+    @Transactional(readOnly = true)
+    public RelatorioDiagnosticoAnaliseDto obterAnaliseGapsDiagnostico(Long codProcesso, @Nullable Long codUnidade, int limite) {
+        validarProcessoDiagnostico(codProcesso);
+        return diagnosticoAnaliseService.analisar(codProcesso, validarEscopoAnaliseDiagnostico(codUnidade), limite);
+    }
+
     private Map<Long, UnidadeResponsavelDto> buscarResponsaveisPorUnidade(List<Subprocesso> subprocessos) {
         List<Long> codigosUnidade = subprocessos.stream()
                 .map(Subprocesso::getUnidade)
@@ -346,19 +405,50 @@ public class RelatorioService {
         return codigosPermitidos;
     }
 
+    private @Nullable Long validarEscopoAnaliseDiagnostico(@Nullable Long codUnidade) {
+        ContextoUsuarioAutenticado contextoUsuario = usuarioAplicacaoService.contextoAutenticado();
+        if (contextoUsuario.perfil() == Perfil.ADMIN) {
+            return codUnidade;
+        }
+
+        if (contextoUsuario.perfil() != Perfil.GESTOR) {
+            throw new ErroAcessoNegado("Usuário não possui permissão para gerar relatórios de diagnóstico.");
+        }
+
+        Long unidadeAtiva = contextoUsuario.unidadeAtivaCodigo();
+        if (codUnidade == null || codUnidade.equals(unidadeAtiva)) {
+            return unidadeAtiva;
+        }
+        if (!unidadeHierarquiaService.buscarIndiceHierarquia().isSubordinada(codUnidade, unidadeAtiva)) {
+            throw new ErroAcessoNegado("Usuário não possui permissão para analisar o diagnóstico da unidade selecionada.");
+        }
+        return codUnidade;
+    }
+
     private List<Subprocesso> buscarSubprocessosMapasVigentes(List<Long> codigosUnidades) {
         if (codigosUnidades.isEmpty()) {
             return List.of();
         }
 
         Set<Long> codigosNormalizados = validarEscopoRelatorioMapas(codigosUnidades);
+        return buscarSubprocessosMapasVigentesNormalizados(new ArrayList<>(codigosNormalizados));
+    }
 
-        return unidadeService.buscarMapasPorUnidades(new ArrayList<>(codigosNormalizados)).stream()
+    private List<Subprocesso> buscarSubprocessosMapasVigentesNormalizados(List<Long> codigosNormalizados) {
+        return unidadeService.buscarMapasPorUnidades(codigosNormalizados).stream()
                 .map(UnidadeMapa::getMapaVigente)
                 .map(Mapa::getSubprocesso)
                 .toList();
     }
 
+    private static <T> List<List<T>> paginar(List<T> itens) {
+        List<List<T>> paginas = new ArrayList<>();
+        for (int inicio = 0; inicio < itens.size(); inicio += UNIDADES_POR_PAGINA) {
+            paginas.add(itens.subList(inicio, Math.min(inicio + UNIDADES_POR_PAGINA, itens.size())));
+        }
+        return paginas;
+    }
+
     private Set<Long> validarEscopoRelatorioMapas(List<Long> codigosUnidades) {
         Set<Long> codigosNormalizados = new LinkedHashSet<>(codigosUnidades);
         ContextoUsuarioAutenticado contextoUsuario = usuarioAplicacaoService.contextoAutenticado();
@@ -573,136 +663,148 @@ public class RelatorioService {
         document.add(new Paragraph(" "));
     }
 
-    private void adicionarCartoesAndamento(Document document, List<RelatorioAndamentoDto> relatorios) throws DocumentException {
-        for (RelatorioAndamentoDto relatorio : relatorios) {
-            PdfPTable cartao = new PdfPTable(1);
-            cartao.setWidthPercentage(100f);
-            cartao.setSpacingAfter(20f);
-
-            PdfPCell cardCell = new PdfPCell();
-            cardCell.setBorder(Rectangle.NO_BORDER);
-            cardCell.setPaddingLeft(10f);
-            cardCell.setPaddingTop(6f);
-            cardCell.setPaddingBottom(10f);
-
-            Paragraph titulo = new Paragraph(relatorio.siglaUnidade() + " - " + relatorio.nomeUnidade(), FONTE_SECAO);
-            titulo.setSpacingAfter(4f);
-            cardCell.addElement(titulo);
-
-            PdfPTable linhaDiv = new PdfPTable(1);
-            linhaDiv.setWidthPercentage(100f);
-            PdfPCell celDiv = new PdfPCell();
-            celDiv.setBorder(Rectangle.BOTTOM);
-            celDiv.setBorderColor(COR_BORDA);
-            linhaDiv.addCell(celDiv);
-            cardCell.addElement(linhaDiv);
-            cardCell.addElement(new Paragraph(" ", new Font(Font.HELVETICA, 4)));
-
-            PdfPTable infoGeral = new PdfPTable(new float[]{1.2f, 1.2f, 1.6f});
-            infoGeral.setWidthPercentage(100f);
-            infoGeral.addCell(criarCelulaRotuloValor("Situação:", formatarSituacaoPdf(relatorio.situacaoAtual())));
-            infoGeral.addCell(criarCelulaRotuloValor("Localização:", relatorio.localizacao()));
-            infoGeral.addCell(criarCelulaRotuloValor("Última movimentação:", formatarDataHora(relatorio.dataUltimaMovimentacao())));
-            cardCell.addElement(infoGeral);
-
-            PdfPTable etapas = new PdfPTable(new float[]{1f, 1f});
-            etapas.setWidthPercentage(100f);
-            etapas.setSpacingBefore(8f);
-            etapas.setSpacingAfter(8f);
-
-            PdfPCell celEtapa1 = new PdfPCell();
-            celEtapa1.setBorder(Rectangle.NO_BORDER);
-            Paragraph tituloEtapa1 = new Paragraph("ETAPA 1: CADASTRO", FONTE_TEXTO_NEGRITO);
-            tituloEtapa1.setSpacingAfter(4f);
-            celEtapa1.addElement(tituloEtapa1);
-            PdfPTable dtEtapa1 = new PdfPTable(new float[]{1f, 1f});
-            dtEtapa1.setWidthPercentage(100f);
-            dtEtapa1.addCell(criarCelulaRotuloValor("Data limite:", formatarData(relatorio.dataLimiteEtapa1())));
-            dtEtapa1.addCell(criarCelulaRotuloValor("Conclusão:", formatarData(relatorio.dataFimEtapa1())));
-            celEtapa1.addElement(dtEtapa1);
-            etapas.addCell(celEtapa1);
-
-            PdfPCell celEtapa2 = new PdfPCell();
-            celEtapa2.setBorder(Rectangle.NO_BORDER);
-            Paragraph tituloEtapa2 = new Paragraph("ETAPA 2: MAPA", FONTE_TEXTO_NEGRITO);
-            tituloEtapa2.setSpacingAfter(4f);
-            celEtapa2.addElement(tituloEtapa2);
-            PdfPTable dtEtapa2 = new PdfPTable(new float[]{1f, 1f});
-            dtEtapa2.setWidthPercentage(100f);
-            String dtLim2 = formatarData(relatorio.dataLimiteEtapa2());
-            if (!Objects.equals(relatorio.dataLimiteEtapa2(), relatorio.dataLimiteEtapa1())) {
-                dtLim2 += " (Prazo ajustado)";
-            }
-            dtEtapa2.addCell(criarCelulaRotuloValor("Data limite:", dtLim2));
-            dtEtapa2.addCell(criarCelulaRotuloValor("Conclusão:", formatarData(relatorio.dataFimEtapa2())));
-            celEtapa2.addElement(dtEtapa2);
-            etapas.addCell(celEtapa2);
-
-            cardCell.addElement(etapas);
+    private void adicionarCartaoAndamento(Document document, RelatorioAndamentoDto relatorio) throws DocumentException {
+        PdfPTable cartao = new PdfPTable(1);
+        cartao.setWidthPercentage(100f);
+        cartao.setSpacingAfter(20f);
+
+        PdfPCell cardCell = new PdfPCell();
+        cardCell.setBorder(Rectangle.NO_BORDER);
+        cardCell.setPaddingLeft(10f);
+        cardCell.setPaddingTop(6f);
+        cardCell.setPaddingBottom(10f);
+
+        Paragraph titulo = new Paragraph(relatorio.siglaUnidade() + " - " + relatorio.nomeUnidade(), FONTE_SECAO);
+        titulo.setSpacingAfter(4f);
+        cardCell.addElement(titulo);
+
+        PdfPTable linhaDiv = new PdfPTable(1);
+        linhaDiv.setWidthPercentage(100f);
+        PdfPCell celDiv = new PdfPCell();
+        celDiv.setBorder(Rectangle.BOTTOM);
+        celDiv.setBorderColor(COR_BORDA);
+        linhaDiv.addCell(celDiv);
+        cardCell.addElement(linhaDiv);
+        cardCell.addElement(new Paragraph(" ", new Font(Font.HELVETICA, 4)));
+
+        PdfPTable infoGeral = new PdfPTable(new float[]{1.2f, 1.2f, 1.6f});
+        infoGeral.setWidthPercentage(100f);
+        infoGeral.addCell(criarCelulaRotuloValor("Situação:", formatarSituacaoPdf(relatorio.situacaoAtual())));
+        infoGeral.addCell(criarCelulaRotuloValor("Localização:", relatorio.localizacao()));
+        infoGeral.addCell(criarCelulaRotuloValor("Última movimentação:", formatarDataHora(relatorio.dataUltimaMovimentacao())));
+        cardCell.addElement(infoGeral);
+
+        PdfPTable etapas = new PdfPTable(new float[]{1f, 1f});
+        etapas.setWidthPercentage(100f);
+        etapas.setSpacingBefore(8f);
+        etapas.setSpacingAfter(8f);
+
+        PdfPCell celEtapa1 = new PdfPCell();
+        celEtapa1.setBorder(Rectangle.NO_BORDER);
+        Paragraph tituloEtapa1 = new Paragraph("ETAPA 1: CADASTRO", FONTE_TEXTO_NEGRITO);
+        tituloEtapa1.setSpacingAfter(4f);
+        celEtapa1.addElement(tituloEtapa1);
+        PdfPTable dtEtapa1 = new PdfPTable(new float[]{1f, 1f});
+        dtEtapa1.setWidthPercentage(100f);
+        dtEtapa1.addCell(criarCelulaRotuloValor("Data limite:", formatarData(relatorio.dataLimiteEtapa1())));
+        dtEtapa1.addCell(criarCelulaRotuloValor("Conclusão:", formatarData(relatorio.dataFimEtapa1())));
+        celEtapa1.addElement(dtEtapa1);
+        etapas.addCell(celEtapa1);
+
+        PdfPCell celEtapa2 = new PdfPCell();
+        celEtapa2.setBorder(Rectangle.NO_BORDER);
+        Paragraph tituloEtapa2 = new Paragraph("ETAPA 2: MAPA", FONTE_TEXTO_NEGRITO);
+        tituloEtapa2.setSpacingAfter(4f);
+        celEtapa2.addElement(tituloEtapa2);
+        PdfPTable dtEtapa2 = new PdfPTable(new float[]{1f, 1f});
+        dtEtapa2.setWidthPercentage(100f);
+        String dtLim2 = formatarData(relatorio.dataLimiteEtapa2());
+        if (!Objects.equals(relatorio.dataLimiteEtapa2(), relatorio.dataLimiteEtapa1())) {
+            dtLim2 += " (Prazo ajustado)";
+        }
+        dtEtapa2.addCell(criarCelulaRotuloValor("Data limite:", dtLim2));
+        dtEtapa2.addCell(criarCelulaRotuloValor("Conclusão:", formatarData(relatorio.dataFimEtapa2())));
+        celEtapa2.addElement(dtEtapa2);
+        etapas.addCell(celEtapa2);
 
-            cardCell.addElement(criarParagrafoRotuloValor("Titular:", relatorio.titular()));
-            if (!relatorio.titular().equals(relatorio.responsavel())) {
-                cardCell.addElement(criarParagrafoRotuloValor("Responsável atual:", relatorio.responsavel()));
-            }
+        cardCell.addElement(etapas);
 
-            cartao.addCell(cardCell);
-            document.add(cartao);
+        cardCell.addElement(criarParagrafoRotuloValor("Titular:", relatorio.titular()));
+        if (!relatorio.titular().equals(relatorio.responsavel())) {
+            cardCell.addElement(criarParagrafoRotuloValor("Responsável atual:", relatorio.responsavel()));
         }
+
+        cartao.addCell(cardCell);
+        document.add(cartao);
     }
 
-    private void adicionarSecoesRelatorioGapsDiagnostico(Document document, List<RelatorioDiagnosticoGapDto> relatorios)
+    private void adicionarSecaoRelatorioGapsDiagnostico(Document document, RelatorioDiagnosticoGapDto relatorio)
             throws DocumentException {
-        for (RelatorioDiagnosticoGapDto relatorio : relatorios) {
-            adicionarTituloRelatorioDiagnostico(document, relatorio.siglaUnidade(), relatorio.nomeUnidade());
-
-            PdfPTable tabela = new PdfPTable(new float[]{3.6f, 1.2f, 1.2f});
-            tabela.setWidthPercentage(100f);
-            tabela.setSpacingAfter(16f);
-            tabela.addCell(criarCelulaCabecalhoTabela("Competência"));
-            tabela.addCell(criarCelulaCabecalhoTabela("Gap médio"));
-            tabela.addCell(criarCelulaCabecalhoTabela("Avaliações"));
-
-            for (RelatorioDiagnosticoGapCompetenciaDto competencia : relatorio.competencias()) {
-                tabela.addCell(criarCelulaTabela(competencia.competenciaDescricao(), Element.ALIGN_LEFT));
-                tabela.addCell(criarCelulaTabela(
-                        String.format(Locale.US, "%.2f", competencia.mediaGap()),
-                        Element.ALIGN_CENTER
-                ));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalAvaliacoesConsideradas()), Element.ALIGN_CENTER));
-            }
-
-            document.add(tabela);
-        }
+        adicionarTituloRelatorioDiagnostico(document, relatorio.siglaUnidade(), relatorio.nomeUnidade());
+
+        PdfPTable tabela = new PdfPTable(new float[]{3.6f, 1.2f, 1.2f});
+        tabela.setWidthPercentage(100f);
+        tabela.addCell(criarCelulaCabecalhoTabela("Competência"));
+        tabela.addCell(criarCelulaCabecalhoTabela("Gap médio"));
+        tabela.addCell(criarCelulaCabecalhoTabela("Avaliações"));
+
+        adicionarTabelaEmBlocos(document, tabela, relatorio.competencias(), (linhas, competencia) -> {
+            linhas.addCell(criarCelulaTabela(competencia.competenciaDescricao(), Element.ALIGN_LEFT));
+            linhas.addCell(criarCelulaTabela(
+                    String.format(Locale.US, "%.2f", competencia.mediaGap()),
+                    Element.ALIGN_CENTER
+            ));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalAvaliacoesConsideradas()), Element.ALIGN_CENTER));
+        });
     }
 
-    private void adicionarSecoesRelatorioSituacaoCapacitacaoDiagnostico(
+    private void adicionarSecaoRelatorioSituacaoCapacitacaoDiagnostico(
             Document document,
-            List<RelatorioDiagnosticoSituacaoCapacitacaoDto> relatorios
+            RelatorioDiagnosticoSituacaoCapacitacaoDto relatorio
     ) throws DocumentException {
-        for (RelatorioDiagnosticoSituacaoCapacitacaoDto relatorio : relatorios) {
-            adicionarTituloRelatorioDiagnostico(document, relatorio.siglaUnidade(), relatorio.nomeUnidade());
-
-            PdfPTable tabela = new PdfPTable(new float[]{3.6f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f});
-            tabela.setWidthPercentage(100f);
-            tabela.setSpacingAfter(16f);
-            tabela.addCell(criarCelulaCabecalhoTabela("Competência"));
-            tabela.addCell(criarCelulaCabecalhoTabela("NA"));
-            tabela.addCell(criarCelulaCabecalhoTabela("AC"));
-            tabela.addCell(criarCelulaCabecalhoTabela("EC"));
-            tabela.addCell(criarCelulaCabecalhoTabela("C"));
-            tabela.addCell(criarCelulaCabecalhoTabela("I"));
-
-            for (RelatorioDiagnosticoSituacaoCapacitacaoCompetenciaDto competencia : relatorio.competencias()) {
-                tabela.addCell(criarCelulaTabela(competencia.competenciaDescricao(), Element.ALIGN_LEFT));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalNaoSeAplica()), Element.ALIGN_CENTER));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalACapacitar()), Element.ALIGN_CENTER));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalEmCapacitacao()), Element.ALIGN_CENTER));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalCapacitado()), Element.ALIGN_CENTER));
-                tabela.addCell(criarCelulaTabela(String.valueOf(competencia.totalInstrutor()), Element.ALIGN_CENTER));
+        adicionarTituloRelatorioDiagnostico(document, relatorio.siglaUnidade(), relatorio.nomeUnidade());
+
+        PdfPTable tabela = new PdfPTable(new float[]{3.6f, 0.8f, 0.8f, 0.8f, 0.8f, 0.8f});
+        tabela.setWidthPercentage(100f);
+        tabela.addCell(criarCelulaCabecalhoTabela("Competência"));
+        tabela.addCell(criarCelulaCabecalhoTabela("NA"));
+        tabela.addCell(criarCelulaCabecalhoTabela("AC"));
+        tabela.addCell(criarCelulaCabecalhoTabela("EC"));
+        tabela.addCell(criarCelulaCabecalhoTabela("C"));
+        tabela.addCell(criarCelulaCabecalhoTabela("I"));
+
+        adicionarTabelaEmBlocos(document, tabela, relatorio.competencias(), (linhas, competencia) -> {
+            linhas.addCell(criarCelulaTabela(competencia.competenciaDescricao(), Element.ALIGN_LEFT));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalNaoSeAplica()), Element.ALIGN_CENTER));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalACapacitar()), Element.ALIGN_CENTER));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalEmCapacitacao()), Element.ALIGN_CENTER));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalCapacitado()), Element.ALIGN_CENTER));
+            linhas.addCell(criarCelulaTabela(String.valueOf(competencia.totalInstrutor()), Element.ALIGN_CENTER));
+        });
+    }
+
+    /**
+     * Escreve a tabela em blocos de {@value #LINHAS_POR_BLOCO_TABELA} linhas. Enquanto marcada como incompleta,
+     * cada {@code document.add} desenha e descarta as linhas já montadas, repetindo o cabeçalho nas quebras de página.
+     */
+    private <T> void adicionarTabelaEmBlocos(Document document, PdfPTable tabela, List<T> itens, LinhaTabelaPdf<T> linha)
+            throws DocumentException {
+        tabela.setHeaderRows(1);
+        tabela.setComplete(false);
+        for (int i = 0; i < itens.size(); i++) {
+            linha.adicionar(tabela, itens.get(i));
+            if ((i + 1) % LINHAS_POR_BLOCO_TABELA == 0) {
+                document.add(tabela);
             }
-
-            document.add(tabela);
         }
+        tabela.setComplete(true);
+        tabela.setSpacingAfter(16f);
+        document.add(tabela);
+    }
+
+    @FunctionalInterface
+    private interface LinhaTabelaPdf<T> {
+        void adicionar(PdfPTable tabela, T item);
     }
 
     private void adicionarTituloRelatorioDiagnostico(Document document, String siglaUnidade, String nomeUnidade) throws DocumentException {
@@ -943,7 +1045,7 @@ public class RelatorioService {
     }
 
     private void ordenarAlfabeticamente(List<UnidadeRelatorioSemMapa> unidades) {
-        unidades.sort((a, b) -> compararTextoPtBr(obterTextoOrdenacao(a), obterTextoOrdenacao(b)));
+        OrdenacaoNatural.ordenar(unidades, this::obterTextoOrdenacao);
     }
 
     private String obterTextoOrdenacao(UnidadeRelatorioSemMapa unidade) {
@@ -997,77 +1099,6 @@ public class RelatorioService {
         );
     }
 
-    private int compararTextoPtBr(String a, String b) {
-        return compararSegmentosTexto(a, b);
-    }
-
-    private int compararSegmentosTexto(String a, String b) {
-        List<String> partesA = separarSegmentos(a);
-        List<String> partesB = separarSegmentos(b);
-        int limite = Math.min(partesA.size(), partesB.size());
-
-        for (int i = 0; i < limite; i++) {
-            String segmentoA = partesA.get(i);
-            String segmentoB = partesB.get(i);
-            boolean aNumero = segmentoA.chars().allMatch(Character::isDigit);
-            boolean bNumero = segmentoB.chars().allMatch(Character::isDigit);
-
-            if (aNumero && bNumero) {
-                int comparacao = compararNumeros(segmentoA, segmentoB);
-                if (comparacao != 0) {
-                    return comparacao;
-                }
-                continue;
-            }
-
-            int comparacaoTexto = compararTextoSegmento(segmentoA, segmentoB);
-            if (comparacaoTexto != 0) {
-                return comparacaoTexto;
-            }
-        }
-
-        return Integer.compare(partesA.size(), partesB.size());
-    }
-
-    List<String> separarSegmentos(String texto) {
-        if (texto.isBlank()) {
-            return List.of("");
-        }
-
-        List<String> segmentos = new ArrayList<>();
-        StringBuilder atual = new StringBuilder();
-        boolean numeroAtual = Character.isDigit(texto.charAt(0));
-
-        for (char caractere : texto.toCharArray()) {
-            boolean numero = Character.isDigit(caractere);
-            if (numero == numeroAtual) {
-                atual.append(caractere);
-                continue;
-            }
-            segmentos.add(atual.toString());
-            atual = new StringBuilder().append(caractere);
-            numeroAtual = numero;
-        }
-        segmentos.add(atual.toString());
-        return segmentos;
-    }
-
-    private int compararNumeros(String a, String b) {
-        try {
-            int numeroA = Integer.parseInt(a);
-            int numeroB = Integer.parseInt(b);
-            return Integer.compare(numeroA, numeroB);
-        } catch (NumberFormatException ex) {
-            return a.compareTo(b);
-        }
-    }
-
-    private int compararTextoSegmento(String a, String b) {
-        java.text.Collator collator = java.text.Collator.getInstance(Locale.forLanguageTag("pt-BR"));
-        collator.setStrength(java.text.Collator.PRIMARY);
-        return collator.compare(a, b);
-    }
-
     private Image carregarBrasao() throws IOException, BadElementException {
         ClassPathResource recurso = new ClassPathResource("relatorio/brasao.png");
         Image imagem = Image.getInstance(recurso.getInputStream().readAllBytes());
@@ -0,0 +1,35 @@
+package sgc.relatorio;
+
+import org.jspecify.annotations.*;
+import org.springframework.boot.context.properties.*;
+
+/**
+ * Propriedades da geração assíncrona de relatórios.
+ *
+ * @param diretorio onde os PDFs concluídos ficam armazenados até expirar
+ * @param concorrencia quantidade de relatórios gerados ao mesmo tempo
+ * @param capacidadeFila solicitações aguardando execução além das que estão em geração
+ * @param ttlMinutos tempo que um relatório concluído permanece disponível para download
+ */
+@ConfigurationProperties(prefix = "sgc.relatorio.tarefas")
+public record RelatorioTarefasPropriedades(
+        @Nullable String diretorio,
+        int concorrencia,
+        int capacidadeFila,
+        long ttlMinutos
+) {
+    public RelatorioTarefasPropriedades {
+        if (diretorio == null || diretorio.isBlank()) {
+            diretorio = System.getProperty("java.io.tmpdir") + "/sgc-relatorios";
+        }
+        if (concorrencia <= 0) {
+            concorrencia = 2;
+        }
+        if (capacidadeFila <= 0) {
+            capacidadeFila = 20;
+        }
+        if (ttlMinutos <= 0) {
+            ttlMinutos = 30;
+        }
+    }
+}
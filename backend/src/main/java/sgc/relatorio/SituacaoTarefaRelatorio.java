@@ -0,0 +1,8 @@
+package sgc.relatorio;
+
+public enum SituacaoTarefaRelatorio {
+    PENDENTE,
+    EM_EXECUCAO,
+    CONCLUIDA,
+    FALHA
+}
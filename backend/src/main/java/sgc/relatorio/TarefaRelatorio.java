@@ -0,0 +1,76 @@
+package sgc.relatorio;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Estado em memória de uma geração assíncrona de relatório.
+ *
+ * <p>Pode ser compartilhada por várias solicitações idênticas; cada usuário que a solicitou
+ * fica registrado e pode consultar e baixar o resultado.
+ */
+@Getter
+final class TarefaRelatorio {
+    private final String codigo;
+    private final TipoRelatorio tipo;
+    private final LocalDateTime dataHoraSolicitacao;
+    @Getter(AccessLevel.NONE)
+    private final Set<String> usuarios = ConcurrentHashMap.newKeySet();
+
+    private volatile SituacaoTarefaRelatorio situacao = SituacaoTarefaRelatorio.PENDENTE;
+    private volatile @Nullable LocalDateTime dataHoraConclusao;
+    private volatile @Nullable String mensagemErro;
+    private volatile @Nullable Path arquivo;
+
+    TarefaRelatorio(TipoRelatorio tipo, LocalDateTime dataHoraSolicitacao) {
+        this.codigo = UUID.randomUUID().toString();
+        this.tipo = tipo;
+        this.dataHoraSolicitacao = dataHoraSolicitacao;
+    }
+
+    synchronized void autorizar(String usuarioTitulo) {
+        usuarios.add(usuarioTitulo);
+    }
+
+    boolean autorizada(String usuarioTitulo) {
+        return usuarios.contains(usuarioTitulo);
+    }
+
+    /**
+     * Usuários a avisar do fim da geração. Chamado depois de {@link #concluir} ou {@link #falhar}; quem for
+     * autorizado depois disso já recebe a situação final na própria resposta da solicitação.
+     */
+    synchronized Set<String> usuariosParaAviso() {
+        return Set.copyOf(usuarios);
+    }
+
+    void iniciar() {
+        situacao = SituacaoTarefaRelatorio.EM_EXECUCAO;
+    }
+
+    void concluir(Path arquivo, LocalDateTime agora) {
+        this.arquivo = arquivo;
+        this.dataHoraConclusao = agora;
+        this.situacao = SituacaoTarefaRelatorio.CONCLUIDA;
+    }
+
+    void falhar(String mensagemErro, LocalDateTime agora) {
+        this.mensagemErro = mensagemErro;
+        this.dataHoraConclusao = agora;
+        this.situacao = SituacaoTarefaRelatorio.FALHA;
+    }
+
+    boolean expirada(LocalDateTime limite) {
+        LocalDateTime conclusao = dataHoraConclusao;
+        return conclusao != null && conclusao.isBefore(limite);
+    }
+
+    TarefaRelatorioDto paraDto() {
+        return new TarefaRelatorioDto(codigo, tipo, situacao, dataHoraSolicitacao, dataHoraConclusao, mensagemErro);
+    }
+}
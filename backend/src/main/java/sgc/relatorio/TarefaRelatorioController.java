@@ -0,0 +1,85 @@
+package sgc.relatorio;
+
+import io.swagger.v3.oas.annotations.*;
+import io.swagger.v3.oas.annotations.tags.*;
+import lombok.*;
+import org.springframework.core.io.*;
+import org.springframework.http.*;
+import org.springframework.security.access.prepost.*;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.*;
+
+/**
+ * Geração assíncrona dos relatórios em PDF.
+ *
+ * <p>O POST cria (ou reaproveita) a tarefa e responde 202 com seu código. O cliente acompanha a
+ * situação por consulta ou pelos eventos {@code relatorio-concluido} e {@code relatorio-falhou} de
+ * {@code /api/eventos} e então baixa o arquivo.
+ */
+@RestController
+@RequestMapping("/api/relatorios/tarefas")
+@RequiredArgsConstructor
+@Tag(name = "Relatórios", description = "Endpoints para geração de relatórios em PDF")
+@PreAuthorize("isAuthenticated()")
+public class TarefaRelatorioController {
+    private final TarefaRelatorioService tarefaRelatorioService;
+
+    @PostMapping("/andamento/{codProcesso}")
+    @PreAuthorize("hasRole('ADMIN') or @processoService.checarAcesso(authentication, #codProcesso)")
+    @Operation(summary = "Solicita a geração do relatório de andamento do processo")
+    public ResponseEntity<TarefaRelatorioDto> solicitarRelatorioAndamento(@PathVariable Long codProcesso) {
+        return ResponseEntity.accepted().body(tarefaRelatorioService.solicitarRelatorioAndamento(codProcesso));
+    }
+
+    @PostMapping("/mapas")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR')")
+    @Operation(summary = "Solicita a geração do relatório consolidado de mapas")
+    public ResponseEntity<TarefaRelatorioDto> solicitarRelatorioMapas(@RequestParam(name = "codUnidade") List<Long> codigosUnidades) {
+        return ResponseEntity.accepted().body(tarefaRelatorioService.solicitarRelatorioMapas(codigosUnidades));
+    }
+
+    @PostMapping("/unidades-sem-mapas-vigentes")
+    @PreAuthorize("hasRole('ADMIN')")
+    @Operation(summary = "Solicita a geração do relatório de unidades sem mapa vigente")
+    public ResponseEntity<TarefaRelatorioDto> solicitarRelatorioUnidadesSemMapasVigentes() {
+        return ResponseEntity.accepted().body(tarefaRelatorioService.solicitarRelatorioUnidadesSemMapasVigentes());
+    }
+
+    @PostMapping("/diagnostico/gaps/{codProcesso}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR') and @processoService.checarAcesso(authentication, #codProcesso)")
+    @Operation(summary = "Solicita a geração do relatório de gaps de diagnóstico")
+    public ResponseEntity<TarefaRelatorioDto> solicitarRelatorioGapsDiagnostico(
+            @PathVariable Long codProcesso,
+            @RequestParam(name = "codUnidade") List<Long> codigosUnidades
+    ) {
+        return ResponseEntity.accepted().body(tarefaRelatorioService.solicitarRelatorioGapsDiagnostico(codProcesso, codigosUnidades));
+    }
+
+    @PostMapping("/diagnostico/situacao-capacitacao/{codProcesso}")
+    @PreAuthorize("hasAnyRole('ADMIN', 'GESTOR') and @processoService.checarAcesso(authentication, #codProcesso)")
+    @Operation(summary = "Solicita a geração do relatório de situação de capacitação")
+    public ResponseEntity<TarefaRelatorioDto> solicitarRelatorioSituacaoCapacitacaoDiagnostico(
+            @PathVariable Long codProcesso,
+            @RequestParam(name = "codUnidade") List<Long> codigosUnidades
+    ) {
+        return ResponseEntity.accepted().body(
+                tarefaRelatorioService.solicitarRelatorioSituacaoCapacitacaoDiagnostico(codProcesso, codigosUnidades));
+    }
+
+    @GetMapping("/{codigo}")
+    @Operation(summary = "Consulta a situação de uma geração de relatório")
+    public ResponseEntity<TarefaRelatorioDto> consultar(@PathVariable String codigo) {
+        return ResponseEntity.ok(tarefaRelatorioService.consultar(codigo));
+    }
+
+    @GetMapping("/{codigo}/arquivo")
+    @Operation(summary = "Baixa o PDF de uma geração de relatório concluída")
+    public ResponseEntity<Resource> baixar(@PathVariable String codigo) {
+        TarefaRelatorioService.RelatorioArmazenado relatorio = tarefaRelatorioService.obterArquivo(codigo);
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_PDF)
+                .header(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=%s".formatted(relatorio.nomeArquivo()))
+                .body(new FileSystemResource(relatorio.arquivo()));
+    }
+}
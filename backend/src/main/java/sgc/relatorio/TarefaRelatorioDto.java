@@ -0,0 +1,15 @@
+package sgc.relatorio;
+
+import org.jspecify.annotations.*;
+
+import java.time.*;
+
+public record TarefaRelatorioDto(
+        String codigo,
+        TipoRelatorio tipo,
+        SituacaoTarefaRelatorio situacao,
+        LocalDateTime dataHoraSolicitacao,
+        @Nullable LocalDateTime dataHoraConclusao,
+        @Nullable String mensagemErro
+) {
+}
@@ -0,0 +1,221 @@
+package sgc.relatorio;
+
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.*;
+import org.springframework.scheduling.annotation.*;
+import org.springframework.security.concurrent.*;
+import org.springframework.stereotype.*;
+import sgc.comum.erros.*;
+import sgc.organizacao.*;
+import sgc.organizacao.model.*;
+import sgc.organizacao.service.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+/**
+ * Geração de relatórios em PDF fora da thread da requisição.
+ *
+ * <p>Cada solicitação vira uma tarefa executada em um pool limitado; o PDF é gravado por
+ * {@link ArmazenamentoRelatorio} e fica disponível para download até expirar. A conclusão é avisada
+ * pelo {@link RegistroSseEmitter} apenas aos usuários que solicitaram a tarefa, com o código dela
+ * como conteúdo do evento.
+ *
+ * <p>Solicitações idênticas (mesmo relatório, mesmos parâmetros e mesmo escopo de perfil e unidade)
+ * enquanto uma geração está em andamento reaproveitam a mesma tarefa em vez de gerar o PDF de novo.
+ * A geração roda com o contexto de segurança de quem criou a tarefa.
+ */
+@Service
+@Slf4j
+public class TarefaRelatorioService {
+    static final String EVENTO_CONCLUIDO = "relatorio-concluido";
+    static final String EVENTO_FALHOU = "relatorio-falhou";
+    private static final String MENSAGEM_FALHA = "Não foi possível gerar o relatório.";
+
+    private final RelatorioService relatorioService;
+    private final ArmazenamentoRelatorio armazenamento;
+    private final RegistroSseEmitter registroSseEmitter;
+    private final UsuarioAplicacaoService usuarioAplicacaoService;
+    private final Clock clock;
+    private final Duration ttl;
+    private final ThreadPoolExecutor executor;
+    private final ExecutorService executorComContexto;
+
+    private final Map<String, TarefaRelatorio> tarefas = new ConcurrentHashMap<>();
+    private final Map<ChaveTarefa, TarefaRelatorio> emAndamento = new ConcurrentHashMap<>();
+
+    public TarefaRelatorioService(
+            RelatorioService relatorioService,
+            ArmazenamentoRelatorio armazenamento,
+            RegistroSseEmitter registroSseEmitter,
+            UsuarioAplicacaoService usuarioAplicacaoService,
+            Clock clock,
+            RelatorioTarefasPropriedades propriedades
+    ) {
+        this.relatorioService = relatorioService;
+        this.armazenamento = armazenamento;
+        this.registroSseEmitter = registroSseEmitter;
+        this.usuarioAplicacaoService = usuarioAplicacaoService;
+        this.clock = clock;
+        this.ttl = Duration.ofMinutes(propriedades.ttlMinutos());
+        this.executor = new ThreadPoolExecutor(
+                propriedades.concorrencia(),
+                propriedades.concorrencia(),
+                0L,
+                TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(propriedades.capacidadeFila()),
+                Thread.ofPlatform().name("relatorio-tarefa-", 1).daemon().factory(),
+                new ThreadPoolExecutor.AbortPolicy());
+        this.executorComContexto = new DelegatingSecurityContextExecutorService(executor);
+    }
+
+    public TarefaRelatorioDto solicitarRelatorioAndamento(Long codProcesso) {
+        return solicitar(TipoRelatorio.ANDAMENTO, List.of(codProcesso),
+                saida -> relatorioService.gerarRelatorioAndamento(codProcesso, saida));
+    }
+
+    public TarefaRelatorioDto solicitarRelatorioMapas(List<Long> codigosUnidades) {
+        List<Long> unidades = normalizar(codigosUnidades);
+        return solicitar(TipoRelatorio.MAPAS, unidades,
+                saida -> relatorioService.gerarRelatorioMapas(unidades, saida));
+    }
+
+    public TarefaRelatorioDto solicitarRelatorioUnidadesSemMapasVigentes() {
+        return solicitar(TipoRelatorio.UNIDADES_SEM_MAPAS_VIGENTES, List.of(),
+                relatorioService::gerarRelatorioUnidadesSemMapasVigentes);
+    }
+
+    public TarefaRelatorioDto solicitarRelatorioGapsDiagnostico(Long codProcesso, List<Long> codigosUnidades) {
+        List<Long> unidades = normalizar(codigosUnidades);
+        return solicitar(TipoRelatorio.DIAGNOSTICO_GAPS, List.of(codProcesso, unidades),
+                saida -> relatorioService.gerarRelatorioGapsDiagnostico(codProcesso, unidades, saida));
+    }
+
+    public TarefaRelatorioDto solicitarRelatorioSituacaoCapacitacaoDiagnostico(Long codProcesso, List<Long> codigosUnidades) {
+        List<Long> unidades = normalizar(codigosUnidades);
+        return solicitar(TipoRelatorio.DIAGNOSTICO_SITUACAO_CAPACITACAO, List.of(codProcesso, unidades),
+                saida -> relatorioService.gerarRelatorioSituacaoCapacitacaoDiagnostico(codProcesso, unidades, saida));
+    }
+
+    public TarefaRelatorioDto consultar(String codigo) {
+        return buscarAutorizada(codigo).paraDto();
+    }
+
+    /**
+     * Retorna o PDF de uma tarefa concluída do usuário autenticado.
+     */
+    public RelatorioArmazenado obterArquivo(String codigo) {
+        TarefaRelatorio tarefa = buscarAutorizada(codigo);
+        Path arquivo = tarefa.getArquivo();
+        if (tarefa.getSituacao() != SituacaoTarefaRelatorio.CONCLUIDA || arquivo == null) {
+            throw new ErroValidacao("O relatório ainda não está disponível para download.");
+        }
+        if (!Files.exists(arquivo)) {
+            throw new ErroEntidadeNaoEncontrada("TarefaRelatorio", codigo);
+        }
+        return new RelatorioArmazenado(arquivo, tarefa.getTipo().nomeArquivo(tarefa.getDataHoraSolicitacao().toLocalDate()));
+    }
+
+    @Scheduled(fixedDelay = 60_000)
+    public void removerExpiradas() {
+        LocalDateTime limite = LocalDateTime.now(clock).minus(ttl);
+        tarefas.values().removeIf(tarefa -> {
+            if (!tarefa.expirada(limite)) {
+                return false;
+            }
+            armazenamento.descartar(tarefa.getCodigo());
+            return true;
+        });
+        armazenamento.removerAnteriores(clock.instant().minus(ttl));
+    }
+
+    @PreDestroy
+    public void encerrar() {
+        executor.shutdownNow();
+    }
+
+    private TarefaRelatorioDto solicitar(TipoRelatorio tipo, List<?> parametros, GeradorPdf gerador) {
+        ContextoUsuarioAutenticado contexto = usuarioAplicacaoService.contextoAutenticado();
+        ChaveTarefa chave = new ChaveTarefa(tipo, List.copyOf(parametros), contexto.perfil(), contexto.unidadeAtivaCodigo());
+        TarefaRelatorio tarefa;
+        try {
+            tarefa = emAndamento.computeIfAbsent(chave, k -> agendar(k, gerador, contexto.usuarioTitulo()));
+        } catch (RejectedExecutionException e) {
+            throw new ErroCapacidadeEsgotada("Há muitos relatórios em geração. Tente novamente em instantes.");
+        }
+        tarefa.autorizar(contexto.usuarioTitulo());
+        return tarefa.paraDto();
+    }
+
+    /**
+     * Registra a tarefa e autoriza quem a criou antes de submetê-la, para que uma geração rápida já encontre o
+     * solicitante ao avisar a conclusão.
+     */
+    private TarefaRelatorio agendar(ChaveTarefa chave, GeradorPdf gerador, String usuarioTitulo) {
+        TarefaRelatorio tarefa = new TarefaRelatorio(chave.tipo(), LocalDateTime.now(clock));
+        tarefa.autorizar(usuarioTitulo);
+        tarefas.put(tarefa.getCodigo(), tarefa);
+        try {
+            executorComContexto.execute(() -> executar(chave, tarefa, gerador));
+        } catch (RejectedExecutionException e) {
+            tarefas.remove(tarefa.getCodigo());
+            throw e;
+        }
+        return tarefa;
+    }
+
+    private void executar(ChaveTarefa chave, TarefaRelatorio tarefa, GeradorPdf gerador) {
+        String codigo = tarefa.getCodigo();
+        String evento;
+        tarefa.iniciar();
+        try {
+            try (OutputStream saida = armazenamento.abrirEscrita(codigo)) {
+                gerador.gerar(saida);
+            }
+            tarefa.concluir(armazenamento.concluir(codigo), LocalDateTime.now(clock));
+            evento = EVENTO_CONCLUIDO;
+        } catch (IOException | RuntimeException e) {
+            armazenamento.descartar(codigo);
+            if (e instanceof ErroNegocio erro && erro.getMessage() != null) {
+                log.info("Relatório {} ({}) recusado: {}", codigo, tarefa.getTipo(), erro.getMessage());
+                tarefa.falhar(erro.getMessage(), LocalDateTime.now(clock));
+            } else {
+                log.error("Falha ao gerar relatório {} ({})", codigo, tarefa.getTipo(), e);
+                tarefa.falhar(MENSAGEM_FALHA, LocalDateTime.now(clock));
+            }
+            evento = EVENTO_FALHOU;
+        } finally {
+            emAndamento.remove(chave, tarefa);
+        }
+        for (String usuarioTitulo : tarefa.usuariosParaAviso()) {
+            registroSseEmitter.transmitirParaUsuario(usuarioTitulo, evento, codigo);
+        }
+    }
+
+    private static List<Long> normalizar(List<Long> codigosUnidades) {
+        return List.copyOf(new TreeSet<>(codigosUnidades));
+    }
+
+    private TarefaRelatorio buscarAutorizada(String codigo) {
+        ContextoUsuarioAutenticado contexto = usuarioAplicacaoService.contextoAutenticado();
+        TarefaRelatorio tarefa = tarefas.get(codigo);
+        if (tarefa == null || !tarefa.autorizada(contexto.usuarioTitulo())) {
+            throw new ErroEntidadeNaoEncontrada("TarefaRelatorio", codigo);
+        }
+        return tarefa;
+    }
+
+    public record RelatorioArmazenado(Path arquivo, String nomeArquivo) {
+    }
+
+    @FunctionalInterface
+    private interface GeradorPdf {
+        void gerar(OutputStream saida);
+    }
+
+    private record ChaveTarefa(TipoRelatorio tipo, List<?> parametros, Perfil perfil, Long unidadeAtivaCodigo) {
+    }
+}
@@ -0,0 +1,25 @@
+package sgc.relatorio;
+
+import lombok.*;
+
+import java.time.*;
+import java.time.format.*;
+
+/**
+ * Relatórios em PDF que podem ser gerados como tarefa assíncrona.
+ */
+@Getter
+@RequiredArgsConstructor
+public enum TipoRelatorio {
+    ANDAMENTO("sgc-rel-andamento"),
+    MAPAS("sgc-rel-mapas"),
+    UNIDADES_SEM_MAPAS_VIGENTES("sgc-rel-unidades-sem-mapas-vigentes"),
+    DIAGNOSTICO_GAPS("sgc-rel-gaps-diagnostico"),
+    DIAGNOSTICO_SITUACAO_CAPACITACAO("sgc-rel-situacao-capacitacao");
+
+    private final String prefixoArquivo;
+
+    public String nomeArquivo(LocalDate data) {
+        return "%s-%s.pdf".formatted(prefixoArquivo, data.format(DateTimeFormatter.ISO_LOCAL_DATE));
+    }
+}
@@ -32,8 +32,9 @@ import java.io.*;
 public class ConfigSeguranca {
 
     @Bean
-    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService, ListaNegraJwt listaNegraJwt) {
-        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt);
+    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService,
+                               ListaNegraJwt listaNegraJwt, CachePrincipalJwt cachePrincipalJwt) {
+        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt, cachePrincipalJwt);
     }
 
     @Bean
@@ -0,0 +1,106 @@
+package sgc.seguranca.login;
+
+import lombok.*;
+import org.jspecify.annotations.*;
+import org.springframework.cache.*;
+import org.springframework.stereotype.*;
+import sgc.comum.config.*;
+import sgc.comum.erros.*;
+import sgc.organizacao.model.*;
+
+import java.util.function.*;
+
+/**
+ * Guarda, por {@code jti}, o usuário carregado na primeira requisição autenticada com um JWT.
+ *
+ * <p>O principal só muda no login, mas cada chamada da SPA passava por {@code vw_usuario}. A entrada
+ * é removida na revogação do token ({@link ListaNegraJwt#revogar}) e no refresh periódico dos caches
+ * organizacionais. Hits e misses são publicados nas métricas {@code cache.gets} do cache
+ * {@link CacheConfig#CACHE_PRINCIPAL_JWT}.
+ */
+@Component
+@RequiredArgsConstructor
+public class CachePrincipalJwt {
+    private final CacheManager cacheManager;
+
+    /**
+     * Devolve uma cópia nova do usuário do token, carregando-o apenas se ainda não estiver em cache.
+     */
+    public @Nullable Usuario obter(GerenciadorJwt.JwtClaims claims, Function<String, @Nullable Usuario> carregador) {
+        Cache cache = cache();
+        PrincipalJwt principal = cache.get(claims.jti(), PrincipalJwt.class);
+        if (principal == null || !principal.claims().equals(claims)) {
+            Usuario usuario = carregador.apply(claims.tituloEleitoral());
+            if (usuario == null) {
+                return null;
+            }
+            principal = new PrincipalJwt(claims, UsuarioPrincipal.de(usuario));
+            cache.put(claims.jti(), principal);
+        }
+        return principal.usuario().paraUsuario();
+    }
+
+    public void evictar(@Nullable String jti) {
+        if (jti != null) {
+            cache().evict(jti);
+        }
+    }
+
+    private Cache cache() {
+        Cache cache = cacheManager.getCache(CacheConfig.CACHE_PRINCIPAL_JWT);
+        if (cache == null) {
+            throw new ErroConfiguracao("Cache %s não configurado".formatted(CacheConfig.CACHE_PRINCIPAL_JWT));
+        }
+        return cache;
+    }
+
+    private record PrincipalJwt(GerenciadorJwt.JwtClaims claims, UsuarioPrincipal usuario) {
+    }
+
+    /**
+     * Dados imutáveis do usuário; cada requisição recebe sua própria instância de {@link Usuario},
+     * pois o filtro ajusta perfil, unidade ativa e authorities no principal.
+     *
+     * <p>Da unidade de lotação ficam só código e sigla: guardar a entidade (ou o proxy Hibernate)
+     * prenderia no cache um objeto ligado a uma sessão já encerrada.
+     */
+    private record UsuarioPrincipal(
+            String tituloEleitoral,
+            String matricula,
+            String nome,
+            @Nullable String email,
+            String ramal,
+            Long unidadeLotacaoCodigo,
+            String unidadeLotacaoSigla,
+            Long unidadeCompetenciaCodigo
+    ) {
+        static UsuarioPrincipal de(Usuario usuario) {
+            Unidade unidadeLotacao = usuario.getUnidadeLotacao();
+            return new UsuarioPrincipal(
+                    usuario.getTituloEleitoral(),
+                    usuario.getMatricula(),
+                    usuario.getNome(),
+                    usuario.getEmail(),
+                    usuario.getRamal(),
+                    unidadeLotacao.getCodigo(),
+                    unidadeLotacao.getSigla(),
+                    usuario.getUnidadeCompetenciaCodigo()
+            );
+        }
+
+        Usuario paraUsuario() {
+            return Usuario.builder()
+                    .tituloEleitoral(tituloEleitoral)
+                    .matricula(matricula)
+                    .nome(nome)
+                    .email(email)
+                    .ramal(ramal)
+                    .unidadeLotacao(Unidade.builder()
+                            .codigo(unidadeLotacaoCodigo)
+                            .sigla(unidadeLotacaoSigla)
+                            .build())
+                    .unidadeCompetenciaCodigo(unidadeCompetenciaCodigo)
+                    .build();
+        }
+    }
+}
@@ -24,6 +24,7 @@ public class FiltroJwt extends OncePerRequestFilter {
     private final GerenciadorJwt gerenciadorJwt;
     private final UsuarioAplicacaoService usuarioService;
     private final ListaNegraJwt listaNegraJwt;
+    private final CachePrincipalJwt cachePrincipalJwt;
 
     @Override
     protected boolean shouldNotFilter(HttpServletRequest request) {
@@ -69,7 +70,7 @@ public class FiltroJwt extends OncePerRequestFilter {
                     return;
                 }
 
-                Usuario usuario = usuarioService.carregarUsuarioSemAtribuicoesParaAutenticacao(claims.tituloEleitoral());
+                Usuario usuario = cachePrincipalJwt.obter(claims, usuarioService::carregarUsuarioSemAtribuicoesParaAutenticacao);
 
                 if (usuario != null) {
                     usuario.setPerfilAtivo(claims.perfil());
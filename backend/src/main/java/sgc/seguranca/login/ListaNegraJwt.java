@@ -1,5 +1,6 @@
 package sgc.seguranca.login;
 
+import lombok.*;
 import org.jspecify.annotations.*;
 import org.springframework.scheduling.annotation.*;
 import org.springframework.stereotype.*;
@@ -8,14 +9,17 @@ import java.time.*;
 import java.util.concurrent.*;
 
 @Component
+@RequiredArgsConstructor
 public class ListaNegraJwt {
     private final ConcurrentHashMap<String, Instant> tokensRevogados = new ConcurrentHashMap<>();
+    private final CachePrincipalJwt cachePrincipalJwt;
 
     public void revogar(@Nullable String jti, @Nullable Instant expiracao) {
         if (jti == null || jti.isBlank() || expiracao == null) {
             return;
         }
         tokensRevogados.put(jti, expiracao);
+        cachePrincipalJwt.evictar(jti);
     }
 
     public boolean estaRevogado(@Nullable String jti) {
@@ -9,7 +9,9 @@ import org.springframework.http.*;
 import org.springframework.security.access.prepost.*;
 import org.springframework.transaction.annotation.*;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.*;
 import sgc.comum.ComumDtos.*;
+import sgc.comum.util.*;
 import sgc.mapa.dto.*;
 import sgc.organizacao.service.*;
 import sgc.seguranca.sanitizacao.*;
@@ -156,8 +158,9 @@ public class SubprocessoController {
     @PreAuthorize("hasPermission(#codSubprocesso, 'Subprocesso', 'VISUALIZAR_SUBPROCESSO')")
     @Operation(summary = "Obtém o mapa completo para edição/visualização")
     @Transactional(readOnly = true)
-    public ResponseEntity<MapaCompletoDto> obterMapaCompleto(@PathVariable Long codSubprocesso) {
-        return ResponseEntity.ok(consultaService.mapaCompletoDtoPorSubprocesso(codSubprocesso));
+    public ResponseEntity<MapaCompletoDto> obterMapaCompleto(@PathVariable Long codSubprocesso, WebRequest request) {
+        return RespostaCondicional.versionada(request, consultaService.versaoMapaCompleto(codSubprocesso),
+                () -> consultaService.mapaCompletoDtoPorSubprocesso(codSubprocesso));
     }
 
     @PostMapping("/{codSubprocesso}/mapa-completo")
@@ -35,6 +35,14 @@ public class Subprocesso extends EntidadeBase {
     @OneToOne(mappedBy = "subprocesso")
     private Mapa mapa;
 
+    /**
+     * Unidade de destino da movimentação mais recente, mantida a cada transição.
+     * Nula apenas para registros anteriores à coluna ainda não preenchidos pela carga inicial.
+     */
+    @ManyToOne(fetch = FetchType.LAZY)
+    @JoinColumn(name = "localizacao_atual_codigo")
+    private @Nullable Unidade localizacaoAtual;
+
     @Column(name = "data_limite_etapa1", nullable = false)
     private LocalDateTime dataLimiteEtapa1;
 
@@ -52,6 +60,18 @@ public class Subprocesso extends EntidadeBase {
     @lombok.Builder.Default
     private SituacaoSubprocesso situacao = SituacaoSubprocesso.NAO_INICIADO;
 
+    /**
+     * Cresce a cada update persistido, ou seja, a cada transição, movimentação de localização ou troca de prazo.
+     */
+    @Column(name = "versao", nullable = false)
+    @Setter(AccessLevel.NONE)
+    private long versao;
+
+    @PreUpdate
+    void registrarAlteracao() {
+        versao++;
+    }
+
     public Set<Atividade> getAtividades() {
         return mapa != null ? mapa.getAtividades() : Collections.emptySet();
     }
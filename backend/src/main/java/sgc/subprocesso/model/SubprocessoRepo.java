@@ -16,6 +16,7 @@ public interface SubprocessoRepo extends JpaRepository<Subprocesso, Long> {
             select s from Subprocesso s
               join fetch s.processo p
               join fetch s.unidade u
+              left join fetch s.localizacaoAtual la
               left join fetch s.mapa m
             where s.processo.codigo = :codProcesso""")
     List<Subprocesso> listarPorProcessoComUnidade(@Param("codProcesso") Long codProcesso);
@@ -34,6 +35,7 @@ public interface SubprocessoRepo extends JpaRepository<Subprocesso, Long> {
     @Query("""
             select s from Subprocesso s
               join fetch s.unidade u
+              left join fetch s.localizacaoAtual la
             where s.processo.codigo = :codProcesso
               and s.unidade.codigo in :unidadeCodigos""")
     List<Subprocesso> listarPorProcessoEUnidadesComUnidade(
@@ -43,6 +45,7 @@ public interface SubprocessoRepo extends JpaRepository<Subprocesso, Long> {
     @Query("""
             select s from Subprocesso s
               join fetch s.unidade u
+              left join fetch s.localizacaoAtual la
             where s.processo.codigo = :codProcesso
               and s.situacao in :situacoes""")
     List<Subprocesso> listarPorProcessoESituacoesComUnidade(
@@ -92,6 +95,7 @@ public interface SubprocessoRepo extends JpaRepository<Subprocesso, Long> {
             JOIN FETCH s.processo p
             JOIN FETCH s.unidade u
             LEFT JOIN FETCH u.unidadeSuperior
+            LEFT JOIN FETCH s.localizacaoAtual la
             LEFT JOIN FETCH s.mapa m
             LEFT JOIN FETCH m.atividades a
             WHERE s.codigo IN :codigos
@@ -107,4 +111,25 @@ public interface SubprocessoRepo extends JpaRepository<Subprocesso, Long> {
     long countByProcessoCodigo(Long codProcesso);
 
     long countByProcessoCodigoAndSituacaoIn(Long codProcesso, List<SituacaoSubprocesso> situacoes);
+
+    /**
+     * Preenche a localização atual dos subprocessos que ainda não a possuem a partir da
+     * unidade de destino da movimentação mais recente.
+     */
+    @Modifying(clearAutomatically = true, flushAutomatically = true)
+    @Query(value = """
+            UPDATE sgc.subprocesso s
+               SET localizacao_atual_codigo = (
+                   SELECT m.unidade_destino_codigo FROM sgc.movimentacao m
+                   WHERE m.subprocesso_codigo = s.codigo
+                     AND NOT EXISTS (
+                         SELECT 1 FROM sgc.movimentacao r
+                         WHERE r.subprocesso_codigo = m.subprocesso_codigo
+                           AND (r.data_hora > m.data_hora OR (r.data_hora = m.data_hora AND r.codigo > m.codigo))
+                     )
+               )
+             WHERE s.localizacao_atual_codigo IS NULL
+               AND EXISTS (SELECT 1 FROM sgc.movimentacao m2 WHERE m2.subprocesso_codigo = s.codigo)
+            """, nativeQuery = true)
+    int preencherLocalizacoesAtuaisPendentes();
 }
@@ -0,0 +1,34 @@
+package sgc.subprocesso.service;
+
+import lombok.*;
+import lombok.extern.slf4j.*;
+import org.springframework.boot.autoconfigure.condition.*;
+import org.springframework.boot.context.event.*;
+import org.springframework.context.event.*;
+import org.springframework.stereotype.*;
+import org.springframework.transaction.annotation.*;
+import sgc.subprocesso.model.*;
+
+/**
+ * Carga única da coluna {@code localizacao_atual_codigo} a partir do histórico de movimentações.
+ *
+ * <p>Executada na inicialização quando {@code sgc.subprocesso.carga-localizacao-atual=true}.
+ * Só atualiza subprocessos com a coluna nula, portanto é idempotente e pode permanecer
+ * habilitada até que todos os registros legados tenham sido preenchidos.
+ */
+@Component
+@RequiredArgsConstructor
+@Slf4j
+@ConditionalOnProperty(name = "sgc.subprocesso.carga-localizacao-atual", havingValue = "true")
+public class CargaLocalizacaoAtualSubprocesso {
+    private final SubprocessoRepo subprocessoRepo;
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional
+    public void preencherPendentes() {
+        int atualizados = subprocessoRepo.preencherLocalizacoesAtuaisPendentes();
+        if (atualizados > 0) {
+            log.info("Localização atual preenchida para {} subprocessos a partir das movimentações.", atualizados);
+        }
+    }
+}
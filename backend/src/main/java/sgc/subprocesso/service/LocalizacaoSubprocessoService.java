@@ -28,6 +28,10 @@ public class LocalizacaoSubprocessoService {
         if (subprocesso.getSituacao() == NAO_INICIADO) {
             return unidadeBase;
         }
+        Unidade localizacaoAtual = subprocesso.getLocalizacaoAtual();
+        if (localizacaoAtual != null) {
+            return localizacaoAtual;
+        }
 
         return movimentacaoRepo.listarUltimasUnidadesDestinoPorSubprocesso(subprocesso.getCodigo(), PRIMEIRO_RESULTADO)
                 .stream()
@@ -40,16 +44,27 @@ public class LocalizacaoSubprocessoService {
             return Map.of();
         }
 
-        Map<Long, Unidade> localizacoes = movimentacaoRepo.listarUltimasPorSubprocessos(subprocessos.stream()
-                        .map(Subprocesso::getCodigo)
-                        .filter(Objects::nonNull)
-                        .toList())
-                .stream()
-                .collect(java.util.stream.Collectors.toMap(
-                        movimentacao -> movimentacao.getSubprocesso().getCodigo(),
-                        Movimentacao::getUnidadeDestino,
-                        (primeira, ignorada) -> primeira
-                ));
+        Map<Long, Unidade> localizacoes = new HashMap<>();
+        List<Long> codigosSemLocalizacao = new ArrayList<>();
+        for (Subprocesso subprocesso : subprocessos) {
+            Long codigo = subprocesso.getCodigo();
+            if (codigo == null) {
+                continue;
+            }
+            Unidade localizacaoAtual = subprocesso.getLocalizacaoAtual();
+            if (localizacaoAtual != null) {
+                localizacoes.put(codigo, localizacaoAtual);
+            } else {
+                codigosSemLocalizacao.add(codigo);
+            }
+        }
+
+        if (!codigosSemLocalizacao.isEmpty()) {
+            movimentacaoRepo.listarUltimasPorSubprocessos(codigosSemLocalizacao)
+                    .forEach(movimentacao -> localizacoes.putIfAbsent(
+                            movimentacao.getSubprocesso().getCodigo(),
+                            movimentacao.getUnidadeDestino()));
+        }
 
         for (Subprocesso subprocesso : subprocessos) {
             Long codigo = subprocesso.getCodigo();
@@ -52,6 +52,20 @@ public class SubprocessoConsultaService {
         return mapaDtoMapper.paraMapaCompletoDto(mapa);
     }
 
+    /**
+     * Identifica o conteúdo de {@link #mapaCompletoDtoPorSubprocesso(Long)} sem carregar atividades nem
+     * competências: o mapa servido (o do subprocesso ou, no diagnóstico, o vigente da unidade) e as versões
+     * dele e do subprocesso.
+     */
+    public String versaoMapaCompleto(Long codSubprocesso) {
+        Subprocesso subprocesso = buscarSubprocessoComMapa(codSubprocesso);
+        Optional<Mapa> mapa = subprocesso.getProcesso().getTipo() == TipoProcesso.DIAGNOSTICO
+                ? mapaManutencaoService.mapaVigenteUnidade(subprocesso.getUnidade().getCodigo())
+                : Optional.ofNullable(subprocesso.getMapa());
+        String versaoMapa = mapa.map(m -> m.getCodigo() + "-v" + m.getVersao()).orElse("ausente");
+        return "subprocesso-%d-v%d-mapa-%s".formatted(codSubprocesso, subprocesso.getVersao(), versaoMapa);
+    }
+
     public SugestoesDto obterSugestoes(Long codSubprocesso) {
         Subprocesso subprocesso = buscarSubprocesso(codSubprocesso);
         Mapa mapa = subprocesso.getMapa();
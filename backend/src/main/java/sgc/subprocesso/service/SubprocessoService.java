@@ -201,6 +201,7 @@ public class SubprocessoService {
         return Subprocesso.builder()
                 .processo(processo)
                 .unidade(unidade)
+                .localizacaoAtual(unidade)
                 .situacao(situacaoInicial)
                 .dataLimiteEtapa1(processo.getDataLimite())
                 .build();
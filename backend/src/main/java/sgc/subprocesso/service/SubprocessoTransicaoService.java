@@ -89,6 +89,7 @@ public class SubprocessoTransicaoService {
                 .build();
         Movimentacao movimentacaoSalva = movimentacaoRepo.save(movimentacao);
 
+        sp.setLocalizacaoAtual(cmd.destino());
         subprocessoRepo.save(sp);
         return movimentacaoSalva != null ? movimentacaoSalva : movimentacao;
     }
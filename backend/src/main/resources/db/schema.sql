@@ -1,5 +1,25 @@
 create schema if not exists sgc;
 
+-- Sequências de chave primária: incremento igual ao allocationSize do Hibernate (otimizador pooled-lo)
+create sequence if not exists sgc.agregado_gap_competencia_seq start with 1 increment by 50;
+create sequence if not exists sgc.alerta_seq start with 1 increment by 50;
+create sequence if not exists sgc.analise_seq start with 1 increment by 50;
+create sequence if not exists sgc.atividade_seq start with 1 increment by 50;
+create sequence if not exists sgc.atribuicao_temporaria_seq start with 1 increment by 50;
+create sequence if not exists sgc.avaliacao_servidor_seq start with 1 increment by 50;
+create sequence if not exists sgc.competencia_seq start with 1 increment by 50;
+create sequence if not exists sgc.configuracao_seq start with 1 increment by 50;
+create sequence if not exists sgc.conhecimento_seq start with 1 increment by 50;
+create sequence if not exists sgc.diagnostico_seq start with 1 increment by 50;
+create sequence if not exists sgc.mapa_seq start with 1 increment by 50;
+create sequence if not exists sgc.movimentacao_seq start with 1 increment by 50;
+create sequence if not exists sgc.notificacao_email_seq start with 1 increment by 50;
+create sequence if not exists sgc.processo_seq start with 1 increment by 50;
+create sequence if not exists sgc.servidor_processo_seq start with 1 increment by 50;
+create sequence if not exists sgc.situacao_capacitacao_seq start with 1 increment by 50;
+create sequence if not exists sgc.subprocesso_seq start with 1 increment by 50;
+create sequence if not exists sgc.unidade_seq start with 1 increment by 50;
+
 -- Tabelas físicas que eram VIEWs no Oracle, mas no H2 de testes são tabelas simples
 create table if not exists sgc.vw_usuario
 (
@@ -47,12 +67,7 @@ create table if not exists sgc.administrador
 
 create table if not exists sgc.vw_unidade
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.unidade_seq,
     nome
     varchar
 (
@@ -187,12 +202,7 @@ create table if not exists sgc.vw_responsabilidade
 
 create table if not exists sgc.processo
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.processo_seq,
     data_criacao
     timestamp
 (
@@ -234,6 +244,11 @@ create table if not exists sgc.processo
 (
     255
 ) not null,
+    versao bigint default 0 not null,
+    resumo_participantes varchar
+(
+    4000
+),
     primary key
 (
     codigo
@@ -242,12 +257,7 @@ create table if not exists sgc.processo
 
 create table if not exists sgc.mapa
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.mapa_seq,
     subprocesso_codigo
     bigint
     not
@@ -269,6 +279,7 @@ create table if not exists sgc.mapa
 (
     1000
 ),
+    versao bigint default 0 not null,
     primary key
 (
     codigo
@@ -277,12 +288,7 @@ create table if not exists sgc.mapa
 
 create table if not exists sgc.subprocesso
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.subprocesso_seq,
     data_limite_etapa1
     timestamp
 (
@@ -302,6 +308,8 @@ create table if not exists sgc.subprocesso
 ),
     processo_codigo bigint not null,
     unidade_codigo bigint not null,
+    localizacao_atual_codigo bigint,
+    versao bigint default 0 not null,
     situacao varchar
 (
     50
@@ -339,12 +347,7 @@ create table if not exists sgc.subprocesso
 
 create table if not exists sgc.alerta
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.alerta_seq,
     data_hora
     timestamp
 (
@@ -403,12 +406,7 @@ create table if not exists sgc.alerta_usuario
 
 create table if not exists sgc.analise
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.analise_seq,
     data_hora
     timestamp
 (
@@ -464,12 +462,7 @@ create table if not exists sgc.analise
 
 create table if not exists sgc.atividade
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.atividade_seq,
     mapa_codigo
     bigint
     not
@@ -487,12 +480,7 @@ create table if not exists sgc.atividade
 
 create table if not exists sgc.atribuicao_temporaria
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.atribuicao_temporaria_seq,
     data_inicio
     timestamp
 (
@@ -523,12 +511,7 @@ create table if not exists sgc.atribuicao_temporaria
 
 create table if not exists sgc.competencia
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.competencia_seq,
     mapa_codigo
     bigint
     not
@@ -568,12 +551,7 @@ create table if not exists sgc.conhecimento
     bigint
     not
     null,
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.conhecimento_seq,
     descricao
     varchar
 (
@@ -587,12 +565,7 @@ create table if not exists sgc.conhecimento
 
 create table if not exists sgc.movimentacao
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.movimentacao_seq,
     data_hora
     timestamp
 (
@@ -617,12 +590,7 @@ create table if not exists sgc.movimentacao
 
 create table if not exists sgc.notificacao_email
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.notificacao_email_seq,
     subprocesso_codigo
     bigint,
     processo_codigo
@@ -693,6 +661,11 @@ create table if not exists sgc.notificacao_email
 (
     255
 ) not null,
+    lote_envio varchar
+(
+    36
+),
+    data_hora_reserva timestamp,
     primary key
 (
     codigo
@@ -705,12 +678,7 @@ create table if not exists sgc.notificacao_email
 
 create table if not exists sgc.configuracao
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.configuracao_seq,
     chave
     varchar
 (
@@ -788,12 +756,7 @@ create table if not exists sgc.unidade_processo
 
 create table if not exists sgc.servidor_processo
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.servidor_processo_seq,
     processo_codigo
     bigint
     not
@@ -896,12 +859,7 @@ alter table if exists sgc.vw_responsabilidade
 -- Tabelas do Módulo de Diagnóstico
 create table if not exists sgc.diagnostico
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.diagnostico_seq,
     subprocesso_codigo
     bigint
     not
@@ -925,12 +883,7 @@ create table if not exists sgc.diagnostico
 
 create table if not exists sgc.avaliacao_servidor
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.avaliacao_servidor_seq,
     diagnostico_codigo
     bigint
     not
@@ -1065,12 +1018,7 @@ create table if not exists sgc.avaliacao_servidor
 
 create table if not exists sgc.situacao_capacitacao
 (
-    codigo
-    bigint
-    generated
-    by
-    default as
-    identity,
+    codigo bigint default next value for sgc.situacao_capacitacao_seq,
     diagnostico_codigo
     bigint
     not
@@ -1132,6 +1080,37 @@ create table if not exists sgc.situacao_capacitacao
 )
     );
 
+create table if not exists sgc.agregado_gap_competencia
+(
+    codigo bigint default next value for sgc.agregado_gap_competencia_seq,
+    diagnostico_codigo bigint not null,
+    competencia_codigo bigint not null,
+    soma_gap bigint default 0 not null,
+    total_gap int default 0 not null,
+    total_nao_se_aplica int default 0 not null,
+    total_a_capacitar int default 0 not null,
+    total_em_capacitacao int default 0 not null,
+    total_capacitado int default 0 not null,
+    total_instrutor int default 0 not null,
+    constraint pk_agregado_gap_competencia primary key
+(
+    codigo
+),
+    constraint fk_agregado_gap_diagnostico foreign key
+(
+    diagnostico_codigo
+) references sgc.diagnostico,
+    constraint fk_agregado_gap_competencia foreign key
+(
+    competencia_codigo
+) references sgc.competencia,
+    constraint uk_agregado_gap_competencia unique
+(
+    diagnostico_codigo,
+    competencia_codigo
+)
+    );
+
 -- Índices de performance para otimização de consultas e junções
 create index if not exists idx_diagnostico_subprocesso on sgc.diagnostico (subprocesso_codigo);
 create index if not exists idx_avaliacao_diagnostico on sgc.avaliacao_servidor (diagnostico_codigo);
@@ -1151,13 +1130,16 @@ create index if not exists idx_movimentacao_subprocesso on sgc.movimentacao (sub
 create index if not exists idx_competencia_atividade_inv on sgc.competencia_atividade (competencia_codigo);
 create index if not exists idx_subprocesso_processo on sgc.subprocesso (processo_codigo);
 create index if not exists idx_subprocesso_unidade on sgc.subprocesso (unidade_codigo);
-create index if not exists idx_alerta_unidade_destino on sgc.alerta (unidade_destino_codigo);
+create index if not exists idx_subprocesso_localizacao on sgc.subprocesso (localizacao_atual_codigo);
+create index if not exists idx_alerta_destino_data on sgc.alerta (unidade_destino_codigo, usuario_destino_titulo, data_hora);
+create index if not exists idx_alerta_usuario_destino_data on sgc.alerta (usuario_destino_titulo, data_hora);
 create index if not exists idx_alerta_processo on sgc.alerta (processo_codigo);
 create index if not exists idx_alerta_usuario_usuario on sgc.alerta_usuario (usuario_titulo);
 create index if not exists idx_unidade_processo_unidade on sgc.unidade_processo (unidade_codigo);
 create index if not exists idx_notif_email_fila on sgc.notificacao_email (situacao, proxima_tentativa_em, data_hora_criacao);
 create index if not exists idx_notif_email_subproc_sit on sgc.notificacao_email (subprocesso_codigo, situacao);
 create index if not exists idx_notif_email_usuario on sgc.notificacao_email (usuario_destino_titulo);
+create index if not exists idx_notif_email_lote on sgc.notificacao_email (lote_envio);
 
 alter table if exists sgc.avaliacao_servidor add column if not exists servidor_nome_snapshot varchar (255);
 alter table if exists sgc.avaliacao_servidor add column if not exists autoimportancia int;
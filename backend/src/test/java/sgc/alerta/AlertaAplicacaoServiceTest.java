@@ -5,6 +5,8 @@ import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.support.*;
+import sgc.alerta.dto.*;
 import sgc.alerta.model.*;
 import sgc.configuracoes.*;
 import sgc.organizacao.*;
@@ -37,6 +39,10 @@ class AlertaAplicacaoServiceTest {
     private UnidadeHierarquiaService unidadeHierarquiaService;
     @Mock
     private ConfiguracaoService configuracaoService;
+    @Mock
+    private RegistroSseEmitter registroSseEmitter;
+    @Spy
+    private AlertaDtoMapper alertaDtoMapper = new AlertaDtoMapper();
 
     @InjectMocks
     private AlertaAplicacaoService alertaAplicacaoService;
@@ -44,6 +50,13 @@ class AlertaAplicacaoServiceTest {
     @Captor
     private ArgumentCaptor<List<AlertaUsuario>> alertaUsuarioListCaptor;
 
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
     @Test
     @DisplayName("Deve manter alerta como não lido quando leitura estiver nula")
     void deveManterAlertaNaoLidoQuandoLeituraNula() {
@@ -84,6 +97,38 @@ class AlertaAplicacaoServiceTest {
         assertThat(resultado.getFirst().getDataHoraLeitura()).isNotNull();
     }
 
+    @Test
+    @DisplayName("Deve listar o painel do servidor a partir do alerta mais recente")
+    void deveListarPainelServidorSemCursor() {
+        when(alertaService.listarPainelParaServidor(eq("123"), any(LocalDateTime.class), eq(Long.MAX_VALUE), eq(50)))
+                .thenReturn(List.of());
+
+        List<AlertaPainelQuery> resultado = alertaAplicacaoService.listarParaPainel(CONTEXTO_SERVIDOR, null, null, 50);
+
+        assertThat(resultado).isEmpty();
+        verifyNoInteractions(configuracaoService);
+    }
+
+    @Test
+    @DisplayName("Deve continuar o painel da gestão a partir do cursor e aplicar a leitura automática")
+    void deveListarPainelGestaoComCursorELeituraAutomatica() {
+        LocalDateTime cursor = LocalDateTime.now().minusDays(1);
+        LocalDateTime lidoEm = LocalDateTime.now().minusHours(1);
+        AlertaPainelQuery antigo = alertaPainel(1L, LocalDateTime.now().minusDays(5), null);
+        AlertaPainelQuery recente = alertaPainel(2L, LocalDateTime.now().minusDays(1), null);
+        AlertaPainelQuery lido = alertaPainel(3L, LocalDateTime.now().minusDays(6), lidoEm);
+        when(alertaService.listarPainelParaGestao(1L, "123", cursor, 40L, 20))
+                .thenReturn(List.of(recente, antigo, lido));
+        when(configuracaoService.buscarDiasAlertaNovo()).thenReturn(3);
+
+        List<AlertaPainelQuery> resultado = alertaAplicacaoService.listarParaPainel(CONTEXTO_GESTAO, cursor, 40L, 20);
+
+        assertThat(resultado)
+                .extracting(AlertaPainelQuery::dataHoraLeitura)
+                .containsExactly(null, antigo.dataHora().plusDays(3), lidoEm);
+        verify(configuracaoService, times(1)).buscarDiasAlertaNovo();
+    }
+
     @Test
     @DisplayName("Deve criar alertas para unidade interoperacional e cadeia superior")
     void deveCriarAlertasParaUnidadeInteroperacionalECadeiaSuperior() {
@@ -180,6 +225,44 @@ class AlertaAplicacaoServiceTest {
         verify(alertaService).salvar(alerta);
     }
 
+    @Test
+    @DisplayName("Deve enviar alerta pessoal só ao canal SSE do usuário destinatário")
+    void deveEnviarAlertaPessoalAoCanalDoUsuario() {
+        Unidade destino = new Unidade();
+        destino.setCodigo(3L);
+        destino.setSigla("DEST");
+        when(alertaService.salvar(any())).thenAnswer(invocation -> invocation.getArgument(0));
+
+        alertaAplicacaoService.criarAlertaPessoal(new Processo(), destino, destino, "123", "Avaliação de consenso criada");
+
+        ArgumentCaptor<AlertaDto> dto = ArgumentCaptor.forClass(AlertaDto.class);
+        verify(registroSseEmitter).transmitirParaUsuario(eq("123"), eq(AlertaAplicacaoService.EVENTO_ALERTA_CRIADO), dto.capture());
+        verify(registroSseEmitter, never()).transmitirParaUnidade(any(), any(), any());
+        assertThat(dto.getValue().descricao()).isEqualTo("Avaliação de consenso criada");
+    }
+
+    @Test
+    @DisplayName("Deve enviar alerta da unidade ao canal SSE da unidade só após o commit")
+    void deveEnviarAlertaDaUnidadeAposCommit() {
+        Unidade raiz = new Unidade();
+        raiz.setCodigo(1L);
+        raiz.setSigla("ADMIN");
+        Unidade destino = new Unidade();
+        destino.setCodigo(3L);
+        destino.setSigla("DEST");
+        when(unidadeService.buscarPorCodigo(1L)).thenReturn(raiz);
+        when(alertaService.salvar(any())).thenAnswer(invocation -> invocation.getArgument(0));
+        TransactionSynchronizationManager.initSynchronization();
+
+        alertaAplicacaoService.criarAlertaAdmin(new Processo(), destino, "Cadastro de atividades reaberto");
+
+        verifyNoInteractions(registroSseEmitter);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        verify(registroSseEmitter).transmitirParaUnidade(eq(3L), eq(AlertaAplicacaoService.EVENTO_ALERTA_CRIADO), any(AlertaDto.class));
+    }
+
     @Test
     @DisplayName("Deve criar alerta para participante do tipo raiz")
     void deveCriarAlertaParaParticipanteRaiz() {
@@ -529,6 +612,8 @@ class AlertaAplicacaoServiceTest {
                 });
     }
 
-
+    private static AlertaPainelQuery alertaPainel(Long codigo, LocalDateTime dataHora, LocalDateTime leitura) {
+        return new AlertaPainelQuery(codigo, dataHora, 10L, "Processo", SituacaoProcesso.EM_ANDAMENTO,
+                "ADMIN", "U1", "Alerta", leitura);
+    }
 }
-
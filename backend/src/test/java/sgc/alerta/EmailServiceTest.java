@@ -9,6 +9,8 @@ import org.springframework.mail.*;
 import org.springframework.mail.javamail.*;
 import sgc.comum.config.*;
 
+import java.util.*;
+
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
@@ -172,6 +174,67 @@ class EmailServiceTest {
         assertThat(captor.getValue().getSubject()).isEqualTo("[SGC] Aviso");
     }
 
+    @Test
+    @DisplayName("Deve enviar lote de e-mails HTML em uma única chamada SMTP")
+    void deveEnviarLoteDeEmailsHtmlEmUmaUnicaChamadaSmtp() {
+        List<MimeMessage> criadas = new ArrayList<>();
+        configurarMensagensDistintas(criadas);
+
+        Map<Integer, Exception> falhas = notificacaoServico.enviarEmailsHtml(List.of(
+                new MensagemEmailHtml(DESTINATARIO, "Primeiro", "<p>1</p>"),
+                new MensagemEmailHtml("invalido", "Ignorado", "<p>x</p>"),
+                new MensagemEmailHtml("outro@test.com", "Segundo", "<p>2</p>")));
+
+        assertThat(falhas).isEmpty();
+        assertThat(criadas).hasSize(2);
+        verify(enviadorEmail, times(1)).send(any(MimeMessage[].class));
+        verify(enviadorEmail, never()).send(any(MimeMessage.class));
+    }
+
+    @Test
+    @DisplayName("Deve mapear falhas parciais do lote para a posição da mensagem")
+    void deveMapearFalhasParciaisDoLoteParaAPosicaoDaMensagem() {
+        List<MimeMessage> criadas = new ArrayList<>();
+        configurarMensagensDistintas(criadas);
+        Exception recusa = new Exception("Caixa cheia");
+        doAnswer(invocation -> {
+            throw new MailSendException(Map.of(criadas.get(1), recusa));
+        }).when(enviadorEmail).send(any(MimeMessage[].class));
+
+        Map<Integer, Exception> falhas = notificacaoServico.enviarEmailsHtml(List.of(
+                new MensagemEmailHtml(DESTINATARIO, "Primeiro", "<p>1</p>"),
+                new MensagemEmailHtml("outro@test.com", "Segundo", "<p>2</p>")));
+
+        assertThat(falhas).containsExactly(entry(1, recusa));
+    }
+
+    @Test
+    @DisplayName("Deve marcar todo o lote como falho quando a conexão SMTP falhar")
+    void deveMarcarTodoOLoteComoFalhoQuandoAConexaoSmtpFalhar() {
+        configurarMensagensDistintas(new ArrayList<>());
+        MailSendException erro = new MailSendException("Conexão recusada");
+        doThrow(erro).when(enviadorEmail).send(any(MimeMessage[].class));
+
+        Map<Integer, Exception> falhas = notificacaoServico.enviarEmailsHtml(List.of(
+                new MensagemEmailHtml(DESTINATARIO, "Primeiro", "<p>1</p>"),
+                new MensagemEmailHtml("outro@test.com", "Segundo", "<p>2</p>")));
+
+        assertThat(falhas).containsOnly(entry(0, erro), entry(1, erro));
+    }
+
+    private void configurarMensagensDistintas(List<MimeMessage> criadas) {
+        ConfigAplicacao.Email emailConfig = new ConfigAplicacao.Email();
+        emailConfig.setRemetente("noreply@test.com");
+        emailConfig.setRemetenteNome("Remetente teste");
+        emailConfig.setAssuntoPrefixo("[SGC]");
+        when(config.getEmail()).thenReturn(emailConfig);
+        when(enviadorEmail.createMimeMessage()).thenAnswer(invocation -> {
+            MimeMessage mensagem = new MimeMessage((jakarta.mail.Session) null);
+            criadas.add(mensagem);
+            return mensagem;
+        });
+    }
+
     @Nested
     @DisplayName("Modo mock ativo")
     class ModoMockAtivo {
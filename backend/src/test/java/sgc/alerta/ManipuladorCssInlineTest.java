@@ -0,0 +1,124 @@
+package sgc.alerta;
+
+import org.jsoup.*;
+import org.jsoup.nodes.*;
+import org.junit.jupiter.api.*;
+import org.thymeleaf.context.*;
+import org.thymeleaf.spring6.*;
+import org.thymeleaf.templatemode.*;
+import org.thymeleaf.templateresolver.*;
+import sgc.comum.config.*;
+
+import java.io.*;
+import java.nio.charset.*;
+import java.nio.file.*;
+import java.util.*;
+import java.util.regex.*;
+import java.util.stream.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ManipuladorCssInline")
+class ManipuladorCssInlineTest {
+    private static final Path DIRETORIO_TEMPLATES = Paths.get("src", "main", "resources", "templates", "email");
+    private static final Pattern VARIAVEL = Pattern.compile("\\$\\{([a-zA-Z_][a-zA-Z0-9_]*)");
+
+    private final SpringTemplateEngine motorComInline = new ConfigThymeleaf().springTemplateEngine();
+
+    @Test
+    @DisplayName("Deve inlinar regras e manter no style apenas pseudo-classes e @media")
+    void deveInlinarRegrasEManterApenasNaoInlinaveis() {
+        String html = processarTexto("""
+                <html><head><style>
+                a { color: blue; }
+                .caixa p { margin: 0; }
+                .caixa > span { font-weight: 700; }
+                a:hover { color: red; }
+                @media (max-width: 640px) { .caixa { width: 100%; } }
+                </style></head>
+                <body><div class="caixa"><p>texto <span>x</span></p><span>y</span><a href="#">link</a></div></body></html>""");
+
+        Document documento = Jsoup.parse(html);
+        assertThat(documento.selectFirst("p").attr("style")).isEqualTo("margin: 0");
+        assertThat(documento.selectFirst("p span").hasAttr("style")).isFalse();
+        assertThat(documento.selectFirst("div > span").attr("style")).isEqualTo("font-weight: 700");
+        assertThat(documento.selectFirst("a").attr("style")).isEqualTo("color: blue");
+        assertThat(documento.selectFirst("style").data())
+                .contains("a:hover")
+                .contains("@media")
+                .doesNotContain(".caixa p");
+    }
+
+    @Test
+    @DisplayName("Estilo inline existente deve prevalecer sobre a folha de estilo")
+    void estiloInlineExistenteDevePrevalecer() {
+        String html = processarTexto("""
+                <html><head><style>p { color: red; margin: 0; }</style></head>
+                <body><p style="color: green">texto</p></body></html>""");
+
+        Document documento = Jsoup.parse(html);
+        assertThat(documento.selectFirst("p").attr("style")).isEqualTo("color: green; margin: 0");
+        assertThat(documento.select("style")).isEmpty();
+    }
+
+    @Test
+    @DisplayName("Templates de e-mail devem sair com os mesmos estilos do inliner por documento")
+    void templatesDevemSairComOsMesmosEstilosDoInlinerPorDocumento() throws IOException {
+        SpringTemplateEngine motorSemInline = new SpringTemplateEngine();
+        motorSemInline.addTemplateResolver(new ConfigThymeleaf().templateResolver());
+
+        List<Path> templates;
+        try (Stream<Path> arquivos = Files.list(DIRETORIO_TEMPLATES)) {
+            templates = arquivos
+                    .filter(path -> path.getFileName().toString().endsWith(".html"))
+                    .filter(path -> !path.getFileName().toString().equals("_layout.html"))
+                    .sorted()
+                    .toList();
+        }
+
+        assertThat(templates).isNotEmpty().allSatisfy(template -> {
+            String nome = template.getFileName().toString().replaceFirst("\\.html$", "");
+            Context contexto = contexto(template);
+            Document esperado = Jsoup.parse(InlinerCss.inlinar(motorSemInline.process(nome, contexto)));
+            Document obtido = Jsoup.parse(motorComInline.process(nome, contexto));
+
+            assertThat(estilos(obtido)).as(nome).isEqualTo(estilos(esperado));
+        });
+    }
+
+    private String processarTexto(String html) {
+        SpringTemplateEngine motor = new SpringTemplateEngine();
+        StringTemplateResolver resolver = new StringTemplateResolver();
+        resolver.setTemplateMode(TemplateMode.HTML);
+        motor.setTemplateResolver(resolver);
+        motor.addDialect(new DialetoCssInline());
+        return motor.process(html, new Context());
+    }
+
+    private static List<String> estilos(Document documento) {
+        List<String> estilos = new ArrayList<>();
+        documento.select("style").forEach(style -> estilos.add("<style>" + style.data().strip()));
+        documento.body().select("*").forEach(elemento ->
+                estilos.add(elemento.tagName() + "|" + elemento.attr("style")));
+        return estilos;
+    }
+
+    private static Context contexto(Path template) throws IOException {
+        Context contexto = new Context();
+        for (String lista : List.of("siglasUnidades", "siglasSubordinadas", "siglasUnidadesSubordinadas")) {
+            contexto.setVariable(lista, List.of("SESEL", "STIC"));
+        }
+        Matcher variaveis = VARIAVEL.matcher(Files.readString(template, StandardCharsets.UTF_8));
+        while (variaveis.find()) {
+            String nome = variaveis.group(1);
+            if (nome.equals("isParticipante") || nome.equals("hasSubordinadas")) {
+                contexto.setVariable(nome, true);
+            } else if (nome.equals("etapa")) {
+                contexto.setVariable(nome, 1);
+            } else {
+                contexto.setVariable(nome, "Exemplo");
+            }
+        }
+        return contexto;
+    }
+}
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import org.springframework.context.*;
 import org.springframework.dao.*;
 import sgc.alerta.model.*;
 
@@ -22,6 +23,8 @@ class NotificacaoServiceTest {
 
     @Mock
     private NotificacaoEmailRepo notificacaoEmailRepo;
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
 
     @Captor
     private ArgumentCaptor<NotificacaoEmail> notificacaoCaptor;
@@ -31,7 +34,8 @@ class NotificacaoServiceTest {
 
     @BeforeEach
     void setUp() {
-        service = new NotificacaoService(notificacaoEmailRepo, Clock.fixed(INSTANTE_FIXO, ZONA), alertaDtoMapper);
+        service = new NotificacaoService(
+                notificacaoEmailRepo, Clock.fixed(INSTANTE_FIXO, ZONA), alertaDtoMapper, eventPublisher);
     }
 
     @Test
@@ -58,6 +62,7 @@ class NotificacaoServiceTest {
             assertThat(notificacao.getChaveIdempotencia()).isEqualTo("chave-1");
             assertThat(notificacao.getUnidadeOrigemSigla()).isEqualTo("ADMIN");
         });
+        verify(eventPublisher).publishEvent(any(NotificacaoEmailEnfileirada.class));
     }
 
     @Test
@@ -80,6 +85,7 @@ class NotificacaoServiceTest {
 
         assertThat(resultado).isSameAs(existente);
         verify(notificacaoEmailRepo, never()).save(any());
+        verifyNoInteractions(eventPublisher);
     }
 
     @Test
@@ -105,66 +111,67 @@ class NotificacaoServiceTest {
     }
 
     @Test
-    @DisplayName("listarPendentes deve buscar pendentes e falhas temporarias vencidas")
-    void listarPendentesDeveBuscarPendentesEFalhasTemporariasVencidas() {
-        when(notificacaoEmailRepo.findBySituacaoInAndProximaTentativaEmLessThanEqualOrderByDataHoraCriacaoAsc(
-                anyCollection(),
-                any(),
-                any()
-        )).thenReturn(List.of());
-
-        service.listarPendentes(10);
-
-        verify(notificacaoEmailRepo).findBySituacaoInAndProximaTentativaEmLessThanEqualOrderByDataHoraCriacaoAsc(
-                eq(List.of(SituacaoNotificacao.PENDENTE, SituacaoNotificacao.FALHA_TEMPORARIA)),
-                eq(LocalDateTime.of(2026, 4, 21, 9, 0)),
-                any()
-        );
+    @DisplayName("reservarLote deve retornar notificacoes marcadas com o lote")
+    void reservarLoteDeveRetornarNotificacoesMarcadasComOLote() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        NotificacaoEmail notificacao = NotificacaoEmail.builder().codigo(10L).build();
+        when(notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(eq(agora), any())).thenReturn(List.of(10L, 11L));
+        when(notificacaoEmailRepo.reservarLote(eq(List.of(10L, 11L)), anyString(), eq(agora))).thenReturn(1);
+        when(notificacaoEmailRepo.findByLoteEnvioOrderByDataHoraCriacaoAsc(anyString())).thenReturn(List.of(notificacao));
+
+        List<NotificacaoEmail> lote = service.reservarLote(50);
+
+        assertThat(lote).containsExactly(notificacao);
+        verify(notificacaoEmailRepo).listarCodigosDisponiveisParaEnvio(eq(agora), argThat(pageable ->
+                pageable.getPageNumber() == 0 && pageable.getPageSize() == 50
+        ));
     }
 
     @Test
-    @DisplayName("listarPorSubprocesso deve limitar tamanho da consulta")
-    void listarPorSubprocessoDeveLimitarTamanhoDaConsulta() {
-        when(notificacaoEmailRepo.findBySubprocesso_CodigoOrderByDataHoraCriacaoDesc(eq(60000L), any()))
-                .thenReturn(List.of());
+    @DisplayName("reservarLote nao deve reservar quando nao houver notificacoes disponiveis")
+    void reservarLoteNaoDeveReservarQuandoNaoHouverDisponiveis() {
+        when(notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(any(), any())).thenReturn(List.of());
 
-        service.listarPorSubprocesso(60000L, 500);
+        assertThat(service.reservarLote(50)).isEmpty();
 
-        verify(notificacaoEmailRepo).findBySubprocesso_CodigoOrderByDataHoraCriacaoDesc(eq(60000L), argThat(pageable ->
-                pageable.getPageNumber() == 0 && pageable.getPageSize() == 100
-        ));
+        verify(notificacaoEmailRepo, never()).reservarLote(any(), any(), any());
     }
 
     @Test
-    @DisplayName("marcarEnviandoSeDisponivel deve capturar notificacao pendente")
-    void marcarEnviandoSeDisponivelDeveCapturarNotificacaoPendente() {
-        NotificacaoEmail notificacao = NotificacaoEmail.builder()
-                .codigo(10L)
-                .situacao(SituacaoNotificacao.PENDENTE)
-                .build();
-        when(notificacaoEmailRepo.marcarEnviandoSeDisponivel(10L, LocalDateTime.of(2026, 4, 21, 9, 0)))
-                .thenReturn(1);
+    @DisplayName("reservarLote deve devolver a fila as reservas expiradas antes de reservar")
+    void reservarLoteDeveLiberarReservasExpiradas() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        when(notificacaoEmailRepo.liberarReservasExpiradas(
+                eq(agora.minus(NotificacaoService.TEMPO_MAXIMO_RESERVA)), eq(agora), anyString(), eq(5))).thenReturn(3);
+        when(notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(any(), any())).thenReturn(List.of());
+
+        assertThat(service.reservarLote(50)).isEmpty();
+
+        InOrder ordem = inOrder(notificacaoEmailRepo);
+        ordem.verify(notificacaoEmailRepo).liberarReservasExpiradas(any(), any(), anyString(), anyInt());
+        ordem.verify(notificacaoEmailRepo).listarCodigosDisponiveisParaEnvio(any(), any());
+    }
 
-        boolean capturada = service.marcarEnviandoSeDisponivel(notificacao);
+    @Test
+    @DisplayName("buscarProximaTentativa deve consultar menor tentativa pendente")
+    void buscarProximaTentativaDeveConsultarMenorTentativaPendente() {
+        LocalDateTime proxima = LocalDateTime.of(2026, 4, 21, 9, 5);
+        when(notificacaoEmailRepo.buscarProximaTentativaPendente()).thenReturn(Optional.of(proxima));
 
-        assertThat(capturada).isTrue();
-        assertThat(notificacao.getSituacao()).isEqualTo(SituacaoNotificacao.ENVIANDO);
+        assertThat(service.buscarProximaTentativa()).contains(proxima);
     }
 
     @Test
-    @DisplayName("marcarEnviandoSeDisponivel deve rejeitar notificacao ja capturada")
-    void marcarEnviandoSeDisponivelDeveRejeitarNotificacaoJaCapturada() {
-        NotificacaoEmail notificacao = NotificacaoEmail.builder()
-                .codigo(10L)
-                .situacao(SituacaoNotificacao.PENDENTE)
-                .build();
-        when(notificacaoEmailRepo.marcarEnviandoSeDisponivel(10L, LocalDateTime.of(2026, 4, 21, 9, 0)))
-                .thenReturn(0);
+    @DisplayName("listarPorSubprocesso deve limitar tamanho da consulta")
+    void listarPorSubprocessoDeveLimitarTamanhoDaConsulta() {
+        when(notificacaoEmailRepo.findBySubprocesso_CodigoOrderByDataHoraCriacaoDesc(eq(60000L), any()))
+                .thenReturn(List.of());
 
-        boolean capturada = service.marcarEnviandoSeDisponivel(notificacao);
+        service.listarPorSubprocesso(60000L, 500);
 
-        assertThat(capturada).isFalse();
-        assertThat(notificacao.getSituacao()).isEqualTo(SituacaoNotificacao.PENDENTE);
+        verify(notificacaoEmailRepo).findBySubprocesso_CodigoOrderByDataHoraCriacaoDesc(eq(60000L), argThat(pageable ->
+                pageable.getPageNumber() == 0 && pageable.getPageSize() == 100
+        ));
     }
 
     @Test
@@ -210,8 +217,10 @@ class NotificacaoServiceTest {
     void marcarFalhaDeveAgendarRetryAntesDoLimite() {
         NotificacaoEmail notificacao = NotificacaoEmail.builder()
                 .codigo(10L)
+                .loteEnvio("lote-1")
                 .tentativas(0)
                 .build();
+        when(notificacaoEmailRepo.marcarFalha(any())).thenReturn(1);
 
         service.marcarFalha(notificacao, new RuntimeException("SMTP indisponivel"));
 
@@ -221,6 +230,7 @@ class NotificacaoServiceTest {
         assertThat(notificacao.getProximaTentativaEm()).isEqualTo(LocalDateTime.of(2026, 4, 21, 9, 0, 20));
         verify(notificacaoEmailRepo).marcarFalha(argThat(cmd ->
                 cmd.codigo().equals(10L)
+                        && "lote-1".equals(cmd.lote())
                         && cmd.situacao() == SituacaoNotificacao.FALHA_TEMPORARIA
                         && cmd.tentativas() == 1
                         && cmd.ultimoErro().equals("SMTP indisponivel")
@@ -1,82 +1,235 @@
 package sgc.alerta;
 
+import io.micrometer.core.instrument.simple.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import sgc.alerta.model.*;
 
+import java.time.*;
 import java.util.*;
+import java.util.concurrent.atomic.*;
 
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("NotificacaoWorker")
 
 class NotificacaoWorkerTest {
+    private static final LocalDateTime AGORA = LocalDateTime.of(2026, 4, 21, 9, 0);
+
     @Mock
     private NotificacaoService notificacaoService;
     @Mock
     private EmailService emailService;
 
+    private SimpleMeterRegistry meterRegistry;
     private NotificacaoWorker worker;
 
     @BeforeEach
     void setUp() {
-        worker = new NotificacaoWorker(notificacaoService, emailService, 20);
+        meterRegistry = new SimpleMeterRegistry();
+        worker = criarWorker(8, 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        worker.encerrar();
     }
 
     @Test
     @DisplayName("processarPendentes deve enviar e marcar sucesso")
     void processarPendentesDeveEnviarEMarcarSucesso() {
-        NotificacaoEmail notificacao = notificacao();
-        when(notificacaoService.listarPendentes(20)).thenReturn(List.of(notificacao));
-        when(notificacaoService.marcarEnviandoSeDisponivel(notificacao)).thenReturn(true);
+        NotificacaoEmail notificacao = notificacao(10L, "destino@tre-pe.jus.br");
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(notificacao));
+        when(emailService.enviarEmailsHtml(anyList())).thenReturn(Map.of());
 
         worker.processarPendentes();
 
-        verify(notificacaoService).marcarEnviandoSeDisponivel(notificacao);
-        verify(emailService).enviarEmailHtml("destino@tre-pe.jus.br", "Assunto", "<p>corpo</p>");
+        verify(emailService).enviarEmailsHtml(List.of(
+                new MensagemEmailHtml("destino@tre-pe.jus.br", "Assunto", "<p>corpo</p>")));
         verify(notificacaoService).marcarEnviado(notificacao);
         verify(notificacaoService, never()).marcarFalha(any(), any());
+        assertThat(meterRegistry.get("sgc.notificacao.email.envios").tag("resultado", "sucesso").counter().count())
+                .isEqualTo(1.0);
+        assertThat(meterRegistry.get("sgc.notificacao.email.atraso").timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("processarPendentes deve marcar falha do grupo cuja tarefa terminou com erro nao tratado")
+    void processarPendentesDeveMarcarFalhaQuandoTarefaDoGrupoTerminarComErro() {
+        NotificacaoEmail primeira = notificacao(10L, "a@tre-pe.jus.br");
+        NotificacaoEmail segunda = notificacao(11L, "b@tre-pe.jus.br");
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(primeira, segunda));
+        when(emailService.enviarEmailsHtml(anyList())).thenThrow(new StackOverflowError("estouro"));
+
+        worker.processarPendentes();
+
+        verify(notificacaoService).marcarFalha(eq(primeira), any(IllegalStateException.class));
+        verify(notificacaoService).marcarFalha(eq(segunda), any(IllegalStateException.class));
+        verify(notificacaoService, never()).marcarEnviado(any());
     }
 
     @Test
-    @DisplayName("processarPendentes deve marcar falha quando SMTP falhar")
+    @DisplayName("processarPendentes deve marcar falha de todo o grupo quando SMTP falhar")
     void processarPendentesDeveMarcarFalhaQuandoSmtpFalhar() {
-        NotificacaoEmail notificacao = notificacao();
+        NotificacaoEmail primeira = notificacao(10L, "a@tre-pe.jus.br");
+        NotificacaoEmail segunda = notificacao(11L, "b@tre-pe.jus.br");
         RuntimeException erro = new RuntimeException("SMTP fora");
-        when(notificacaoService.listarPendentes(20)).thenReturn(List.of(notificacao));
-        when(notificacaoService.marcarEnviandoSeDisponivel(notificacao)).thenReturn(true);
-        doThrow(erro).when(emailService).enviarEmailHtml("destino@tre-pe.jus.br", "Assunto", "<p>corpo</p>");
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(primeira, segunda));
+        when(emailService.enviarEmailsHtml(anyList())).thenThrow(erro);
 
         worker.processarPendentes();
 
-        verify(notificacaoService).marcarEnviandoSeDisponivel(notificacao);
-        verify(notificacaoService).marcarFalha(notificacao, erro);
+        verify(notificacaoService).marcarFalha(primeira, erro);
+        verify(notificacaoService).marcarFalha(segunda, erro);
         verify(notificacaoService, never()).marcarEnviado(any());
+        assertThat(meterRegistry.get("sgc.notificacao.email.envios").tag("resultado", "falha").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    @DisplayName("processarPendentes deve marcar falha apenas das mensagens recusadas")
+    void processarPendentesDeveMarcarFalhaApenasDasMensagensRecusadas() {
+        worker = criarWorker(8, 1);
+        NotificacaoEmail aceita = notificacao(10L, "a@tre-pe.jus.br");
+        NotificacaoEmail recusada = notificacao(11L, "b@tre-pe.jus.br");
+        Exception erro = new Exception("Caixa cheia");
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(aceita, recusada));
+        when(emailService.enviarEmailsHtml(anyList())).thenReturn(Map.of(1, erro));
+
+        worker.processarPendentes();
+
+        verify(emailService).enviarEmailsHtml(argThat(mensagens -> mensagens.size() == 2));
+        verify(notificacaoService).marcarEnviado(aceita);
+        verify(notificacaoService).marcarFalha(recusada, erro);
+    }
+
+    @Test
+    @DisplayName("processarPendentes deve separar envios por domínio e limite por conexão")
+    void processarPendentesDeveSepararEnviosPorDominio() {
+        List<NotificacaoEmail> lote = List.of(
+                notificacao(1L, "a@tre-pe.jus.br"),
+                notificacao(2L, "b@tre-pe.jus.br"),
+                notificacao(3L, "c@tre-pe.jus.br"),
+                notificacao(4L, "x@externo.gov.br"));
+        when(notificacaoService.reservarLote(20)).thenReturn(lote);
+        when(emailService.enviarEmailsHtml(anyList())).thenReturn(Map.of());
+
+        worker.processarPendentes();
+
+        verify(emailService, times(3)).enviarEmailsHtml(anyList());
+        verify(emailService).enviarEmailsHtml(argThat(mensagens -> mensagens.size() == 2
+                && mensagens.getFirst().destinatario().equals("a@tre-pe.jus.br")));
+        verify(emailService).enviarEmailsHtml(argThat(mensagens -> mensagens.size() == 1
+                && mensagens.getFirst().destinatario().equals("c@tre-pe.jus.br")));
+        verify(emailService).enviarEmailsHtml(argThat(mensagens -> mensagens.size() == 1
+                && mensagens.getFirst().destinatario().equals("x@externo.gov.br")));
+        lote.forEach(n -> verify(notificacaoService).marcarEnviado(n));
     }
 
     @Test
-    @DisplayName("processarPendentes deve ignorar notificacao ja capturada por outro worker")
-    void processarPendentesDeveIgnorarNotificacaoJaCapturadaPorOutroWorker() {
-        NotificacaoEmail notificacao = notificacao();
-        when(notificacaoService.listarPendentes(20)).thenReturn(List.of(notificacao));
-        when(notificacaoService.marcarEnviandoSeDisponivel(notificacao)).thenReturn(false);
+    @DisplayName("processarPendentes deve respeitar concorrência máxima")
+    void processarPendentesDeveRespeitarConcorrenciaMaxima() {
+        worker = criarWorker(1, 1);
+        AtomicInteger simultaneos = new AtomicInteger();
+        AtomicInteger pico = new AtomicInteger();
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(
+                notificacao(1L, "a@um.jus.br"),
+                notificacao(2L, "b@dois.jus.br"),
+                notificacao(3L, "c@tres.jus.br")));
+        when(emailService.enviarEmailsHtml(anyList())).thenAnswer(invocation -> {
+            pico.accumulateAndGet(simultaneos.incrementAndGet(), Math::max);
+            Thread.sleep(20);
+            simultaneos.decrementAndGet();
+            return Map.of();
+        });
 
         worker.processarPendentes();
 
-        verify(emailService, never()).enviarEmailHtml(any(), any(), any());
+        verify(emailService, times(3)).enviarEmailsHtml(anyList());
+        assertThat(pico.get()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("processarPendentes deve reservar novo lote enquanto o anterior vier cheio")
+    void processarPendentesDeveReservarNovoLoteEnquantoAnteriorVierCheio() {
+        List<NotificacaoEmail> cheio = new ArrayList<>();
+        for (long i = 0; i < 20; i++) {
+            cheio.add(notificacao(i, "destino" + i + "@tre-pe.jus.br"));
+        }
+        NotificacaoEmail restante = notificacao(99L, "restante@tre-pe.jus.br");
+        when(notificacaoService.reservarLote(20)).thenReturn(cheio, List.of(restante));
+        when(emailService.enviarEmailsHtml(anyList())).thenReturn(Map.of());
+
+        worker.processarPendentes();
+
+        verify(notificacaoService, times(2)).reservarLote(20);
+        verify(notificacaoService, times(21)).marcarEnviado(any());
+    }
+
+    @Test
+    @DisplayName("processarPendentes nao deve enviar quando nao houver lote")
+    void processarPendentesNaoDeveEnviarQuandoNaoHouverLote() {
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of());
+
+        worker.processarPendentes();
+
+        verifyNoInteractions(emailService);
         verify(notificacaoService, never()).marcarEnviado(any());
-        verify(notificacaoService, never()).marcarFalha(any(), any());
     }
 
-    private NotificacaoEmail notificacao() {
+    @Test
+    @DisplayName("aoEnfileirar deve disparar ciclo imediatamente")
+    void aoEnfileirarDeveDispararCicloImediatamente() {
+        NotificacaoEmail notificacao = notificacao(10L, "destino@tre-pe.jus.br");
+        when(notificacaoService.reservarLote(20)).thenReturn(List.of(notificacao), List.of());
+        when(emailService.enviarEmailsHtml(anyList())).thenReturn(Map.of());
+
+        worker.aoEnfileirar(new NotificacaoEmailEnfileirada(10L));
+
+        verify(notificacaoService, timeout(2000)).marcarEnviado(notificacao);
+        verify(notificacaoService, timeout(2000)).buscarProximaTentativa();
+        assertThat(meterRegistry.get("sgc.notificacao.email.despertares").tag("origem", "enfileiramento")
+                .counter().count()).isEqualTo(1.0);
+    }
+
+    @Test
+    @DisplayName("calcularEspera deve aguardar ate a proxima retentativa")
+    void calcularEsperaDeveAguardarAteAProximaRetentativa() {
+        when(notificacaoService.buscarProximaTentativa()).thenReturn(Optional.of(AGORA.plusSeconds(40)));
+
+        assertThat(worker.calcularEspera()).isEqualTo(Duration.ofSeconds(40));
+    }
+
+    @Test
+    @DisplayName("calcularEspera deve respeitar espera minima e intervalo maximo")
+    void calcularEsperaDeveRespeitarEsperaMinimaEIntervaloMaximo() {
+        when(notificacaoService.buscarProximaTentativa()).thenReturn(
+                Optional.of(AGORA.minusMinutes(1)),
+                Optional.of(AGORA.plusHours(1)),
+                Optional.empty());
+
+        assertThat(worker.calcularEspera()).isEqualTo(Duration.ofSeconds(1));
+        assertThat(worker.calcularEspera()).isEqualTo(Duration.ofMinutes(5));
+        assertThat(worker.calcularEspera()).isEqualTo(Duration.ofMinutes(5));
+    }
+
+    private NotificacaoWorker criarWorker(int concorrenciaMaxima, int concorrenciaPorDominio) {
+        Clock clock = Clock.fixed(AGORA.atZone(ZoneId.systemDefault()).toInstant(), ZoneId.systemDefault());
+        return new NotificacaoWorker(notificacaoService, emailService, clock, meterRegistry,
+                20, concorrenciaMaxima, concorrenciaPorDominio, 10, 300_000);
+    }
+
+    private NotificacaoEmail notificacao(Long codigo, String destinatario) {
         return NotificacaoEmail.builder()
-                .codigo(10L)
-                .destinatario("destino@tre-pe.jus.br")
+                .codigo(codigo)
+                .destinatario(destinatario)
                 .assunto("Assunto")
                 .corpoHtml("<p>corpo</p>")
+                .dataHoraCriacao(AGORA.minusMinutes(1))
                 .build();
     }
 }
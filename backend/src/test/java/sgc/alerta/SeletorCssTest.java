@@ -0,0 +1,49 @@
+package sgc.alerta;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SeletorCss")
+class SeletorCssTest {
+    private static final SeletorCss.ElementoCss TABELA = SeletorCss.ElementoCss.de("table", null, "container");
+    private static final SeletorCss.ElementoCss CELULA = SeletorCss.ElementoCss.de("TD", null, "content destaque");
+    private static final SeletorCss.ElementoCss PARAGRAFO = SeletorCss.ElementoCss.de("p", "intro", null);
+
+    @Test
+    @DisplayName("Deve casar seletor de descendência")
+    void deveCasarSeletorDeDescendencia() {
+        SeletorCss seletor = SeletorCss.compilar(".container p#intro").orElseThrow();
+
+        assertThat(seletor.casa(PARAGRAFO, List.of(TABELA, CELULA))).isTrue();
+        assertThat(seletor.casa(PARAGRAFO, List.of(CELULA))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve exigir pai imediato no seletor de filiação")
+    void deveExigirPaiImediatoNoSeletorDeFiliacao() {
+        SeletorCss seletor = SeletorCss.compilar("table.container > p").orElseThrow();
+
+        assertThat(seletor.casa(PARAGRAFO, List.of(TABELA))).isTrue();
+        assertThat(seletor.casa(PARAGRAFO, List.of(TABELA, CELULA))).isFalse();
+    }
+
+    @Test
+    @DisplayName("Deve casar múltiplas classes e tipo sem diferenciar maiúsculas")
+    void deveCasarMultiplasClassesETipo() {
+        assertThat(SeletorCss.compilar("td.destaque.content").orElseThrow().casa(CELULA, List.of())).isTrue();
+        assertThat(SeletorCss.compilar("*.content").orElseThrow().casa(CELULA, List.of())).isTrue();
+        assertThat(SeletorCss.compilar("td.ausente").orElseThrow().casa(CELULA, List.of())).isFalse();
+    }
+
+    @Test
+    @DisplayName("Não deve compilar sintaxe fora do subconjunto suportado")
+    void naoDeveCompilarSintaxeNaoSuportada() {
+        assertThat(SeletorCss.compilar("a[href]")).isEmpty();
+        assertThat(SeletorCss.compilar("p + p")).isEmpty();
+        assertThat(SeletorCss.compilar("> p")).isEmpty();
+        assertThat(SeletorCss.compilar("")).isEmpty();
+    }
+}
@@ -6,8 +6,12 @@ import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.test.context.*;
 import org.springframework.data.domain.*;
 import org.springframework.transaction.annotation.*;
+import sgc.alerta.dto.*;
 import sgc.organizacao.model.*;
 
+import java.time.*;
+import java.util.*;
+
 import static org.assertj.core.api.Assertions.*;
 
 @SpringBootTest
@@ -59,7 +63,7 @@ class AlertaRepoTest {
                 .unidadeOrigem(unidadeRepo.findById(1L).orElseThrow())
                 .usuarioDestinoTitulo("8")
                 .descricao("Alerta pessoal")
-                .dataHora(java.time.LocalDateTime.now())
+                .dataHora(LocalDateTime.now())
                 .build();
         Alerta salvo = alertaRepo.save(alerta);
 
@@ -67,4 +71,54 @@ class AlertaRepoTest {
                 .extracting(Alerta::getCodigo)
                 .contains(salvo.getCodigo());
     }
+
+    @Test
+    @DisplayName("deve paginar o painel da gestao por cursor em (dataHora, codigo) decrescente")
+    void devePaginarPainelDaGestaoPorCursor() {
+        LocalDateTime dataHora = LocalDateTime.of(2999, 1, 1, 12, 0);
+        Unidade origem = unidadeRepo.findById(1L).orElseThrow();
+        Unidade destino = unidadeRepo.findById(6L).orElseThrow();
+        List<Long> codigos = alertaRepo.saveAll(List.of(
+                        alertaColetivo(origem, destino, dataHora, "Primeiro"),
+                        alertaColetivo(origem, destino, dataHora, "Segundo"),
+                        alertaColetivo(origem, destino, dataHora.minusMinutes(1), "Terceiro")))
+                .stream()
+                .map(Alerta::getCodigo)
+                .toList();
+
+        List<AlertaPainelQuery> primeiraPagina = alertaRepo.listarPainelDaGestao(
+                6L, "8", LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE, PageRequest.of(0, 2));
+        AlertaPainelQuery ultimo = primeiraPagina.getLast();
+        List<AlertaPainelQuery> segundaPagina = alertaRepo.listarPainelDaGestao(
+                6L, "8", ultimo.dataHora(), ultimo.codigo(), PageRequest.of(0, 1));
+
+        assertThat(primeiraPagina)
+                .extracting(AlertaPainelQuery::codigo)
+                .containsExactly(codigos.get(1), codigos.get(0));
+        assertThat(segundaPagina)
+                .extracting(AlertaPainelQuery::codigo)
+                .containsExactly(codigos.get(2));
+        assertThat(primeiraPagina.getFirst().origemSigla()).isEqualTo(origem.getSigla());
+        assertThat(primeiraPagina.getFirst().destinoSigla()).isEqualTo(destino.getSigla());
+        assertThat(primeiraPagina.getFirst().dataHoraLeitura()).isNull();
+    }
+
+    @Test
+    @DisplayName("deve listar no painel do servidor apenas os alertas pessoais")
+    void deveListarPainelDoServidorApenasPessoais() {
+        assertThat(alertaRepo.listarPainelDoUsuario(
+                "8", LocalDateTime.of(9999, 1, 1, 0, 0), Long.MAX_VALUE, PageRequest.of(0, 10)))
+                .extracting(AlertaPainelQuery::codigo)
+                .contains(70002L)
+                .doesNotContain(70003L);
+    }
+
+    private static Alerta alertaColetivo(Unidade origem, Unidade destino, LocalDateTime dataHora, String descricao) {
+        return Alerta.builder()
+                .unidadeOrigem(origem)
+                .unidadeDestino(destino)
+                .descricao(descricao)
+                .dataHora(dataHora)
+                .build();
+    }
 }
@@ -44,25 +44,19 @@ class NotificacaoEmailRepoTest {
     }
 
     @Test
-    @DisplayName("deve listar notificacoes pendentes vencidas")
-    void deveListarNotificacoesPendentesVencidas() {
+    @DisplayName("deve listar codigos de notificacoes pendentes vencidas")
+    void deveListarCodigosDeNotificacoesPendentesVencidas() {
         LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
-        notificacaoEmailRepo.save(criarNotificacao("chave-repo-vencida"));
+        NotificacaoEmail vencida = notificacaoEmailRepo.save(criarNotificacao("chave-repo-vencida"));
         NotificacaoEmail futura = criarNotificacao("chave-repo-futura");
         futura.setProximaTentativaEm(agora.plusMinutes(1));
         notificacaoEmailRepo.save(futura);
 
-        List<NotificacaoEmail> pendentes = notificacaoEmailRepo
-                .findBySituacaoInAndProximaTentativaEmLessThanEqualOrderByDataHoraCriacaoAsc(
-                        List.of(SituacaoNotificacao.PENDENTE, SituacaoNotificacao.FALHA_TEMPORARIA),
-                        agora,
-                        PageRequest.of(0, 10)
-                );
+        List<Long> disponiveis = notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(agora, PageRequest.of(0, 100));
 
-        assertThat(pendentes)
-                .extracting(NotificacaoEmail::getChaveIdempotencia)
-                .contains("chave-repo-vencida")
-                .doesNotContain("chave-repo-futura");
+        assertThat(disponiveis)
+                .contains(vencida.getCodigo())
+                .doesNotContain(futura.getCodigo());
     }
 
     @Test
@@ -107,42 +101,89 @@ class NotificacaoEmailRepoTest {
     }
 
     @Test
-    @DisplayName("deve capturar notificacao disponivel de forma atomica")
-    void deveCapturarNotificacaoDisponivelDeFormaAtomica() {
-        NotificacaoEmail notificacao = notificacaoEmailRepo.save(criarNotificacao("chave-repo-claim"));
+    @DisplayName("deve reservar lote apenas com notificacoes disponiveis")
+    void deveReservarLoteApenasComNotificacoesDisponiveis() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        NotificacaoEmail disponivel = notificacaoEmailRepo.save(criarNotificacao("chave-repo-lote-disponivel"));
+        NotificacaoEmail enviando = criarNotificacao("chave-repo-lote-enviando");
+        enviando.setSituacao(SituacaoNotificacao.ENVIANDO);
+        notificacaoEmailRepo.save(enviando);
 
-        int capturadas = notificacaoEmailRepo.marcarEnviandoSeDisponivel(
-                notificacao.getCodigo(),
-                LocalDateTime.of(2026, 4, 21, 9, 0)
+        int reservadas = notificacaoEmailRepo.reservarLote(
+                List.of(disponivel.getCodigo(), enviando.getCodigo()),
+                "lote-repo",
+                agora
         );
 
-        assertThat(capturadas).isOne();
-        assertThat(notificacaoEmailRepo.findById(notificacao.getCodigo())).get()
+        assertThat(reservadas).isOne();
+        assertThat(notificacaoEmailRepo.findByLoteEnvioOrderByDataHoraCriacaoAsc("lote-repo"))
+                .singleElement()
+                .satisfies(notificacao -> {
+                    assertThat(notificacao.getCodigo()).isEqualTo(disponivel.getCodigo());
+                    assertThat(notificacao.getSituacao()).isEqualTo(SituacaoNotificacao.ENVIANDO);
+                });
+        assertThat(notificacaoEmailRepo.listarCodigosDisponiveisParaEnvio(agora, PageRequest.of(0, 100)))
+                .doesNotContain(disponivel.getCodigo(), enviando.getCodigo());
+    }
+
+    @Test
+    @DisplayName("deve devolver a fila apenas reservas expiradas")
+    void deveLiberarApenasReservasExpiradas() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        NotificacaoEmail expirada = notificacaoEmailRepo.save(criarNotificacao("chave-repo-reserva-expirada"));
+        NotificacaoEmail recente = notificacaoEmailRepo.save(criarNotificacao("chave-repo-reserva-recente"));
+        notificacaoEmailRepo.reservarLote(List.of(expirada.getCodigo()), "lote-antigo", agora.minusHours(1));
+        notificacaoEmailRepo.reservarLote(List.of(recente.getCodigo()), "lote-recente", agora);
+
+        int liberadas = notificacaoEmailRepo.liberarReservasExpiradas(agora.minusMinutes(15), agora, "expirada", 5);
+
+        assertThat(liberadas).isOne();
+        assertThat(notificacaoEmailRepo.findById(expirada.getCodigo())).get().satisfies(notificacao -> {
+            assertThat(notificacao.getSituacao()).isEqualTo(SituacaoNotificacao.FALHA_TEMPORARIA);
+            assertThat(notificacao.getTentativas()).isOne();
+            assertThat(notificacao.getProximaTentativaEm()).isEqualTo(agora);
+            assertThat(notificacao.getLoteEnvio()).isNull();
+            assertThat(notificacao.getUltimoErro()).isEqualTo("expirada");
+        });
+        assertThat(notificacaoEmailRepo.findById(recente.getCodigo())).get()
                 .extracting(NotificacaoEmail::getSituacao)
                 .isEqualTo(SituacaoNotificacao.ENVIANDO);
     }
 
     @Test
-    @DisplayName("nao deve capturar notificacao futura ou ja capturada")
-    void naoDeveCapturarNotificacaoFuturaOuJaCapturada() {
-        NotificacaoEmail futura = criarNotificacao("chave-repo-futura-claim");
-        futura.setProximaTentativaEm(LocalDateTime.of(2026, 4, 21, 10, 0));
-        notificacaoEmailRepo.save(futura);
-        NotificacaoEmail enviando = criarNotificacao("chave-repo-enviando-claim");
-        enviando.setSituacao(SituacaoNotificacao.ENVIANDO);
-        notificacaoEmailRepo.save(enviando);
+    @DisplayName("deve encerrar como falha definitiva a reserva expirada que atinge o limite de tentativas")
+    void deveEncerrarReservaExpiradaNoLimiteDeTentativas() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        NotificacaoEmail notificacao = criarNotificacao("chave-repo-reserva-limite");
+        notificacao.setTentativas(4);
+        NotificacaoEmail salva = notificacaoEmailRepo.save(notificacao);
+        notificacaoEmailRepo.reservarLote(List.of(salva.getCodigo()), "lote-antigo", agora.minusHours(1));
 
-        int futurasCapturadas = notificacaoEmailRepo.marcarEnviandoSeDisponivel(
-                futura.getCodigo(),
-                LocalDateTime.of(2026, 4, 21, 9, 0)
-        );
-        int enviandoCapturadas = notificacaoEmailRepo.marcarEnviandoSeDisponivel(
-                enviando.getCodigo(),
-                LocalDateTime.of(2026, 4, 21, 9, 0)
-        );
+        notificacaoEmailRepo.liberarReservasExpiradas(agora.minusMinutes(15), agora, "expirada", 5);
+
+        assertThat(notificacaoEmailRepo.findById(salva.getCodigo())).get().satisfies(encerrada -> {
+            assertThat(encerrada.getSituacao()).isEqualTo(SituacaoNotificacao.FALHA_DEFINITIVA);
+            assertThat(encerrada.getTentativas()).isEqualTo(5);
+            assertThat(encerrada.getProximaTentativaEm()).isNull();
+        });
+    }
 
-        assertThat(futurasCapturadas).isZero();
-        assertThat(enviandoCapturadas).isZero();
+    @Test
+    @DisplayName("nao deve registrar resultado de notificacao reservada por outro lote")
+    void naoDeveRegistrarResultadoDeOutroLote() {
+        LocalDateTime agora = LocalDateTime.of(2026, 4, 21, 9, 0);
+        NotificacaoEmail salva = notificacaoEmailRepo.save(criarNotificacao("chave-repo-outro-lote"));
+        notificacaoEmailRepo.reservarLote(List.of(salva.getCodigo()), "lote-atual", agora);
+
+        int enviadas = notificacaoEmailRepo.marcarEnviado(
+                new NotificacaoEmailRepo.MarcarEnviadoCommand(salva.getCodigo(), "lote-expirado", agora));
+        int falhas = notificacaoEmailRepo.marcarFalha(new NotificacaoEmailRepo.MarcarFalhaCommand(
+                salva.getCodigo(), "lote-expirado", SituacaoNotificacao.FALHA_TEMPORARIA, 1, "erro", agora));
+
+        assertThat(enviadas).isZero();
+        assertThat(falhas).isZero();
+        assertThat(notificacaoEmailRepo.marcarEnviado(
+                new NotificacaoEmailRepo.MarcarEnviadoCommand(salva.getCodigo(), "lote-atual", agora))).isOne();
     }
 
     @Test
@@ -0,0 +1,32 @@
+package sgc.comum.config;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("CacheConfig")
+class CacheConfigTest {
+
+    @Test
+    @DisplayName("todo cache registrado deve declarar suas fontes")
+    void todoCacheDeveDeclararFontes() {
+        assertThat(CacheConfig.DEPENDENCIAS.keySet())
+                .containsExactlyInAnyOrderElementsOf(new CacheConfig().cacheManager().getCacheNames());
+    }
+
+    @Test
+    @DisplayName("alteração em unidade_mapa deve invalidar apenas o cache de unidades com mapa")
+    void unidadeMapaDeveInvalidarApenasUnidadesComMapa() {
+        assertThat(CacheConfig.cachesDependentes(List.of(CacheConfig.FonteCache.UNIDADE_MAPA)))
+                .containsExactly(CacheConfig.CACHE_UNIDADES_COM_MAPA);
+    }
+
+    @Test
+    @DisplayName("alteração de administrador deve invalidar os perfis e autorizações")
+    void administradorDeveInvalidarPerfis() {
+        assertThat(CacheConfig.cachesDependentes(List.of(CacheConfig.FonteCache.ADMINISTRADOR)))
+                .containsExactlyInAnyOrder(CacheConfig.CACHE_VW_USUARIO_PERFIL, CacheConfig.CACHE_USUARIO_AUTORIZACOES);
+    }
+}
@@ -0,0 +1,46 @@
+package sgc.comum.util;
+
+import org.junit.jupiter.api.*;
+import org.slf4j.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("Testes do contexto de exemplares por correlação")
+class ExemplarCorrelacaoTest {
+    private final ExemplarCorrelacao exemplar = new ExemplarCorrelacao();
+
+    @AfterEach
+    void limparMdc() {
+        MDC.remove(FiltroMonitoramentoHttp.MDC_CORRELACAO_ID);
+    }
+
+    @Test
+    @DisplayName("Deve usar o identificador de correlação como trace e span")
+    void deveUsarCorrelacaoComoTraceESpan() {
+        MDC.put(FiltroMonitoramentoHttp.MDC_CORRELACAO_ID, "corr-123");
+
+        assertThat(exemplar.getCurrentTraceId()).isEqualTo("corr-123");
+        assertThat(exemplar.getCurrentSpanId()).isEqualTo("corr-123");
+        assertThat(exemplar.isCurrentSpanSampled()).isTrue();
+    }
+
+    @Test
+    @DisplayName("Deve manter os rótulos do exemplar dentro do limite do OpenMetrics")
+    void deveLimitarTamanhoDoIdentificador() {
+        MDC.put(FiltroMonitoramentoHttp.MDC_CORRELACAO_ID, "a".repeat(64));
+
+        String traceId = exemplar.getCurrentTraceId();
+        String spanId = exemplar.getCurrentSpanId();
+
+        assertThat(traceId).hasSize(ExemplarCorrelacao.TAMANHO_MAXIMO_ID);
+        assertThat("trace_id".length() + traceId.length() + "span_id".length() + spanId.length())
+                .isLessThanOrEqualTo(128);
+    }
+
+    @Test
+    @DisplayName("Não deve anexar exemplar fora de requisições")
+    void naoDeveAnexarExemplarSemCorrelacao() {
+        assertThat(exemplar.getCurrentTraceId()).isNull();
+        assertThat(exemplar.isCurrentSpanSampled()).isFalse();
+    }
+}
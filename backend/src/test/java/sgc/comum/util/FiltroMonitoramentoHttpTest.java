@@ -1,10 +1,13 @@
 package sgc.comum.util;
 
+import io.micrometer.core.instrument.*;
+import io.micrometer.core.instrument.simple.*;
 import jakarta.servlet.*;
 import jakarta.servlet.http.*;
 import org.jspecify.annotations.*;
 import org.junit.jupiter.api.*;
 import org.springframework.mock.web.*;
+import org.springframework.web.servlet.*;
 
 import java.io.*;
 import java.util.*;
@@ -20,7 +23,7 @@ class FiltroMonitoramentoHttpTest {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/processos");
         request.addHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID, "corr-123");
         MockHttpServletResponse response = new MockHttpServletResponse();
@@ -44,7 +47,7 @@ class FiltroMonitoramentoHttpTest {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/processos");
         request.setQueryString("pagina=1");
         MockHttpServletResponse response = new MockHttpServletResponse();
@@ -75,7 +78,7 @@ class FiltroMonitoramentoHttpTest {
         properties.setModo(MonitoramentoProperties.Modo.SIM);
         properties.setTempoHttpLentoMs(1);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/processos");
         request.setQueryString("param1=valor1");
         MockHttpServletResponse response = new MockHttpServletResponse();
@@ -116,7 +119,7 @@ class FiltroMonitoramentoHttpTest {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
@@ -128,19 +131,85 @@ class FiltroMonitoramentoHttpTest {
     }
 
     @Test
-    @DisplayName("Deve ser inativo")
-    void deveSerInativo() throws ServletException, IOException {
+    @DisplayName("Deve propagar correlacao e medir mesmo com log de lentidao desligado")
+    void deveMedirComLogDesligado() throws ServletException, IOException {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.NAO);
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, registry);
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/inativo");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
         filtro.doFilter(request, response, (req, res) -> {
         });
 
-        assertThat(response.getHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID)).isNull();
+        assertThat(response.getHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID)).isNotBlank();
+        assertThat(request.getAttribute(FiltroMonitoramentoHttp.ATRIBUTO_JAVA_LENTOS)).isNull();
+        assertThat(registry.get(FiltroMonitoramentoHttp.METRICA_HTTP)
+                .tag("rota", FiltroMonitoramentoHttp.ROTA_NAO_MAPEADA)
+                .timer().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve medir pela rota mapeada, sem os valores do caminho")
+    void deveMedirPelaRotaMapeada() throws ServletException, IOException {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(new MonitoramentoProperties(), registry);
+        FilterChain chain = (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/processos/{codigo}");
+            ((HttpServletResponse) res).setStatus(404);
+        };
+
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/processos/1"), new MockHttpServletResponse(), chain);
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/processos/2"), new MockHttpServletResponse(), chain);
+
+        Timer timer = registry.get(FiltroMonitoramentoHttp.METRICA_HTTP)
+                .tags("metodo", "GET", "rota", "/api/processos/{codigo}", "status", "404")
+                .timer();
+        assertThat(timer.count()).isEqualTo(2);
+        assertThat(registry.find(FiltroMonitoramentoHttp.METRICA_HTTP).timers()).hasSize(1);
+        assertThat(timer.takeSnapshot().histogramCounts()).isNotEmpty();
+    }
+
+    @Test
+    @DisplayName("Deve contar SQL por rota e apontar statement repetido e orcamento excedido")
+    void deveAvaliarSqlDaRequisicao() throws ServletException, IOException {
+        MonitoramentoProperties properties = new MonitoramentoProperties();
+        properties.getSql().setAtivo(true);
+        properties.getSql().setLimiteRepeticoes(2);
+        properties.getSql().setOrcamentos(Map.of("/api/processos/{codigo}", 3));
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        InspetorSqlRequisicao inspetor = new InspetorSqlRequisicao();
+
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, registry);
+        filtro.doFilter(new MockHttpServletRequest("GET", "/api/processos/1"), new MockHttpServletResponse(), (req, res) -> {
+            req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, "/api/processos/{codigo}");
+            inspetor.inspect("select p.codigo from processo p where p.codigo=?");
+            for (int i = 0; i < 3; i++) {
+                inspetor.inspect("select u.codigo from unidade u where u.codigo=?");
+            }
+        });
+
+        assertThat(ConsumoSqlRequisicao.atual()).isNull();
+        assertThat(registry.get(OrcamentoSql.METRICA_STATEMENTS).tag("rota", "/api/processos/{codigo}")
+                .summary().totalAmount()).isEqualTo(4);
+        assertThat(registry.get(OrcamentoSql.METRICA_VIOLACOES).tag("tipo", "repeticao").counter().count()).isEqualTo(1);
+        assertThat(registry.get(OrcamentoSql.METRICA_VIOLACOES).tag("tipo", "orcamento").counter().count()).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Deve substituir identificador de correlacao com caracteres invalidos")
+    void deveSubstituirCorrelacaoInvalida() throws ServletException, IOException {
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(new MonitoramentoProperties(), new SimpleMeterRegistry());
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/processos");
+        request.addHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID, "abc\nINFO falso");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        filtro.doFilter(request, response, (req, res) -> {
+        });
+
+        assertThat(response.getHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID)).hasSize(36);
     }
 
     @Test
@@ -215,7 +284,7 @@ class FiltroMonitoramentoHttpTest {
         properties.setModo(MonitoramentoProperties.Modo.SIM);
         properties.setTempoHttpLentoMs(1);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lento");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
@@ -298,7 +367,7 @@ class FiltroMonitoramentoHttpTest {
     void obterCorrelacaoIdDeveGerarNovoQuandoVazia() throws ServletException, IOException {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
 
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/teste");
         request.addHeader(FiltroMonitoramentoHttp.HEADER_CORRELACAO_ID, "   "); // Empty or blank string
@@ -366,7 +435,7 @@ class FiltroMonitoramentoHttpTest {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
         properties.setTempoHttpLentoMs(0);
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/erro");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
@@ -414,7 +483,7 @@ class FiltroMonitoramentoHttpTest {
         properties.setModo(MonitoramentoProperties.Modo.SIM);
         properties.setTempoHttpLentoMs(0);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/lento");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
@@ -435,7 +504,7 @@ class FiltroMonitoramentoHttpTest {
         MonitoramentoProperties properties = new MonitoramentoProperties();
         properties.setModo(MonitoramentoProperties.Modo.SIM);
 
-        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties);
+        FiltroMonitoramentoHttp filtro = new FiltroMonitoramentoHttp(properties, new SimpleMeterRegistry());
         MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/teste");
         MockHttpServletResponse response = new MockHttpServletResponse();
 
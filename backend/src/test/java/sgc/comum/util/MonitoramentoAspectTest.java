@@ -1,10 +1,18 @@
 package sgc.comum.util;
 
+import io.micrometer.core.instrument.simple.*;
 import org.aspectj.lang.*;
+import org.aspectj.lang.reflect.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import org.springframework.mock.web.*;
+import org.springframework.web.context.request.*;
+
+import java.lang.reflect.*;
+import java.util.*;
+import java.util.function.*;
 
 import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
@@ -12,70 +20,96 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 @DisplayName("Testes do Aspecto de Monitoramento")
 class MonitoramentoAspectTest {
-    private final MonitoramentoAspect aspect = new MonitoramentoAspect(true, 500);
-    private final MonitoramentoAspect aspectInativo = new MonitoramentoAspect(false, 500);
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
 
     @Mock
     private ProceedingJoinPoint joinPoint;
     @Mock
-    private Signature signature;
+    private MethodSignature signature;
 
     @Test
-    @DisplayName("Deve executar sem logar aviso se for rápido")
-    void deveExecutarRapido() throws Throwable {
+    @DisplayName("Deve medir a chamada com as tags de camada, classe e método")
+    void deveMedirChamada() throws Throwable {
+        MonitoramentoAspect aspect = new MonitoramentoAspect(registry, propriedades(MonitoramentoProperties.Modo.NAO));
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(ExemploService.class.getMethod("buscar"));
         when(joinPoint.proceed()).thenReturn("OK");
 
-        Object result = aspect.monitorarExecucao(joinPoint);
+        assertThat(aspect.monitorarExecucao(joinPoint)).isEqualTo("OK");
+        assertThat(aspect.monitorarExecucao(joinPoint)).isEqualTo("OK");
 
-        assertThat(result).isEqualTo("OK");
+        assertThat(registry.get(MonitoramentoAspect.METRICA_METODO)
+                .tags("camada", "service", "classe", "ExemploService", "metodo", "buscar")
+                .timer().count()).isEqualTo(2);
+        assertThat(registry.find(MonitoramentoAspect.METRICA_METODO).timers()).hasSize(1);
     }
 
     @Test
-    @DisplayName("Deve executar sem monitoramento quando estiver inativo")
-    void deveExecutarSemMonitoramentoQuandoInativo() throws Throwable {
-        when(joinPoint.proceed()).thenReturn("OK");
-
-        Object result = aspectInativo.monitorarExecucao(joinPoint);
+    @DisplayName("Deve medir mesmo quando o método lança exceção")
+    void deveMedirQuandoLancaExcecao() throws Throwable {
+        MonitoramentoAspect aspect = new MonitoramentoAspect(registry, propriedades(MonitoramentoProperties.Modo.NAO));
+        when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(ExemploService.class.getMethod("buscar"));
+        when(joinPoint.proceed()).thenThrow(new IllegalStateException("falha"));
 
-        assertThat(result).isEqualTo("OK");
-        verify(joinPoint).proceed();
+        assertThatThrownBy(() -> aspect.monitorarExecucao(joinPoint)).isInstanceOf(IllegalStateException.class);
+        assertThat(registry.get(MonitoramentoAspect.METRICA_METODO).timer().count()).isEqualTo(1);
     }
 
     @Test
-    @DisplayName("Deve logar aviso se for lento")
-    @SuppressWarnings("java:S2925")
-    void deveLogarAvisoSeLento() throws Throwable {
+    @DisplayName("Deve registrar método lento quando o log estiver ativo")
+    void deveRegistrarMetodoLento() throws Throwable {
+        MonitoramentoProperties props = propriedades(MonitoramentoProperties.Modo.SIM);
+        props.setTempoMinimoJavaMs(0);
+        MonitoramentoAspect aspect = new MonitoramentoAspect(registry, props);
         when(joinPoint.getSignature()).thenReturn(signature);
+        when(signature.getMethod()).thenReturn(ExemploService.class.getMethod("buscar"));
         when(signature.getDeclaringTypeName()).thenReturn("sgc.Classe");
-        when(signature.getName()).thenReturn("metodo");
-
-        when(joinPoint.proceed()).thenAnswer(invocation -> {
-            Thread.sleep(550); // Simula lentidão > 500ms
-            return "OK";
-        });
+        when(signature.getName()).thenReturn("buscar");
+        when(joinPoint.proceed()).thenReturn("OK");
+        List<String> javaLentos = new ArrayList<>();
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.setAttribute(FiltroMonitoramentoHttp.ATRIBUTO_JAVA_LENTOS, javaLentos);
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request));
+        try {
+            assertThat(aspect.monitorarExecucao(joinPoint)).isEqualTo("OK");
+        } finally {
+            RequestContextHolder.resetRequestAttributes();
+        }
+
+        assertThat(javaLentos).singleElement().asString().startsWith("java Classe.buscar ");
+        assertThat(registry.get(MonitoramentoAspect.METRICA_METODO).timer().count()).isEqualTo(1);
+    }
 
-        Object result = aspect.monitorarExecucao(joinPoint);
+    @Test
+    @DisplayName("Deve atribuir métodos herdados de bibliotecas à interface do SGC do bean")
+    void deveAtribuirMetodoHerdadoAInterfaceDoSgc() throws NoSuchMethodException {
+        Method herdado = Supplier.class.getMethod("get");
 
-        assertThat(result).isEqualTo("OK");
+        assertThat(MonitoramentoAspect.nomeClasse(ExemploRepoImpl.class, herdado)).isEqualTo("ExemploRepo");
+        assertThat(MonitoramentoAspect.nomeClasse(ExemploService.class, ExemploService.class.getMethod("buscar")))
+                .isEqualTo("ExemploService");
     }
 
-    @Test
-    @DisplayName("Deve invocar construtor vazio sem erros")
-    void deveInvocarConstrutorVazio() {
-        assertThatCode(MonitoramentoAspect::new).doesNotThrowAnyException();
+    private static MonitoramentoProperties propriedades(MonitoramentoProperties.Modo modo) {
+        MonitoramentoProperties props = new MonitoramentoProperties();
+        props.setModo(modo);
+        return props;
     }
 
-    @Test
-    @DisplayName("Deve executar sem logar aviso se for rapido")
-    void deveExecutarRapidoESemTrace() throws Throwable {
-        MonitoramentoAspect aspecto = new MonitoramentoAspect(true, 500);
-        when(joinPoint.getSignature()).thenReturn(signature);
-        when(signature.getDeclaringTypeName()).thenReturn("sgc.Classe");
-        when(signature.getName()).thenReturn("metodo");
-        when(joinPoint.proceed()).thenReturn("OK");
+    static class ExemploService {
+        public String buscar() {
+            return "OK";
+        }
+    }
 
-        Object result = aspecto.monitorarExecucao(joinPoint);
+    interface ExemploRepo extends Supplier<String> {
+    }
 
-        assertThat(result).isEqualTo("OK");
+    static class ExemploRepoImpl implements ExemploRepo {
+        @Override
+        public String get() {
+            return "OK";
+        }
     }
 }
@@ -0,0 +1,52 @@
+package sgc.comum.util;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+import java.util.function.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("OrdenacaoNatural")
+class OrdenacaoNaturalTest {
+
+    @Test
+    @DisplayName("deve separar segmentos de texto e número")
+    void deveSepararSegmentos() {
+        assertThat(OrdenacaoNatural.separarSegmentos("")).containsExactly("");
+        assertThat(OrdenacaoNatural.separarSegmentos("SEC 10")).containsExactly("SEC ", "10");
+        assertThat(OrdenacaoNatural.separarSegmentos("SEC 10 A")).containsExactly("SEC ", "10", " A");
+    }
+
+    @Test
+    @DisplayName("deve comparar trechos numéricos pelo valor")
+    void deveCompararNumerosPeloValor() {
+        List<String> siglas = new ArrayList<>(List.of("ZE 10", "ZE 2", "ZE 002A", "ZE 1", "ZE 12345678901234"));
+
+        OrdenacaoNatural.ordenar(siglas, Function.identity());
+
+        assertThat(siglas).containsExactly("ZE 1", "ZE 2", "ZE 002A", "ZE 10", "ZE 12345678901234");
+    }
+
+    @Test
+    @DisplayName("deve ignorar acentos e caixa no texto")
+    void deveIgnorarAcentosECaixa() {
+        assertThat(OrdenacaoNatural.comparador().compare("Coordenação", "COORDENACAO")).isZero();
+        assertThat(OrdenacaoNatural.ordenados(List.of("Ética", "assessoria", "Diretoria"), Function.identity()))
+                .containsExactly("assessoria", "Diretoria", "Ética");
+    }
+
+    @Test
+    @DisplayName("deve manter a ordem original de itens equivalentes")
+    void deveManterOrdemDeEquivalentes() {
+        List<String[]> unidades = new ArrayList<>(List.of(
+                new String[]{"SESEL", "b"},
+                new String[]{"ASSEC", "a"},
+                new String[]{"sesel", "c"}
+        ));
+
+        OrdenacaoNatural.ordenar(unidades, unidade -> unidade[0]);
+
+        assertThat(unidades).extracting(unidade -> unidade[1]).containsExactly("a", "b", "c");
+    }
+}
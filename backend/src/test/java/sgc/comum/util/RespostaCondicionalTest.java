@@ -0,0 +1,47 @@
+package sgc.comum.util;
+
+import org.junit.jupiter.api.*;
+import org.springframework.http.*;
+import org.springframework.mock.web.*;
+import org.springframework.web.context.request.*;
+
+import java.util.concurrent.atomic.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("RespostaCondicional")
+class RespostaCondicionalTest {
+
+    @Test
+    @DisplayName("deve montar o corpo e publicar o ETag quando o cliente não tem a versão")
+    void deveMontarCorpoQuandoVersaoDiferente() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recurso");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"recurso-1\"");
+
+        ResponseEntity<String> resposta = RespostaCondicional.versionada(
+                new ServletWebRequest(request, new MockHttpServletResponse()), "recurso-2", () -> "corpo");
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.OK);
+        assertThat(resposta.getBody()).isEqualTo("corpo");
+        assertThat(resposta.getHeaders().getETag()).isEqualTo("\"recurso-2\"");
+        assertThat(resposta.getHeaders().getCacheControl()).isEqualTo("no-cache, private");
+    }
+
+    @Test
+    @DisplayName("deve responder 304 sem montar o corpo quando a versão coincide")
+    void deveResponderNaoModificadoSemMontarCorpo() {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/recurso");
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, "\"recurso-2\"");
+        AtomicBoolean montou = new AtomicBoolean();
+
+        ResponseEntity<String> resposta = RespostaCondicional.versionada(
+                new ServletWebRequest(request, new MockHttpServletResponse()), "recurso-2", () -> {
+                    montou.set(true);
+                    return "corpo";
+                });
+
+        assertThat(resposta.getStatusCode()).isEqualTo(HttpStatus.NOT_MODIFIED);
+        assertThat(resposta.getBody()).isNull();
+        assertThat(montou).isFalse();
+    }
+}
@@ -17,6 +17,9 @@ class ConfiguracaoServiceTest {
     @Mock
     private ConfiguracaoRepo configuracaoRepo;
 
+    @Mock
+    private RegistroConfiguracoes registroConfiguracoes;
+
     @InjectMocks
     private ConfiguracaoService configuracaoService;
 
@@ -64,6 +67,7 @@ class ConfiguracaoServiceTest {
 
         assertThat(resultado).isNotNull();
         verify(configuracaoRepo).saveAll(lista);
+        verify(registroConfiguracoes).recarregarAposCommit();
     }
 
     @Test
@@ -82,6 +86,7 @@ class ConfiguracaoServiceTest {
 
         assertThat(resultado.getValor()).isEqualTo(novoValor);
         verify(configuracaoRepo).save(configuracao);
+        verify(registroConfiguracoes).recarregarAposCommit();
     }
 
     @Test
@@ -105,66 +110,21 @@ class ConfiguracaoServiceTest {
     }
 
     @Test
-    @DisplayName("buscarValorInteiro deve retornar o valor padrão se a configuração não existir")
-    void buscarValorInteiroInexistenteDeveRetornarPadrao() {
-        String chave = "CHAVE_TESTE";
-        when(configuracaoRepo.findByChave(chave)).thenReturn(Optional.empty());
-
-        int resultado = configuracaoService.buscarValorInteiro(chave, 42);
-
-        assertThat(resultado).isEqualTo(42);
-    }
-
-    @Test
-    @DisplayName("buscarValorInteiro deve retornar o valor convertido se for válido")
-    void buscarValorInteiroValidoDeveRetornarConvertido() {
-        String chave = "CHAVE_TESTE";
-        Configuracao configuracao = new Configuracao();
-        configuracao.setChave(chave);
-        configuracao.setValor("15");
-        when(configuracaoRepo.findByChave(chave)).thenReturn(Optional.of(configuracao));
+    @DisplayName("buscarValorInteiro deve ler o valor do registro em memória")
+    void buscarValorInteiroDeveLerDoRegistro() {
+        when(registroConfiguracoes.inteiro("CHAVE_TESTE", 42)).thenReturn(15);
 
-        int resultado = configuracaoService.buscarValorInteiro(chave, 42);
+        int resultado = configuracaoService.buscarValorInteiro("CHAVE_TESTE", 42);
 
         assertThat(resultado).isEqualTo(15);
-    }
-
-    @Test
-    @DisplayName("buscarValorInteiro deve lançar erro se o valor for menor que 1")
-    void buscarValorInteiroMenorQueUmDeveLancarErro() {
-        String chave = "CHAVE_TESTE";
-        Configuracao configuracao = new Configuracao();
-        configuracao.setChave(chave);
-        configuracao.setValor("0");
-        when(configuracaoRepo.findByChave(chave)).thenReturn(Optional.of(configuracao));
-
-        assertThatThrownBy(() -> configuracaoService.buscarValorInteiro(chave, 42))
-                .isInstanceOf(ErroConfiguracao.class)
-                .hasMessageContaining("deve ser maior ou igual a 1");
-    }
-
-    @Test
-    @DisplayName("buscarValorInteiro deve lançar erro se o valor possuir formato inválido")
-    void buscarValorInteiroInvalidoDeveLancarErro() {
-        String chave = "CHAVE_TESTE";
-        Configuracao configuracao = new Configuracao();
-        configuracao.setChave(chave);
-        configuracao.setValor("invalido");
-        when(configuracaoRepo.findByChave(chave)).thenReturn(Optional.of(configuracao));
-
-        assertThatThrownBy(() -> configuracaoService.buscarValorInteiro(chave, 42))
-                .isInstanceOf(ErroConfiguracao.class)
-                .hasMessageContaining("possui valor inválido");
+        verifyNoInteractions(configuracaoRepo);
     }
 
     @Test
     @DisplayName("buscarDiasInativacaoProcesso deve retornar valor da configuração")
     void buscarDiasInativacaoProcessoDeveRetornarValor() {
-        Configuracao configuracao = new Configuracao();
-        configuracao.setChave(ConfiguracaoService.CHAVE_DIAS_INATIVACAO_PROCESSO);
-        configuracao.setValor("5");
-        when(configuracaoRepo.findByChave(ConfiguracaoService.CHAVE_DIAS_INATIVACAO_PROCESSO))
-                .thenReturn(Optional.of(configuracao));
+        when(registroConfiguracoes.inteiro(ConfiguracaoService.CHAVE_DIAS_INATIVACAO_PROCESSO,
+                ConfiguracaoService.PADRAO_DIAS_INATIVACAO_PROCESSO)).thenReturn(5);
 
         int resultado = configuracaoService.buscarDiasInativacaoProcesso();
 
@@ -174,11 +134,8 @@ class ConfiguracaoServiceTest {
     @Test
     @DisplayName("buscarDiasAlertaNovo deve retornar valor da configuração")
     void buscarDiasAlertaNovoDeveRetornarValor() {
-        Configuracao configuracao = new Configuracao();
-        configuracao.setChave(ConfiguracaoService.CHAVE_DIAS_ALERTA_NOVO);
-        configuracao.setValor("2");
-        when(configuracaoRepo.findByChave(ConfiguracaoService.CHAVE_DIAS_ALERTA_NOVO))
-                .thenReturn(Optional.of(configuracao));
+        when(registroConfiguracoes.inteiro(ConfiguracaoService.CHAVE_DIAS_ALERTA_NOVO,
+                ConfiguracaoService.PADRAO_DIAS_ALERTA_NOVO)).thenReturn(2);
 
         int resultado = configuracaoService.buscarDiasAlertaNovo();
 
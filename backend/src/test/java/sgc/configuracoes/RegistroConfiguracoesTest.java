@@ -0,0 +1,118 @@
+package sgc.configuracoes;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import org.springframework.transaction.support.*;
+import sgc.comum.erros.*;
+import sgc.configuracoes.model.*;
+import sgc.organizacao.service.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("RegistroConfiguracoes")
+class RegistroConfiguracoesTest {
+    private static final String CHAVE = "CHAVE_TESTE";
+
+    @Mock
+    private ConfiguracaoRepo configuracaoRepo;
+
+    @Mock
+    private RegistroSseEmitter registroSseEmitter;
+
+    @InjectMocks
+    private RegistroConfiguracoes registroConfiguracoes;
+
+    @AfterEach
+    void limparSincronizacao() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    @DisplayName("deve carregar a tabela uma única vez e responder as leituras da memória")
+    void deveCarregarUmaVez() {
+        when(configuracaoRepo.findAll()).thenReturn(List.of(configuracao(CHAVE, "15")));
+
+        assertThat(registroConfiguracoes.inteiro(CHAVE, 42)).isEqualTo(15);
+        assertThat(registroConfiguracoes.valor(CHAVE)).contains("15");
+        assertThat(registroConfiguracoes.valor("OUTRA")).isEmpty();
+
+        verify(configuracaoRepo, times(1)).findAll();
+    }
+
+    @Test
+    @DisplayName("inteiro deve retornar o valor padrão se a configuração não existir")
+    void inteiroInexistenteDeveRetornarPadrao() {
+        when(configuracaoRepo.findAll()).thenReturn(List.of());
+
+        assertThat(registroConfiguracoes.inteiro(CHAVE, 42)).isEqualTo(42);
+    }
+
+    @Test
+    @DisplayName("inteiro deve lançar erro se o valor for menor que 1")
+    void inteiroMenorQueUmDeveLancarErro() {
+        when(configuracaoRepo.findAll()).thenReturn(List.of(configuracao(CHAVE, "0")));
+
+        assertThatThrownBy(() -> registroConfiguracoes.inteiro(CHAVE, 42))
+                .isInstanceOf(ErroConfiguracao.class)
+                .hasMessageContaining("deve ser maior ou igual a 1");
+    }
+
+    @Test
+    @DisplayName("inteiro deve lançar erro se o valor possuir formato inválido")
+    void inteiroInvalidoDeveLancarErro() {
+        when(configuracaoRepo.findAll()).thenReturn(List.of(configuracao(CHAVE, "invalido")));
+
+        assertThatThrownBy(() -> registroConfiguracoes.inteiro(CHAVE, 42))
+                .isInstanceOf(ErroConfiguracao.class)
+                .hasMessageContaining("possui valor inválido");
+    }
+
+    @Test
+    @DisplayName("deve recarregar e notificar imediatamente quando não houver transação ativa")
+    void deveRecarregarImediatamenteSemTransacaoAtiva() {
+        when(configuracaoRepo.findAll())
+                .thenReturn(List.of(configuracao(CHAVE, "5")))
+                .thenReturn(List.of(configuracao(CHAVE, "7")));
+        registroConfiguracoes.carregar();
+
+        registroConfiguracoes.recarregarAposCommit();
+
+        assertThat(registroConfiguracoes.inteiro(CHAVE, 42)).isEqualTo(7);
+        verify(registroSseEmitter).transmitir(RegistroConfiguracoes.EVENTO_CONFIGURACOES_ATUALIZADAS);
+    }
+
+    @Test
+    @DisplayName("deve manter os valores anteriores até o afterCommit quando houver sincronização ativa")
+    void deveAguardarAfterCommitComSincronizacaoAtiva() {
+        when(configuracaoRepo.findAll())
+                .thenReturn(List.of(configuracao(CHAVE, "5")))
+                .thenReturn(List.of(configuracao(CHAVE, "7")));
+        registroConfiguracoes.carregar();
+        TransactionSynchronizationManager.initSynchronization();
+
+        registroConfiguracoes.recarregarAposCommit();
+
+        assertThat(registroConfiguracoes.inteiro(CHAVE, 42)).isEqualTo(5);
+        verifyNoInteractions(registroSseEmitter);
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+
+        assertThat(registroConfiguracoes.inteiro(CHAVE, 42)).isEqualTo(7);
+        verify(registroSseEmitter).transmitir(RegistroConfiguracoes.EVENTO_CONFIGURACOES_ATUALIZADAS);
+    }
+
+    private static Configuracao configuracao(String chave, String valor) {
+        Configuracao configuracao = new Configuracao();
+        configuracao.setChave(chave);
+        configuracao.setValor(valor);
+        return configuracao;
+    }
+}
@@ -0,0 +1,114 @@
+package sgc.diagnostico.model;
+
+import org.junit.jupiter.api.*;
+import sgc.organizacao.model.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ColunasAvaliacaoDiagnostico")
+class ColunasAvaliacaoDiagnosticoTest {
+    // 1 (raiz) -> {2, 4}; 2 -> 3
+    private static final IndiceHierarquia INDICE = IndiceHierarquia.construir(List.of(
+            unidade(1L, null),
+            unidade(2L, 1L),
+            unidade(3L, 2L),
+            unidade(4L, 1L)
+    ));
+
+    private static final List<AvaliacaoAnaliseLeitura> LINHAS = List.of(
+            linha(4L, "Comunicação", 5, 1, 4, ValorSituacaoCapacitacao.AC),
+            linha(3L, "Comunicação", 4, 2, 2, ValorSituacaoCapacitacao.EC),
+            linha(2L, "Comunicação", 3, 3, 0, ValorSituacaoCapacitacao.C),
+            linha(3L, "Liderança ", 5, 2, 3, null),
+            linha(3L, "Liderança", 5, 4, 1, ValorSituacaoCapacitacao.AC),
+            linha(2L, "Liderança", null, null, null, null),
+            linha(99L, "Comunicação", 2, 4, -2, ValorSituacaoCapacitacao.I)
+    );
+
+    @Test
+    @DisplayName("deve totalizar a subárvore como faixa contígua de linhas")
+    void deveTotalizarSubarvore() {
+        ColunasAvaliacaoDiagnostico colunas = ColunasAvaliacaoDiagnostico.construir(LINHAS, INDICE);
+        ColunasAvaliacaoDiagnostico.Faixa faixa = colunas.subarvore(2L);
+
+        assertThat(colunas.contarLinhas(faixa)).isEqualTo(5);
+        assertThat(colunas.contarUnidadesComAvaliacoes(faixa)).isEqualTo(2);
+
+        List<ColunasAvaliacaoDiagnostico.TotaisCompetencia> totais = colunas.totalizarPorCompetencia(faixa);
+        assertThat(totais).extracting(ColunasAvaliacaoDiagnostico.TotaisCompetencia::descricao)
+                .containsExactly("Comunicação", "Liderança");
+
+        ColunasAvaliacaoDiagnostico.TotaisCompetencia comunicacao = totais.getFirst();
+        assertThat(comunicacao.totalAvaliacoes()).isEqualTo(2);
+        assertThat(comunicacao.somaGap()).isEqualTo(2);
+        assertThat(comunicacao.totalGap()).isEqualTo(2);
+        assertThat(comunicacao.totalSituacao(ValorSituacaoCapacitacao.EC)).isEqualTo(1);
+        assertThat(comunicacao.totalSituacao(ValorSituacaoCapacitacao.C)).isEqualTo(1);
+
+        ColunasAvaliacaoDiagnostico.TotaisCompetencia lideranca = totais.get(1);
+        assertThat(lideranca.totalAvaliacoes()).isEqualTo(3);
+        assertThat(lideranca.somaGap()).isEqualTo(4);
+        assertThat(lideranca.totalGap()).isEqualTo(2);
+        assertThat(lideranca.somaImportancia()).isEqualTo(10);
+        assertThat(lideranca.totalImportancia()).isEqualTo(2);
+        assertThat(lideranca.totalSituacao(ValorSituacaoCapacitacao.AC)).isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("deve incluir unidades fora do índice apenas nos totais do processo")
+    void deveIncluirUnidadesForaDoIndiceNoProcesso() {
+        ColunasAvaliacaoDiagnostico colunas = ColunasAvaliacaoDiagnostico.construir(LINHAS, INDICE);
+
+        assertThat(colunas.contarLinhas(colunas.todas())).isEqualTo(7);
+        assertThat(colunas.contarUnidadesComAvaliacoes(colunas.todas())).isEqualTo(4);
+        assertThat(colunas.contarLinhas(colunas.subarvore(1L))).isEqualTo(6);
+        assertThat(colunas.contarLinhas(colunas.subarvore(99L))).isEqualTo(1);
+        assertThat(colunas.contarLinhas(colunas.subarvore(500L))).isZero();
+    }
+
+    @Test
+    @DisplayName("deve listar os maiores gaps por unidade e competência em ordem decrescente")
+    void deveListarMaioresGaps() {
+        ColunasAvaliacaoDiagnostico colunas = ColunasAvaliacaoDiagnostico.construir(LINHAS, INDICE);
+
+        List<ColunasAvaliacaoDiagnostico.MaiorGap> maiores = colunas.maioresGaps(colunas.todas(), 3);
+
+        assertThat(maiores).extracting(
+                        ColunasAvaliacaoDiagnostico.MaiorGap::unidadeCodigo,
+                        ColunasAvaliacaoDiagnostico.MaiorGap::competenciaDescricao,
+                        ColunasAvaliacaoDiagnostico.MaiorGap::mediaGap)
+                .containsExactly(
+                        tuple(4L, "Comunicação", 4.0),
+                        tuple(3L, "Comunicação", 2.0),
+                        tuple(3L, "Liderança", 2.0));
+        assertThat(colunas.maioresGaps(colunas.subarvore(4L), 0)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve aceitar processo sem avaliações")
+    void deveAceitarProcessoSemAvaliacoes() {
+        ColunasAvaliacaoDiagnostico colunas = ColunasAvaliacaoDiagnostico.construir(List.of(), INDICE);
+
+        assertThat(colunas.totalLinhas()).isZero();
+        assertThat(colunas.totalizarPorCompetencia(colunas.subarvore(1L))).isEmpty();
+        assertThat(colunas.maioresGaps(colunas.todas(), 10)).isEmpty();
+    }
+
+    private static AvaliacaoAnaliseLeitura linha(Long unidade, String competencia, Integer importancia, Integer dominio,
+                                                 Integer gap, ValorSituacaoCapacitacao situacao) {
+        return new AvaliacaoAnaliseLeitura(unidade, competencia, importancia, dominio, gap, situacao);
+    }
+
+    private static UnidadeHierarquiaLeitura unidade(Long codigo, Long codigoPai) {
+        return UnidadeHierarquiaLeitura.builder()
+                .codigo(codigo)
+                .nome("Unidade " + codigo)
+                .sigla("U" + codigo)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .unidadeSuperiorCodigo(codigoPai)
+                .build();
+    }
+}
@@ -0,0 +1,88 @@
+package sgc.diagnostico.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import sgc.comum.erros.*;
+import sgc.diagnostico.model.*;
+import sgc.organizacao.model.*;
+import sgc.organizacao.service.*;
+import sgc.relatorio.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DiagnosticoAnaliseService")
+class DiagnosticoAnaliseServiceTest {
+    private static final Long PROCESSO = 7L;
+
+    @Mock
+    AvaliacaoServidorRepo avaliacaoRepo;
+    @Mock
+    UnidadeHierarquiaService unidadeHierarquiaService;
+
+    @InjectMocks
+    DiagnosticoAnaliseService service;
+
+    @Test
+    @DisplayName("deve consolidar a unidade com as subordinadas e ignorar as demais")
+    void deveConsolidarSubarvore() {
+        List<UnidadeHierarquiaLeitura> unidades = List.of(unidade(1L, null), unidade(2L, 1L), unidade(3L, null));
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(IndiceHierarquia.construir(unidades));
+        when(unidadeHierarquiaService.buscarMapaCodigoParaUnidade()).thenReturn(Map.of(
+                1L, unidades.get(0), 2L, unidades.get(1), 3L, unidades.get(2)));
+        when(avaliacaoRepo.listarParaAnalise(PROCESSO)).thenReturn(List.of(
+                new AvaliacaoAnaliseLeitura(1L, "Liderança", 5, 2, 3, ValorSituacaoCapacitacao.AC),
+                new AvaliacaoAnaliseLeitura(2L, "Liderança", 4, 4, 0, ValorSituacaoCapacitacao.C),
+                new AvaliacaoAnaliseLeitura(2L, "Comunicação", 3, 2, 1, null),
+                new AvaliacaoAnaliseLeitura(3L, "Liderança", 5, 1, 4, ValorSituacaoCapacitacao.AC)));
+
+        RelatorioDiagnosticoAnaliseDto analise = service.analisar(PROCESSO, 1L, 10);
+
+        assertThat(analise.siglaUnidade()).isEqualTo("U1");
+        assertThat(analise.totalUnidadesAvaliadas()).isEqualTo(2);
+        assertThat(analise.totalAvaliacoes()).isEqualTo(3);
+        assertThat(analise.competencias()).extracting(
+                        RelatorioDiagnosticoAnaliseCompetenciaDto::competenciaDescricao,
+                        RelatorioDiagnosticoAnaliseCompetenciaDto::mediaGap,
+                        RelatorioDiagnosticoAnaliseCompetenciaDto::totalACapacitar,
+                        RelatorioDiagnosticoAnaliseCompetenciaDto::totalCapacitado)
+                .containsExactly(
+                        tuple("Comunicação", 1.0, 0, 0),
+                        tuple("Liderança", 1.5, 1, 1));
+        assertThat(analise.maioresGaps()).extracting(
+                        RelatorioDiagnosticoMaiorGapDto::siglaUnidade,
+                        RelatorioDiagnosticoMaiorGapDto::competenciaDescricao,
+                        RelatorioDiagnosticoMaiorGapDto::mediaGap)
+                .containsExactly(
+                        tuple("U1", "Liderança", 3.0),
+                        tuple("U2", "Comunicação", 1.0),
+                        tuple("U2", "Liderança", 0.0));
+    }
+
+    @Test
+    @DisplayName("deve rejeitar limite de maiores gaps fora do intervalo sem consultar avaliações")
+    void deveRejeitarLimiteInvalido() {
+        assertThatThrownBy(() -> service.analisar(PROCESSO, null, 0))
+                .isInstanceOf(ErroValidacao.class);
+        assertThatThrownBy(() -> service.analisar(PROCESSO, null, DiagnosticoAnaliseService.LIMITE_MAXIMO_MAIORES_GAPS + 1))
+                .isInstanceOf(ErroValidacao.class);
+
+        verifyNoInteractions(avaliacaoRepo);
+    }
+
+    private static UnidadeHierarquiaLeitura unidade(Long codigo, Long codigoPai) {
+        return UnidadeHierarquiaLeitura.builder()
+                .codigo(codigo)
+                .nome("Unidade " + codigo)
+                .sigla("U" + codigo)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .unidadeSuperiorCodigo(codigoPai)
+                .build();
+    }
+}
@@ -114,6 +114,7 @@ class DiagnosticoAvaliacaoServiceTest {
         assertThat(avaliacao.getImportancia()).isEqualTo(4);
         assertThat(avaliacao.getDominio()).isEqualTo(2);
         assertThat(subprocesso.getSituacao()).isEqualTo(SituacaoSubprocesso.DIAGNOSTICO_EM_ANDAMENTO);
+        verify(gapService).recalcularGaps(diagCodigo, List.of(avaliacao));
         verify(avaliacaoRepo).saveAll(anyList());
     }
 
@@ -26,7 +26,7 @@ import static org.mockito.Mockito.*;
 class DiagnosticoFluxoServiceTest {
 
     @Mock
-    DiagnosticoRepo diagnosticoRepo;
+    CargaInicialDiagnostico cargaInicialDiagnostico;
     @Mock
     ComumRepo repo;
     @Mock
@@ -55,6 +55,13 @@ class DiagnosticoFluxoServiceTest {
     @InjectMocks
     DiagnosticoFluxoService service;
 
+    @Captor
+    ArgumentCaptor<Diagnostico> diagnosticoCaptor;
+    @Captor
+    ArgumentCaptor<List<AvaliacaoServidor>> avaliacoesCaptor;
+    @Captor
+    ArgumentCaptor<List<SituacaoCapacitacao>> situacoesCaptor;
+
     private Unidade unidadeOrigem;
     private Unidade unidadeSuperior;
     private Usuario chefe;
@@ -85,22 +92,21 @@ class DiagnosticoFluxoServiceTest {
                 .thenReturn(java.util.Optional.empty());
         when(unidadeService.buscarMapaVigente(unidadeOrigem.getCodigo())).thenReturn(java.util.Optional.of(mapaVigente));
 
-        ArgumentCaptor<Diagnostico> captor = ArgumentCaptor.forClass(Diagnostico.class);
-
         service.inicializarDiagnostico(subprocesso);
 
-        verify(diagnosticoRepo).save(captor.capture());
-        Diagnostico salvo = captor.getValue();
+        verify(cargaInicialDiagnostico).gravar(diagnosticoCaptor.capture(), avaliacoesCaptor.capture(), situacoesCaptor.capture());
+        Diagnostico salvo = diagnosticoCaptor.getValue();
 
-        assertThat(salvo.getAvaliacaoServidores()).hasSize(4);
-        assertThat(salvo.getSituacaoCapacitacoes()).hasSize(4);
-        assertThat(salvo.getAvaliacaoServidores())
+        assertThat(salvo.getSubprocesso()).isSameAs(subprocesso);
+        assertThat(avaliacoesCaptor.getValue()).hasSize(4);
+        assertThat(situacoesCaptor.getValue()).hasSize(4);
+        assertThat(avaliacoesCaptor.getValue())
                 .allSatisfy(avaliacao -> {
                     assertThat(avaliacao.getDiagnostico()).isSameAs(salvo);
                     assertThat(avaliacao.getSituacaoServidor()).isEqualTo(SituacaoAvaliacaoServidor.AUTOAVALIACAO_NAO_INICIADA);
                     assertThat(avaliacao.getServidorNomeDiagnostico()).isNotBlank();
                 });
-        assertThat(salvo.getSituacaoCapacitacoes())
+        assertThat(situacoesCaptor.getValue())
                 .allSatisfy(ocupacao -> {
                     assertThat(ocupacao.getDiagnostico()).isSameAs(salvo);
                     assertThat(ocupacao.getUnidadeCodigoSnapshot()).isEqualTo(unidadeOrigem.getCodigo());
@@ -125,14 +131,10 @@ class DiagnosticoFluxoServiceTest {
                 .thenReturn(java.util.Optional.empty());
         when(unidadeService.buscarMapaVigente(unidadeOrigem.getCodigo())).thenReturn(java.util.Optional.of(mapaVigente));
 
-        ArgumentCaptor<Diagnostico> captor = ArgumentCaptor.forClass(Diagnostico.class);
-
         service.inicializarDiagnostico(subprocesso);
 
-        verify(diagnosticoRepo).save(captor.capture());
-        Diagnostico salvo = captor.getValue();
-
-        assertThat(salvo.getAvaliacaoServidores()).singleElement().satisfies(avaliacao ->
+        verify(cargaInicialDiagnostico).gravar(any(), avaliacoesCaptor.capture(), any());
+        assertThat(avaliacoesCaptor.getValue()).singleElement().satisfies(avaliacao ->
                 assertThat(avaliacao.getCompetencia().getDescricao()).isEqualTo("Competência vigente"));
     }
 
@@ -179,17 +181,13 @@ class DiagnosticoFluxoServiceTest {
                 )));
         when(unidadeService.buscarMapaVigente(unidadeOrigem.getCodigo())).thenReturn(java.util.Optional.of(mapaVigente));
 
-        ArgumentCaptor<Diagnostico> captor = ArgumentCaptor.forClass(Diagnostico.class);
-
         service.inicializarDiagnostico(subprocesso);
 
-        verify(diagnosticoRepo).save(captor.capture());
-        Diagnostico salvo = captor.getValue();
-
-        assertThat(salvo.getAvaliacaoServidores())
+        verify(cargaInicialDiagnostico).gravar(any(), avaliacoesCaptor.capture(), situacoesCaptor.capture());
+        assertThat(avaliacoesCaptor.getValue())
                 .extracting(avaliacao -> avaliacao.getServidor().getTituloEleitoral())
                 .containsExactly("242426");
-        assertThat(salvo.getSituacaoCapacitacoes())
+        assertThat(situacoesCaptor.getValue())
                 .extracting(situacao -> situacao.getServidor().getTituloEleitoral())
                 .containsExactly("242426");
     }
@@ -0,0 +1,111 @@
+package sgc.diagnostico.service;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import sgc.diagnostico.model.*;
+import sgc.mapa.model.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("DiagnosticoGapService")
+class DiagnosticoGapServiceTest {
+    private static final Long DIAGNOSTICO = 10L;
+
+    @Mock
+    DiagnosticoRepo diagnosticoRepo;
+    @Mock
+    AgregadoGapCompetenciaRepo agregadoRepo;
+    @Mock
+    AvaliacaoServidorRepo avaliacaoRepo;
+    @Mock
+    SituacaoCapacitacaoRepo situacaoCapacitacaoRepo;
+
+    @InjectMocks
+    DiagnosticoGapService service;
+
+    @Captor
+    ArgumentCaptor<Collection<AgregadoGapCompetencia>> agregadosCaptor;
+
+    @Test
+    @DisplayName("recalcularGaps deve somar nos agregados só a diferença de cada competência alterada")
+    void recalcularGaps_deveSomarSoADiferenca() {
+        AvaliacaoServidor semGapAnterior = avaliacao(1L, 5, 2, null);
+        AvaliacaoServidor gapAlterado = avaliacao(1L, 4, 3, 3);
+        AvaliacaoServidor gapRemovido = avaliacao(2L, 0, 3, 2);
+        AvaliacaoServidor semAlteracao = avaliacao(3L, 4, 2, 2);
+        when(agregadoRepo.somarGap(anyLong(), anyLong(), anyLong(), anyInt())).thenReturn(1);
+
+        service.recalcularGaps(DIAGNOSTICO, List.of(semGapAnterior, gapAlterado, gapRemovido, semAlteracao));
+
+        assertThat(semGapAnterior.getGap()).isEqualTo(3);
+        assertThat(gapAlterado.getGap()).isEqualTo(1);
+        assertThat(gapRemovido.getGap()).isNull();
+        verify(agregadoRepo).somarGap(DIAGNOSTICO, 1L, 1L, 1);
+        verify(agregadoRepo).somarGap(DIAGNOSTICO, 2L, -2L, -1);
+        verifyNoMoreInteractions(agregadoRepo);
+    }
+
+    @Test
+    @DisplayName("recalcularGaps deve refazer os agregados quando a linha da competência não existir")
+    void recalcularGaps_deveRefazerAgregadosAusentes() {
+        AvaliacaoServidor avaliacao = avaliacao(1L, 5, 2, null);
+        when(agregadoRepo.somarGap(DIAGNOSTICO, 1L, 3L, 1)).thenReturn(0);
+        when(avaliacaoRepo.listarPorDiagnostico(DIAGNOSTICO)).thenReturn(List.of(avaliacao));
+        when(situacaoCapacitacaoRepo.listarPorDiagnostico(DIAGNOSTICO)).thenReturn(List.of());
+
+        service.recalcularGaps(DIAGNOSTICO, List.of(avaliacao));
+
+        InOrder ordem = inOrder(diagnosticoRepo, agregadoRepo);
+        ordem.verify(diagnosticoRepo).travarPorCodigo(DIAGNOSTICO);
+        ordem.verify(agregadoRepo).excluirPorDiagnostico(DIAGNOSTICO);
+        verify(agregadoRepo).saveAll(agregadosCaptor.capture());
+        assertThat(agregadosCaptor.getValue()).singleElement().satisfies(agregado -> {
+            assertThat(agregado.getDiagnosticoCodigo()).isEqualTo(DIAGNOSTICO);
+            assertThat(agregado.getCompetenciaCodigo()).isEqualTo(1L);
+            assertThat(agregado.getSomaGap()).isEqualTo(3L);
+            assertThat(agregado.getTotalGap()).isEqualTo(1);
+        });
+    }
+
+    @Test
+    @DisplayName("atualizarSituacoesCapacitacao deve gravar as contagens de cada competência")
+    void atualizarSituacoesCapacitacao_deveGravarContagens() {
+        when(agregadoRepo.definirSituacoes(anyLong(), anyLong(), anyInt(), anyInt(), anyInt(), anyInt(), anyInt())).thenReturn(1);
+
+        service.atualizarSituacoesCapacitacao(DIAGNOSTICO, List.of(
+                situacao(1L, ValorSituacaoCapacitacao.AC),
+                situacao(1L, ValorSituacaoCapacitacao.AC),
+                situacao(1L, ValorSituacaoCapacitacao.I),
+                situacao(2L, null)));
+
+        verify(agregadoRepo).definirSituacoes(DIAGNOSTICO, 1L, 0, 2, 0, 0, 1);
+        verify(agregadoRepo).definirSituacoes(DIAGNOSTICO, 2L, 0, 0, 0, 0, 0);
+        verifyNoMoreInteractions(agregadoRepo);
+    }
+
+    private static AvaliacaoServidor avaliacao(Long competenciaCodigo, Integer importancia, Integer dominio, Integer gap) {
+        Competencia competencia = new Competencia();
+        competencia.setCodigo(competenciaCodigo);
+        AvaliacaoServidor avaliacao = new AvaliacaoServidor();
+        avaliacao.setCompetencia(competencia);
+        avaliacao.setImportancia(importancia);
+        avaliacao.setDominio(dominio);
+        avaliacao.setGap(gap);
+        return avaliacao;
+    }
+
+    private static SituacaoCapacitacao situacao(Long competenciaCodigo, ValorSituacaoCapacitacao valor) {
+        Competencia competencia = new Competencia();
+        competencia.setCodigo(competenciaCodigo);
+        SituacaoCapacitacao situacao = new SituacaoCapacitacao();
+        situacao.setCompetencia(competencia);
+        situacao.setSituacaoCapacitacao(valor);
+        return situacao;
+    }
+}
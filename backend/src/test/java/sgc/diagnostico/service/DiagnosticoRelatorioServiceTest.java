@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import sgc.comum.erros.*;
 import sgc.diagnostico.model.*;
 import sgc.mapa.model.*;
 import sgc.organizacao.model.*;
@@ -21,9 +22,7 @@ class DiagnosticoRelatorioServiceTest {
     @Mock
     DiagnosticoRepo diagnosticoRepo;
     @Mock
-    AvaliacaoServidorRepo avaliacaoServidorRepo;
-    @Mock
-    SituacaoCapacitacaoRepo situacaoCapacitacaoRepo;
+    AgregadoGapCompetenciaRepo agregadoRepo;
     @Mock
     UnidadeService unidadeService;
 
@@ -31,45 +30,116 @@ class DiagnosticoRelatorioServiceTest {
     DiagnosticoRelatorioService service;
 
     @Test
-    @DisplayName("criarRelatorioGapDiagnostico deve usar o mapa vigente da unidade")
-    void criarRelatorioGapDiagnostico_deveUsarMapaVigenteDaUnidade() {
+    @DisplayName("criarRelatoriosGapDiagnostico deve usar o mapa vigente da unidade e a média dos agregados")
+    void criarRelatoriosGapDiagnostico_deveUsarMapaVigenteDaUnidade() {
         Subprocesso subprocesso = subprocesso(910L, 12L);
-        Diagnostico diagnostico = diagnostico(501L);
         Mapa mapaVigente = new Mapa();
         mapaVigente.setCompetencias(Set.of(competencia(77L, "Competência vigente")));
-        AvaliacaoServidor avaliacao = new AvaliacaoServidor();
-        avaliacao.setCompetencia(competencia(77L, "Competência vigente"));
-        avaliacao.setGap(2);
-
-        when(diagnosticoRepo.findBySubprocessoCodigo(910L)).thenReturn(Optional.of(diagnostico));
-        when(avaliacaoServidorRepo.listarPorDiagnostico(501L)).thenReturn(List.of(avaliacao));
+        AgregadoGapCompetencia agregado = AgregadoGapCompetencia.builder()
+                .diagnosticoCodigo(501L)
+                .competenciaCodigo(77L)
+                .somaGap(5)
+                .totalGap(3)
+                .build();
+
+        when(diagnosticoRepo.findBySubprocessoCodigoIn(List.of(910L))).thenReturn(List.of(diagnostico(501L, subprocesso)));
+        when(agregadoRepo.listarPorDiagnosticos(Set.of(501L))).thenReturn(List.of(agregado));
         when(unidadeService.buscarMapaVigente(12L)).thenReturn(Optional.of(mapaVigente));
 
-        var dto = service.criarRelatorioGapDiagnostico(subprocesso);
+        var dtos = service.criarRelatoriosGapDiagnostico(List.of(subprocesso));
 
-        assertThat(dto.competencias()).singleElement().satisfies(item -> {
-            assertThat(item.competenciaCodigo()).isEqualTo(77L);
-            assertThat(item.competenciaDescricao()).isEqualTo("Competência vigente");
-        });
+        assertThat(dtos).singleElement().satisfies(dto ->
+                assertThat(dto.competencias()).singleElement().satisfies(item -> {
+                    assertThat(item.competenciaCodigo()).isEqualTo(77L);
+                    assertThat(item.competenciaDescricao()).isEqualTo("Competência vigente");
+                    assertThat(item.mediaGap()).isEqualTo(1.67);
+                    assertThat(item.totalAvaliacoesConsideradas()).isEqualTo(3);
+                }));
+    }
+
+    @Test
+    @DisplayName("criarRelatoriosGapDiagnostico deve ler os agregados de todas as unidades numa única consulta")
+    void criarRelatoriosGapDiagnostico_deveLerAgregadosEmUmaConsulta() {
+        Subprocesso primeiro = subprocesso(910L, 12L);
+        Subprocesso segundo = subprocesso(911L, 13L);
+        Mapa mapa = new Mapa();
+        mapa.setCompetencias(Set.of(competencia(77L, "Competência")));
+
+        when(diagnosticoRepo.findBySubprocessoCodigoIn(List.of(910L, 911L)))
+                .thenReturn(List.of(diagnostico(501L, primeiro), diagnostico(502L, segundo)));
+        when(agregadoRepo.listarPorDiagnosticos(Set.of(501L, 502L))).thenReturn(List.of(
+                AgregadoGapCompetencia.builder().diagnosticoCodigo(502L).competenciaCodigo(77L).somaGap(4).totalGap(2).build()));
+        when(unidadeService.buscarMapaVigente(anyLong())).thenReturn(Optional.of(mapa));
+
+        var dtos = service.criarRelatoriosGapDiagnostico(List.of(primeiro, segundo));
+
+        assertThat(dtos).extracting(dto -> dto.competencias().getFirst().mediaGap()).containsExactly(null, 2.0);
+        verify(agregadoRepo).listarPorDiagnosticos(anyCollection());
     }
 
     @Test
-    @DisplayName("criarRelatorioGapDiagnostico deve falhar sem mapa vigente da unidade")
-    void criarRelatorioGapDiagnostico_deveFalharSemMapaVigente() {
+    @DisplayName("criarRelatoriosGapDiagnostico deve falhar sem mapa vigente da unidade")
+    void criarRelatoriosGapDiagnostico_deveFalharSemMapaVigente() {
         Subprocesso subprocesso = subprocesso(910L, 12L);
-        Diagnostico diagnostico = diagnostico(501L);
 
-        when(diagnosticoRepo.findBySubprocessoCodigo(910L)).thenReturn(Optional.of(diagnostico));
-        when(avaliacaoServidorRepo.listarPorDiagnostico(501L)).thenReturn(List.of());
+        when(diagnosticoRepo.findBySubprocessoCodigoIn(List.of(910L))).thenReturn(List.of(diagnostico(501L, subprocesso)));
+        when(agregadoRepo.listarPorDiagnosticos(Set.of(501L))).thenReturn(List.of());
         when(unidadeService.buscarMapaVigente(12L)).thenReturn(Optional.empty());
 
-        assertThatThrownBy(() -> service.criarRelatorioGapDiagnostico(subprocesso))
+        List<Subprocesso> subprocessos = List.of(subprocesso);
+        assertThatThrownBy(() -> service.criarRelatoriosGapDiagnostico(subprocessos))
                 .hasMessageContaining("Processo de diagnóstico sem mapa vigente");
     }
 
-    private Diagnostico diagnostico(Long codigo) {
+    @Test
+    @DisplayName("criarRelatoriosGapDiagnostico deve falhar quando algum subprocesso não tiver diagnóstico")
+    void criarRelatoriosGapDiagnostico_deveFalharSemDiagnostico() {
+        Subprocesso subprocesso = subprocesso(910L, 12L);
+
+        when(diagnosticoRepo.findBySubprocessoCodigoIn(List.of(910L))).thenReturn(List.of());
+
+        List<Subprocesso> subprocessos = List.of(subprocesso);
+        assertThatThrownBy(() -> service.criarRelatoriosGapDiagnostico(subprocessos))
+                .isInstanceOf(ErroEntidadeNaoEncontrada.class);
+        verifyNoInteractions(agregadoRepo);
+    }
+
+    @Test
+    @DisplayName("criarRelatoriosSituacaoCapacitacaoDiagnostico deve usar as contagens dos agregados")
+    void criarRelatoriosSituacaoCapacitacaoDiagnostico_deveUsarContagensDosAgregados() {
+        Subprocesso subprocesso = subprocesso(910L, 12L);
+        Mapa mapaVigente = new Mapa();
+        mapaVigente.setCompetencias(Set.of(competencia(77L, "Competência vigente")));
+        AgregadoGapCompetencia agregado = AgregadoGapCompetencia.builder()
+                .diagnosticoCodigo(501L)
+                .competenciaCodigo(77L)
+                .totalNaoSeAplica(1)
+                .totalACapacitar(2)
+                .totalEmCapacitacao(3)
+                .totalCapacitado(4)
+                .totalInstrutor(5)
+                .build();
+
+        when(diagnosticoRepo.findBySubprocessoCodigoIn(List.of(910L))).thenReturn(List.of(diagnostico(501L, subprocesso)));
+        when(agregadoRepo.listarPorDiagnosticos(Set.of(501L))).thenReturn(List.of(agregado));
+        when(unidadeService.buscarMapaVigente(12L)).thenReturn(Optional.of(mapaVigente));
+
+        var dtos = service.criarRelatoriosSituacaoCapacitacaoDiagnostico(List.of(subprocesso));
+
+        assertThat(dtos).singleElement().satisfies(dto ->
+                assertThat(dto.competencias()).singleElement().satisfies(item -> {
+                    assertThat(item.totalNaoSeAplica()).isEqualTo(1);
+                    assertThat(item.totalACapacitar()).isEqualTo(2);
+                    assertThat(item.totalEmCapacitacao()).isEqualTo(3);
+                    assertThat(item.totalCapacitado()).isEqualTo(4);
+                    assertThat(item.totalInstrutor()).isEqualTo(5);
+                }));
+    }
+
+    private Diagnostico diagnostico(Long codigo, Subprocesso subprocesso) {
         Diagnostico diagnostico = new Diagnostico();
         diagnostico.setCodigo(codigo);
+        diagnostico.setSubprocesso(subprocesso);
         return diagnostico;
     }
 
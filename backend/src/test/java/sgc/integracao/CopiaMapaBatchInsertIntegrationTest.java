@@ -0,0 +1,141 @@
+package sgc.integracao;
+
+import jakarta.persistence.*;
+import org.junit.jupiter.api.*;
+import org.slf4j.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.test.context.*;
+import sgc.mapa.model.*;
+import sgc.mapa.service.*;
+import sgc.organizacao.model.*;
+import sgc.processo.model.*;
+import sgc.subprocesso.model.*;
+
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Tag("integration")
+@TestPropertySource(properties = {
+        "spring.jpa.properties.hibernate.jdbc.batch_size=50",
+        "spring.jpa.properties.hibernate.order_inserts=true"
+})
+@DisplayName("Batching de inserts na cópia de mapa")
+class CopiaMapaBatchInsertIntegrationTest extends BaseIntegrationTest {
+    private static final Logger logger = LoggerFactory.getLogger(CopiaMapaBatchInsertIntegrationTest.class);
+    private static final int QTD_ATIVIDADES = 120;
+    private static final int CONHECIMENTOS_POR_ATIVIDADE = 2;
+    private static final int QTD_COMPETENCIAS = 10;
+
+    @Autowired
+    private CopiaMapaService copiaMapaService;
+    @Autowired
+    private CompetenciaRepo competenciaRepo;
+    @Autowired
+    private EntityManager entityManager;
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private Long codMapaOrigem;
+    private Long codSubprocessoDestino;
+
+    @BeforeEach
+    void setUp() {
+        Unidade unidade = unidadeRepo.findById(8L).orElseThrow();
+        Subprocesso subprocessoOrigem = criarSubprocesso(unidade, "Processo origem batch");
+        codSubprocessoDestino = criarSubprocesso(unidade, "Processo destino batch").getCodigo();
+
+        Mapa mapaOrigem = mapaRepo.save(Mapa.builder().subprocesso(subprocessoOrigem).build());
+        codMapaOrigem = mapaOrigem.getCodigo();
+
+        List<Atividade> atividades = new ArrayList<>();
+        for (int i = 0; i < QTD_ATIVIDADES; i++) {
+            Atividade atividade = Atividade.builder()
+                    .mapa(mapaOrigem)
+                    .descricao("Atividade batch %03d".formatted(i))
+                    .build();
+            for (int j = 0; j < CONHECIMENTOS_POR_ATIVIDADE; j++) {
+                atividade.getConhecimentos().add(Conhecimento.builder()
+                        .atividade(atividade)
+                        .descricao("Conhecimento batch %03d-%d".formatted(i, j))
+                        .build());
+            }
+            atividades.add(atividade);
+        }
+        atividadeRepo.saveAll(atividades);
+
+        for (int c = 0; c < QTD_COMPETENCIAS; c++) {
+            Competencia competencia = competenciaRepo.save(Competencia.builder()
+                    .mapa(mapaOrigem)
+                    .descricao("Competência batch %02d".formatted(c))
+                    .build());
+            for (int i = c; i < QTD_ATIVIDADES; i += QTD_COMPETENCIAS) {
+                atividades.get(i).getCompetencias().add(competencia);
+            }
+        }
+
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    @Test
+    @DisplayName("Cópia de mapa grande deve agrupar inserts em lotes")
+    void copiaDeMapaGrandeDeveAgruparInsertsEmLotes() {
+        MetricasExecucaoTeste.ResultadoMedicao medicao = MetricasExecucaoTeste.medir(
+                entityManager,
+                entityManagerFactory,
+                "mapa.copiarMapaParaUnidade",
+                () -> {
+                    Subprocesso destino = subprocessoRepo.findById(codSubprocessoDestino).orElseThrow();
+                    Mapa copia = copiaMapaService.copiarMapaParaUnidade(codMapaOrigem, destino);
+                    entityManager.flush();
+                    return copia.getCodigo();
+                },
+                "INSERT INTO SGC.ATIVIDADE",
+                "INSERT INTO SGC.CONHECIMENTO",
+                "INSERT INTO SGC.COMPETENCIA_ATIVIDADE",
+                "ATIVIDADE_SEQ"
+        );
+        logger.info("Medicao batch: {}", medicao.resumo());
+
+        long linhasInseridas = 1
+                + QTD_ATIVIDADES
+                + (long) QTD_ATIVIDADES * CONHECIMENTOS_POR_ATIVIDADE
+                + QTD_COMPETENCIAS
+                + QTD_ATIVIDADES;
+
+        assertThat(medicao.contagensPorTrecho().get("INSERT INTO SGC.ATIVIDADE"))
+                .as("Atividades devem ser inseridas em lotes de 50: %s", medicao.resumo())
+                .isLessThanOrEqualTo(3);
+        assertThat(medicao.contagensPorTrecho().get("INSERT INTO SGC.CONHECIMENTO"))
+                .as("Conhecimentos devem ser inseridos em lotes de 50: %s", medicao.resumo())
+                .isLessThanOrEqualTo(5);
+        assertThat(medicao.contagensPorTrecho().get("ATIVIDADE_SEQ"))
+                .as("Códigos devem ser reservados em blocos pela sequência: %s", medicao.resumo())
+                .isLessThanOrEqualTo(3);
+        assertThat(medicao.preparedStatements())
+                .as("Statements preparados devem ser muito menores que as %d linhas inseridas: %s",
+                        linhasInseridas, medicao.resumo())
+                .isLessThan(linhasInseridas / 5);
+
+        Long codMapaCopia = (Long) medicao.resultado();
+        assertThat(atividadeRepo.findByMapa_Codigo(codMapaCopia)).hasSize(QTD_ATIVIDADES);
+        medicao.validarTempoSeEstrito(1500);
+    }
+
+    private Subprocesso criarSubprocesso(Unidade unidade, String descricao) {
+        Processo processo = processoRepo.save(Processo.builder()
+                .descricao(descricao)
+                .tipo(TipoProcesso.MAPEAMENTO)
+                .situacao(SituacaoProcesso.EM_ANDAMENTO)
+                .dataLimite(LocalDateTime.now().plusDays(10))
+                .build());
+        return subprocessoRepo.save(Subprocesso.builder()
+                .processo(processo)
+                .unidade(unidade)
+                .situacao(SituacaoSubprocesso.MAPEAMENTO_CADASTRO_EM_ANDAMENTO)
+                .dataLimiteEtapa1(LocalDateTime.now().plusDays(5))
+                .build());
+    }
+}
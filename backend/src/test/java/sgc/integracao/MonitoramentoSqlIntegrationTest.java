@@ -0,0 +1,78 @@
+package sgc.integracao;
+
+import io.micrometer.core.instrument.*;
+import jakarta.persistence.*;
+import jakarta.servlet.*;
+import org.junit.jupiter.api.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.mock.web.*;
+import org.springframework.test.context.*;
+import org.springframework.web.servlet.*;
+import sgc.comum.util.*;
+
+import java.io.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@Tag("integration")
+@TestPropertySource(properties = {
+        "sgc.monitoramento.sql.ativo=true",
+        "sgc.monitoramento.sql.limite-statements=3",
+        "sgc.monitoramento.sql.limite-repeticoes=2"
+})
+@DisplayName("Contagem de SQL por requisição com o Hibernate real")
+class MonitoramentoSqlIntegrationTest extends BaseIntegrationTest {
+    private static final List<Long> CODIGOS_UNIDADES = List.of(2L, 3L, 4L, 5L);
+
+    @Autowired
+    private FiltroMonitoramentoHttp filtroMonitoramentoHttp;
+    @Autowired
+    private MeterRegistry meterRegistry;
+    @Autowired
+    private EntityManager entityManager;
+
+    @Test
+    @DisplayName("Deve contar os statements da requisição e apontar orçamento excedido e statement repetido")
+    void deveApontarOrcamentoExcedidoEStatementRepetido() throws ServletException, IOException {
+        String rota = "/api/teste/sql-por-unidade";
+
+        executarRequisicao(rota, () -> CODIGOS_UNIDADES.forEach(unidadeRepo::buscarSiglaPorCodigo));
+
+        assertThat(meterRegistry.get("sgc.sql.statements").tag("rota", rota).summary().totalAmount())
+                .isEqualTo(CODIGOS_UNIDADES.size());
+        assertThat(meterRegistry.get("sgc.sql.linhas").tag("rota", rota).summary().totalAmount())
+                .isEqualTo(CODIGOS_UNIDADES.size());
+        assertThat(meterRegistry.get("sgc.sql.violacoes").tag("rota", rota).tag("tipo", "orcamento").counter().count())
+                .isEqualTo(1);
+        assertThat(meterRegistry.get("sgc.sql.violacoes").tag("rota", rota).tag("tipo", "repeticao").counter().count())
+                .isEqualTo(1);
+    }
+
+    @Test
+    @DisplayName("Não deve apontar violação quando a requisição fica dentro dos limites")
+    void naoDeveApontarViolacaoDentroDosLimites() throws ServletException, IOException {
+        String rota = "/api/teste/sql-em-lote";
+
+        executarRequisicao(rota, () -> unidadeRepo.buscarSiglasPorCodigos(CODIGOS_UNIDADES));
+
+        assertThat(meterRegistry.get("sgc.sql.statements").tag("rota", rota).summary().totalAmount()).isEqualTo(1);
+        assertThat(meterRegistry.get("sgc.sql.violacoes").tag("rota", rota).tag("tipo", "orcamento").counter().count())
+                .isZero();
+        assertThat(meterRegistry.get("sgc.sql.violacoes").tag("rota", rota).tag("tipo", "repeticao").counter().count())
+                .isZero();
+    }
+
+    /**
+     * Passa pelo filtro registrado no contexto; a cadeia faz o papel do controller, executando as consultas na
+     * thread da requisição e marcando a rota mapeada como o {@link DispatcherServlet} faria.
+     */
+    private void executarRequisicao(String rota, Runnable consultas) throws ServletException, IOException {
+        entityManager.clear();
+        filtroMonitoramentoHttp.doFilter(new MockHttpServletRequest("GET", rota), new MockHttpServletResponse(),
+                (req, res) -> {
+                    req.setAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE, rota);
+                    consultas.run();
+                });
+    }
+}
@@ -46,8 +46,9 @@ class OrganizacaoViewsQueryBudgetIntegrationTest extends BaseIntegrationTest {
     void deveManterBudgetDeQueriesNasLeiturasOrganizacionaisMaisComuns() {
         AmostrasConsulta amostras = carregarAmostras();
 
-        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarArvoreHierarquica())).isLessThanOrEqualTo(1);
-        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarMapaHierarquia())).isLessThanOrEqualTo(1);
+        // A primeira leitura monta o snapshot organizacional: uma query por view (unidades, usuários, responsabilidades).
+        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarArvoreHierarquica())).isLessThanOrEqualTo(3);
+        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarMapaHierarquia())).isZero();
         assertThat(contarQueriesViews(() -> usuarioService.buscarOpt(amostras.tituloUsuario()))).isLessThanOrEqualTo(2);
         assertThat(contarQueriesViews(() -> usuarioService.buscarPorUnidadeLotacao(amostras.codigoUnidadeLotacao()))).isLessThanOrEqualTo(2);
         assertThat(contarQueriesViews(() -> usuarioService.pesquisarPorNome(amostras.termoBuscaUsuario()))).isLessThanOrEqualTo(1);
@@ -60,10 +61,9 @@ class OrganizacaoViewsQueryBudgetIntegrationTest extends BaseIntegrationTest {
     @Test
     @DisplayName("Deve reutilizar cache sem preparar novas queries nos acessos repetidos")
     void deveReutilizarCacheSemPrepararNovasQueriesNosAcessosRepetidos() {
-        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarArvoreHierarquica())).isLessThanOrEqualTo(1);
+        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarArvoreHierarquica())).isLessThanOrEqualTo(3);
         assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarArvoreHierarquica())).isZero();
 
-        assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarMapaHierarquia())).isLessThanOrEqualTo(1);
         assertThat(contarQueriesViews(() -> unidadeHierarquiaService.buscarMapaHierarquia())).isZero();
 
         assertThat(contarQueriesViews(unidadeService::buscarAdmin)).isLessThanOrEqualTo(1);
@@ -13,6 +13,7 @@ import sgc.alerta.model.*;
 import sgc.mapa.model.*;
 import sgc.organizacao.*;
 import sgc.organizacao.model.*;
+import sgc.organizacao.service.*;
 import sgc.processo.dto.*;
 import sgc.processo.model.*;
 import sgc.processo.painel.*;
@@ -46,6 +47,8 @@ class ProcessoSubprocessoViewsQueryBudgetIntegrationTest extends BaseIntegration
     private AlertaRepo alertaRepo;
     @Autowired
     private AlertaUsuarioRepo alertaUsuarioRepo;
+    @Autowired
+    private CacheViewsOrganizacaoService cacheViewsOrganizacaoService;
 
     private Unidade unidadeFilha;
     private Usuario usuarioAdmin;
@@ -78,6 +81,8 @@ class ProcessoSubprocessoViewsQueryBudgetIntegrationTest extends BaseIntegration
 
         entityManager.flush();
         entityManager.clear();
+        // Em produção o snapshot organizacional é aquecido na inicialização e trocado em segundo plano.
+        cacheViewsOrganizacaoService.buscarSnapshot();
     }
 
     @Test
@@ -23,8 +23,9 @@ import sgc.seguranca.login.*;
 public class TestSecurityConfig {
     @Bean
     @ConditionalOnBean(GerenciadorJwt.class)
-    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService, ListaNegraJwt listaNegraJwt) {
-        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt);
+    public FiltroJwt filtroJwt(GerenciadorJwt gerenciadorJwt, UsuarioAplicacaoService usuarioAplicacaoService,
+                               ListaNegraJwt listaNegraJwt, CachePrincipalJwt cachePrincipalJwt) {
+        return new FiltroJwt(gerenciadorJwt, usuarioAplicacaoService, listaNegraJwt, cachePrincipalJwt);
     }
 
     @Bean
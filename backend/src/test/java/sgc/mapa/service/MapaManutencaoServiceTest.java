@@ -72,9 +72,12 @@ class MapaManutencaoServiceTest {
 
     @Test
     void salvarCompetencia_ok() {
+        Mapa mapa = new Mapa();
         Competencia c = new Competencia();
+        c.setMapa(mapa);
         mapaService.salvarCompetencia(c);
         verify(competenciaRepo).save(c);
+        assertThat(mapa.getVersao()).isEqualTo(1);
     }
 
     @Test
@@ -122,6 +125,7 @@ class MapaManutencaoServiceTest {
         mapaService.atualizarAtividade(1L, new AtualizarAtividadeRequest("descricao"));
 
         verify(atividadeRepo).save(atividade);
+        assertThat(mapa.getVersao()).isEqualTo(1);
     }
 
     @Test
@@ -143,6 +147,7 @@ class MapaManutencaoServiceTest {
 
         assertThat(atividade.getDescricao()).isEqualTo("Original");
         verify(atividadeRepo).saveAll(List.of(atividade));
+        assertThat(mapa.getVersao()).isEqualTo(1);
     }
 
     @Test
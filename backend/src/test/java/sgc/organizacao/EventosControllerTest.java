@@ -10,6 +10,7 @@ import org.springframework.security.test.context.support.*;
 import org.springframework.test.context.bean.override.mockito.*;
 import org.springframework.test.web.servlet.*;
 import org.springframework.web.servlet.mvc.method.annotation.*;
+import sgc.organizacao.model.*;
 import sgc.organizacao.service.*;
 import sgc.seguranca.config.*;
 
@@ -28,18 +29,23 @@ class EventosControllerTest {
     @MockitoBean
     private RegistroSseEmitter registroSseEmitter;
 
+    @MockitoBean
+    private UsuarioAplicacaoService usuarioAplicacaoService;
+
     @Test
-    @DisplayName("deve registrar e retornar emissor SSE")
+    @DisplayName("deve registrar emissor SSE nos canais do usuário autenticado")
     @WithMockUser
     void deveAssinarSse() throws Exception {
+        ContextoUsuarioAutenticado contexto = new ContextoUsuarioAutenticado("123", 1L, Perfil.GESTOR);
         SseEmitter emitter = new SseEmitter();
-        when(registroSseEmitter.registrar()).thenReturn(emitter);
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(contexto);
+        when(registroSseEmitter.registrar(contexto)).thenReturn(emitter);
 
         mockMvc.perform(get("/api/eventos")
                         .accept(MediaType.TEXT_EVENT_STREAM_VALUE))
                 .andExpect(status().isOk());
 
-        verify(registroSseEmitter).registrar();
+        verify(registroSseEmitter).registrar(contexto);
     }
 
 }
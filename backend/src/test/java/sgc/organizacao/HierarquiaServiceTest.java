@@ -84,6 +84,7 @@ class HierarquiaServiceTest {
     void deveRetornarFalseQuandoUnidadeAlvoNaoTemSuperior() {
         Unidade alvo = criarUnidade(1L, null);
         Unidade superior = criarUnidade(2L, null);
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(IndiceHierarquia.vazio());
 
         assertThat(hierarquiaService.isSubordinada(alvo, superior)).isFalse();
     }
@@ -93,7 +94,7 @@ class HierarquiaServiceTest {
     void deveRetornarTrueQuandoUnidadeDiretamenteSubordinada() {
         Unidade superior = criarUnidade(1L, null);
         Unidade alvo = criarUnidade(2L, superior);
-        when(unidadeHierarquiaService.buscarIdsDescendentes(1L)).thenReturn(List.of(2L));
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(indice(leitura(1L, null), leitura(2L, 1L)));
 
         assertThat(hierarquiaService.isSubordinada(alvo, superior)).isTrue();
     }
@@ -104,7 +105,8 @@ class HierarquiaServiceTest {
         Unidade raiz = criarUnidade(1L, null);
         Unidade intermediaria = criarUnidade(2L, raiz);
         Unidade alvo = criarUnidade(3L, intermediaria);
-        when(unidadeHierarquiaService.buscarIdsDescendentes(1L)).thenReturn(List.of(2L, 3L));
+        when(unidadeHierarquiaService.buscarIndiceHierarquia())
+                .thenReturn(indice(leitura(1L, null), leitura(2L, 1L), leitura(3L, 2L)));
 
         assertThat(hierarquiaService.isSubordinada(alvo, raiz)).isTrue();
     }
@@ -114,7 +116,7 @@ class HierarquiaServiceTest {
     void deveRetornarFalseEmEhMesmaOuSubordinadaQuandoNaoSubordinada() {
         Unidade unidade1 = criarUnidade(1L, null);
         Unidade unidade2 = criarUnidade(2L, null);
-        when(unidadeHierarquiaService.buscarIdsDescendentes(2L)).thenReturn(List.of());
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(indice(leitura(1L, null), leitura(2L, null)));
         when(unidadeHierarquiaService.buscarCodigoPai(1L)).thenReturn(null);
 
         assertThat(hierarquiaService.ehMesmaOuSubordinada(unidade1, unidade2)).isFalse();
@@ -126,7 +128,8 @@ class HierarquiaServiceTest {
         Unidade raiz1 = criarUnidade(1L, null);
         Unidade raiz2 = criarUnidade(2L, null);
         Unidade alvo = criarUnidade(3L, raiz1);
-        when(unidadeHierarquiaService.buscarIdsDescendentes(2L)).thenReturn(List.of());
+        when(unidadeHierarquiaService.buscarIndiceHierarquia())
+                .thenReturn(indice(leitura(1L, null), leitura(2L, null), leitura(3L, 1L)));
 
         assertThat(hierarquiaService.isSubordinada(alvo, raiz2)).isFalse();
     }
@@ -136,7 +139,7 @@ class HierarquiaServiceTest {
     void deveUsarSuperiorImediatoQuandoAlvoNaoApareceNoMapa() {
         Unidade raiz = criarUnidade(1L, null);
         Unidade alvo = criarUnidade(2L, raiz);
-        when(unidadeHierarquiaService.buscarIdsDescendentes(1L)).thenReturn(List.of());
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(IndiceHierarquia.vazio());
         when(unidadeHierarquiaService.buscarCodigoPai(2L)).thenReturn(1L);
 
         assertThat(hierarquiaService.isSubordinada(alvo, raiz)).isTrue();
@@ -155,7 +158,7 @@ class HierarquiaServiceTest {
     void deveRetornarTrueParaUnidadeSubordinadaEmEhMesmaOuSubordinada() {
         Unidade superior = criarUnidade(1L, null);
         Unidade alvo = criarUnidade(2L, superior);
-        when(unidadeHierarquiaService.buscarCodigoPai(2L)).thenReturn(1L);
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(indice(leitura(1L, null), leitura(2L, 1L)));
 
         assertThat(hierarquiaService.ehMesmaOuSubordinada(alvo, superior)).isTrue();
     }
@@ -180,6 +183,21 @@ class HierarquiaServiceTest {
         assertThat(hierarquiaService.isSuperiorImediata(alvo, raiz)).isFalse();
     }
 
+    private IndiceHierarquia indice(UnidadeHierarquiaLeitura... unidades) {
+        return IndiceHierarquia.construir(List.of(unidades));
+    }
+
+    private UnidadeHierarquiaLeitura leitura(Long codigo, Long codigoPai) {
+        return UnidadeHierarquiaLeitura.builder()
+                .codigo(codigo)
+                .nome("Unidade " + codigo)
+                .sigla("U" + codigo)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .unidadeSuperiorCodigo(codigoPai)
+                .build();
+    }
+
     private Unidade criarUnidade(Long codigo, Unidade superior) {
         Unidade unidade = new Unidade();
         unidade.setCodigo(codigo);
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.webmvc.test.autoconfigure.*;
 import org.springframework.context.annotation.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.config.annotation.method.configuration.*;
 import org.springframework.security.test.context.support.*;
@@ -132,6 +133,31 @@ class UnidadeControllerTest {
                 .andExpect(jsonPath("$").isEmpty());
     }
 
+    @Test
+    @DisplayName("Deve versionar a árvore de unidades pelo snapshot organizacional")
+    @WithMockUser
+    void deveVersionarArvoreDeUnidades() throws Exception {
+        when(hierarquiaService.versaoHierarquia()).thenReturn(7L);
+        when(hierarquiaService.buscarArvoreHierarquica()).thenReturn(Collections.emptyList());
+
+        mockMvc.perform(get("/api/unidades"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.ETAG, "\"unidades-7\""))
+                .andExpect(header().string(HttpHeaders.CACHE_CONTROL, "no-cache, private"));
+    }
+
+    @Test
+    @DisplayName("Deve responder 304 sem montar a árvore quando a versão não mudou")
+    @WithMockUser
+    void deveResponderNaoModificadoSemMontarArvore() throws Exception {
+        when(hierarquiaService.versaoHierarquia()).thenReturn(7L);
+
+        mockMvc.perform(get("/api/unidades").header(HttpHeaders.IF_NONE_MATCH, "\"unidades-7\""))
+                .andExpect(status().isNotModified());
+
+        verify(hierarquiaService, never()).buscarArvoreHierarquica();
+    }
+
     @Test
     @DisplayName("Deve retornar diagnostico organizacional para ADMIN")
     @WithMockUser(roles = "ADMIN")
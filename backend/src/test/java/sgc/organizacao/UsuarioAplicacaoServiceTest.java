@@ -175,7 +175,7 @@ class UsuarioAplicacaoServiceTest {
             String titulo = "123456";
             Usuario usuario = criarUsuario(titulo);
 
-            when(usuarioService.buscarOpt(titulo)).thenReturn(Optional.of(usuario));
+            when(usuarioService.buscarOptComUnidadeLotacao(titulo)).thenReturn(Optional.of(usuario));
 
             Usuario resultado = usuarioAplicacaoService.carregarUsuarioSemAtribuicoesParaAutenticacao(titulo);
 
@@ -186,7 +186,7 @@ class UsuarioAplicacaoServiceTest {
         @Test
         @DisplayName("Deve retornar null na autenticação leve se usuário não encontrado")
         void deveRetornarNullNaAutenticacaoLeveSeNaoEncontrado() {
-            when(usuarioService.buscarOpt("1")).thenReturn(Optional.empty());
+            when(usuarioService.buscarOptComUnidadeLotacao("1")).thenReturn(Optional.empty());
 
             assertThat(usuarioAplicacaoService.carregarUsuarioSemAtribuicoesParaAutenticacao("1")).isNull();
             verify(usuarioService, never()).buscarPerfisPorUsuarioTitulo(any());
@@ -0,0 +1,69 @@
+package sgc.organizacao.model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IndiceBuscaUsuarios")
+class IndiceBuscaUsuariosTest {
+
+    private final IndiceBuscaUsuarios indice = IndiceBuscaUsuarios.construir(List.of(
+            usuario("111", "João da Silva"),
+            usuario("222", "Maria Conceição Souza"),
+            usuario("333", "Ana Maria Lima"),
+            usuario("1704", "Sílvio Araújo"),
+            usuario("444", "José Silveira-Neto")
+    ));
+
+    @Test
+    @DisplayName("deve encontrar por prefixo de qualquer palavra do nome, em ordem de nome")
+    void deveEncontrarPorQualquerPalavra() {
+        assertThat(nomes(indice.buscar("mar", 20))).containsExactly("Ana Maria Lima", "Maria Conceição Souza");
+        assertThat(nomes(indice.buscar("neto", 20))).containsExactly("José Silveira-Neto");
+    }
+
+    @Test
+    @DisplayName("deve ignorar acentos e maiúsculas no termo e no nome")
+    void deveIgnorarAcentosEMaiusculas() {
+        assertThat(nomes(indice.buscar("CONCEICAO", 20))).containsExactly("Maria Conceição Souza");
+        assertThat(nomes(indice.buscar("silv", 20))).containsExactly("José Silveira-Neto", "João da Silva", "Sílvio Araújo");
+        assertThat(nomes(indice.buscar("jôao", 20))).containsExactly("João da Silva");
+    }
+
+    @Test
+    @DisplayName("deve exigir todas as palavras do termo")
+    void deveExigirTodasAsPalavras() {
+        assertThat(nomes(indice.buscar("maria lim", 20))).containsExactly("Ana Maria Lima");
+        assertThat(indice.buscar("maria araujo", 20)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve encontrar por prefixo do título eleitoral")
+    void deveEncontrarPorTitulo() {
+        assertThat(indice.buscar("17", 20))
+                .extracting(UsuarioConsultaLeitura::tituloEleitoral)
+                .containsExactly("1704");
+    }
+
+    @Test
+    @DisplayName("deve respeitar o limite mantendo os primeiros por nome")
+    void deveRespeitarLimite() {
+        assertThat(nomes(indice.buscar("s", 2))).containsExactly("José Silveira-Neto", "João da Silva");
+        assertThat(indice.buscar("   ", 20)).isEmpty();
+        assertThat(indice.buscar("xyz", 20)).isEmpty();
+    }
+
+    private static List<String> nomes(List<UsuarioConsultaLeitura> usuarios) {
+        return usuarios.stream().map(UsuarioConsultaLeitura::nome).toList();
+    }
+
+    private static UsuarioConsultaLeitura usuario(String titulo, String nome) {
+        return UsuarioConsultaLeitura.builder()
+                .tituloEleitoral(titulo)
+                .nome(nome)
+                .unidadeCodigo(1L)
+                .build();
+    }
+}
@@ -0,0 +1,96 @@
+package sgc.organizacao.model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("IndiceHierarquia")
+class IndiceHierarquiaTest {
+
+    @Test
+    @DisplayName("deve reconhecer subordinação direta e indireta")
+    void deveReconhecerSubordinacaoDiretaEIndireta() {
+        IndiceHierarquia indice = IndiceHierarquia.construir(List.of(
+                unidade(1L, null),
+                unidade(2L, 1L),
+                unidade(3L, 2L),
+                unidade(4L, 1L)
+        ));
+
+        assertThat(indice.isSubordinada(2L, 1L)).isTrue();
+        assertThat(indice.isSubordinada(3L, 1L)).isTrue();
+        assertThat(indice.isSubordinada(3L, 2L)).isTrue();
+        assertThat(indice.isSubordinada(4L, 2L)).isFalse();
+        assertThat(indice.isSubordinada(1L, 2L)).isFalse();
+        assertThat(indice.isSubordinada(1L, 1L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve listar descendentes em pré-ordem como faixa contígua")
+    void deveListarDescendentesEmPreOrdem() {
+        IndiceHierarquia indice = IndiceHierarquia.construir(List.of(
+                unidade(1L, null),
+                unidade(2L, 1L),
+                unidade(4L, 1L),
+                unidade(3L, 2L),
+                unidade(5L, null)
+        ));
+
+        assertThat(indice.buscarDescendentes(1L)).containsExactly(2L, 3L, 4L);
+        assertThat(indice.buscarDescendentes(2L)).containsExactly(3L);
+        assertThat(indice.buscarDescendentes(5L)).isEmpty();
+        assertThat(indice.buscarDescendentes(99L)).isEmpty();
+
+        int posicaoRaiz = indice.posicao(1L);
+        assertThat(indice.fimSubarvore(posicaoRaiz) - posicaoRaiz).isEqualTo(3);
+        assertThat(indice.tamanho()).isEqualTo(5);
+    }
+
+    @Test
+    @DisplayName("deve tratar superior ausente como raiz e ignorar unidades desconhecidas")
+    void deveTratarSuperiorAusenteComoRaiz() {
+        IndiceHierarquia indice = IndiceHierarquia.construir(List.of(
+                unidade(10L, 999L),
+                unidade(11L, 10L)
+        ));
+
+        assertThat(indice.isSubordinada(11L, 10L)).isTrue();
+        assertThat(indice.isSubordinada(10L, 999L)).isFalse();
+        assertThat(indice.contem(999L)).isFalse();
+        assertThat(indice.posicao(999L)).isEqualTo(-1);
+    }
+
+    @Test
+    @DisplayName("não deve entrar em laço quando há ciclo na hierarquia")
+    void naoDeveEntrarEmLacoComCiclo() {
+        IndiceHierarquia indice = IndiceHierarquia.construir(List.of(
+                unidade(1L, null),
+                unidade(2L, 3L),
+                unidade(3L, 2L)
+        ));
+
+        assertThat(indice.contem(1L)).isTrue();
+        assertThat(indice.contem(2L)).isFalse();
+        assertThat(indice.isSubordinada(2L, 3L)).isFalse();
+    }
+
+    @Test
+    @DisplayName("deve retornar índice vazio para lista vazia")
+    void deveRetornarIndiceVazio() {
+        assertThat(IndiceHierarquia.construir(List.of())).isSameAs(IndiceHierarquia.vazio());
+        assertThat(IndiceHierarquia.vazio().isSubordinada(1L, 2L)).isFalse();
+    }
+
+    private UnidadeHierarquiaLeitura unidade(Long codigo, Long codigoPai) {
+        return UnidadeHierarquiaLeitura.builder()
+                .codigo(codigo)
+                .nome("Unidade " + codigo)
+                .sigla("U" + codigo)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .unidadeSuperiorCodigo(codigoPai)
+                .build();
+    }
+}
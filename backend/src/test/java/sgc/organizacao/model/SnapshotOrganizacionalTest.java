@@ -0,0 +1,94 @@
+package sgc.organizacao.model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("SnapshotOrganizacional")
+class SnapshotOrganizacionalTest {
+
+    @Test
+    @DisplayName("deve indexar unidades por código e sigla e a hierarquia nos dois sentidos")
+    void deveIndexarUnidades() {
+        SnapshotOrganizacional snapshot = snapshot(List.of(
+                unidade(1L, "RAIZ", null),
+                unidade(2L, "SEC", 1L),
+                unidade(3L, "COORD", 2L)
+        ), List.of(), List.of());
+
+        assertThat(snapshot.unidade(2L)).extracting(UnidadeHierarquiaLeitura::sigla).isEqualTo("SEC");
+        assertThat(snapshot.unidadePorSigla("COORD")).extracting(UnidadeHierarquiaLeitura::codigo).isEqualTo(3L);
+        assertThat(snapshot.unidade(99L)).isNull();
+        assertThat(snapshot.codigoPai(3L)).isEqualTo(2L);
+        assertThat(snapshot.codigoPai(1L)).isNull();
+        assertThat(snapshot.codigosFilhos(1L)).containsExactly(2L);
+        assertThat(snapshot.codigosFilhos(3L)).isEmpty();
+        assertThat(snapshot.indice().isSubordinada(3L, 1L)).isTrue();
+    }
+
+    @Test
+    @DisplayName("deve indexar usuários por título e por lotação ordenados por nome")
+    void deveIndexarUsuarios() {
+        SnapshotOrganizacional snapshot = snapshot(List.of(unidade(1L, "RAIZ", null)), List.of(
+                usuario("3", "Carla", 1L),
+                usuario("1", "Ana", 1L),
+                usuario("2", "Bruno", 2L)
+        ), List.of());
+
+        assertThat(snapshot.usuario("2")).extracting(UsuarioConsultaLeitura::nome).isEqualTo("Bruno");
+        assertThat(snapshot.usuario("9")).isNull();
+        assertThat(snapshot.usuariosLotados(1L)).extracting(UsuarioConsultaLeitura::nome).containsExactly("Ana", "Carla");
+        assertThat(snapshot.usuariosLotados(5L)).isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve manter o primeiro registro duplicado e o último responsável informado")
+    void deveResolverDuplicidades() {
+        SnapshotOrganizacional snapshot = snapshot(List.of(
+                unidade(1L, "PRI", null),
+                unidade(1L, "SEG", null)
+        ), List.of(
+                usuario("1", "Primeiro", 1L),
+                usuario("1", "Segundo", 1L)
+        ), List.of(
+                new ResponsabilidadeLeitura(1L, "antigo"),
+                new ResponsabilidadeLeitura(1L, "atual")
+        ));
+
+        assertThat(snapshot.unidade(1L)).extracting(UnidadeHierarquiaLeitura::sigla).isEqualTo("PRI");
+        assertThat(snapshot.usuario("1")).extracting(UsuarioConsultaLeitura::nome).isEqualTo("Primeiro");
+        assertThat(snapshot.tituloResponsavel(1L)).isEqualTo("atual");
+    }
+
+    @Test
+    @DisplayName("deve expor índices imutáveis")
+    void deveExporIndicesImutaveis() {
+        SnapshotOrganizacional snapshot = snapshot(List.of(unidade(1L, "RAIZ", null), unidade(2L, "SEC", 1L)), List.of(), List.of());
+
+        assertThatThrownBy(() -> snapshot.paiPorFilho().put(3L, 1L)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.filhosPorPai().get(1L).add(3L)).isInstanceOf(UnsupportedOperationException.class);
+        assertThatThrownBy(() -> snapshot.unidades().clear()).isInstanceOf(UnsupportedOperationException.class);
+    }
+
+    private SnapshotOrganizacional snapshot(
+            List<UnidadeHierarquiaLeitura> unidades,
+            List<UsuarioConsultaLeitura> usuarios,
+            List<ResponsabilidadeLeitura> responsabilidades
+    ) {
+        return SnapshotOrganizacional.construir(1L, unidades, usuarios, responsabilidades);
+    }
+
+    private UnidadeHierarquiaLeitura unidade(Long codigo, String sigla, Long codigoPai) {
+        return new UnidadeHierarquiaLeitura(codigo, sigla, sigla, null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, codigoPai);
+    }
+
+    private UsuarioConsultaLeitura usuario(String titulo, String nome, Long unidadeCodigo) {
+        return UsuarioConsultaLeitura.builder()
+                .tituloEleitoral(titulo)
+                .nome(nome)
+                .unidadeCodigo(unidadeCodigo)
+                .build();
+    }
+}
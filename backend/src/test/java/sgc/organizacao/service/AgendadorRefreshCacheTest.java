@@ -1,11 +1,20 @@
 package sgc.organizacao.service;
 
+import io.micrometer.core.instrument.simple.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import org.springframework.cache.*;
+import org.springframework.cache.concurrent.*;
+import org.springframework.cache.interceptor.*;
+import sgc.comum.config.*;
+import sgc.organizacao.model.*;
 
+import java.time.*;
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -14,36 +23,140 @@ class AgendadorRefreshCacheTest {
     @Mock
     private CacheViewsOrganizacaoService cacheViewsOrganizacaoService;
 
+    @Mock
+    private CacheOrganizacaoService cacheOrganizacaoService;
+
     @Mock
     private CacheManager cacheManager;
 
     @Mock
     private RegistroSseEmitter registroSseEmitter;
 
-    @InjectMocks
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final Clock clock = Clock.fixed(Instant.parse("2026-04-21T12:00:00Z"), ZoneOffset.UTC);
+
     private AgendadorRefreshCache agendadorRefreshCache;
 
+    @BeforeEach
+    void setUp() {
+        agendadorRefreshCache = new AgendadorRefreshCache(
+                cacheViewsOrganizacaoService, cacheOrganizacaoService, cacheManager, registroSseEmitter, clock, meterRegistry);
+    }
+
+    @Test
+    @DisplayName("deve trocar o snapshot sem esvaziar os caches das views")
+    void deveTrocarSnapshotSemEsvaziarViews() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager();
+        when(cacheManager.getCache(anyString())).thenAnswer(inv -> caches.getCache(inv.getArgument(0)));
+        Cache cacheUnidades = caches.getCache(CacheConfig.CACHE_VW_UNIDADE);
+        cacheUnidades.put(SimpleKey.EMPTY, List.of());
+        List<UnidadeHierarquiaLeitura> unidades = List.of(UnidadeHierarquiaLeitura.builder()
+                .codigo(1L)
+                .sigla("RAIZ")
+                .tipo(TipoUnidade.RAIZ)
+                .situacao(SituacaoUnidade.ATIVA)
+                .build());
+        SnapshotOrganizacional snapshot = SnapshotOrganizacional.construir(7L, unidades, List.of(), List.of());
+        when(cacheViewsOrganizacaoService.carregarViews()).thenReturn(new ViewsOrganizacionais(snapshot, List.of()));
+
+        agendadorRefreshCache.atualizarTudo();
+
+        verify(cacheViewsOrganizacaoService, never()).evictarUnidades();
+        verify(cacheViewsOrganizacaoService, never()).evictarUsuarios();
+        assertThat(cacheUnidades.get(SimpleKey.EMPTY, List.class)).isEqualTo(unidades);
+        assertThat(caches.getCache(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL).get(SimpleKey.EMPTY)).isNotNull()
+                .extracting(Cache.ValueWrapper::get).isSameAs(snapshot);
+        verify(registroSseEmitter).transmitir("org-cache-refreshed");
+        assertThat(meterRegistry.get("org.cache.refresh.duration").tag("resultado", "sucesso").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("org.cache.snapshot.age").gauge().value()).isZero();
+    }
+
     @Test
-    @DisplayName("deve atualizar tudo com sucesso")
-    void deveAtualizarTudoComSucesso() {
+    @DisplayName("deve limpar os caches derivados depois da troca")
+    void deveLimparDerivadosDepoisDaTroca() {
         Cache cacheMock = mock(Cache.class);
         when(cacheManager.getCache(anyString())).thenReturn(cacheMock);
+        when(cacheViewsOrganizacaoService.carregarViews()).thenReturn(new ViewsOrganizacionais(
+                SnapshotOrganizacional.construir(1L, List.of(), List.of(), List.of()), List.of()));
 
-        agendadorRefreshCache.atualizarTudo();
+        agendadorRefreshCache.trocarSnapshot();
+
+        verify(cacheMock, times(5)).put(eq(SimpleKey.EMPTY), any());
+        verify(cacheMock, times(8)).clear();
+    }
+
+    @Test
+    @DisplayName("deve manter o snapshot e os caches derivados quando as views não mudarem")
+    void deveManterDerivadosQuandoViewsNaoMudarem() {
+        ConcurrentMapCacheManager caches = new ConcurrentMapCacheManager();
+        when(cacheManager.getCache(anyString())).thenAnswer(inv -> caches.getCache(inv.getArgument(0)));
+        SnapshotOrganizacional publicado = SnapshotOrganizacional.construir(1L, List.of(), List.of(), List.of());
+        caches.getCache(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL).put(SimpleKey.EMPTY, publicado);
+        caches.getCache(CacheConfig.CACHE_VW_USUARIO_PERFIL).put(SimpleKey.EMPTY, List.of());
+        Cache cacheAutorizacoes = caches.getCache(CacheConfig.CACHE_USUARIO_AUTORIZACOES);
+        cacheAutorizacoes.put("123", Set.of());
+        when(cacheViewsOrganizacaoService.carregarViews()).thenReturn(new ViewsOrganizacionais(
+                SnapshotOrganizacional.construir(2L, List.of(), List.of(), List.of()), List.of()));
+
+        agendadorRefreshCache.trocarSnapshot();
+
+        assertThat(caches.getCache(CacheConfig.CACHE_SNAPSHOT_ORGANIZACIONAL).get(SimpleKey.EMPTY))
+                .extracting(Cache.ValueWrapper::get).isSameAs(publicado);
+        assertThat(cacheAutorizacoes.get("123")).isNotNull();
+        assertThat(meterRegistry.get("org.cache.snapshot.age").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve refazer a leitura quando houver invalidação durante o carregamento")
+    void deveRefazerLeituraQuandoInvalidadoDuranteCarregamento() {
+        Cache cacheMock = mock(Cache.class);
+        when(cacheManager.getCache(anyString())).thenReturn(cacheMock);
+        when(cacheOrganizacaoService.geracaoInvalidacao()).thenReturn(0L, 1L, 1L, 1L);
+        when(cacheViewsOrganizacaoService.carregarViews()).thenReturn(new ViewsOrganizacionais(
+                SnapshotOrganizacional.construir(1L, List.of(), List.of(), List.of()), List.of()));
+
+        agendadorRefreshCache.trocarSnapshot();
+
+        verify(cacheViewsOrganizacaoService, times(2)).carregarViews();
+        verify(cacheMock, times(5)).put(eq(SimpleKey.EMPTY), any());
+        assertThat(meterRegistry.get("org.cache.snapshot.age").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve descartar o snapshot publicado quando houver invalidação durante a publicação")
+    void deveDescartarSnapshotQuandoInvalidadoDurantePublicacao() {
+        Cache cacheMock = mock(Cache.class);
+        when(cacheManager.getCache(anyString())).thenReturn(cacheMock);
+        when(cacheOrganizacaoService.geracaoInvalidacao()).thenReturn(0L, 0L, 1L, 1L, 1L, 1L);
+        when(cacheViewsOrganizacaoService.carregarViews()).thenReturn(new ViewsOrganizacionais(
+                SnapshotOrganizacional.construir(1L, List.of(), List.of(), List.of()), List.of()));
+
+        agendadorRefreshCache.trocarSnapshot();
+
+        verify(cacheViewsOrganizacaoService, times(2)).carregarViews();
+        verify(cacheViewsOrganizacaoService).evictarUnidades();
+        verify(cacheMock, times(10)).put(eq(SimpleKey.EMPTY), any());
+    }
+
+    @Test
+    @DisplayName("deve evictar e recarregar manualmente")
+    void deveEvictarERecarregarManualmente() {
+        Cache cacheMock = mock(Cache.class);
+        when(cacheManager.getCache(anyString())).thenReturn(cacheMock);
+
+        agendadorRefreshCache.evictarTodosCaches();
+        agendadorRefreshCache.recarregarCaches();
 
         verify(cacheViewsOrganizacaoService).evictarUnidades();
         verify(cacheViewsOrganizacaoService).evictarUsuarios();
         verify(cacheViewsOrganizacaoService).evictarResponsabilidades();
         verify(cacheViewsOrganizacaoService).evictarPerfisUnidade();
-
-        verify(cacheMock, times(9)).clear(); // 9 derived caches are cleared
-
+        verify(cacheMock, times(9)).clear();
         verify(cacheViewsOrganizacaoService).listarTodasUnidades();
         verify(cacheViewsOrganizacaoService).listarTodosUsuarios();
         verify(cacheViewsOrganizacaoService).listarTodasResponsabilidades();
         verify(cacheViewsOrganizacaoService).listarTodosPerfisUnidade();
-
-        verify(registroSseEmitter).transmitir("org-cache-refreshed");
+        verify(cacheViewsOrganizacaoService).buscarSnapshot();
     }
 
     @Test
@@ -57,14 +170,15 @@ class AgendadorRefreshCacheTest {
     }
 
     @Test
-    @DisplayName("deve lidar com excecoes durante atualizacao")
-    void deveLidarComExcecoesDuranteAtualizacao() {
-        doThrow(new RuntimeException("Erro forçado")).when(cacheViewsOrganizacaoService).evictarUnidades();
+    @DisplayName("deve manter o snapshot anterior quando a leitura falhar")
+    void deveManterSnapshotAnteriorQuandoLeituraFalhar() {
+        when(cacheViewsOrganizacaoService.carregarViews()).thenThrow(new RuntimeException("Erro forçado"));
 
         agendadorRefreshCache.atualizarTudo();
 
-        verify(cacheViewsOrganizacaoService).evictarUnidades();
-        verify(cacheViewsOrganizacaoService, never()).evictarUsuarios();
+        verifyNoInteractions(cacheManager);
         verify(registroSseEmitter, never()).transmitir(anyString());
+        assertThat(meterRegistry.get("org.cache.refresh.duration").tag("resultado", "falha").timer().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("org.cache.snapshot.age").gauge().value()).isNaN();
     }
 }
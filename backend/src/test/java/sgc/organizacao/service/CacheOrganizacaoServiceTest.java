@@ -1,14 +1,16 @@
 package sgc.organizacao.service;
 
+import io.micrometer.core.instrument.simple.*;
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import org.springframework.cache.*;
 import org.springframework.transaction.support.*;
+import sgc.comum.config.*;
+import sgc.comum.config.CacheConfig.*;
 
-import java.util.*;
-
+import static org.assertj.core.api.Assertions.*;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -22,6 +24,9 @@ class CacheOrganizacaoServiceTest {
     @Mock
     private RegistroSseEmitter registroSseEmitter;
 
+    @Spy
+    private SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
     @InjectMocks
     private CacheOrganizacaoService cacheOrganizacaoService;
 
@@ -35,9 +40,9 @@ class CacheOrganizacaoServiceTest {
     @Test
     @DisplayName("deve invalidar imediatamente quando não houver transação ativa")
     void deveInvalidarImediatamenteSemTransacaoAtiva() {
-        configurarCaches();
+        when(cacheManager.getCache(CacheConfig.CACHE_UNIDADES_COM_MAPA)).thenReturn(cacheOrganizacao);
 
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.UNIDADE_MAPA);
 
         verify(cacheOrganizacao).clear();
         verify(registroSseEmitter).transmitir("org-cache-refreshed");
@@ -47,31 +52,53 @@ class CacheOrganizacaoServiceTest {
     @DisplayName("deve aguardar afterCommit quando houver sincronização ativa")
     void deveAguardarAfterCommitComSincronizacaoAtiva() {
         TransactionSynchronizationManager.initSynchronization();
-        configurarCaches();
+        when(cacheManager.getCache(CacheConfig.CACHE_UNIDADES_COM_MAPA)).thenReturn(cacheOrganizacao);
 
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.UNIDADE_MAPA);
 
         verifyNoInteractions(cacheOrganizacao, registroSseEmitter);
+        assertThat(cacheOrganizacaoService.geracaoInvalidacao()).isZero();
 
         TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
 
+        assertThat(cacheOrganizacaoService.geracaoInvalidacao()).isEqualTo(1);
         verify(cacheOrganizacao).clear();
         verify(registroSseEmitter).transmitir("org-cache-refreshed");
     }
 
+    @Test
+    @DisplayName("deve limpar apenas os caches que dependem da fonte alterada")
+    void deveLimparApenasCachesDependentes() {
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.UNIDADE_MAPA);
+
+        verify(cacheManager).getCache(CacheConfig.CACHE_UNIDADES_COM_MAPA);
+        verifyNoMoreInteractions(cacheManager);
+    }
+
+    @Test
+    @DisplayName("deve contar as invalidações por cache")
+    void deveContarInvalidacoesPorCache() {
+        when(cacheManager.getCache(anyString())).thenReturn(cacheOrganizacao);
+
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.ADMINISTRADOR);
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.ADMINISTRADOR);
+
+        assertThat(meterRegistry.get("sgc.cache.invalidacoes").tag("cache", CacheConfig.CACHE_USUARIO_AUTORIZACOES).counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.get("sgc.cache.invalidacoes").tag("cache", CacheConfig.CACHE_VW_USUARIO_PERFIL).counter().count())
+                .isEqualTo(2);
+        assertThat(meterRegistry.find("sgc.cache.invalidacoes").tag("cache", CacheConfig.CACHE_VW_USUARIO).counter())
+                .isNull();
+    }
+
     @Test
     @DisplayName("deve ignorar cache nulo durante a invalidação")
     void deveIgnorarCacheNuloDuranteInvalidacao() {
-        when(cacheManager.getCacheNames()).thenReturn(List.of("inexistente"));
-        when(cacheManager.getCache("inexistente")).thenReturn(null);
+        when(cacheManager.getCache(CacheConfig.CACHE_UNIDADES_COM_MAPA)).thenReturn(null);
 
-        cacheOrganizacaoService.invalidarAposCommit();
+        cacheOrganizacaoService.invalidarAposCommit(FonteCache.UNIDADE_MAPA);
 
         verify(registroSseEmitter).transmitir("org-cache-refreshed");
-    }
-
-    private void configurarCaches() {
-        when(cacheManager.getCacheNames()).thenReturn(List.of("organizacao"));
-        when(cacheManager.getCache("organizacao")).thenReturn(cacheOrganizacao);
+        assertThat(meterRegistry.find("sgc.cache.invalidacoes").counters()).isEmpty();
     }
 }
@@ -194,6 +194,47 @@ class CacheViewsOrganizacaoServiceTest {
         assertThat(result.getFirst().perfil()).isEqualTo(Perfil.ADMIN);
     }
 
+    @Test
+    @DisplayName("deve carregar as views direto do banco sem passar pelos caches")
+    void carregarViews() {
+        UnidadeHierarquiaLeitura unidade = UnidadeHierarquiaLeitura.builder()
+                .codigo(10L)
+                .tipo(TipoUnidade.OPERACIONAL)
+                .situacao(SituacaoUnidade.ATIVA)
+                .build();
+        UsuarioConsultaLeitura servidor = UsuarioConsultaLeitura.builder()
+                .tituloEleitoral("servidor")
+                .unidadeCompetenciaCodigo(10L)
+                .build();
+        when(unidadeRepo.listarEstruturasAtivas()).thenReturn(List.of(unidade));
+        when(usuarioRepo.listarTodasConsultas()).thenReturn(List.of(servidor));
+        when(responsabilidadeRepo.listarTodasLeituras()).thenReturn(List.of());
+        when(administradorRepo.findAll()).thenReturn(List.of());
+        when(environment.acceptsProfiles(Profiles.of("test"))).thenReturn(false);
+
+        ViewsOrganizacionais views = cacheService.carregarViews();
+
+        assertThat(views.snapshot().unidades()).containsExactly(unidade);
+        assertThat(views.snapshot().usuario("servidor")).isEqualTo(servidor);
+        assertThat(views.snapshot().responsabilidades()).isEmpty();
+        assertThat(views.perfis()).containsExactly(new UsuarioPerfilLeitura("servidor", 10L, Perfil.SERVIDOR));
+        verifyNoInteractions(selfProvider);
+    }
+
+    @Test
+    @DisplayName("deve montar cada snapshot com versão maior que a anterior")
+    void buscarSnapshotComVersaoCrescente() {
+        when(selfProvider.getIfAvailable(org.mockito.ArgumentMatchers.any())).thenReturn(cacheService);
+        when(unidadeRepo.listarEstruturasAtivas()).thenReturn(List.of());
+        when(usuarioRepo.listarTodasConsultas()).thenReturn(List.of());
+        when(responsabilidadeRepo.listarTodasLeituras()).thenReturn(List.of());
+
+        SnapshotOrganizacional primeiro = cacheService.buscarSnapshot();
+        SnapshotOrganizacional segundo = cacheService.buscarSnapshot();
+
+        assertThat(segundo.versao()).isGreaterThan(primeiro.versao());
+    }
+
     @Test
     @DisplayName("deve evictar perfis de unidade sem erros")
     void evictarPerfisUnidade() {
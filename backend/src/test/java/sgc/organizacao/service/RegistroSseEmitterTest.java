@@ -1,19 +1,33 @@
 package sgc.organizacao.service;
 
+import io.micrometer.core.instrument.simple.*;
 import org.junit.jupiter.api.*;
 import org.springframework.web.servlet.mvc.method.annotation.*;
+import sgc.organizacao.*;
+import sgc.organizacao.model.*;
 
 import java.io.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
 
 import static org.assertj.core.api.Assertions.*;
 
 class RegistroSseEmitterTest {
+    private static final Duration INATIVIDADE_MAXIMA = Duration.ofSeconds(90);
 
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final RelogioAjustavel relogio = new RelogioAjustavel(Instant.parse("2026-04-21T12:00:00Z"));
     private RegistroSseEmitter registroSseEmitter;
 
     @BeforeEach
     void setUp() {
-        registroSseEmitter = new RegistroSseEmitter();
+        registroSseEmitter = new RegistroSseEmitter(new SimpleMeterRegistry(), relogio, 32, INATIVIDADE_MAXIMA.toMillis());
+    }
+
+    @AfterEach
+    void tearDown() {
+        registroSseEmitter.encerrar();
     }
 
     @Test
@@ -45,11 +59,11 @@ class RegistroSseEmitterTest {
     @DisplayName("deve remover emissor quando ocorrer IOException no envio")
     void deveRemoverEmissorQuandoOcorrerIOExceptionNoEnvio() {
         // Usamos o construtor package-private para injetar um SseSender que lança IOException
-        RegistroSseEmitter.SseSender senderComFalha = (emitter, evento) -> {
+        RegistroSseEmitter.SseSender senderComFalha = (emitter, evento, dados) -> {
             throw new IOException("falha simulada no envio");
         };
 
-        RegistroSseEmitter sseComFalha = new RegistroSseEmitter(senderComFalha);
+        RegistroSseEmitter sseComFalha = criar(senderComFalha, Runnable::run, 32);
         sseComFalha.registrar();
 
         assertThat(sseComFalha.obterQuantidadeEmissores()).isEqualTo(1);
@@ -59,4 +73,150 @@ class RegistroSseEmitterTest {
 
         assertThat(sseComFalha.obterQuantidadeEmissores()).isZero();
     }
+
+    @Test
+    @DisplayName("deve transmitir evento com conteúdo para emissores registrados")
+    void deveTransmitirEventoComConteudo() {
+        List<String> enviados = new ArrayList<>();
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> enviados.add(evento + ":" + dados), Runnable::run, 32);
+        registro.registrar();
+
+        registro.transmitir("relatorio-concluido", "abc");
+        registro.transmitir("org-cache-refreshed");
+
+        assertThat(enviados).containsExactly("relatorio-concluido:abc", "org-cache-refreshed:");
+    }
+
+    @Test
+    @DisplayName("deve transmitir só aos canais do usuário e da unidade ativa")
+    void deveTransmitirPorCanal() {
+        Map<SseEmitter, String> donos = new HashMap<>();
+        List<String> enviados = new ArrayList<>();
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> enviados.add(donos.get(emitter)), Runnable::run, 32);
+        donos.put(registro.registrar(new ContextoUsuarioAutenticado("111", 10L, Perfil.CHEFE)), "chefe");
+        donos.put(registro.registrar(new ContextoUsuarioAutenticado("222", 10L, Perfil.SERVIDOR)), "servidor");
+        donos.put(registro.registrar(new ContextoUsuarioAutenticado("333", 20L, Perfil.GESTOR)), "gestor");
+
+        registro.transmitirParaUnidade(10L, "alerta-criado", "a");
+        registro.transmitirParaUsuario("222", "alerta-criado", "b");
+        registro.transmitirParaUsuario("999", "alerta-criado", "c");
+
+        assertThat(enviados).containsExactly("chefe", "servidor");
+    }
+
+    @Test
+    @DisplayName("deve remover emissor dos canais quando ocorrer IOException no envio")
+    void deveRemoverEmissorDosCanais() {
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> {
+            throw new IOException("falha simulada no envio");
+        }, Runnable::run, 32);
+        registro.registrar(new ContextoUsuarioAutenticado("111", 10L, Perfil.CHEFE));
+
+        registro.transmitirParaUsuario("111", "alerta-criado", "a");
+
+        assertThat(registro.obterQuantidadeEmissores()).isZero();
+        assertThatCode(() -> registro.transmitirParaUnidade(10L, "alerta-criado", "a")).doesNotThrowAnyException();
+    }
+
+    @Test
+    @DisplayName("deve apenas enfileirar ao transmitir, agrupando evento igual ainda pendente")
+    void deveEnfileirarEAgruparEventoPendente() {
+        List<Runnable> envios = new ArrayList<>();
+        List<String> enviados = new ArrayList<>();
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> enviados.add(evento), envios::add, 32);
+        registro.registrar();
+        registro.registrar();
+
+        registro.transmitir("org-cache-refreshed");
+        registro.transmitir("org-cache-refreshed");
+        registro.transmitir("relatorio-concluido", "abc");
+
+        assertThat(enviados).isEmpty();
+        assertThat(envios).hasSize(2);
+        assertThat(meterRegistry.get("sgc.sse.fila").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("sgc.sse.eventos.agrupados").counter().count()).isEqualTo(2);
+
+        envios.forEach(Runnable::run);
+
+        assertThat(enviados).containsExactly(
+                "org-cache-refreshed", "relatorio-concluido", "org-cache-refreshed", "relatorio-concluido");
+        assertThat(meterRegistry.get("sgc.sse.fila").gauge().value()).isZero();
+    }
+
+    @Test
+    @DisplayName("deve descartar a mensagem mais antiga quando a fila do cliente estiver cheia")
+    void deveDescartarMaisAntigaComFilaCheia() {
+        List<Runnable> envios = new ArrayList<>();
+        List<String> enviados = new ArrayList<>();
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> enviados.add(evento + ":" + dados), envios::add, 2);
+        registro.registrar();
+
+        registro.transmitir("relatorio-concluido", "1");
+        registro.transmitir("relatorio-concluido", "2");
+        registro.transmitir("relatorio-concluido", "3");
+
+        assertThat(meterRegistry.get("sgc.sse.fila.maxima").gauge().value()).isEqualTo(2);
+        assertThat(meterRegistry.get("sgc.sse.eventos.descartados").counter().count()).isEqualTo(1);
+
+        envios.forEach(Runnable::run);
+
+        assertThat(enviados).containsExactly("relatorio-concluido:2", "relatorio-concluido:3");
+    }
+
+    @Test
+    @DisplayName("deve enviar heartbeat e remover clientes sem envio concluído no prazo de inatividade")
+    void deveEnviarHeartbeatERemoverInativos() {
+        List<Runnable> envios = new ArrayList<>();
+        List<String> enviados = new ArrayList<>();
+        RegistroSseEmitter registro = criar((emitter, evento, dados) -> enviados.add(evento), envios::add, 32);
+        registro.registrar();
+
+        registro.manterConexoes();
+        envios.forEach(Runnable::run);
+        envios.clear();
+
+        assertThat(enviados).containsExactly(RegistroSseEmitter.EVENTO_HEARTBEAT);
+        assertThat(meterRegistry.get("sgc.sse.clientes").gauge().value()).isEqualTo(1);
+
+        // O envio do próximo heartbeat não conclui: o cliente está travado
+        registro.manterConexoes();
+        relogio.avancar(INATIVIDADE_MAXIMA.plusSeconds(1));
+        registro.manterConexoes();
+
+        assertThat(registro.obterQuantidadeEmissores()).isZero();
+        assertThat(meterRegistry.get("sgc.sse.clientes.removidos").tag("motivo", "inatividade").counter().count())
+                .isEqualTo(1);
+    }
+
+    private RegistroSseEmitter criar(RegistroSseEmitter.SseSender sender, Executor executor,
+                                     int capacidadeFila) {
+        return new RegistroSseEmitter(sender, executor, meterRegistry, relogio, capacidadeFila, INATIVIDADE_MAXIMA);
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+        private volatile Instant agora;
+
+        private RelogioAjustavel(Instant agora) {
+            this.agora = agora;
+        }
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
 }
@@ -234,7 +234,7 @@ class ResponsavelUnidadeServiceTest {
 
             ArgumentCaptor<AtribuicaoTemporaria> captor = ArgumentCaptor.forClass(AtribuicaoTemporaria.class);
             verify(atribuicaoTemporariaRepo).save(captor.capture());
-            verify(cacheOrganizacaoService).invalidarAposCommit();
+            verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
 
             AtribuicaoTemporaria atribuicao = captor.getValue();
             assertThat(atribuicao.getUnidade()).isEqualTo(unidade);
@@ -328,7 +328,7 @@ class ResponsavelUnidadeServiceTest {
             service.criarAtribuicaoTemporaria(codUnidade, request);
 
             verify(notificacaoService).enfileirar(any());
-            verify(cacheOrganizacaoService).invalidarAposCommit();
+            verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
         }
 
         @Test
@@ -523,7 +523,7 @@ class ResponsavelUnidadeServiceTest {
 
             assertThat(atribuicao.getUsuarioTitulo()).isEqualTo("123");
             assertThat(atribuicao.getJustificativa()).isEqualTo("Atualizada");
-            verify(cacheOrganizacaoService).invalidarAposCommit();
+            verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
         }
 
         @Test
@@ -541,7 +541,7 @@ class ResponsavelUnidadeServiceTest {
             service.removerAtribuicaoTemporaria(1L, 9L);
 
             verify(atribuicaoTemporariaRepo).delete(atribuicao);
-            verify(cacheOrganizacaoService).invalidarAposCommit();
+            verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ATRIBUICAO_TEMPORARIA);
         }
 
         @Test
@@ -68,7 +68,7 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("Deve buscar árvore hierárquica completa")
     void deveBuscarArvoreHierarquica() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         List<UnidadeDto> resultado = service.buscarArvoreHierarquica();
 
@@ -78,11 +78,27 @@ class UnidadeHierarquiaServiceTest {
         assertThat(resultado.getFirst().getSubunidades().getFirst().getSigla()).isEqualTo(unidadeIntermediaria.getSigla());
     }
 
+    @Test
+    @DisplayName("Deve ordenar as subunidades pela sigla em ordem natural")
+    void deveOrdenarSubunidadesPorSigla() {
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(
+                new UnidadeHierarquiaLeitura(1L, "Raiz", "RAIZ", null, TipoUnidade.RAIZ, SituacaoUnidade.ATIVA, null),
+                new UnidadeHierarquiaLeitura(2L, "Secretaria 10", "SEC 10", null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, 1L),
+                new UnidadeHierarquiaLeitura(3L, "Assessoria", "ASSEC", null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, 1L),
+                new UnidadeHierarquiaLeitura(4L, "Secretaria 2", "SEC 2", null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, 1L)
+        )));
+
+        List<UnidadeDto> resultado = service.buscarArvoreHierarquica();
+
+        assertThat(resultado.getFirst().getSubunidades())
+                .extracting(UnidadeDto::getSigla)
+                .containsExactly("ASSEC", "SEC 2", "SEC 10");
+    }
+
     @Test
     @DisplayName("Deve buscar árvore com elegibilidade")
     void deveBuscarComElegibilidade() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
-        when(cacheViewsOrganizacaoService.listarTodasResponsabilidades()).thenReturn(responsabilidadesBasicas());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica(), responsabilidadesBasicas()));
 
         Predicate<UnidadeElegibilidadeInfo> soOperacional = info -> info.codigo().equals(3L);
         List<UnidadeDto> resultado = service.buscarArvoreComElegibilidade(soOperacional);
@@ -98,19 +114,30 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("Deve buscar IDs descendentes")
     void deveBuscarIdsDescendentes() {
-        when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         List<Long> descendentes = service.buscarIdsDescendentes(1L);
 
         assertThat(descendentes).containsExactlyInAnyOrder(2L, 3L);
     }
 
+    @Test
+    @DisplayName("Deve construir índice de hierarquia a partir das unidades ativas")
+    void deveConstruirIndiceHierarquia() {
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
+
+        IndiceHierarquia indice = service.buscarIndiceHierarquia();
+
+        assertThat(indice.isSubordinada(3L, 1L)).isTrue();
+        assertThat(indice.isSubordinada(1L, 3L)).isFalse();
+        assertThat(indice.buscarDescendentes(1L)).containsExactly(2L, 3L);
+    }
+
     @Test
     @DisplayName("Deve buscar árvore por código (nível profundo)")
     void deveBuscarArvorePorCodigo() {
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
         when(unidadeService.buscarPorCodigo(3L)).thenReturn(unidadeOperacional);
 
         UnidadeDto resultado = service.buscarArvore(3L);
@@ -125,7 +152,7 @@ class UnidadeHierarquiaServiceTest {
         unidadeOperacional.getResponsabilidade().setDataInicio(LocalDateTime.of(2026, 5, 10, 0, 0));
         unidadeOperacional.getResponsabilidade().setDataFim(LocalDateTime.of(2026, 5, 30, 23, 59, 59));
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
         when(unidadeService.buscarPorCodigo(3L)).thenReturn(unidadeOperacional);
 
         UnidadeDto resultado = service.buscarArvore(3L);
@@ -140,7 +167,7 @@ class UnidadeHierarquiaServiceTest {
     @DisplayName("Deve buscar siglas subordinadas (a partir da raiz)")
     void deveBuscarSiglasSubordinadas() {
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         List<String> siglas = service.buscarSiglasSubordinadas(unidadeRaiz.getSigla());
 
@@ -155,7 +182,7 @@ class UnidadeHierarquiaServiceTest {
     @DisplayName("buscarArvore deve buscar no repo se não encontrar na hierarquia")
     void buscarArvore_DeveBuscarNoRepoSeNaoEncontrarNaHierarquia() {
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(toLeitura(unidadeRaiz)));
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(toLeitura(unidadeRaiz))));
         Unidade extra = Unidade.builder()
                 .codigo(99L)
                 .nome("Unidade Extra")
@@ -173,7 +200,7 @@ class UnidadeHierarquiaServiceTest {
     @DisplayName("buscarSiglasSubordinadas deve retornar vazio se não encontrar sigla")
     void buscarSiglasSubordinadas_DeveRetornarVazioSeNaoEncontrar() {
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(toLeitura(unidadeRaiz)));
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(toLeitura(unidadeRaiz))));
         Unidade extra = Unidade.builder()
                 .codigo(999L)
                 .nome("Unidade Inexistente")
@@ -190,9 +217,8 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("Deve buscar sigla superior")
     void deveBuscarSiglaSuperior() {
-        when(selfProvider.getObject()).thenReturn(service);
         when(unidadeService.buscarPorSigla(unidadeIntermediaria.getSigla())).thenReturn(unidadeIntermediaria);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
         when(unidadeRepo.buscarSiglaPorCodigo(unidadeRaiz.getCodigo()))
                 .thenReturn(Optional.of(unidadeRaiz.getSigla()));
 
@@ -204,9 +230,8 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("buscarSiglaSuperior deve retornar vazio quando unidade nao tem superior")
     void buscarSiglaSuperior_DeveRetornarVazioQuandoUnidadeNaoTemSuperior() {
-        when(selfProvider.getObject()).thenReturn(service);
         when(unidadeService.buscarPorSigla(unidadeRaiz.getSigla())).thenReturn(unidadeRaiz);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         Optional<String> superior = service.buscarSiglaSuperior(unidadeRaiz.getSigla());
 
@@ -216,7 +241,7 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("buscarArvoreComElegibilidade deve retornar arvore vazia quando nao ha unidades")
     void buscarArvoreComElegibilidade_DeveRetornarArvoreVaziaQuandoNaoHaUnidades() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of()));
 
         List<UnidadeDto> resultado = service.buscarArvoreComElegibilidade(info -> true);
 
@@ -227,7 +252,7 @@ class UnidadeHierarquiaServiceTest {
     @DisplayName("deve buscar siglas subordinadas a partir de unidade folha profunda")
     void deveBuscarSiglasSubordinadasAPartirDeUnidadeFolhaProfunda() {
         when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         List<String> siglas = service.buscarSiglasSubordinadas(unidadeOperacional.getSigla());
 
@@ -248,8 +273,7 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("buscarCodigosSuperiores deve usar apenas o mapa filho pai")
     void buscarCodigosSuperiores_DeveUsarApenasMapaFilhoPai() {
-        when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica()));
 
         List<Long> resultado = service.buscarCodigosSuperiores(3L);
 
@@ -260,8 +284,7 @@ class UnidadeHierarquiaServiceTest {
     @Test
     @DisplayName("buscarCodigoPai deve retornar vazio quando relacao nao existe no mapa")
     void buscarCodigoPai_DeveRetornarNullQuandoRelacaoNaoExisteNoMapa() {
-        when(selfProvider.getObject()).thenReturn(service);
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(toLeitura(unidadeRaiz)));
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(toLeitura(unidadeRaiz))));
 
         Long resultado = service.buscarCodigoPai(99L);
 
@@ -280,6 +303,14 @@ class UnidadeHierarquiaServiceTest {
         return responsabilidade;
     }
 
+    private SnapshotOrganizacional snapshot(List<UnidadeHierarquiaLeitura> unidades) {
+        return snapshot(unidades, List.of());
+    }
+
+    private SnapshotOrganizacional snapshot(List<UnidadeHierarquiaLeitura> unidades, List<ResponsabilidadeLeitura> responsabilidades) {
+        return SnapshotOrganizacional.construir(1L, unidades, List.of(), responsabilidades);
+    }
+
     private List<UnidadeHierarquiaLeitura> hierarquiaBasica() {
         return List.of(
                 toLeitura(unidadeRaiz),
@@ -331,8 +362,7 @@ class UnidadeHierarquiaServiceTest {
             unidadeIntermediaria.setTipo(TipoUnidade.INTERMEDIARIA); // Deve ser filtrada
             unidadeOperacional.setTipo(TipoUnidade.OPERACIONAL);
 
-            when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
-            when(cacheViewsOrganizacaoService.listarTodasResponsabilidades()).thenReturn(responsabilidadesBasicas());
+            when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica(), responsabilidadesBasicas()));
             // Mockar que apenas a raiz tem mapa
             when(unidadeService.buscarTodosCodigosUnidadesComMapa()).thenReturn(List.of(unidadeRaiz.getCodigo()));
 
@@ -351,12 +381,10 @@ class UnidadeHierarquiaServiceTest {
         @DisplayName("Deve marcar como inelegível unidade sem responsável efetivo")
         void deveMarcarInelegivelSemResponsavelEfetivo() {
             unidadeOperacional.setResponsabilidade(null);
-            when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
-            when(cacheViewsOrganizacaoService.listarTodasResponsabilidades())
-                    .thenReturn(List.of(
-                            new ResponsabilidadeLeitura(1L, "RESP-1"),
-                            new ResponsabilidadeLeitura(2L, "RESP-2")
-                    ));
+            when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica(), List.of(
+                    new ResponsabilidadeLeitura(1L, "RESP-1"),
+                    new ResponsabilidadeLeitura(2L, "RESP-2")
+            )));
 
             List<UnidadeDto> resultado = service.buscarArvoreComElegibilidade(false, Set.of());
 
@@ -371,13 +399,11 @@ class UnidadeHierarquiaServiceTest {
             responsabilidade.setUsuarioTitulo("   ");
             unidadeOperacional.setResponsabilidade(responsabilidade);
 
-            when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(hierarquiaBasica());
-            when(cacheViewsOrganizacaoService.listarTodasResponsabilidades())
-                    .thenReturn(List.of(
-                            new ResponsabilidadeLeitura(1L, "RESP-1"),
-                            new ResponsabilidadeLeitura(2L, "RESP-2"),
-                            new ResponsabilidadeLeitura(3L, "   ")
-                    ));
+            when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(hierarquiaBasica(), List.of(
+                    new ResponsabilidadeLeitura(1L, "RESP-1"),
+                    new ResponsabilidadeLeitura(2L, "RESP-2"),
+                    new ResponsabilidadeLeitura(3L, "   ")
+            )));
 
             List<UnidadeDto> resultado = service.buscarArvoreComElegibilidade(false, Set.of());
 
@@ -416,16 +442,14 @@ class UnidadeHierarquiaServiceTest {
         @DisplayName("Deve tolerar unidade ausente no mapa durante montagem da hierarquia")
         void deveTolerarUnidadeAusenteNoMapaDuranteMontagemHierarquia() {
             UnidadeHierarquiaLeitura mockLeitura = mock(UnidadeHierarquiaLeitura.class);
-            // u.codigo() é chamado:
-            // 1. no teste de elegibilidade (linha 222)
-            // 2. no mapeamento inicial (linha 231)
-            // 3. na montagem da árvore (linha 234 - onde queremos o null)
-            when(mockLeitura.codigo()).thenReturn(1L, 1L, 1L, 1L, 999L);
+            // u.codigo() é chamado três vezes na montagem do snapshot (índices por código e de hierarquia),
+            // quatro no primeiro laço da montagem da árvore e, no segundo, devolve o código ausente.
+            when(mockLeitura.codigo()).thenReturn(1L, 1L, 1L, 1L, 1L, 1L, 1L, 999L);
             when(mockLeitura.nome()).thenReturn("Unidade Inexistente");
             when(mockLeitura.sigla()).thenReturn("UI");
             when(mockLeitura.tipo()).thenReturn(TipoUnidade.OPERACIONAL);
 
-            when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(mockLeitura));
+            when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(mockLeitura)));
 
             List<UnidadeDto> resultado = service.buscarArvoreHierarquica();
             assertThat(resultado).isEmpty();
@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import sgc.comum.config.*;
 import sgc.comum.erros.*;
 import sgc.comum.model.*;
 import sgc.mapa.model.*;
@@ -206,7 +207,7 @@ class UnidadeServiceTest {
 
         verify(unidadeMapaRepo).save(argThat(um ->
                 Objects.equals(um.getUnidadeCodigoPersistido(), 1L) && Objects.equals(um.getMapaVigente(), mapa)));
-        verify(cacheOrganizacaoService).invalidarAposCommit();
+        verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.UNIDADE_MAPA);
     }
 
     @Test
@@ -220,7 +221,15 @@ class UnidadeServiceTest {
 
         assertThat(existente.getMapaVigente()).isSameAs(mapa);
         verify(unidadeMapaRepo).save(existente);
-        verify(cacheOrganizacaoService).invalidarAposCommit();
+        verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.UNIDADE_MAPA);
+    }
+
+    @Test
+    @DisplayName("filtrarUnidadesComMapaVigente - Mantém a ordem informada e descarta unidades sem mapa")
+    void filtrarUnidadesComMapaVigente() {
+        when(unidadeMapaRepo.listarCodigosUnidadeComMapaVigente(List.of(3L, 1L, 2L))).thenReturn(List.of(1L, 3L));
+
+        assertThat(service.filtrarUnidadesComMapaVigente(List.of(3L, 1L, 2L))).containsExactly(3L, 1L);
     }
 
     @Test
@@ -258,7 +267,7 @@ class UnidadeServiceTest {
                     l.stream().anyMatch(um -> Objects.equals(um.getUnidadeCodigoPersistido(), 10L) && um.getMapaVigente() == mapa1) &&
                     l.stream().anyMatch(um -> Objects.equals(um.getUnidadeCodigoPersistido(), 20L) && um.getMapaVigente() == mapa2);
         }));
-        verify(cacheOrganizacaoService).invalidarAposCommit();
+        verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.UNIDADE_MAPA);
     }
 
     @Test
@@ -27,7 +27,7 @@ class UsuarioPerfilCacheServiceTest {
     @Test
     @DisplayName("Deve cachear autorizacoes por titulo eleitoral")
     void deveCachearAutorizacoesPorTituloEleitoral() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(
                 new UnidadeHierarquiaLeitura(
                         1L,
                         "Secretaria",
@@ -37,7 +37,7 @@ class UsuarioPerfilCacheServiceTest {
                         SituacaoUnidade.ATIVA,
                         null
                 )
-        ));
+        )));
         when(usuarioPerfilRepo.findByUsuarioTitulo("123")).thenReturn(List.of(
                 new UsuarioPerfil("123", 1L, Perfil.ADMIN)
         ));
@@ -56,16 +56,16 @@ class UsuarioPerfilCacheServiceTest {
 
         assertThat(primeiraConsulta).containsExactly(leituraEsperada);
         assertThat(segundaConsulta).containsExactly(leituraEsperada);
-        verify(cacheViewsOrganizacaoService, times(1)).listarTodasUnidades();
+        verify(cacheViewsOrganizacaoService, times(1)).buscarSnapshot();
         verify(usuarioPerfilRepo, times(1)).findByUsuarioTitulo("123");
     }
 
     @Test
     @DisplayName("Deve ignorar perfis de outros usuarios")
     void deveIgnorarPerfisDeOutrosUsuarios() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(
                 new UnidadeHierarquiaLeitura(1L, "U1", "U1", null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, null)
-        ));
+        )));
         when(usuarioPerfilRepo.findByUsuarioTitulo("999")).thenReturn(List.of(
                 new UsuarioPerfil("999", 1L, Perfil.ADMIN)
         ));
@@ -81,7 +81,7 @@ class UsuarioPerfilCacheServiceTest {
     @Test
     @DisplayName("Deve ignorar perfis cuja unidade nao esteja no cache")
     void deveIgnorarPerfisCujaUnidadeNaoEstejaNoCache() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of());
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of()));
         when(usuarioPerfilRepo.findByUsuarioTitulo("111")).thenReturn(List.of(
                 new UsuarioPerfil("111", 99L, Perfil.SERVIDOR)
         ));
@@ -94,10 +94,10 @@ class UsuarioPerfilCacheServiceTest {
     @Test
     @DisplayName("Deve manter a primeira unidade quando o cache retornar codigos duplicados")
     void deveManterAPrimeiraUnidadeQuandoOCacheRetornarCodigosDuplicados() {
-        when(cacheViewsOrganizacaoService.listarTodasUnidades()).thenReturn(List.of(
+        when(cacheViewsOrganizacaoService.buscarSnapshot()).thenReturn(snapshot(List.of(
                 new UnidadeHierarquiaLeitura(1L, "Primeira unidade", "PRI", null, TipoUnidade.OPERACIONAL, SituacaoUnidade.ATIVA, null),
                 new UnidadeHierarquiaLeitura(1L, "Segunda unidade", "SEG", null, TipoUnidade.INTERMEDIARIA, SituacaoUnidade.INATIVA, null)
-        ));
+        )));
         when(usuarioPerfilRepo.findByUsuarioTitulo("222")).thenReturn(List.of(
                 new UsuarioPerfil("222", 1L, Perfil.CHEFE)
         ));
@@ -110,4 +110,8 @@ class UsuarioPerfilCacheServiceTest {
             assertThat(perfil.unidadeTipo()).isEqualTo(TipoUnidade.OPERACIONAL);
         });
     }
+
+    private SnapshotOrganizacional snapshot(List<UnidadeHierarquiaLeitura> unidades) {
+        return SnapshotOrganizacional.construir(1L, unidades, List.of(), List.of());
+    }
 }
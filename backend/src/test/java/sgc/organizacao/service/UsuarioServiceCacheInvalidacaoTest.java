@@ -4,6 +4,7 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import sgc.comum.config.*;
 import sgc.comum.erros.*;
 import sgc.organizacao.model.*;
 
@@ -36,7 +37,7 @@ class UsuarioServiceCacheInvalidacaoTest {
         usuarioService.adicionarAdministrador("123");
 
         verify(administradorRepo).save(argThat(administrador -> "123".equals(administrador.getUsuarioTitulo())));
-        verify(cacheOrganizacaoService).invalidarAposCommit();
+        verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ADMINISTRADOR);
     }
 
     @Test
@@ -58,7 +59,7 @@ class UsuarioServiceCacheInvalidacaoTest {
         usuarioService.removerAdministrador("123");
 
         verify(administradorRepo).deleteById("123");
-        verify(cacheOrganizacaoService).invalidarAposCommit();
+        verify(cacheOrganizacaoService).invalidarAposCommit(CacheConfig.FonteCache.ADMINISTRADOR);
     }
 
     @Test
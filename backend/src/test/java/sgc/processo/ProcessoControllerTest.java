@@ -214,12 +214,36 @@ class ProcessoControllerTest {
 
             mockMvc.perform(get(API_PROCESSOS_1))
                     .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"processo-1-v0\""))
                     .andExpect(jsonPath(CODIGO_JSON_PATH).value(1L))
                     .andExpect(jsonPath(DESCRICAO_JSON_PATH).value("Processo teste"));
 
             verify(processoService).buscarOpt(1L);
         }
 
+        @Test
+        @WithMockUser(roles = "ADMIN")
+        @DisplayName("Deve retornar 304 quando a versão do processo não mudou")
+        void deveRetornarNaoModificadoQuandoVersaoNaoMudou() throws Exception {
+            var processo = Processo.builder()
+                    .codigo(1L)
+                    .descricao("Processo teste")
+                    .situacao(SituacaoProcesso.CRIADO)
+                    .tipo(TipoProcesso.MAPEAMENTO)
+                    .build();
+            processo.registrarAlteracao();
+
+            when(processoService.buscarOpt(1L)).thenReturn(Optional.of(processo));
+
+            mockMvc.perform(get(API_PROCESSOS_1).header(HttpHeaders.IF_NONE_MATCH, "\"processo-1-v1\""))
+                    .andExpect(status().isNotModified())
+                    .andExpect(content().string(""));
+
+            mockMvc.perform(get(API_PROCESSOS_1).header(HttpHeaders.IF_NONE_MATCH, "\"processo-1-v0\""))
+                    .andExpect(status().isOk())
+                    .andExpect(header().string(HttpHeaders.ETAG, "\"processo-1-v1\""));
+        }
+
         @Test
         @WithMockUser(roles = "ADMIN")
         @DisplayName("Deve retornar detalhes do processo com 200 OK")
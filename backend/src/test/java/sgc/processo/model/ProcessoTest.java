@@ -149,6 +149,7 @@ class ProcessoTest {
 
             processo.adicionarParticipantes(Set.of(u1, u2));
             assertThat(processo.getParticipantes()).hasSize(2);
+            long versaoAntes = processo.getVersao();
 
             processo.sincronizarParticipantes(Set.of(u2, u3));
 
@@ -156,6 +157,11 @@ class ProcessoTest {
             assertThat(processo.getParticipantes())
                     .extracting(UnidadeProcesso::getUnidadeCodigo)
                     .containsExactlyInAnyOrder(2L, 3L);
+            assertThat(processo.getVersao()).isGreaterThan(versaoAntes);
+
+            long versaoSincronizada = processo.getVersao();
+            processo.sincronizarParticipantes(Set.of(u2, u3));
+            assertThat(processo.getVersao()).isEqualTo(versaoSincronizada);
         }
 
         @Test
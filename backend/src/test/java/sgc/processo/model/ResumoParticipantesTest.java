@@ -0,0 +1,80 @@
+package sgc.processo.model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.*;
+
+import static org.assertj.core.api.Assertions.*;
+
+@DisplayName("ResumoParticipantes")
+class ResumoParticipantesTest {
+    // 1 (raiz) -> 2 -> {3, 4}; 3 -> {5, 6}
+    private static final Map<Long, List<Long>> FILHOS_POR_PAI = Map.of(
+            1L, List.of(2L),
+            2L, List.of(3L, 4L),
+            3L, List.of(5L, 6L));
+    private static final Map<Long, Long> PAI_POR_FILHO = ResumoParticipantes.paiPorFilho(FILHOS_POR_PAI);
+
+    @Test
+    @DisplayName("deve agrupar na unidade superior coberta até o nível abaixo da raiz")
+    void deveAgruparNaSuperiorCoberta() {
+        List<List<Long>> buscas = new ArrayList<>();
+
+        String resumo = ResumoParticipantes.resumir(
+                List.of(participante(4L, "SEC_4"), participante(5L, "SEC_5"), participante(6L, "SEC_6")),
+                FILHOS_POR_PAI, PAI_POR_FILHO,
+                codigos -> {
+                    buscas.add(codigos);
+                    return List.of("SECRETARIA");
+                });
+
+        assertThat(resumo).isEqualTo("SECRETARIA");
+        assertThat(buscas).containsExactly(List.of(2L));
+    }
+
+    @Test
+    @DisplayName("deve manter as siglas dos participantes quando a superior não está coberta, em ordem natural")
+    void deveManterSiglasQuandoSuperiorNaoCoberta() {
+        String resumo = ResumoParticipantes.resumir(
+                List.of(participante(5L, "SEC_10"), participante(4L, "SEC_9")),
+                FILHOS_POR_PAI, PAI_POR_FILHO,
+                codigos -> {
+                    throw new AssertionError("Não deveria buscar siglas");
+                });
+
+        assertThat(resumo).isEqualTo("SEC_9, SEC_10");
+    }
+
+    @Test
+    @DisplayName("deve devolver texto vazio sem participantes")
+    void deveDevolverVazioSemParticipantes() {
+        assertThat(ResumoParticipantes.resumir(List.of(), FILHOS_POR_PAI, PAI_POR_FILHO, codigos -> List.of()))
+                .isEmpty();
+    }
+
+    @Test
+    @DisplayName("deve gravar o resumo só quando couber na coluna em bytes")
+    void deveLimitarResumoAoTamanhoDaColuna() {
+        String cabe = "A".repeat(ResumoParticipantes.TAMANHO_MAXIMO_BYTES);
+        String multibyte = "Ç".repeat(ResumoParticipantes.TAMANHO_MAXIMO_BYTES / 2 + 1);
+
+        assertThat(ResumoParticipantes.paraColuna("SEC_1, SEC_2")).isEqualTo("SEC_1, SEC_2");
+        assertThat(ResumoParticipantes.paraColuna(cabe)).isEqualTo(cabe);
+        assertThat(ResumoParticipantes.paraColuna(cabe + "A")).isNull();
+        assertThat(ResumoParticipantes.paraColuna(multibyte)).isNull();
+    }
+
+    @Test
+    @DisplayName("deve inverter o mapa de filhas por pai")
+    void deveInverterMapaDeFilhas() {
+        assertThat(PAI_POR_FILHO).containsOnly(
+                Map.entry(2L, 1L), Map.entry(3L, 2L), Map.entry(4L, 2L), Map.entry(5L, 3L), Map.entry(6L, 3L));
+    }
+
+    private static UnidadeProcesso participante(Long codigo, String sigla) {
+        UnidadeProcesso participante = new UnidadeProcesso();
+        participante.setUnidadeCodigo(codigo);
+        participante.setSigla(sigla);
+        return participante;
+    }
+}
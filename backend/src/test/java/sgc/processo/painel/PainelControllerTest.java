@@ -17,6 +17,7 @@ import sgc.organizacao.model.*;
 import sgc.processo.dto.*;
 import sgc.seguranca.*;
 
+import java.time.*;
 import java.util.*;
 
 import static org.mockito.Mockito.*;
@@ -106,6 +107,31 @@ class PainelControllerTest {
                 .andExpect(jsonPath("$.alertas").isArray());
     }
 
+    @Test
+    @DisplayName("GET /api/painel/alertas/seguintes - Deve continuar a lista de alertas a partir do cursor")
+    void listarAlertasSeguintes_Sucesso() throws Exception {
+        Usuario usuarioMock = Usuario.builder()
+                .tituloEleitoral("123")
+                .perfilAtivo(Perfil.ADMIN)
+                .unidadeAtivaCodigo(1L)
+                .build();
+        usuarioMock.setAuthorities(Set.of(Perfil.ADMIN.toGrantedAuthority()));
+        ContextoUsuarioAutenticado contexto = new ContextoUsuarioAutenticado("123", 1L, Perfil.ADMIN);
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(contexto);
+        LocalDateTime cursor = LocalDateTime.of(2026, 3, 10, 14, 30);
+        when(painelService.listarAlertasSeguintes(contexto, cursor, 70L, 50)).thenReturn(List.of());
+
+        mockMvc.perform(get("/api/painel/alertas/seguintes")
+                        .param("antesDeDataHora", "2026-03-10T14:30:00")
+                        .param("antesDeCodigo", "70")
+                        .with(authentication(new UsernamePasswordAuthenticationToken(usuarioMock, null, usuarioMock.getAuthorities())))
+                        .contentType(MediaType.APPLICATION_JSON))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$").isArray());
+
+        verify(painelService).listarAlertasSeguintes(contexto, cursor, 70L, 50);
+    }
+
     @Test
     @DisplayName("POST /api/painel/alertas/marcar-lidos - Deve marcar alertas como lidos com sucesso")
     void marcarAlertasLidos_Sucesso() throws Exception {
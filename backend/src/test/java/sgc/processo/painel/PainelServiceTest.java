@@ -6,6 +6,7 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import org.springframework.data.domain.*;
 import sgc.alerta.*;
+import sgc.alerta.dto.*;
 import sgc.alerta.model.*;
 import sgc.organizacao.*;
 import sgc.organizacao.model.*;
@@ -444,23 +445,29 @@ class PainelServiceTest {
         when(hierarquiaService.buscarMapaHierarquia()).thenReturn(new HashMap<>());
         when(processoService.listarTodos(any(Pageable.class))).thenReturn(pageProcessos);
 
-        Alerta alerta = new Alerta();
-        alerta.setCodigo(10L);
-        alerta.setDescricao("Alerta teste");
-        alerta.setDataHora(LocalDateTime.now());
-        alerta.setProcesso(p);
-        alerta.setUnidadeOrigem(new Unidade());
-        alerta.setUnidadeDestino(new Unidade());
-        Page<Alerta> pageAlertas = new PageImpl<>(List.of(alerta));
-
-        when(alertaAplicacaoService.listarPorUnidade(eq(CONTEXTO_ADMIN), any(Pageable.class))).thenReturn(pageAlertas);
-        when(alertaAplicacaoService.obterMapaDataHoraLeitura(anyString(), anyList())).thenReturn(Map.of());
+        AlertaPainelQuery alerta = new AlertaPainelQuery(10L, LocalDateTime.now(), 1L, "Processo",
+                SituacaoProcesso.FINALIZADO, "ADMIN", "U1", "Processo finalizado", null);
+        when(alertaAplicacaoService.listarParaPainel(CONTEXTO_ADMIN, null, null, 200)).thenReturn(List.of(alerta));
 
         sgc.processo.painel.dto.PainelBootstrapDto bootstrap = painelService.obterBootstrap(CONTEXTO_ADMIN);
 
         assertThat(bootstrap.getProcessos()).hasSize(1);
-        assertThat(bootstrap.getAlertas()).hasSize(1);
-        assertThat(bootstrap.getAlertas().getFirst().codigo()).isEqualTo(10L);
+        assertThat(bootstrap.getAlertas()).singleElement().satisfies(dto -> {
+            assertThat(dto.codigo()).isEqualTo(10L);
+            assertThat(dto.processoFinalizado()).isTrue();
+            assertThat(dto.alertaFinalizacaoProcesso()).isTrue();
+            assertThat(dto.origem()).isEqualTo("ADMIN");
+        });
+        verify(alertaAplicacaoService, never()).listarPorUnidade(any(), any());
+    }
+
+    @Test
+    @DisplayName("Deve limitar o tamanho da página de alertas seguintes")
+    void deveLimitarAlertasSeguintes() {
+        LocalDateTime cursor = LocalDateTime.now();
+        when(alertaAplicacaoService.listarParaPainel(CONTEXTO_ADMIN, cursor, 10L, 200)).thenReturn(List.of());
+
+        assertThat(painelService.listarAlertasSeguintes(CONTEXTO_ADMIN, cursor, 10L, 5000)).isEmpty();
     }
 
     @Test
@@ -614,6 +621,20 @@ class PainelServiceTest {
         assertThat(result).isNotEmpty();
     }
 
+    @Test
+    @DisplayName("Deve usar o resumo de participantes gravado no processo sem reagrupar")
+    void deveUsarResumoParticipantesGravado() {
+        Processo p = criarProcesso(1L, SituacaoProcesso.EM_ANDAMENTO);
+        p.setResumoParticipantes("SECAO_1, SECAO_2");
+        when(hierarquiaService.buscarMapaHierarquia()).thenReturn(Map.of(1L, List.of(10L)));
+        when(processoService.listarTodos(any(Pageable.class))).thenReturn(new PageImpl<>(List.of(p)));
+
+        Page<ProcessoResumoDto> result = painelService.listarProcessos(CONTEXTO_ADMIN, PageRequest.of(0, 10));
+
+        assertThat(result.getContent().getFirst().unidadesParticipantes()).isEqualTo("SECAO_1, SECAO_2");
+        verify(unidadeService, never()).buscarSiglasPorCodigos(anyList());
+    }
+
     private Processo criarProcesso(Long codigo, SituacaoProcesso situacao) {
         Processo p = new Processo();
         p.setCodigo(codigo);
@@ -69,6 +69,7 @@ class ProcessoExclusaoCompletaServiceTest {
         inOrder.verify(jdbcTemplate).update(eq("DELETE FROM sgc.alerta WHERE processo_codigo = ?"), eq(10L));
         inOrder.verify(jdbcTemplate).update(contains("DELETE FROM sgc.avaliacao_servidor"), eq(10L), eq(10L));
         inOrder.verify(jdbcTemplate).update(contains("DELETE FROM sgc.situacao_capacitacao"), eq(10L), eq(10L));
+        inOrder.verify(jdbcTemplate).update(contains("DELETE FROM sgc.agregado_gap_competencia"), eq(10L), eq(10L));
         inOrder.verify(jdbcTemplate).update(contains("DELETE FROM sgc.diagnostico"), eq(10L));
         inOrder.verify(jdbcTemplate).update(contains("DELETE FROM sgc.mapa"), eq(10L));
         inOrder.verify(jdbcTemplate).update(eq("DELETE FROM sgc.servidor_processo WHERE processo_codigo = ?"), eq(10L));
@@ -85,12 +86,14 @@ class ProcessoExclusaoCompletaServiceTest {
         when(cacheManager.getCacheNames()).thenReturn(Set.of());
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("AVALIACAO_SERVIDOR"))).thenReturn(0);
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("SITUACAO_CAPACITACAO"))).thenReturn(0);
+        when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("AGREGADO_GAP_COMPETENCIA"))).thenReturn(0);
         when(jdbcTemplate.queryForObject(anyString(), eq(Integer.class), eq("DIAGNOSTICO"))).thenReturn(0);
 
         service.excluirCompleto(10L);
 
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.avaliacao_servidor"), anyLong(), anyLong());
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.situacao_capacitacao"), anyLong(), anyLong());
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.agregado_gap_competencia"), anyLong(), anyLong());
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.diagnostico"), anyLong());
         verify(jdbcTemplate).update(eq("DELETE FROM sgc.processo WHERE codigo = ?"), eq(10L));
     }
@@ -121,6 +124,7 @@ class ProcessoExclusaoCompletaServiceTest {
 
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.avaliacao_servidor"), anyLong(), anyLong());
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.situacao_capacitacao"), anyLong(), anyLong());
+        verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.agregado_gap_competencia"), anyLong(), anyLong());
         verify(jdbcTemplate, never()).update(contains("DELETE FROM sgc.diagnostico"), anyLong());
         verify(jdbcTemplate).update(eq("DELETE FROM sgc.processo WHERE codigo = ?"), eq(10L));
     }
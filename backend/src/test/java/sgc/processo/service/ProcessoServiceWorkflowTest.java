@@ -672,9 +672,21 @@ class ProcessoServiceWorkflowTest extends ProcessoServiceTestBase {
 
             assertThat(resultado).isNotNull();
             assertThat(resultado.getDescricao()).isEqualTo("Teste");
+            assertThat(resultado.getResumoParticipantes()).isEqualTo("U1");
             verify(processoRepo).saveAndFlush(any());
         }
 
+        @Test
+        @DisplayName("Deve preencher o resumo de participantes dos processos pendentes")
+        void devePreencherResumosPendentes() {
+            Processo processo = new Processo();
+            processo.adicionarParticipantes(Set.of(criarUnidadeValida(1L)));
+            when(processoRepo.listarComParticipantesSemResumo()).thenReturn(List.of(processo));
+
+            assertThat(processoService.preencherResumosParticipantesPendentes()).isEqualTo(1);
+            assertThat(processo.getResumoParticipantes()).isEqualTo("U1");
+        }
+
         @Test
         @DisplayName("Deve falhar ao criar processo com unidade sem responsável efetivo")
         void deveFalharCriacaoSemResponsavelEfetivo() {
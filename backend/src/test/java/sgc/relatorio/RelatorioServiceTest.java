@@ -8,6 +8,8 @@ import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 import org.openpdf.text.*;
 import sgc.comum.erros.*;
+import sgc.comum.model.*;
+import sgc.diagnostico.service.*;
 import sgc.mapa.model.*;
 import sgc.mapa.service.*;
 import sgc.organizacao.*;
@@ -50,6 +52,10 @@ class RelatorioServiceTest {
     private PdfFactory pdfFactory;
     @Mock
     private Document document;
+    @Mock
+    private ComumRepo comumRepo;
+    @Mock
+    private DiagnosticoAnaliseService diagnosticoAnaliseService;
 
     @InjectMocks
     private RelatorioService relatorioService;
@@ -329,6 +335,7 @@ class RelatorioServiceTest {
                 .mapaVigente(sp.getMapa())
                 .build();
 
+        when(unidadeService.filtrarUnidadesComMapaVigente(List.of(1L))).thenReturn(List.of(1L));
         when(unidadeService.buscarMapasPorUnidades(List.of(1L))).thenReturn(List.of(unidadeMapa));
         when(mapaManutencaoService.competenciasCodMapa(10L)).thenReturn(List.of(c));
 
@@ -337,6 +344,69 @@ class RelatorioServiceTest {
         verify(document, atLeastOnce()).add(any());
     }
 
+    @Test
+    @DisplayName("Deve gerar relatório de mapas buscando unidades em páginas e liberando o contexto a cada página")
+    void deveGerarRelatorioMapasEmPaginas() throws IOException {
+        mockContextoAdmin();
+        when(pdfFactory.createDocument()).thenReturn(document);
+        List<Long> codigos = new ArrayList<>();
+        for (long codigo = 1; codigo <= RelatorioService.UNIDADES_POR_PAGINA + 5; codigo++) {
+            codigos.add(codigo);
+        }
+        when(unidadeService.filtrarUnidadesComMapaVigente(codigos)).thenReturn(codigos);
+        when(unidadeService.buscarMapasPorUnidades(anyList())).thenReturn(List.of());
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        relatorioService.gerarRelatorioMapas(codigos, out);
+
+        InOrder ordem = inOrder(unidadeService, comumRepo, out);
+        ordem.verify(unidadeService).buscarMapasPorUnidades(codigos.subList(0, RelatorioService.UNIDADES_POR_PAGINA));
+        ordem.verify(comumRepo).liberarContexto();
+        ordem.verify(out).flush();
+        ordem.verify(unidadeService).buscarMapasPorUnidades(codigos.subList(RelatorioService.UNIDADES_POR_PAGINA, codigos.size()));
+        ordem.verify(comumRepo).liberarContexto();
+        ordem.verify(out).flush();
+    }
+
+    @Test
+    @DisplayName("Deve gerar relatório de andamento buscando responsáveis por página e liberando o contexto a cada página")
+    void deveGerarRelatorioAndamentoEmPaginas() throws IOException {
+        when(pdfFactory.createDocument()).thenReturn(document);
+        Processo processo = new Processo();
+        processo.setDescricao("Proc teste");
+        processo.setTipo(TipoProcesso.MAPEAMENTO);
+        List<Subprocesso> subprocessos = new ArrayList<>();
+        List<Long> codigosUnidades = new ArrayList<>();
+        for (long codigo = 1; codigo <= RelatorioService.UNIDADES_POR_PAGINA + 5; codigo++) {
+            Unidade unidade = new Unidade();
+            unidade.setCodigo(codigo);
+            unidade.setSigla("U" + codigo);
+            unidade.setNome("Unidade " + codigo);
+            Subprocesso subprocesso = new Subprocesso();
+            subprocesso.setCodigo(100 + codigo);
+            subprocesso.setUnidade(unidade);
+            subprocesso.setSituacaoForcada(SituacaoSubprocesso.MAPEAMENTO_CADASTRO_EM_ANDAMENTO);
+            subprocessos.add(subprocesso);
+            codigosUnidades.add(codigo);
+        }
+        when(processoService.buscarPorCodigo(1L)).thenReturn(processo);
+        when(consultaService.listarEntidadesPorProcesso(1L)).thenReturn(subprocessos);
+        when(responsavelService.buscarResponsaveisUnidades(anyList())).thenReturn(Map.of());
+        when(localizacaoSubprocessoService.obterLocalizacoesAtuais(any())).thenReturn(Map.of());
+        OutputStream out = spy(new ByteArrayOutputStream());
+
+        relatorioService.gerarRelatorioAndamento(1L, out);
+
+        InOrder ordem = inOrder(responsavelService, comumRepo, out);
+        ordem.verify(responsavelService).buscarResponsaveisUnidades(codigosUnidades.subList(0, RelatorioService.UNIDADES_POR_PAGINA));
+        ordem.verify(comumRepo).liberarContexto();
+        ordem.verify(out).flush();
+        ordem.verify(responsavelService).buscarResponsaveisUnidades(
+                codigosUnidades.subList(RelatorioService.UNIDADES_POR_PAGINA, codigosUnidades.size()));
+        ordem.verify(comumRepo).liberarContexto();
+        ordem.verify(out).flush();
+    }
+
     @Test
     @DisplayName("Deve obter relatório de mapas somente para unidades com mapa vigente")
     void deveObterRelatorioMapasSomenteParaUnidadesComMapaVigente() {
@@ -434,9 +504,27 @@ class RelatorioServiceTest {
         OutputStream out = new ByteArrayOutputStream();
         relatorioService.gerarRelatorioMapas(List.of(), out);
         verify(document, atLeastOnce()).add(any());
+        verify(unidadeService, never()).filtrarUnidadesComMapaVigente(anyList());
         verify(unidadeService, never()).buscarMapasPorUnidades(anyList());
     }
 
+    @Test
+    @DisplayName("Deve informar no cabeçalho do relatório de mapas só as unidades com mapa vigente")
+    void deveContarNoCabecalhoSoUnidadesComMapaVigente() throws Exception {
+        mockContextoAdmin();
+        RelatorioService spyService = spy(relatorioService);
+        when(pdfFactory.createDocument()).thenReturn(document);
+        when(unidadeService.filtrarUnidadesComMapaVigente(List.of(1L, 2L, 3L))).thenReturn(List.of(1L, 3L));
+        when(unidadeService.buscarMapasPorUnidades(List.of(1L, 3L))).thenReturn(List.of());
+
+        spyService.gerarRelatorioMapas(List.of(1L, 2L, 3L), new ByteArrayOutputStream());
+
+        ArgumentCaptor<RelatorioService.CabecalhoRelatorio> cabecalho =
+                ArgumentCaptor.forClass(RelatorioService.CabecalhoRelatorio.class);
+        verify(spyService).adicionarCabecalhoRelatorio(eq(document), cabecalho.capture());
+        assertThat(cabecalho.getValue().quantidadeUnidades()).isEqualTo(2);
+    }
+
     @Test
     @DisplayName("Deve processar competência sem atividades")
     void deveProcessarCompetenciaSemAtividades() throws DocumentException {
@@ -461,6 +549,7 @@ class RelatorioServiceTest {
                 .mapaVigente(sp.getMapa())
                 .build();
 
+        when(unidadeService.filtrarUnidadesComMapaVigente(List.of(1L))).thenReturn(List.of(1L));
         when(unidadeService.buscarMapasPorUnidades(List.of(1L))).thenReturn(List.of(unidadeMapa));
         when(mapaManutencaoService.competenciasCodMapa(10L)).thenReturn(List.of(c));
 
@@ -496,6 +585,7 @@ class RelatorioServiceTest {
                 .mapaVigente(sp.getMapa())
                 .build();
 
+        when(unidadeService.filtrarUnidadesComMapaVigente(List.of(1L))).thenReturn(List.of(1L));
         when(unidadeService.buscarMapasPorUnidades(List.of(1L))).thenReturn(List.of(unidadeMapa));
         when(mapaManutencaoService.competenciasCodMapa(10L)).thenReturn(List.of(c));
 
@@ -509,7 +599,6 @@ class RelatorioServiceTest {
     void deveCobrirErroGerarPdf() throws DocumentException {
         when(processoService.buscarPorCodigo(1L)).thenReturn(new Processo());
         when(consultaService.listarEntidadesPorProcesso(1L)).thenReturn(List.of());
-        when(localizacaoSubprocessoService.obterLocalizacoesAtuais(any())).thenReturn(Map.of());
         when(pdfFactory.createDocument()).thenReturn(document);
         doThrow(new DocumentException("Simulado")).when(pdfFactory).createWriter(any(), any());
 
@@ -524,7 +613,6 @@ class RelatorioServiceTest {
     void deveCobrirErroGerarPdfMapas() throws DocumentException {
         mockContextoAdmin();
         when(pdfFactory.createDocument()).thenReturn(document);
-        when(unidadeService.buscarMapasPorUnidades(List.of(1L))).thenReturn(List.of());
         doThrow(new DocumentException("Simulado")).when(pdfFactory).createWriter(any(), any());
 
         OutputStream out = new ByteArrayOutputStream();
@@ -1434,6 +1522,37 @@ class RelatorioServiceTest {
         verify(document, atLeastOnce()).add(any());
     }
 
+    @Test
+    @DisplayName("Deve analisar gaps de diagnóstico da unidade ativa do gestor quando nenhuma unidade for informada")
+    void deveAnalisarGapsDaUnidadeAtivaDoGestor() {
+        Processo processo = new Processo();
+        processo.setTipo(TipoProcesso.DIAGNOSTICO);
+        when(processoService.buscarPorCodigo(1L)).thenReturn(processo);
+        mockContextoUsuario(Perfil.GESTOR, 5L);
+        RelatorioDiagnosticoAnaliseDto analise = RelatorioDiagnosticoAnaliseDto.builder()
+                .codigoUnidade(5L)
+                .competencias(List.of())
+                .maioresGaps(List.of())
+                .build();
+        when(diagnosticoAnaliseService.analisar(1L, 5L, 10)).thenReturn(analise);
+
+        assertThat(relatorioService.obterAnaliseGapsDiagnostico(1L, null, 10)).isSameAs(analise);
+    }
+
+    @Test
+    @DisplayName("Deve negar análise de gaps de diagnóstico de unidade fora da hierarquia do gestor")
+    void deveNegarAnaliseGapsForaDaHierarquiaDoGestor() {
+        Processo processo = new Processo();
+        processo.setTipo(TipoProcesso.DIAGNOSTICO);
+        when(processoService.buscarPorCodigo(1L)).thenReturn(processo);
+        mockContextoUsuario(Perfil.GESTOR, 5L);
+        when(unidadeHierarquiaService.buscarIndiceHierarquia()).thenReturn(IndiceHierarquia.vazio());
+
+        assertThatThrownBy(() -> relatorioService.obterAnaliseGapsDiagnostico(1L, 9L, 10))
+                .isInstanceOf(ErroAcessoNegado.class);
+        verifyNoInteractions(diagnosticoAnaliseService);
+    }
+
     @Nested
     @DisplayName("Testes de Métodos de Utilidade (Aumentar Testabilidade)")
     class TestesUtilidade {
@@ -1458,14 +1577,6 @@ class RelatorioServiceTest {
             assertThat(relatorioService.ehSiglaZonaEleitoral(sigla)).isEqualTo(esperado);
         }
 
-        @Test
-        @DisplayName("Deve separar segmentos de texto corretamente")
-        void deveSepararSegmentos() {
-            assertThat(relatorioService.separarSegmentos("")).containsExactly("");
-            assertThat(relatorioService.separarSegmentos("SEC 10")).containsExactly("SEC ", "10");
-            assertThat(relatorioService.separarSegmentos("SEC 10 A")).containsExactly("SEC ", "10", " A");
-        }
-
         @ParameterizedTest
         @CsvSource({
                 ", '-'",
@@ -1539,7 +1650,6 @@ class RelatorioServiceTest {
             RelatorioService spyService = spy(relatorioService);
             when(pdfFactory.createDocument()).thenReturn(document);
             mockContextoAdmin();
-            when(unidadeService.buscarMapasPorUnidades(any())).thenReturn(List.of());
             doThrow(new IOException("Erro de IO")).when(spyService).adicionarCabecalhoRelatorio(any(), any());
 
             assertThatThrownBy(() -> spyService.gerarRelatorioMapas(List.of(1L), new ByteArrayOutputStream()))
@@ -0,0 +1,111 @@
+package sgc.relatorio;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.*;
+import org.springframework.beans.factory.annotation.*;
+import org.springframework.boot.webmvc.test.autoconfigure.*;
+import org.springframework.context.annotation.*;
+import org.springframework.http.*;
+import org.springframework.http.MediaType;
+import org.springframework.security.config.annotation.method.configuration.*;
+import org.springframework.security.test.context.support.*;
+import org.springframework.test.context.bean.override.mockito.*;
+import org.springframework.test.web.servlet.*;
+import sgc.comum.erros.*;
+import sgc.processo.service.*;
+import sgc.seguranca.*;
+
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.security.test.web.servlet.request.SecurityMockMvcRequestPostProcessors.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(TarefaRelatorioController.class)
+@Import(RestExceptionHandler.class)
+@EnableMethodSecurity
+@Tag("integration")
+@DisplayName("TarefaRelatorioController - Testes de Integração")
+class TarefaRelatorioControllerTest {
+    private static final LocalDateTime SOLICITACAO = LocalDateTime.of(2026, 4, 21, 9, 0);
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private SgcPermissionEvaluator permissionEvaluator;
+
+    @MockitoBean
+    private TarefaRelatorioService tarefaRelatorioService;
+
+    @MockitoBean
+    private ProcessoService processoService;
+
+    @Test
+    @DisplayName("POST /api/relatorios/tarefas/mapas - Deve aceitar a solicitação e retornar a tarefa")
+    @WithMockUser(roles = "ADMIN")
+    void deveAceitarSolicitacaoRelatorioMapas() throws Exception {
+        when(tarefaRelatorioService.solicitarRelatorioMapas(List.of(2L, 3L)))
+                .thenReturn(tarefa("abc", SituacaoTarefaRelatorio.PENDENTE));
+
+        mockMvc.perform(post("/api/relatorios/tarefas/mapas").param("codUnidade", "2").param("codUnidade", "3").with(csrf()))
+                .andExpect(status().isAccepted())
+                .andExpect(jsonPath("$.codigo").value("abc"))
+                .andExpect(jsonPath("$.tipo").value("MAPAS"))
+                .andExpect(jsonPath("$.situacao").value("PENDENTE"));
+    }
+
+    @Test
+    @DisplayName("POST /api/relatorios/tarefas/unidades-sem-mapas-vigentes - Deve negar acesso a GESTOR")
+    @WithMockUser(roles = "GESTOR")
+    void deveNegarRelatorioUnidadesSemMapasParaGestor() throws Exception {
+        mockMvc.perform(post("/api/relatorios/tarefas/unidades-sem-mapas-vigentes").with(csrf()))
+                .andExpect(status().isForbidden());
+
+        verifyNoInteractions(tarefaRelatorioService);
+    }
+
+    @Test
+    @DisplayName("POST /api/relatorios/tarefas/andamento/{codProcesso} - Deve retornar 503 quando a fila estiver cheia")
+    @WithMockUser(roles = "ADMIN")
+    void deveRetornarIndisponivelQuandoFilaCheia() throws Exception {
+        when(tarefaRelatorioService.solicitarRelatorioAndamento(1L))
+                .thenThrow(new ErroCapacidadeEsgotada("Há muitos relatórios em geração."));
+
+        mockMvc.perform(post("/api/relatorios/tarefas/andamento/1").with(csrf()))
+                .andExpect(status().isServiceUnavailable());
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/tarefas/{codigo} - Deve retornar a situação da tarefa")
+    @WithMockUser
+    void deveConsultarTarefa() throws Exception {
+        when(tarefaRelatorioService.consultar("abc")).thenReturn(tarefa("abc", SituacaoTarefaRelatorio.EM_EXECUCAO));
+
+        mockMvc.perform(get("/api/relatorios/tarefas/abc"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.situacao").value("EM_EXECUCAO"));
+    }
+
+    @Test
+    @DisplayName("GET /api/relatorios/tarefas/{codigo}/arquivo - Deve baixar o PDF concluído")
+    @WithMockUser
+    void deveBaixarArquivo(@TempDir Path diretorio) throws Exception {
+        Path arquivo = Files.write(diretorio.resolve("abc.pdf"), new byte[]{'%', 'P', 'D', 'F'});
+        when(tarefaRelatorioService.obterArquivo("abc"))
+                .thenReturn(new TarefaRelatorioService.RelatorioArmazenado(arquivo, "sgc-rel-mapas-2026-04-21.pdf"));
+
+        mockMvc.perform(get("/api/relatorios/tarefas/abc/arquivo"))
+                .andExpect(status().isOk())
+                .andExpect(header().string(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_PDF_VALUE))
+                .andExpect(header().string(HttpHeaders.CONTENT_DISPOSITION, "attachment; filename=sgc-rel-mapas-2026-04-21.pdf"))
+                .andExpect(content().bytes(new byte[]{'%', 'P', 'D', 'F'}));
+    }
+
+    private TarefaRelatorioDto tarefa(String codigo, SituacaoTarefaRelatorio situacao) {
+        return new TarefaRelatorioDto(codigo, TipoRelatorio.MAPAS, situacao, SOLICITACAO, null, null);
+    }
+}
@@ -0,0 +1,202 @@
+package sgc.relatorio;
+
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.extension.*;
+import org.junit.jupiter.api.io.*;
+import org.mockito.*;
+import org.mockito.junit.jupiter.*;
+import sgc.comum.erros.*;
+import sgc.organizacao.*;
+import sgc.organizacao.model.*;
+import sgc.organizacao.service.*;
+
+import java.io.*;
+import java.nio.file.*;
+import java.time.*;
+import java.util.*;
+import java.util.concurrent.*;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+@DisplayName("TarefaRelatorioService - Testes Unitários")
+class TarefaRelatorioServiceTest {
+    private static final String USUARIO = "111111111111";
+    private static final String OUTRO_USUARIO = "222222222222";
+    private static final ContextoUsuarioAutenticado CONTEXTO = new ContextoUsuarioAutenticado(USUARIO, 999L, Perfil.ADMIN);
+
+    @Mock
+    private RelatorioService relatorioService;
+
+    @Mock
+    private RegistroSseEmitter registroSseEmitter;
+
+    @Mock
+    private UsuarioAplicacaoService usuarioAplicacaoService;
+
+    @TempDir
+    private Path diretorio;
+
+    private final RelogioAjustavel relogio = new RelogioAjustavel(Instant.parse("2026-04-21T12:00:00Z"));
+    private TarefaRelatorioService service;
+
+    @BeforeEach
+    void setUp() {
+        service = criarService(2, 20);
+    }
+
+    @AfterEach
+    void tearDown() {
+        service.encerrar();
+    }
+
+    @Test
+    @DisplayName("Deve gerar o PDF em segundo plano e avisar a conclusão")
+    void deveGerarPdfEAvisarConclusao() throws Exception {
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(CONTEXTO);
+        doAnswer(inv -> {
+            inv.getArgument(1, OutputStream.class).write(new byte[]{'%', 'P', 'D', 'F'});
+            return null;
+        }).when(relatorioService).gerarRelatorioAndamento(eq(1L), any());
+
+        TarefaRelatorioDto solicitada = service.solicitarRelatorioAndamento(1L);
+
+        verify(registroSseEmitter, timeout(5_000)).transmitirParaUsuario(USUARIO, TarefaRelatorioService.EVENTO_CONCLUIDO, solicitada.codigo());
+        assertThat(service.consultar(solicitada.codigo()).situacao()).isEqualTo(SituacaoTarefaRelatorio.CONCLUIDA);
+
+        TarefaRelatorioService.RelatorioArmazenado relatorio = service.obterArquivo(solicitada.codigo());
+        assertThat(relatorio.nomeArquivo()).isEqualTo(TipoRelatorio.ANDAMENTO.nomeArquivo(LocalDate.of(2026, 4, 21)));
+        assertThat(Files.readAllBytes(relatorio.arquivo())).isEqualTo(new byte[]{'%', 'P', 'D', 'F'});
+    }
+
+    @Test
+    @DisplayName("Deve reaproveitar a tarefa de uma solicitação idêntica em andamento e avisar cada solicitante")
+    void deveReaproveitarTarefaEmAndamento() throws Exception {
+        when(usuarioAplicacaoService.contextoAutenticado())
+                .thenReturn(CONTEXTO)
+                .thenReturn(new ContextoUsuarioAutenticado(OUTRO_USUARIO, 999L, Perfil.ADMIN));
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            liberar.await();
+            return null;
+        }).when(relatorioService).gerarRelatorioMapas(anyList(), any());
+
+        TarefaRelatorioDto primeira = service.solicitarRelatorioMapas(List.of(3L, 2L));
+        TarefaRelatorioDto segunda = service.solicitarRelatorioMapas(List.of(2L, 3L));
+        liberar.countDown();
+
+        assertThat(segunda.codigo()).isEqualTo(primeira.codigo());
+        verify(registroSseEmitter, timeout(5_000)).transmitirParaUsuario(USUARIO, TarefaRelatorioService.EVENTO_CONCLUIDO, primeira.codigo());
+        verify(registroSseEmitter, timeout(5_000)).transmitirParaUsuario(OUTRO_USUARIO, TarefaRelatorioService.EVENTO_CONCLUIDO, primeira.codigo());
+        verify(registroSseEmitter, never()).transmitir(anyString(), any());
+        verify(relatorioService, times(1)).gerarRelatorioMapas(eq(List.of(2L, 3L)), any());
+    }
+
+    @Test
+    @DisplayName("Deve recusar novas solicitações quando a fila estiver cheia")
+    void deveRecusarQuandoFilaCheia() throws Exception {
+        service.encerrar();
+        service = criarService(1, 1);
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(CONTEXTO);
+        CountDownLatch emExecucao = new CountDownLatch(1);
+        CountDownLatch liberar = new CountDownLatch(1);
+        doAnswer(inv -> {
+            emExecucao.countDown();
+            liberar.await();
+            return null;
+        }).when(relatorioService).gerarRelatorioAndamento(anyLong(), any());
+
+        try {
+            service.solicitarRelatorioAndamento(1L);
+            assertThat(emExecucao.await(5, TimeUnit.SECONDS)).isTrue();
+            service.solicitarRelatorioAndamento(2L);
+
+            assertThatThrownBy(() -> service.solicitarRelatorioAndamento(3L))
+                    .isInstanceOf(ErroCapacidadeEsgotada.class);
+        } finally {
+            liberar.countDown();
+        }
+    }
+
+    @Test
+    @DisplayName("Deve registrar a mensagem do erro de negócio quando a geração falhar")
+    void deveRegistrarFalhaDeNegocio() {
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(CONTEXTO);
+        doThrow(new ErroValidacao("Unidade sem mapa vigente."))
+                .when(relatorioService).gerarRelatorioAndamento(eq(1L), any());
+
+        TarefaRelatorioDto solicitada = service.solicitarRelatorioAndamento(1L);
+
+        verify(registroSseEmitter, timeout(5_000)).transmitirParaUsuario(USUARIO, TarefaRelatorioService.EVENTO_FALHOU, solicitada.codigo());
+        TarefaRelatorioDto consultada = service.consultar(solicitada.codigo());
+        assertThat(consultada.situacao()).isEqualTo(SituacaoTarefaRelatorio.FALHA);
+        assertThat(consultada.mensagemErro()).isEqualTo("Unidade sem mapa vigente.");
+        assertThatThrownBy(() -> service.obterArquivo(solicitada.codigo())).isInstanceOf(ErroValidacao.class);
+        assertThat(diretorio).isEmptyDirectory();
+    }
+
+    @Test
+    @DisplayName("Não deve expor a tarefa a outro usuário")
+    void naoDeveExporTarefaAOutroUsuario() {
+        when(usuarioAplicacaoService.contextoAutenticado())
+                .thenReturn(CONTEXTO)
+                .thenReturn(new ContextoUsuarioAutenticado(OUTRO_USUARIO, 999L, Perfil.ADMIN));
+
+        TarefaRelatorioDto solicitada = service.solicitarRelatorioUnidadesSemMapasVigentes();
+
+        assertThatThrownBy(() -> service.consultar(solicitada.codigo()))
+                .isInstanceOf(ErroEntidadeNaoEncontrada.class);
+    }
+
+    @Test
+    @DisplayName("Deve remover tarefas e arquivos expirados")
+    void deveRemoverExpiradas() throws Exception {
+        when(usuarioAplicacaoService.contextoAutenticado()).thenReturn(CONTEXTO);
+        TarefaRelatorioDto solicitada = service.solicitarRelatorioAndamento(1L);
+        verify(registroSseEmitter, timeout(5_000)).transmitirParaUsuario(USUARIO, TarefaRelatorioService.EVENTO_CONCLUIDO, solicitada.codigo());
+        Path arquivo = service.obterArquivo(solicitada.codigo()).arquivo();
+
+        relogio.avancar(Duration.ofMinutes(31));
+        service.removerExpiradas();
+
+        assertThat(arquivo).doesNotExist();
+        assertThatThrownBy(() -> service.consultar(solicitada.codigo()))
+                .isInstanceOf(ErroEntidadeNaoEncontrada.class);
+    }
+
+    private TarefaRelatorioService criarService(int concorrencia, int capacidadeFila) {
+        RelatorioTarefasPropriedades propriedades =
+                new RelatorioTarefasPropriedades(diretorio.toString(), concorrencia, capacidadeFila, 30);
+        return new TarefaRelatorioService(relatorioService, new ArmazenamentoRelatorio(propriedades),
+                registroSseEmitter, usuarioAplicacaoService, relogio, propriedades);
+    }
+
+    private static final class RelogioAjustavel extends Clock {
+        private volatile Instant agora;
+
+        private RelogioAjustavel(Instant agora) {
+            this.agora = agora;
+        }
+
+        void avancar(Duration duracao) {
+            agora = agora.plus(duracao);
+        }
+
+        @Override
+        public ZoneId getZone() {
+            return ZoneOffset.UTC;
+        }
+
+        @Override
+        public Clock withZone(ZoneId zone) {
+            return this;
+        }
+
+        @Override
+        public Instant instant() {
+            return agora;
+        }
+    }
+}
@@ -6,6 +6,9 @@ import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
 import org.mockito.*;
 import org.mockito.junit.jupiter.*;
+import org.springframework.cache.concurrent.*;
+import org.springframework.security.core.context.*;
+import sgc.comum.config.*;
 import sgc.organizacao.*;
 import sgc.organizacao.model.*;
 
@@ -18,6 +21,7 @@ import static org.mockito.Mockito.*;
 @ExtendWith(MockitoExtension.class)
 @DisplayName("FiltroJwt Tests")
 class FiltroJwtTest {
+    private static final Unidade UNIDADE_LOTACAO = Unidade.builder().codigo(20L).sigla("SEDOC").build();
 
     @InjectMocks
     private FiltroJwt filtro;
@@ -28,6 +32,8 @@ class FiltroJwtTest {
     private UsuarioAplicacaoService usuarioService;
     @Mock
     private ListaNegraJwt listaNegraJwt;
+    @Spy
+    private CachePrincipalJwt cachePrincipalJwt = new CachePrincipalJwt(new ConcurrentMapCacheManager(CacheConfig.CACHE_PRINCIPAL_JWT));
     @Mock
     private HttpServletRequest request;
     @Mock
@@ -35,6 +41,11 @@ class FiltroJwtTest {
     @Mock
     private FilterChain filterChain;
 
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
     @Test
     @DisplayName("Deve ignorar requisição sem cabeçalho Authorization")
     void deveIgnorarSemAuthorization() throws ServletException, IOException {
@@ -171,4 +182,51 @@ class FiltroJwtTest {
         verifyNoInteractions(jwtService);
     }
 
+    @Test
+    @DisplayName("Deve reaproveitar o usuário em cache nas requisições seguintes com o mesmo JWT")
+    void deveReaproveitarUsuarioEmCache() throws ServletException, IOException {
+        String token = "token-cache";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.validarToken(token)).thenReturn(Optional.of(new GerenciadorJwt.JwtClaims(
+                "123456789012", Perfil.GESTOR, 10L, "jti-cache", java.time.Instant.now().plusSeconds(60))));
+        when(usuarioService.carregarUsuarioSemAtribuicoesParaAutenticacao("123456789012"))
+                .thenReturn(Usuario.builder()
+                        .tituloEleitoral("123456789012")
+                        .nome("Fulano")
+                        .unidadeLotacao(UNIDADE_LOTACAO)
+                        .build());
+
+        filtro.doFilterInternal(request, response, filterChain);
+        Object primeiro = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+        SecurityContextHolder.clearContext();
+        filtro.doFilterInternal(request, response, filterChain);
+        Object segundo = SecurityContextHolder.getContext().getAuthentication().getPrincipal();
+
+        verify(usuarioService, times(1)).carregarUsuarioSemAtribuicoesParaAutenticacao("123456789012");
+        assertThat(segundo).isNotSameAs(primeiro);
+        assertThat((Usuario) segundo)
+                .extracting(Usuario::getNome, Usuario::getPerfilAtivo, Usuario::getUnidadeAtivaCodigo)
+                .containsExactly("Fulano", Perfil.GESTOR, 10L);
+        assertThat(((Usuario) segundo).getUnidadeLotacao())
+                .isNotSameAs(UNIDADE_LOTACAO)
+                .extracting(Unidade::getCodigo, Unidade::getSigla)
+                .containsExactly(20L, "SEDOC");
+    }
+
+    @Test
+    @DisplayName("Deve recarregar o usuário depois que o principal for removido do cache")
+    void deveRecarregarUsuarioAposEvictar() throws ServletException, IOException {
+        String token = "token-evictado";
+        when(request.getHeader("Authorization")).thenReturn("Bearer " + token);
+        when(jwtService.validarToken(token)).thenReturn(Optional.of(new GerenciadorJwt.JwtClaims(
+                "123456789012", Perfil.SERVIDOR, 10L, "jti-evictado", java.time.Instant.now().plusSeconds(60))));
+        when(usuarioService.carregarUsuarioSemAtribuicoesParaAutenticacao("123456789012"))
+                .thenReturn(Usuario.builder().tituloEleitoral("123456789012").unidadeLotacao(UNIDADE_LOTACAO).build());
+
+        filtro.doFilterInternal(request, response, filterChain);
+        cachePrincipalJwt.evictar("jti-evictado");
+        filtro.doFilterInternal(request, response, filterChain);
+
+        verify(usuarioService, times(2)).carregarUsuarioSemAtribuicoesParaAutenticacao("123456789012");
+    }
 }
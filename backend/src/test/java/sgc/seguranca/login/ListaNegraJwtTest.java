@@ -2,17 +2,23 @@ package sgc.seguranca.login;
 
 import org.junit.jupiter.api.*;
 import org.junit.jupiter.api.extension.*;
+import org.mockito.*;
 import org.mockito.junit.jupiter.*;
 
 import java.time.*;
 
 import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 @DisplayName("ListaNegraJwt")
 class ListaNegraJwtTest {
 
-    private final ListaNegraJwt listaNegraJwt = new ListaNegraJwt();
+    @Mock
+    private CachePrincipalJwt cachePrincipalJwt;
+
+    @InjectMocks
+    private ListaNegraJwt listaNegraJwt;
 
     @Test
     @DisplayName("revogar deve ignorar entradas inválidas e registrar token válido")
@@ -53,4 +59,12 @@ class ListaNegraJwtTest {
         assertThat(listaNegraJwt.estaRevogado("no-limite")).isFalse();
         assertThat(listaNegraJwt.estaRevogado("valido")).isTrue();
     }
+
+    @Test
+    @DisplayName("revogar deve remover o principal do token do cache")
+    void revogarDeveRemoverPrincipalDoCache() {
+        listaNegraJwt.revogar("jti-logout", Instant.now().plusSeconds(60));
+
+        verify(cachePrincipalJwt).evictar("jti-logout");
+    }
 }
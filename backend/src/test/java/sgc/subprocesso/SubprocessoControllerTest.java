@@ -5,6 +5,7 @@ import org.junit.jupiter.api.*;
 import org.springframework.beans.factory.annotation.*;
 import org.springframework.boot.webmvc.test.autoconfigure.*;
 import org.springframework.context.annotation.*;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.*;
 import org.springframework.test.context.bean.override.mockito.*;
@@ -437,6 +438,19 @@ class SubprocessoControllerTest {
             verify(consultaService).mapaCompletoDtoPorSubprocesso(1L);
         }
 
+        @Test
+        @DisplayName("deve responder 304 sem montar o mapa completo quando a versão não mudou")
+        @WithMockUser(roles = "GESTOR")
+        void deveResponderNaoModificadoSemMontarMapaCompleto() throws Exception {
+            when(consultaService.versaoMapaCompleto(1L)).thenReturn("subprocesso-1-v3-mapa-100-v2");
+
+            mockMvc.perform(get("/api/subprocessos/1/mapa-completo")
+                            .header(HttpHeaders.IF_NONE_MATCH, "\"subprocesso-1-v3-mapa-100-v2\""))
+                    .andExpect(status().isNotModified());
+
+            verify(consultaService, never()).mapaCompletoDtoPorSubprocesso(anyLong());
+        }
+
         @Test
         @DisplayName("deve retornar erro interno ao obter mapa para visualização")
         @WithMockUser
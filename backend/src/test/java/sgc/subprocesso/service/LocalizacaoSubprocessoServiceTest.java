@@ -57,6 +57,23 @@ class LocalizacaoSubprocessoServiceTest {
         assertThat(localizacao).isEqualTo(unidadeAtual);
     }
 
+    @Test
+    @DisplayName("deve usar a localizacao atual persistida sem consultar movimentacoes")
+    void deveUsarLocalizacaoAtualPersistida() {
+        Unidade unidadeAtual = Unidade.builder().codigo(20L).build();
+        Subprocesso subprocesso = Subprocesso.builder()
+                .codigo(1L)
+                .unidade(Unidade.builder().codigo(10L).build())
+                .localizacaoAtual(unidadeAtual)
+                .situacao(SituacaoSubprocesso.MAPEAMENTO_MAPA_VALIDADO)
+                .build();
+
+        Unidade localizacao = service.obterLocalizacaoAtual(subprocesso);
+
+        assertThat(localizacao).isEqualTo(unidadeAtual);
+        verifyNoInteractions(movimentacaoRepo);
+    }
+
     @Test
     @DisplayName("deve aceitar ausencia de movimentacao apenas para subprocesso persistido nao iniciado")
     void deveAceitarAusenciaDeMovimentacaoEmNaoIniciado() {
@@ -124,6 +141,39 @@ class LocalizacaoSubprocessoServiceTest {
         assertThat(res.keySet()).doesNotContainNull();
     }
 
+    @Test
+    @DisplayName("deve consultar movimentacoes apenas para subprocessos sem localizacao persistida")
+    void deveConsultarMovimentacoesApenasParaSemLocalizacao() {
+        Unidade uniOriginal = Unidade.builder().codigo(1L).build();
+        Unidade uniPersistida = Unidade.builder().codigo(10L).build();
+        Unidade uniDestino = Unidade.builder().codigo(20L).build();
+
+        Subprocesso spComColuna = Subprocesso.builder().codigo(3L).unidade(uniOriginal).localizacaoAtual(uniPersistida)
+                .situacao(SituacaoSubprocesso.MAPEAMENTO_CADASTRO_DISPONIBILIZADO).build();
+        Subprocesso spLegado = Subprocesso.builder().codigo(4L).unidade(uniOriginal)
+                .situacao(SituacaoSubprocesso.MAPEAMENTO_MAPA_HOMOLOGADO).build();
+        Movimentacao mov = Movimentacao.builder().subprocesso(spLegado).unidadeDestino(uniDestino).build();
+
+        when(movimentacaoRepo.listarUltimasPorSubprocessos(List.of(4L))).thenReturn(List.of(mov));
+
+        Map<Long, Unidade> res = service.obterLocalizacoesAtuais(List.of(spComColuna, spLegado));
+
+        assertThat(res).containsEntry(3L, uniPersistida).containsEntry(4L, uniDestino);
+    }
+
+    @Test
+    @DisplayName("nao deve consultar movimentacoes quando todos possuem localizacao persistida")
+    void naoDeveConsultarMovimentacoesQuandoTodosPossuemLocalizacao() {
+        Unidade uniAtual = Unidade.builder().codigo(10L).build();
+        Subprocesso sp = Subprocesso.builder().codigo(3L).unidade(Unidade.builder().codigo(1L).build())
+                .localizacaoAtual(uniAtual).situacao(SituacaoSubprocesso.MAPEAMENTO_CADASTRO_EM_ANDAMENTO).build();
+
+        Map<Long, Unidade> res = service.obterLocalizacoesAtuais(List.of(sp));
+
+        assertThat(res).containsExactly(Map.entry(3L, uniAtual));
+        verifyNoInteractions(movimentacaoRepo);
+    }
+
     @Test
     @DisplayName("obterLocalizacoesAtuais - deve cobrir merge function com duplicatas")
     void obterLocalizacoesAtuais_Duplicatas() {
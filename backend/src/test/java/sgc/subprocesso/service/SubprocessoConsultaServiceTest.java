@@ -128,6 +128,47 @@ class SubprocessoConsultaServiceTest {
         verify(mapaManutencaoService, never()).mapaCompletoSubprocesso(codSubprocesso);
     }
 
+    @Test
+    @DisplayName("versaoMapaCompleto deve combinar versões do subprocesso e do mapa vigente no diagnostico")
+    void versaoMapaCompletoDeveUsarMapaVigenteNoDiagnostico() {
+        Subprocesso sp = new Subprocesso();
+        sp.setCodigo(910L);
+        Unidade unidade = new Unidade();
+        unidade.setCodigo(4L);
+        sp.setUnidade(unidade);
+        Processo processo = new Processo();
+        processo.setTipo(TipoProcesso.DIAGNOSTICO);
+        sp.setProcesso(processo);
+        Mapa mapaVigente = new Mapa();
+        mapaVigente.setCodigo(99L);
+        mapaVigente.registrarAlteracao();
+
+        when(subprocessoRepo.buscarPorCodigoComMapa(910L)).thenReturn(Optional.of(sp));
+        when(mapaManutencaoService.mapaVigenteUnidade(4L)).thenReturn(Optional.of(mapaVigente));
+
+        assertThat(service.versaoMapaCompleto(910L)).isEqualTo("subprocesso-910-v0-mapa-99-v1");
+        verify(mapaManutencaoService, never()).mapaCompletoVigenteUnidade(anyLong());
+    }
+
+    @Test
+    @DisplayName("versaoMapaCompleto deve usar o mapa do proprio subprocesso fora do diagnostico")
+    void versaoMapaCompletoDeveUsarMapaDoSubprocesso() {
+        Subprocesso sp = new Subprocesso();
+        sp.setCodigo(911L);
+        Processo processo = new Processo();
+        processo.setTipo(TipoProcesso.MAPEAMENTO);
+        sp.setProcesso(processo);
+
+        when(subprocessoRepo.buscarPorCodigoComMapa(911L)).thenReturn(Optional.of(sp));
+
+        assertThat(service.versaoMapaCompleto(911L)).isEqualTo("subprocesso-911-v0-mapa-ausente");
+
+        Mapa mapa = new Mapa();
+        mapa.setCodigo(12L);
+        sp.setMapa(mapa);
+        assertThat(service.versaoMapaCompleto(911L)).isEqualTo("subprocesso-911-v0-mapa-12-v0");
+    }
+
     @Test
     @DisplayName("obterSugestoes deve retornar SugestoesDto vazia quando o mapa for nulo")
     void obterSugestoesDeveRetornarVaziaQuandoMapaForNulo() {
@@ -91,6 +91,7 @@ class SubprocessoTransicaoServiceTest {
                         && mov.getDescricao().equals(CADASTRO_DISPONIBILIZADO.getDescMovimentacao())
                         && mov.getUsuario().equals(usuario)));
         verify(subprocessoRepo).save(subprocesso);
+        assertThat(subprocesso.getLocalizacaoAtual()).isEqualTo(destino);
         verify(notificacaoService).registrarComunicacoesTransicao(argThat(cmd ->
                 cmd.subprocesso().equals(subprocesso)
                         && cmd.tipoTransicao() == CADASTRO_DISPONIBILIZADO
@@ -531,43 +531,13 @@ VALUES ('30001', 20001);
 -- -------------------------------------------------------------------------------------------------
 -- RESTART SEQUENCES para evitar conflitos de ID em testes
 -- -------------------------------------------------------------------------------------------------
-ALTER TABLE SGC.VW_UNIDADE
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 1000;
-ALTER TABLE SGC.PROCESSO
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 60000;
-ALTER TABLE SGC.MAPA
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 2000;
-ALTER TABLE SGC.SUBPROCESSO
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 70000;
-ALTER TABLE SGC.COMPETENCIA
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 30000;
-ALTER TABLE SGC.ATIVIDADE
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 50000;
-ALTER TABLE SGC.CONHECIMENTO
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 50000;
-ALTER TABLE SGC.ALERTA
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 80000;
-ALTER TABLE SGC.MOVIMENTACAO
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 90000;
-ALTER TABLE SGC.ANALISE
-    ALTER
-        COLUMN CODIGO RESTART
-        WITH 1000;
+ALTER SEQUENCE SGC.UNIDADE_SEQ RESTART WITH 1000;
+ALTER SEQUENCE SGC.PROCESSO_SEQ RESTART WITH 60000;
+ALTER SEQUENCE SGC.MAPA_SEQ RESTART WITH 2000;
+ALTER SEQUENCE SGC.SUBPROCESSO_SEQ RESTART WITH 70000;
+ALTER SEQUENCE SGC.COMPETENCIA_SEQ RESTART WITH 30000;
+ALTER SEQUENCE SGC.ATIVIDADE_SEQ RESTART WITH 50000;
+ALTER SEQUENCE SGC.CONHECIMENTO_SEQ RESTART WITH 50000;
+ALTER SEQUENCE SGC.ALERTA_SEQ RESTART WITH 80000;
+ALTER SEQUENCE SGC.MOVIMENTACAO_SEQ RESTART WITH 90000;
+ALTER SEQUENCE SGC.ANALISE_SEQ RESTART WITH 1000;
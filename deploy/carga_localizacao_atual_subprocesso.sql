@@ -0,0 +1,22 @@
+-- Carga única da localização atual dos subprocessos (Oracle)
+-- Preenche SUBPROCESSO.localizacao_atual_codigo com a unidade de destino da movimentação mais recente.
+-- Pode ser reexecutado: apenas registros com a coluna nula são atualizados.
+
+ALTER TABLE sgc.subprocesso ADD (localizacao_atual_codigo NUMBER NULL);
+COMMENT
+    ON COLUMN sgc.subprocesso.localizacao_atual_codigo IS 'Unidade de destino da movimentação mais recente (ref VW_UNIDADE).';
+CREATE INDEX sgc.idx_subprocesso_localizacao ON sgc.subprocesso (localizacao_atual_codigo);
+
+MERGE INTO sgc.subprocesso s
+USING (SELECT subprocesso_codigo, unidade_destino_codigo
+       FROM (SELECT m.subprocesso_codigo,
+                    m.unidade_destino_codigo,
+                    ROW_NUMBER() OVER (PARTITION BY m.subprocesso_codigo ORDER BY m.data_hora DESC, m.codigo DESC) AS ordem
+             FROM sgc.movimentacao m)
+       WHERE ordem = 1) ultima
+ON (s.codigo = ultima.subprocesso_codigo)
+WHEN MATCHED THEN
+    UPDATE SET s.localizacao_atual_codigo = ultima.unidade_destino_codigo
+    WHERE s.localizacao_atual_codigo IS NULL;
+
+COMMIT;
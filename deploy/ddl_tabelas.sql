@@ -2,16 +2,40 @@
 -- SCRIPT DDL ORACLE PARA CRIAÇÃO DAS TABELAS DO MODELO DE DADOS SGC
 -- #################################################################
 
+-- 0. Sequências de chave primária
+-- Incremento 50 igual ao allocationSize do Hibernate (otimizador pooled-lo), que reserva os códigos em blocos.
+CREATE SEQUENCE AGREGADO_GAP_COMPETENCIA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE ALERTA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE ANALISE_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE ATIVIDADE_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE ATRIBUICAO_TEMPORARIA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE AVALIACAO_SERVIDOR_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE COMPETENCIA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE CONFIGURACAO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE CONHECIMENTO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE DIAGNOSTICO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE MAPA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE MOVIMENTACAO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE NOTIFICACAO_EMAIL_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE PROCESSO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE SERVIDOR_PROCESSO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE SITUACAO_CAPACITACAO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+CREATE SEQUENCE SUBPROCESSO_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+-- VW_UNIDADE é somente leitura, mas a validação do Hibernate exige a sequência da entidade Unidade.
+CREATE SEQUENCE UNIDADE_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+
 -- 1. Tabela PROCESSO
 CREATE TABLE PROCESSO
 (
-    codigo           NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo           NUMBER DEFAULT PROCESSO_SEQ.NEXTVAL NOT NULL,
     data_criacao     TIMESTAMP     NOT NULL,
     data_finalizacao TIMESTAMP     NULL,
     data_limite      DATE          NOT NULL,
     descricao        VARCHAR2(255) NOT NULL,
     situacao         VARCHAR2(20)  NOT NULL,
     tipo             VARCHAR2(20)  NOT NULL,
+    versao           NUMBER DEFAULT 0 NOT NULL,
+    resumo_participantes VARCHAR2(4000) NULL,
     CONSTRAINT pk_processo PRIMARY KEY (codigo)
 );
 
@@ -29,6 +53,10 @@ COMMENT
     ON COLUMN PROCESSO.situacao IS 'Situação atual ("CRIADO", "EM_ANDAMENTO", "FINALIZADO").';
 COMMENT
     ON COLUMN PROCESSO.tipo IS 'Tipo do processo ("MAPEAMENTO", "REVISAO", "DIAGNOSTICO").';
+COMMENT
+    ON COLUMN PROCESSO.versao IS 'Contador de alterações, usado como ETag do resumo do processo.';
+COMMENT
+    ON COLUMN PROCESSO.resumo_participantes IS 'Siglas das unidades participantes agrupadas pela hierarquia, como exibidas no painel.';
 
 
 -- 2. Tabela UNIDADE_PROCESSO (Tabela de Associação N:M entre PROCESSO e unidades - Snapshot)
@@ -73,7 +101,7 @@ COMMENT
 -- 3. Tabela SERVIDOR_PROCESSO
 CREATE TABLE SERVIDOR_PROCESSO
 (
-    codigo          NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo          NUMBER DEFAULT SERVIDOR_PROCESSO_SEQ.NEXTVAL NOT NULL,
     processo_codigo NUMBER        NOT NULL,
     unidade_codigo  NUMBER        NOT NULL,
     usuario_titulo  VARCHAR2(12)  NOT NULL,
@@ -104,7 +132,7 @@ COMMENT
 -- 4. Tabela SUBPROCESSO
 CREATE TABLE SUBPROCESSO
 (
-    codigo             NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo             NUMBER DEFAULT SUBPROCESSO_SEQ.NEXTVAL NOT NULL,
     processo_codigo    NUMBER       NOT NULL,
     unidade_codigo     NUMBER       NOT NULL,
     data_limite_etapa1 DATE         NOT NULL,
@@ -112,6 +140,8 @@ CREATE TABLE SUBPROCESSO
     data_limite_etapa2 DATE         NULL,
     data_fim_etapa2    TIMESTAMP    NULL,
     situacao           VARCHAR2(50) NOT NULL,
+    localizacao_atual_codigo NUMBER NULL,
+    versao             NUMBER DEFAULT 0 NOT NULL,
     CONSTRAINT pk_subprocesso PRIMARY KEY (codigo),
     CONSTRAINT fk_subprocesso_up FOREIGN KEY (processo_codigo, unidade_codigo) REFERENCES UNIDADE_PROCESSO (processo_codigo, unidade_codigo)
 );
@@ -132,17 +162,22 @@ COMMENT
     ON COLUMN SUBPROCESSO.data_fim_etapa2 IS 'Data de fim da etapa 2.';
 COMMENT
     ON COLUMN SUBPROCESSO.situacao IS 'Situação atual do subprocesso.';
+COMMENT
+    ON COLUMN SUBPROCESSO.localizacao_atual_codigo IS 'Unidade de destino da movimentação mais recente (ref VW_UNIDADE).';
+COMMENT
+    ON COLUMN SUBPROCESSO.versao IS 'Contador de alterações do subprocesso, incrementado a cada update.';
 
 
 -- 5. Tabela MAPA
 CREATE TABLE MAPA
 (
-    codigo                       NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                       NUMBER DEFAULT MAPA_SEQ.NEXTVAL NOT NULL,
     subprocesso_codigo           NUMBER         NOT NULL,
     data_hora_disponibilizado    TIMESTAMP      NULL,
     observacoes_disponibilizacao VARCHAR2(1000) NULL,
     sugestoes                    VARCHAR2(1000) NULL,
     data_hora_homologado         TIMESTAMP      NULL,
+    versao                       NUMBER DEFAULT 0 NOT NULL,
     CONSTRAINT pk_mapa PRIMARY KEY (codigo),
     CONSTRAINT fk_mapa_subprocesso FOREIGN KEY (subprocesso_codigo) REFERENCES SUBPROCESSO (codigo)
 );
@@ -159,12 +194,14 @@ COMMENT
     ON COLUMN MAPA.sugestoes IS 'Sugestões apresentadas durante a validação do mapa.';
 COMMENT
     ON COLUMN MAPA.data_hora_homologado IS 'Data e hora em que o mapa foi homologado.';
+COMMENT
+    ON COLUMN MAPA.versao IS 'Contador de alterações do mapa e de seus itens, usado como ETag do mapa completo.';
 
 
 -- 6. Tabela DIAGNOSTICO
 CREATE TABLE DIAGNOSTICO
 (
-    codigo             NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo             NUMBER DEFAULT DIAGNOSTICO_SEQ.NEXTVAL NOT NULL,
     subprocesso_codigo NUMBER    NOT NULL,
     data_conclusao     TIMESTAMP NULL,
     CONSTRAINT pk_diagnostico PRIMARY KEY (codigo),
@@ -195,7 +232,7 @@ COMMENT
 -- 8. Tabela ALERTA
 CREATE TABLE ALERTA
 (
-    codigo                 NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                 NUMBER DEFAULT ALERTA_SEQ.NEXTVAL NOT NULL,
     processo_codigo        NUMBER        NULL,
     data_hora              TIMESTAMP     NOT NULL,
     unidade_origem_codigo  NUMBER        NOT NULL,
@@ -245,7 +282,7 @@ COMMENT
 -- 10. Tabela ANALISE
 CREATE TABLE ANALISE
 (
-    codigo             NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo             NUMBER DEFAULT ANALISE_SEQ.NEXTVAL NOT NULL,
     subprocesso_codigo NUMBER        NOT NULL,
     data_hora          TIMESTAMP     NOT NULL,
     tipo               VARCHAR2(25)  NOT NULL,
@@ -280,7 +317,7 @@ COMMENT
 -- 11. Tabela ATRIBUICAO_TEMPORARIA
 CREATE TABLE ATRIBUICAO_TEMPORARIA
 (
-    codigo            NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo            NUMBER DEFAULT ATRIBUICAO_TEMPORARIA_SEQ.NEXTVAL NOT NULL,
     unidade_codigo    NUMBER        NOT NULL,
     usuario_matricula VARCHAR2(8)   NOT NULL,
     usuario_titulo    VARCHAR2(12)  NOT NULL,
@@ -310,7 +347,7 @@ COMMENT
 -- 12. Tabela ATIVIDADE
 CREATE TABLE ATIVIDADE
 (
-    codigo      NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo      NUMBER DEFAULT ATIVIDADE_SEQ.NEXTVAL NOT NULL,
     mapa_codigo NUMBER        NOT NULL,
     descricao   VARCHAR2(255) NOT NULL,
     CONSTRAINT pk_atividade PRIMARY KEY (codigo),
@@ -328,7 +365,7 @@ COMMENT
 -- 13. Tabela COMPETENCIA
 CREATE TABLE COMPETENCIA
 (
-    codigo      NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo      NUMBER DEFAULT COMPETENCIA_SEQ.NEXTVAL NOT NULL,
     mapa_codigo NUMBER        NOT NULL,
     descricao   VARCHAR2(255) NOT NULL,
     CONSTRAINT pk_competencia PRIMARY KEY (codigo),
@@ -362,7 +399,7 @@ COMMENT
 -- 15. Tabela AVALIACAO_SERVIDOR
 CREATE TABLE AVALIACAO_SERVIDOR
 (
-    codigo                     NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                     NUMBER DEFAULT AVALIACAO_SERVIDOR_SEQ.NEXTVAL NOT NULL,
     diagnostico_codigo         NUMBER        NOT NULL,
     servidor_titulo            VARCHAR2(12)  NOT NULL,
     servidor_nome_snapshot     VARCHAR2(255) NULL,
@@ -446,7 +483,7 @@ COMMENT
 -- 16. Tabela SITUACAO_CAPACITACAO
 CREATE TABLE SITUACAO_CAPACITACAO
 (
-    codigo                  NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                  NUMBER DEFAULT SITUACAO_CAPACITACAO_SEQ.NEXTVAL NOT NULL,
     diagnostico_codigo      NUMBER        NOT NULL,
     servidor_titulo         VARCHAR2(12)  NOT NULL,
     competencia_codigo      NUMBER        NOT NULL,
@@ -481,11 +518,51 @@ COMMENT
 COMMENT
     ON COLUMN SITUACAO_CAPACITACAO.situacao_capacitacao IS 'Situação de capacitação: NA, AC, EC, C ou I.';
 
+-- 16.1 Tabela AGREGADO_GAP_COMPETENCIA
+CREATE TABLE AGREGADO_GAP_COMPETENCIA
+(
+    codigo               NUMBER DEFAULT AGREGADO_GAP_COMPETENCIA_SEQ.NEXTVAL NOT NULL,
+    diagnostico_codigo   NUMBER           NOT NULL,
+    competencia_codigo   NUMBER           NOT NULL,
+    soma_gap             NUMBER DEFAULT 0 NOT NULL,
+    total_gap            NUMBER DEFAULT 0 NOT NULL,
+    total_nao_se_aplica  NUMBER DEFAULT 0 NOT NULL,
+    total_a_capacitar    NUMBER DEFAULT 0 NOT NULL,
+    total_em_capacitacao NUMBER DEFAULT 0 NOT NULL,
+    total_capacitado     NUMBER DEFAULT 0 NOT NULL,
+    total_instrutor      NUMBER DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_agregado_gap_competencia PRIMARY KEY (codigo),
+    CONSTRAINT fk_agr_gap_diagnostico FOREIGN KEY (diagnostico_codigo) REFERENCES DIAGNOSTICO (codigo),
+    CONSTRAINT fk_agr_gap_competencia FOREIGN KEY (competencia_codigo) REFERENCES COMPETENCIA (codigo),
+    CONSTRAINT uk_agregado_gap_competencia UNIQUE (diagnostico_codigo, competencia_codigo)
+);
+
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.codigo IS 'Identificador único dos totais do diagnóstico para a competência.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.diagnostico_codigo IS 'Diagnóstico ao qual os totais pertencem.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.competencia_codigo IS 'Competência totalizada.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.soma_gap IS 'Soma dos gaps calculados das avaliações da competência.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_gap IS 'Quantidade de avaliações da competência com gap calculado.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_nao_se_aplica IS 'Quantidade de situações de capacitação NA.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_a_capacitar IS 'Quantidade de situações de capacitação AC.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_em_capacitacao IS 'Quantidade de situações de capacitação EC.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_capacitado IS 'Quantidade de situações de capacitação C.';
+COMMENT
+    ON COLUMN AGREGADO_GAP_COMPETENCIA.total_instrutor IS 'Quantidade de situações de capacitação I.';
+
 
 -- 17. Tabela CONHECIMENTO
 CREATE TABLE CONHECIMENTO
 (
-    codigo           NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo           NUMBER DEFAULT CONHECIMENTO_SEQ.NEXTVAL NOT NULL,
     atividade_codigo NUMBER        NOT NULL,
     descricao        VARCHAR2(255) NOT NULL,
     CONSTRAINT pk_conhecimento PRIMARY KEY (codigo),
@@ -503,7 +580,7 @@ COMMENT
 -- 18. Tabela MOVIMENTACAO
 CREATE TABLE MOVIMENTACAO
 (
-    codigo                 NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                 NUMBER DEFAULT MOVIMENTACAO_SEQ.NEXTVAL NOT NULL,
     subprocesso_codigo     NUMBER        NOT NULL,
     data_hora              TIMESTAMP     NOT NULL,
     unidade_origem_codigo  NUMBER        NOT NULL,
@@ -533,7 +610,7 @@ COMMENT
 -- 19. Tabela CONFIGURACAO
 CREATE TABLE CONFIGURACAO
 (
-    codigo    NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo    NUMBER DEFAULT CONFIGURACAO_SEQ.NEXTVAL NOT NULL,
     chave     VARCHAR2(50)  NOT NULL,
     descricao VARCHAR2(255) NULL,
     valor     VARCHAR2(255) NOT NULL,
@@ -553,7 +630,7 @@ COMMENT
 -- 16. Tabela NOTIFICACAO_EMAIL
 CREATE TABLE NOTIFICACAO_EMAIL
 (
-    codigo                 NUMBER GENERATED ALWAYS AS IDENTITY START WITH 1 INCREMENT BY 1 NOT NULL,
+    codigo                 NUMBER DEFAULT NOTIFICACAO_EMAIL_SEQ.NEXTVAL NOT NULL,
     destinatario           VARCHAR2(255)                     NOT NULL,
     assunto                VARCHAR2(500)                     NOT NULL,
     corpo_html             CLOB                              NOT NULL,
@@ -569,6 +646,8 @@ CREATE TABLE NOTIFICACAO_EMAIL
     data_hora_envio        TIMESTAMP                         NULL,
     ultimo_erro            VARCHAR2(2000)                    NULL,
     chave_idempotencia     VARCHAR2(255)                     NOT NULL,
+    lote_envio             VARCHAR2(36)                      NULL,
+    data_hora_reserva      TIMESTAMP                         NULL,
     CONSTRAINT pk_notif_email PRIMARY KEY (codigo),
     CONSTRAINT uk_notif_email_chave UNIQUE (chave_idempotencia),
     CONSTRAINT ck_notif_email_situacao CHECK (
@@ -619,10 +698,15 @@ COMMENT
     ON COLUMN NOTIFICACAO_EMAIL.ultimo_erro IS 'Ultimo erro registrado durante tentativa de envio.';
 COMMENT
     ON COLUMN NOTIFICACAO_EMAIL.chave_idempotencia IS 'Chave unica para evitar duplicidade de e-mail em reprocessamentos.';
+COMMENT
+    ON COLUMN NOTIFICACAO_EMAIL.lote_envio IS 'Lote do worker que reservou a notificacao para envio.';
+COMMENT
+    ON COLUMN NOTIFICACAO_EMAIL.data_hora_reserva IS 'Momento da reserva pelo lote; reservas antigas em ENVIANDO sao liberadas.';
 
 CREATE INDEX ix_notif_email_fila ON NOTIFICACAO_EMAIL (situacao, proxima_tentativa_em, data_hora_criacao);
 CREATE INDEX ix_notif_email_subproc_sit ON NOTIFICACAO_EMAIL (subprocesso_codigo, situacao);
 CREATE INDEX ix_notif_email_usuario ON NOTIFICACAO_EMAIL (usuario_destino_titulo);
+CREATE INDEX ix_notif_email_lote ON NOTIFICACAO_EMAIL (lote_envio);
 CREATE INDEX idx_diagnostico_subprocesso ON DIAGNOSTICO (subprocesso_codigo);
 CREATE INDEX idx_avaliacao_diagnostico ON AVALIACAO_SERVIDOR (diagnostico_codigo);
 CREATE INDEX idx_avaliacao_servidor ON AVALIACAO_SERVIDOR (servidor_titulo);
@@ -639,7 +723,9 @@ CREATE INDEX idx_movimentacao_subprocesso ON MOVIMENTACAO (subprocesso_codigo);
 CREATE INDEX idx_competencia_atividade_inv ON COMPETENCIA_ATIVIDADE (competencia_codigo);
 CREATE INDEX idx_subprocesso_processo ON SUBPROCESSO (processo_codigo);
 CREATE INDEX idx_subprocesso_unidade ON SUBPROCESSO (unidade_codigo);
-CREATE INDEX idx_alerta_unidade_destino ON ALERTA (unidade_destino_codigo);
+CREATE INDEX idx_subprocesso_localizacao ON SUBPROCESSO (localizacao_atual_codigo);
+CREATE INDEX idx_alerta_destino_data ON ALERTA (unidade_destino_codigo, usuario_destino_titulo, data_hora);
+CREATE INDEX idx_alerta_usuario_destino_data ON ALERTA (usuario_destino_titulo, data_hora);
 CREATE INDEX idx_alerta_processo ON ALERTA (processo_codigo);
 CREATE INDEX idx_alerta_usuario_usuario ON ALERTA_USUARIO (usuario_titulo);
 CREATE INDEX idx_unidade_processo_unidade ON UNIDADE_PROCESSO (unidade_codigo);
@@ -39,6 +39,16 @@ v_count > 0 THEN
         EXECUTE IMMEDIATE 'DELETE FROM sgc.situacao_capacitacao';
 END IF;
 
+    -- Totais por competência do diagnóstico
+SELECT count(*)
+INTO v_count
+FROM user_tables
+WHERE table_name = 'AGREGADO_GAP_COMPETENCIA';
+IF
+v_count > 0 THEN
+        EXECUTE IMMEDIATE 'DELETE FROM sgc.agregado_gap_competencia';
+END IF;
+
     -- Diagnóstico
 SELECT count(*)
 INTO v_count
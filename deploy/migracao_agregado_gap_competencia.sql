@@ -0,0 +1,48 @@
+-- Totais por diagnóstico e competência lidos pelos relatórios de gaps e de situação de capacitação (Oracle)
+-- Os diagnósticos existentes recebem os totais calculados a partir das avaliações e situações já gravadas.
+
+CREATE SEQUENCE sgc.AGREGADO_GAP_COMPETENCIA_SEQ START WITH 1 INCREMENT BY 50 NOCACHE;
+
+CREATE TABLE sgc.AGREGADO_GAP_COMPETENCIA
+(
+    codigo               NUMBER DEFAULT sgc.AGREGADO_GAP_COMPETENCIA_SEQ.NEXTVAL NOT NULL,
+    diagnostico_codigo   NUMBER           NOT NULL,
+    competencia_codigo   NUMBER           NOT NULL,
+    soma_gap             NUMBER DEFAULT 0 NOT NULL,
+    total_gap            NUMBER DEFAULT 0 NOT NULL,
+    total_nao_se_aplica  NUMBER DEFAULT 0 NOT NULL,
+    total_a_capacitar    NUMBER DEFAULT 0 NOT NULL,
+    total_em_capacitacao NUMBER DEFAULT 0 NOT NULL,
+    total_capacitado     NUMBER DEFAULT 0 NOT NULL,
+    total_instrutor      NUMBER DEFAULT 0 NOT NULL,
+    CONSTRAINT pk_agregado_gap_competencia PRIMARY KEY (codigo),
+    CONSTRAINT fk_agr_gap_diagnostico FOREIGN KEY (diagnostico_codigo) REFERENCES sgc.DIAGNOSTICO (codigo),
+    CONSTRAINT fk_agr_gap_competencia FOREIGN KEY (competencia_codigo) REFERENCES sgc.COMPETENCIA (codigo),
+    CONSTRAINT uk_agregado_gap_competencia UNIQUE (diagnostico_codigo, competencia_codigo)
+);
+
+COMMENT
+    ON COLUMN sgc.AGREGADO_GAP_COMPETENCIA.soma_gap IS 'Soma dos gaps calculados das avaliações da competência.';
+COMMENT
+    ON COLUMN sgc.AGREGADO_GAP_COMPETENCIA.total_gap IS 'Quantidade de avaliações da competência com gap calculado.';
+
+INSERT INTO sgc.AGREGADO_GAP_COMPETENCIA (diagnostico_codigo, competencia_codigo, soma_gap, total_gap,
+                                          total_nao_se_aplica, total_a_capacitar, total_em_capacitacao,
+                                          total_capacitado, total_instrutor)
+SELECT diagnostico_codigo,
+       competencia_codigo,
+       NVL(SUM(gap), 0),
+       COUNT(gap),
+       COUNT(CASE WHEN situacao_capacitacao = 'NA' THEN 1 END),
+       COUNT(CASE WHEN situacao_capacitacao = 'AC' THEN 1 END),
+       COUNT(CASE WHEN situacao_capacitacao = 'EC' THEN 1 END),
+       COUNT(CASE WHEN situacao_capacitacao = 'C' THEN 1 END),
+       COUNT(CASE WHEN situacao_capacitacao = 'I' THEN 1 END)
+FROM (SELECT diagnostico_codigo, competencia_codigo, gap, NULL AS situacao_capacitacao
+      FROM sgc.avaliacao_servidor
+      UNION ALL
+      SELECT diagnostico_codigo, competencia_codigo, NULL, situacao_capacitacao
+      FROM sgc.situacao_capacitacao)
+GROUP BY diagnostico_codigo, competencia_codigo;
+
+COMMIT;
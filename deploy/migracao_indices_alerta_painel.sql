@@ -0,0 +1,9 @@
+-- Índices da consulta de alertas do painel, paginada por (data_hora, codigo) (Oracle)
+
+-- Coletivos da unidade: unidade_destino_codigo = ? AND usuario_destino_titulo IS NULL, ordenado por data_hora.
+-- Substitui idx_alerta_unidade_destino, que passa a ser prefixo do novo índice.
+CREATE INDEX sgc.idx_alerta_destino_data ON sgc.alerta (unidade_destino_codigo, usuario_destino_titulo, data_hora);
+DROP INDEX sgc.idx_alerta_unidade_destino;
+
+-- Pessoais do usuário: usuario_destino_titulo = ?, ordenado por data_hora.
+CREATE INDEX sgc.idx_alerta_usuario_destino_data ON sgc.alerta (usuario_destino_titulo, data_hora);
@@ -0,0 +1,8 @@
+-- Coluna usada pelo worker de e-mail para reservar notificações em lote (Oracle)
+
+ALTER TABLE sgc.notificacao_email ADD (lote_envio VARCHAR2(36) NULL, data_hora_reserva TIMESTAMP NULL);
+COMMENT
+    ON COLUMN sgc.notificacao_email.lote_envio IS 'Lote do worker que reservou a notificacao para envio.';
+COMMENT
+    ON COLUMN sgc.notificacao_email.data_hora_reserva IS 'Momento da reserva pelo lote; reservas antigas em ENVIANDO sao liberadas.';
+CREATE INDEX sgc.ix_notif_email_lote ON sgc.notificacao_email (lote_envio);
@@ -0,0 +1,8 @@
+-- Resumo das unidades participantes exibido no painel, calculado quando os participantes são definidos (Oracle)
+-- O agrupamento pela hierarquia é feito em Java: os processos existentes são preenchidos na inicialização da
+-- aplicação por CargaResumoParticipantesProcesso (sgc.processo.carga-resumo-participantes, ligada por padrão).
+-- Resumos maiores que a coluna ficam nulos e são agrupados na leitura.
+
+ALTER TABLE sgc.processo ADD (resumo_participantes VARCHAR2(4000) NULL);
+COMMENT
+    ON COLUMN sgc.processo.resumo_participantes IS 'Siglas das unidades participantes agrupadas pela hierarquia, como exibidas no painel.';
@@ -0,0 +1,29 @@
+-- Migração das chaves primárias de IDENTITY para sequências (Oracle)
+-- Cria <TABELA>_SEQ a partir do maior código existente, remove a coluna IDENTITY e passa a usar a
+-- sequência como default, para que inserts manuais continuem funcionando.
+-- Incremento 50 igual ao allocationSize do Hibernate (otimizador pooled-lo).
+-- Executar uma única vez, com a aplicação parada.
+
+DECLARE
+    TYPE t_tabelas IS TABLE OF VARCHAR2(30);
+    v_tabelas t_tabelas := t_tabelas(
+            'PROCESSO', 'SERVIDOR_PROCESSO', 'SUBPROCESSO', 'MAPA', 'DIAGNOSTICO', 'ALERTA', 'ANALISE',
+            'ATRIBUICAO_TEMPORARIA', 'ATIVIDADE', 'COMPETENCIA', 'AVALIACAO_SERVIDOR', 'SITUACAO_CAPACITACAO',
+            'CONHECIMENTO', 'MOVIMENTACAO', 'CONFIGURACAO', 'NOTIFICACAO_EMAIL'
+                          );
+    v_inicio  NUMBER;
+BEGIN
+    FOR i IN 1 .. v_tabelas.COUNT
+        LOOP
+            EXECUTE IMMEDIATE 'SELECT NVL(MAX(codigo), 0) + 1 FROM sgc.' || v_tabelas(i) INTO v_inicio;
+            EXECUTE IMMEDIATE 'CREATE SEQUENCE sgc.' || v_tabelas(i) || '_SEQ START WITH ' || v_inicio
+                || ' INCREMENT BY 50 NOCACHE';
+            EXECUTE IMMEDIATE 'ALTER TABLE sgc.' || v_tabelas(i) || ' MODIFY codigo DROP IDENTITY';
+            EXECUTE IMMEDIATE 'ALTER TABLE sgc.' || v_tabelas(i) || ' MODIFY codigo DEFAULT sgc.'
+                || v_tabelas(i) || '_SEQ.NEXTVAL';
+        END LOOP;
+
+    -- VW_UNIDADE é somente leitura, mas a validação do Hibernate exige a sequência da entidade Unidade.
+    EXECUTE IMMEDIATE 'CREATE SEQUENCE sgc.UNIDADE_SEQ START WITH 1 INCREMENT BY 50 NOCACHE';
+END;
+/
@@ -0,0 +1,13 @@
+-- Contadores de versão usados como ETag nas consultas de processo e de mapa completo (Oracle)
+
+ALTER TABLE sgc.processo ADD (versao NUMBER DEFAULT 0 NOT NULL);
+COMMENT
+    ON COLUMN sgc.processo.versao IS 'Contador de alterações, usado como ETag do resumo do processo.';
+
+ALTER TABLE sgc.subprocesso ADD (versao NUMBER DEFAULT 0 NOT NULL);
+COMMENT
+    ON COLUMN sgc.subprocesso.versao IS 'Contador de alterações do subprocesso, incrementado a cada update.';
+
+ALTER TABLE sgc.mapa ADD (versao NUMBER DEFAULT 0 NOT NULL);
+COMMENT
+    ON COLUMN sgc.mapa.versao IS 'Contador de alterações do mapa e de seus itens, usado como ETag do mapa completo.';
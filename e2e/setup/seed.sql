@@ -795,41 +795,15 @@ VALUES (2, 302, 'MAPA_DISPONIBILIZADO', 'SECAO_321', NULL, 'chefe_sec3@tre-pe.ju
         'seed-302-mapa-disponibilizado-falha-definitiva');
 
 
--- Reset identity sequences to prevent ID conflicts with test data
+-- Reset primary key sequences to prevent ID conflicts with test data
 -- This ensures auto-generated IDs start above the manually inserted ones
-ALTER TABLE sgc.processo
-    ALTER
-        COLUMN codigo RESTART
-        WITH 400;
-ALTER TABLE sgc.subprocesso
-    ALTER
-        COLUMN codigo RESTART
-        WITH 400;
-ALTER TABLE sgc.mapa
-    ALTER
-        COLUMN codigo RESTART
-        WITH 400;
-ALTER TABLE sgc.atividade
-    ALTER
-        COLUMN codigo RESTART
-        WITH 4000;
-ALTER TABLE sgc.conhecimento
-    ALTER
-        COLUMN codigo RESTART
-        WITH 400000;
-ALTER TABLE sgc.competencia
-    ALTER
-        COLUMN codigo RESTART
-        WITH 4000;
-ALTER TABLE sgc.movimentacao
-    ALTER
-        COLUMN codigo RESTART
-        WITH 50;
-ALTER TABLE sgc.alerta
-    ALTER
-        COLUMN codigo RESTART
-        WITH 10;
-ALTER TABLE sgc.notificacao_email
-    ALTER
-        COLUMN codigo RESTART
-        WITH 10;
+ALTER SEQUENCE sgc.processo_seq RESTART WITH 400;
+ALTER SEQUENCE sgc.subprocesso_seq RESTART WITH 400;
+ALTER SEQUENCE sgc.mapa_seq RESTART WITH 400;
+ALTER SEQUENCE sgc.atividade_seq RESTART WITH 4000;
+ALTER SEQUENCE sgc.conhecimento_seq RESTART WITH 400000;
+ALTER SEQUENCE sgc.competencia_seq RESTART WITH 4000;
+ALTER SEQUENCE sgc.movimentacao_seq RESTART WITH 50;
+ALTER SEQUENCE sgc.alerta_seq RESTART WITH 10;
+ALTER SEQUENCE sgc.notificacao_email_seq RESTART WITH 10;
+ALTER SEQUENCE sgc.configuracao_seq RESTART WITH 10;
@@ -1,7 +1,9 @@
 import {afterEach, beforeEach, describe, expect, it, vi} from 'vitest';
 import {useCacheSync} from '../useCacheSync';
 
+import {nextTick} from 'vue';
 import {usePainelStore} from '@/stores/painel';
+import {usePerfilStore} from '@/stores/perfil';
 import {useSubprocessoStore} from '@/stores/subprocesso';
 import {logger} from '@/utils';
 import {criarPiniaDeTeste} from '@/test-utils/storeTestHelpers';
@@ -9,6 +11,7 @@ import {criarPiniaDeTeste} from '@/test-utils/storeTestHelpers';
 const invalidateQueriesMock = vi.fn();
 const setQueryDataMock = vi.fn();
 const getQueryDataMock = vi.fn();
+const getEntriesMock = vi.fn(() => [] as any[]);
 
 vi.mock('@pinia/colada', async (importOriginal) => {
     const actual = await importOriginal<typeof import('@pinia/colada')>();
@@ -17,6 +20,7 @@ vi.mock('@pinia/colada', async (importOriginal) => {
         useQueryCache: () => ({
             ...actual.useQueryCache(),
             getQueryData: getQueryDataMock,
+            getEntries: getEntriesMock,
             invalidateQueries: invalidateQueriesMock,
             setQueryData: setQueryDataMock,
         }),
@@ -72,6 +76,8 @@ describe('useCacheSync', () => {
     let subprocessoStore: any;
 
     beforeEach(() => {
+        localStorage.clear();
+        sessionStorage.clear();
         criarPiniaDeTeste();
         painelStore = usePainelStore();
         subprocessoStore = useSubprocessoStore();
@@ -84,6 +90,8 @@ describe('useCacheSync', () => {
         invalidateQueriesMock.mockReset();
         setQueryDataMock.mockReset();
         getQueryDataMock.mockReset();
+        getEntriesMock.mockReset();
+        getEntriesMock.mockReturnValue([]);
     });
 
     afterEach(() => {
@@ -110,6 +118,55 @@ describe('useCacheSync', () => {
         expect(subprocessoStore.invalidar).not.toHaveBeenCalled();
     });
 
+    it('deve inserir no painel em cache do perfil e unidade ativos o alerta recebido pelo evento alerta-criado', () => {
+        const perfilStore = usePerfilStore();
+        perfilStore.usuarioCodigo = 'u1';
+        perfilStore.perfilSelecionado = 'GESTOR' as any;
+        perfilStore.unidadeSelecionada = 10;
+        const chave = ['painel', 'u1', 'GESTOR', 10, 0];
+        const existente = {codigo: 1, descricao: 'Antigo'};
+        getEntriesMock.mockReturnValue([{key: chave, state: {value: {data: {processos: [], alertas: [existente]}}}}]);
+        fechamentosPendentes.push(useCacheSync());
+
+        lastInstance?.emit('alerta-criado', JSON.stringify({codigo: 2, descricao: 'Novo'}));
+        lastInstance?.emit('alerta-criado', JSON.stringify({codigo: 1, descricao: 'Antigo'}));
+
+        expect(getEntriesMock).toHaveBeenCalledWith({key: ['painel', 'u1', 'GESTOR', 10]});
+        expect(setQueryDataMock).toHaveBeenCalledTimes(1);
+        expect(setQueryDataMock).toHaveBeenCalledWith(chave, {
+            processos: [],
+            alertas: [{codigo: 2, descricao: 'Novo'}, existente],
+        });
+    });
+
+    it('deve refazer a conexao quando o perfil ou a unidade selecionados mudarem', async () => {
+        const perfilStore = usePerfilStore();
+        perfilStore.perfilSelecionado = 'GESTOR' as any;
+        perfilStore.unidadeSelecionada = 10;
+        fechamentosPendentes.push(useCacheSync());
+        const primeiraInstancia = lastInstance;
+
+        perfilStore.unidadeSelecionada = 20;
+        await nextTick();
+
+        expect(primeiraInstancia?.close).toHaveBeenCalled();
+        expect(instanciasCriadas).toHaveLength(2);
+        expect(lastInstance).not.toBe(primeiraInstancia);
+    });
+
+    it('nao deve reabrir a conexao quando a sessao for encerrada', async () => {
+        const perfilStore = usePerfilStore();
+        perfilStore.perfilSelecionado = 'GESTOR' as any;
+        fechamentosPendentes.push(useCacheSync());
+        const primeiraInstancia = lastInstance;
+
+        perfilStore.perfilSelecionado = null;
+        await nextTick();
+
+        expect(primeiraInstancia?.close).toHaveBeenCalled();
+        expect(instanciasCriadas).toHaveLength(1);
+    });
+
     it('deve preservar caches críticos e limpar marcações locais do painel ao invalidar por SSE organizacional', async () => {
         subprocessoStore.contextoEdicao = {detalhes: {codigo: 200, situacao: 'MAPA'}} as any;
         painelStore.registrarLeitura([2]);
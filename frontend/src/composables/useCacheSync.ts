@@ -1,7 +1,12 @@
+import {watch} from "vue";
 import {useInvalidacaoNavegacao} from "@/composables/useInvalidacaoNavegacao";
+import {useAlertasTempoRealPainel} from "@/composables/usePainelQuery";
+import {usePerfilStore} from "@/stores/perfil";
 import {logger} from "@/utils";
+import type {Alerta} from "@/types/tipos";
 
 const EVENTO_CACHE_ATUALIZADO = "org-cache-refreshed";
+const EVENTO_ALERTA_CRIADO = "alerta-criado";
 
 /**
  * Composable que mantém uma conexão SSE com o backend para receber notificações
@@ -9,12 +14,20 @@ const EVENTO_CACHE_ATUALIZADO = "org-cache-refreshed";
  *
  * Ao receber o evento "org-cache-refreshed", invalida os stores Pinia que
  * dependem de dados das views organizacionais, forçando recarga na próxima consulta.
+ * Ao receber "alerta-criado" (enviado só ao usuário ou à unidade destinatária), insere
+ * o alerta no painel em cache, dispensando recarregar o painel para ver alertas novos.
+ *
+ * O backend associa a conexão à unidade ativa no momento em que ela é aberta; por isso a conexão
+ * é refeita sempre que o perfil ou a unidade selecionados mudam.
  *
  * Deve ser chamado uma vez em App.vue após a autenticação do usuário.
  */
 export function useCacheSync() {
     const {atualizarDadosOrganizacionais} = useInvalidacaoNavegacao();
+    const {adicionarAlerta} = useAlertasTempoRealPainel();
+    const perfilStore = usePerfilStore();
     const sincronizarMudancaOrganizacional = () => atualizarDadosOrganizacionais();
+    const receberAlerta = (event: MessageEvent<string>) => adicionarAlerta(JSON.parse(event.data) as Alerta);
     let encerradoManualmente = false;
     let source: EventSource | null = null;
     const aoDarErro = (event: Event) => {
@@ -36,6 +49,7 @@ export function useCacheSync() {
         }
         source = new EventSource("/api/eventos");
         source.addEventListener(EVENTO_CACHE_ATUALIZADO, sincronizarMudancaOrganizacional);
+        source.addEventListener(EVENTO_ALERTA_CRIADO, receberAlerta);
         source.addEventListener("error", aoDarErro);
     };
     const aoOcultarPagina = () => {
@@ -45,12 +59,25 @@ export function useCacheSync() {
         desconectar();
     };
     conectar();
+    const pararObservacaoContexto = watch(
+        () => [perfilStore.perfilSelecionado, perfilStore.unidadeSelecionada],
+        ([perfil]) => {
+            if (encerradoManualmente) {
+                return;
+            }
+            desconectar();
+            if (perfil) {
+                conectar();
+            }
+        },
+    );
     globalThis.window?.addEventListener("pagehide", aoOcultarPagina);
     globalThis.window?.addEventListener("beforeunload", aoOcultarPagina);
     globalThis.window?.addEventListener("pageshow", conectar);
 
     return () => {
         encerradoManualmente = true;
+        pararObservacaoContexto();
         globalThis.window?.removeEventListener("pagehide", aoOcultarPagina);
         globalThis.window?.removeEventListener("beforeunload", aoOcultarPagina);
         globalThis.window?.removeEventListener("pageshow", conectar);
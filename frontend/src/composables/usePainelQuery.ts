@@ -5,18 +5,27 @@ import {STALE_TIME_CONTROLADO_POR_INVALIDACAO} from "@/composables/cachePolicy";
 import {usePerfilStore} from "@/stores/perfil";
 import {usePainelStore} from "@/stores/painel";
 import {obterBootstrap} from "@/services/painelService";
-import type {PainelBootstrap} from "@/types/tipos";
+import type {Alerta, PainelBootstrap} from "@/types/tipos";
 
 export const CHAVE_QUERY_PAINEL = ["painel"] as const;
 
-export function usePainelQuery() {
-    const perfilStore = usePerfilStore();
-    const painelStore = usePainelStore();
-    const chave = computed(() => [
+/**
+ * Prefixo da chave do painel para o usuário, perfil e unidade ativos; a versão de invalidação vem depois.
+ */
+function chaveContextoPainel(perfilStore: ReturnType<typeof usePerfilStore>) {
+    return [
         ...CHAVE_QUERY_PAINEL,
         perfilStore.usuarioCodigo ?? "anon",
         perfilStore.perfilSelecionado ?? "sem-perfil",
         perfilStore.unidadeSelecionada ?? "sem-unidade",
+    ] as const;
+}
+
+export function usePainelQuery() {
+    const perfilStore = usePerfilStore();
+    const painelStore = usePainelStore();
+    const chave = computed(() => [
+        ...chaveContextoPainel(perfilStore),
         painelStore.versaoInvalidacao,
     ] as const);
 
@@ -33,3 +42,25 @@ export function useInvalidacaoPainel() {
         invalidarPainel: () => useQueryCache().invalidateQueries({key: CHAVE_QUERY_PAINEL}),
     };
 }
+
+/**
+ * Insere no topo do painel em cache um alerta recebido por SSE, sem recarregar o bootstrap.
+ *
+ * Só o painel do perfil e da unidade ativos é atualizado: o alerta foi enviado ao canal da unidade ativa
+ * na conexão, e os painéis em cache de outros perfis ou unidades não devem recebê-lo.
+ */
+export function useAlertasTempoRealPainel() {
+    const perfilStore = usePerfilStore();
+    return {
+        adicionarAlerta: (alerta: Alerta) => {
+            const cache = useQueryCache();
+            cache.getEntries({key: [...chaveContextoPainel(perfilStore)]}).forEach(entrada => {
+                const painel = entrada.state.value.data as PainelBootstrap | undefined;
+                if (!painel || painel.alertas.some(existente => existente.codigo === alerta.codigo)) {
+                    return;
+                }
+                cache.setQueryData(entrada.key, {...painel, alertas: [alerta, ...painel.alertas]});
+            });
+        },
+    };
+}